@@ -26,7 +26,12 @@ import java.io.InvalidClassException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -44,7 +49,10 @@ import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
-import spoon.support.SerializationModelStreamer;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.snapshot.ModelSnapshotStreamer;
+import spoon.support.util.IdentitySet;
 
 /**
  * Create a Spoon launcher for incremental build
@@ -53,24 +61,82 @@ public class IncrementalLauncher extends Launcher {
 
 	private static class CacheInfo implements Serializable {
 		/** Cache version */
-		public static final long serialVersionUID = 1L; //TODO: Spoon version
-		/** Timestamp of the last model build */
-		public long lastBuildTime;
+		public static final long serialVersionUID = 4L; //TODO: Spoon version
 		/** Map of input source files and corresponding binary files */
 		public Map<File, Set<File>> inputSourcesMap;
+		/** Map of input source files and the size and digest of their content */
+		public Map<File, SourceContent> inputSourcesContent;
+		/** Map of input source files and the qualified names of their top level types */
+		public Map<File, Set<String>> inputSourcesTypes;
+	}
+
+	/** The dependencies between the input source files */
+	private static class Dependencies implements Serializable {
+		private static final long serialVersionUID = 1L;
+		/** Map of input source files and the input source files which refer to their types */
+		public Map<File, Set<File>> dependents = new HashMap<>();
+		/** Map of input source files and the input source files whose types extend or implement their types */
+		public Map<File, Set<File>> subtypes = new HashMap<>();
+	}
+
+	/** The size and the digest of the content of a source file, which tell whether the file changed, whatever its timestamp */
+	private static class SourceContent implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private static final String DIGEST_ALGORITHM = "SHA-256";
+
+		private final long size;
+		private final byte[] digest;
+
+		SourceContent(File file) {
+			byte[] content;
+			try {
+				content = FileUtils.readFileToByteArray(file);
+			} catch (IOException e) {
+				throw new SpoonException("unable to read input source file: " + file);
+			}
+			size = content.length;
+			try {
+				digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+			} catch (NoSuchAlgorithmException e) {
+				throw new SpoonException(DIGEST_ALGORITHM + " is not available", e);
+			}
+		}
+
+		/** Returns true if file has the size of this content. Its digest is then compared to know whether it changed. */
+		boolean hasSizeOf(File file) {
+			return file.length() == size;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof SourceContent)) {
+				return false;
+			}
+			SourceContent other = (SourceContent) o;
+			return size == other.size && Arrays.equals(digest, other.digest);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(digest);
+		}
 	}
 
 	private final Set<File> mInputSources;
 	private final File mIncrementalCacheDirectory;
 	private final File mModelFile;
 	private final File mCacheInfoFile;
+	private final File mDependenciesFile;
 	private final File mClassFilesDir;
 	private final boolean mChangesPresent;
 	private Set<String> mSourceClasspath;
 	private Set<File> mRemovedSources = new HashSet<>();
 	private Set<File> mAddedSources = new HashSet<>();
 	private Set<File> mCommonSources = new HashSet<>();
+	private Set<File> mBuiltSources = new HashSet<>();
+	private Map<File, SourceContent> mSourcesContent = new HashMap<>();
 	private CacheInfo mCacheInfo = null;
+	private Dependencies mDependencies = null;
 
 	private static CacheInfo loadCacheInfo(File file) throws InvalidClassException {
 		try (FileInputStream fileStream = new FileInputStream(file);
@@ -93,9 +159,28 @@ public class IncrementalLauncher extends Launcher {
 		}
 	}
 
+	private static Dependencies loadDependencies(File file) {
+		try (FileInputStream fileStream = new FileInputStream(file);
+			ObjectInputStream objectStream = new ObjectInputStream(new BufferedInputStream(fileStream))) {
+			return (Dependencies) objectStream.readObject();
+		} catch (ClassNotFoundException | ClassCastException | IOException e) {
+			throw new SpoonException("unable to load dependencies");
+		}
+	}
+
+	private static void saveDependencies(Dependencies dependencies, File file) {
+		try (FileOutputStream fileStream = new FileOutputStream(file);
+			ObjectOutputStream objectStream = new ObjectOutputStream(new BufferedOutputStream(fileStream))) {
+			objectStream.writeObject(dependencies);
+			objectStream.flush();
+		} catch (IOException e) {
+			throw new SpoonException("unable to save dependencies");
+		}
+	}
+
 	private static Factory loadFactory(File file) {
 		try {
-			return new SerializationModelStreamer().load(new FileInputStream(file));
+			return new ModelSnapshotStreamer().loadLazily(new FileInputStream(file));
 		} catch (IOException e) {
 			throw new SpoonException("unable to load factory from cache");
 		}
@@ -103,7 +188,7 @@ public class IncrementalLauncher extends Launcher {
 
 	private static void saveFactory(Factory factory, File file) {
 		try {
-			new SerializationModelStreamer().save(factory, new FileOutputStream(file));
+			new ModelSnapshotStreamer().save(factory, new FileOutputStream(file));
 		} catch (IOException e) {
 			throw new SpoonException("unable to save factory");
 		}
@@ -151,13 +236,15 @@ public class IncrementalLauncher extends Launcher {
 		mIncrementalCacheDirectory = cacheDirectory;
 		mModelFile = new File(cacheDirectory, "model");
 		mCacheInfoFile = new File(cacheDirectory, "cache-info");
+		mDependenciesFile = new File(cacheDirectory, "dependencies");
 		mClassFilesDir = new File(cacheDirectory, "class-files");
 
-		if (!mIncrementalCacheDirectory.exists() || !mModelFile.exists() || !mCacheInfoFile.exists() || !mClassFilesDir.exists()) {
+		if (!mIncrementalCacheDirectory.exists() || !mModelFile.exists() || !mCacheInfoFile.exists() || !mDependenciesFile.exists() || !mClassFilesDir.exists()) {
 			forceRebuild = true;
 		} else {
 			try {
 				mCacheInfo = loadCacheInfo(mCacheInfoFile);
+				mDependencies = loadDependencies(mDependenciesFile);
 			} catch (InvalidClassException | SpoonException e) {
 				// Incompatible cache version or unable to load cache. So force rebuild.
 				forceRebuild = true;
@@ -178,6 +265,8 @@ public class IncrementalLauncher extends Launcher {
 			processArguments();
 			mInputSources.forEach(f -> addInputResource(f.getPath()));
 			mChangesPresent = true;
+			mBuiltSources = mInputSources;
+			mDependencies = null;
 			setBinaryOutputDirectory(mClassFilesDir);
 		} else {
 			// Load model from cache.
@@ -188,33 +277,44 @@ public class IncrementalLauncher extends Launcher {
 			mAddedSources = new HashSet<File>(CollectionUtils.subtract(mInputSources, mCacheInfo.inputSourcesMap.keySet()));
 			mCommonSources = new HashSet<File>(CollectionUtils.intersection(mCacheInfo.inputSourcesMap.keySet(), mInputSources));
 
+			// Timestamps are not reliable (checkout, cache restore), so the content of the sources is compared.
+			// A source whose size changed is not read.
 			Set<File> incrementalSources = new HashSet<>(mAddedSources);
 			for (File e : mCommonSources) {
-				if (e.lastModified() >= mCacheInfo.lastBuildTime) {
+				SourceContent content = mCacheInfo.inputSourcesContent.get(e);
+				if (content == null || !content.hasSizeOf(e) || !getSourceContent(e).equals(content)) {
 					incrementalSources.add(e);
 				}
 			}
 
-			List<CtType<?>> oldTypes = oldFactory.Type().getAll();
-
-			Set<CtType<?>> changedTypes = new HashSet<>();
-			for (CtType<?> type : oldTypes) {
-				File typeFile = type.getPosition().getFile();
-				if (incrementalSources.contains(typeFile)) {
-					changedTypes.add(type);
+			// We should also rebuild types, that refer to changed types or to their subtypes:
+			// a type inherits the members of a changed type through its super types, which may not refer to it.
+			Set<File> changedHierarchies = new HashSet<>(incrementalSources);
+			List<File> pendingSources = new ArrayList<>(incrementalSources);
+			while (!pendingSources.isEmpty()) {
+				File e = pendingSources.remove(pendingSources.size() - 1);
+				for (File subtype : mDependencies.subtypes.getOrDefault(e, Collections.emptySet())) {
+					if (changedHierarchies.add(subtype)) {
+						pendingSources.add(subtype);
+					}
 				}
 			}
-
-			for (CtType<?> type : oldTypes) {
-				File typeFile = type.getPosition().getFile();
-				if (mRemovedSources.contains(typeFile)) {
-					type.delete();
-					continue;
-				}
-				for (CtType<?> changedType : changedTypes) {
-					// We should also rebuild types, that refer to changed types.
-					if (type.getReferencedTypes().contains(changedType.getReference())) {
-						incrementalSources.add(typeFile);
+			Set<File> dependentSources = new HashSet<>(changedHierarchies);
+			for (File e : changedHierarchies) {
+				dependentSources.addAll(mDependencies.dependents.getOrDefault(e, Collections.emptySet()));
+			}
+			dependentSources.removeAll(mRemovedSources);
+			incrementalSources.addAll(dependentSources);
+
+			// The model is loaded lazily: only the types of the removed and changed sources are loaded, to be deleted.
+			Set<File> deletedSources = new HashSet<>(mRemovedSources);
+			deletedSources.addAll(incrementalSources);
+			Set<CtPackage> changedPackages = new IdentitySet<>();
+			for (File e : deletedSources) {
+				for (String typeName : mCacheInfo.inputSourcesTypes.getOrDefault(e, Collections.emptySet())) {
+					CtType<?> type = oldFactory.Type().get(typeName);
+					if (type != null) {
+						changedPackages.add(type.getPackage());
 						type.delete();
 					}
 				}
@@ -226,8 +326,7 @@ public class IncrementalLauncher extends Launcher {
 				throw new SpoonException("unable to locate class files dir: " + mClassFilesDir);
 			}
 
-			Collection<CtPackage> oldPackages = oldFactory.Package().getAll();
-			for (CtPackage pkg : oldPackages) {
+			for (CtPackage pkg : changedPackages) {
 				if (pkg.getTypes().isEmpty() && pkg.getPackages().isEmpty() && !pkg.isUnnamedPackage()) {
 					pkg.delete();
 				}
@@ -237,6 +336,7 @@ public class IncrementalLauncher extends Launcher {
 			processArguments();
 			incrementalSources.forEach(f ->  addInputResource(f.getPath()));
 			mChangesPresent = !mRemovedSources.isEmpty() || !mAddedSources.isEmpty() || !incrementalSources.isEmpty();
+			mBuiltSources = incrementalSources;
 			setBinaryOutputDirectory(mClassFilesDir);
 		}
 
@@ -276,7 +376,6 @@ public class IncrementalLauncher extends Launcher {
 		saveFactory(factory, mModelFile);
 
 		CacheInfo newCacheInfo = new CacheInfo();
-		newCacheInfo.lastBuildTime = System.currentTimeMillis();
 		Map<File, Set<File>> newSourcesMap = new HashMap<>();
 		for (Entry<String, CompilationUnit> e : factory.CompilationUnit().getMap().entrySet()) {
 			newSourcesMap.put(new File(e.getKey()), new HashSet<File>(e.getValue().getBinaryFiles()));
@@ -297,6 +396,87 @@ public class IncrementalLauncher extends Launcher {
 			.forEach(FileUtils::deleteQuietly);
 
 		newCacheInfo.inputSourcesMap = newSourcesMap;
+		newCacheInfo.inputSourcesContent = new HashMap<>();
+		for (File e : mInputSources) {
+			newCacheInfo.inputSourcesContent.put(e, getSourceContent(e));
+		}
+		newCacheInfo.inputSourcesTypes = new HashMap<>();
+		for (CtType<?> type : factory.Type().getAll()) {
+			File typeFile = type.getPosition().getFile();
+			if (typeFile != null) {
+				newCacheInfo.inputSourcesTypes.computeIfAbsent(typeFile, f -> new HashSet<>()).add(type.getQualifiedName());
+			}
+		}
 		saveCacheInfo(newCacheInfo, mCacheInfoFile);
+		saveDependencies(getDependencies(factory), mDependenciesFile);
+	}
+
+	/** Returns the size and the digest of the content of an input source file, which are computed once per launcher. */
+	private SourceContent getSourceContent(File file) {
+		return mSourcesContent.computeIfAbsent(file, SourceContent::new);
+	}
+
+	/**
+	 * Returns the index of the input source files which refer to the types of each input source file,
+	 * and of the input source files whose types extend or implement the types of each input source file.
+	 * The references of the types loaded from the cache did not change, so only the types built by this launcher are scanned.
+	 */
+	private Dependencies getDependencies(Factory factory) {
+		Dependencies dependencies = new Dependencies();
+		if (mDependencies != null) {
+			copyUnchanged(mDependencies.dependents, dependencies.dependents);
+			copyUnchanged(mDependencies.subtypes, dependencies.subtypes);
+		}
+
+		List<CtType<?>> types = factory.Type().getAll();
+		Map<String, File> sourcesByType = new HashMap<>();
+		for (CtType<?> type : types) {
+			File typeFile = type.getPosition().getFile();
+			if (typeFile != null) {
+				sourcesByType.put(type.getQualifiedName(), typeFile);
+			}
+		}
+		for (CtType<?> type : types) {
+			File typeFile = type.getPosition().getFile();
+			if (typeFile == null || !mBuiltSources.contains(typeFile)) {
+				continue;
+			}
+			for (CtTypeReference<?> reference : type.getReferencedTypes()) {
+				addDependency(dependencies.dependents, sourcesByType, reference, typeFile);
+			}
+			for (CtType<?> subtype : type.getElements(new TypeFilter<CtType<?>>(CtType.class))) {
+				addDependency(dependencies.subtypes, sourcesByType, subtype.getSuperclass(), typeFile);
+				for (CtTypeReference<?> superInterface : subtype.getSuperInterfaces()) {
+					addDependency(dependencies.subtypes, sourcesByType, superInterface, typeFile);
+				}
+			}
+		}
+		return dependencies;
+	}
+
+	/** Copies the entries of the given index, without the removed sources and the sources built by this launcher, which are scanned again */
+	private void copyUnchanged(Map<File, Set<File>> index, Map<File, Set<File>> copy) {
+		for (Entry<File, Set<File>> e : index.entrySet()) {
+			if (mRemovedSources.contains(e.getKey())) {
+				continue;
+			}
+			Set<File> files = new HashSet<>(e.getValue());
+			files.removeAll(mRemovedSources);
+			files.removeAll(mBuiltSources);
+			if (!files.isEmpty()) {
+				copy.put(e.getKey(), files);
+			}
+		}
+	}
+
+	/** Records that the given source file depends on the input source file of the given type, if it is another one */
+	private static void addDependency(Map<File, Set<File>> index, Map<String, File> sourcesByType, CtTypeReference<?> reference, File typeFile) {
+		if (reference == null) {
+			return;
+		}
+		File referencedFile = sourcesByType.get(reference.getTopLevelType().getQualifiedName());
+		if (referencedFile != null && !referencedFile.equals(typeFile)) {
+			index.computeIfAbsent(referencedFile, f -> new HashSet<>()).add(typeFile);
+		}
 	}
 }
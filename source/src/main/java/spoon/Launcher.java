@@ -619,7 +619,7 @@ public class Launcher implements SpoonAPI {
 	}
 
 	public JavaOutputProcessor createOutputWriter() {
-		JavaOutputProcessor outputProcessor = new JavaOutputProcessor(createPrettyPrinter());
+		JavaOutputProcessor outputProcessor = new JavaOutputProcessor(this::createPrettyPrinter);
 		outputProcessor.setFactory(this.getFactory());
 		return outputProcessor;
 	}
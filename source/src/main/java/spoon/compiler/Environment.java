@@ -402,4 +402,33 @@ public interface Environment {
 	SpoonProgress getSpoonProgress();
 
 	void setSpoonProgress(SpoonProgress spoonProgress);
+
+	/**
+	 * Gets the number of threads which build the Spoon model of the compilation units, see {@link #setModelBuildingThreads(int)}.
+	 */
+	int getModelBuildingThreads();
+
+	/**
+	 * Sets the number of threads which build the Spoon model of the compilation units from their JDT trees.
+	 * With 1, the default, the units are built one after the other. With more threads, the units are built
+	 * in parallel and their top-level types are then added to the model in the order of the sequential build,
+	 * so that the model is the same. The units which need the rest of the model to be built, like package-info
+	 * and module-info, are still built sequentially. The {@link FineModelChangeListener} is then notified
+	 * by several threads.
+	 */
+	void setModelBuildingThreads(int threads);
+
+	/**
+	 * Gets the number of threads which print the source files of the model, see {@link #setPrintingThreads(int)}.
+	 */
+	int getPrintingThreads();
+
+	/**
+	 * Sets the number of threads on which the default {@link spoon.support.JavaOutputProcessor} prints the top-level types.
+	 * With 1, the default, the types are printed one after the other. With more threads, each thread prints with its own
+	 * pretty-printer and the files are the same as the ones printed sequentially. The pretty-printer may make implicit
+	 * elements explicit while printing, so the types are printed sequentially when a {@link FineModelChangeListener}
+	 * is installed, see {@link #setModelChangeListener(FineModelChangeListener)}.
+	 */
+	void setPrintingThreads(int threads);
 }
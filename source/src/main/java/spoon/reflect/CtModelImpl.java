@@ -28,7 +28,6 @@ import spoon.reflect.visitor.Filter;
 import spoon.reflect.visitor.chain.CtConsumableFunction;
 import spoon.reflect.visitor.chain.CtFunction;
 import spoon.reflect.visitor.chain.CtQuery;
-import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.support.QueueProcessingManager;
 import spoon.support.reflect.declaration.CtPackageImpl;
 
@@ -110,9 +109,30 @@ public class CtModelImpl implements CtModel {
 	}
 
 
+	/**
+	 * The packages are found by walking the package tree of each module:
+	 * unlike a scan of the model, it does not enter the types, so it takes a time
+	 * proportional to the number of packages, and it is always in sync with the model.
+	 * The packages are returned in the order of a scan of the model.
+	 */
 	@Override
 	public Collection<CtPackage> getAllPackages() {
-		return Collections.unmodifiableCollection(getElements(new TypeFilter<>(CtPackage.class)));
+		List<CtPackage> packages = new ArrayList<>();
+		for (CtModule module : getAllModules()) {
+			addPackages(packages, module.getRootPackage());
+		}
+		return Collections.unmodifiableCollection(packages);
+	}
+
+	/** adds `ctPackage` and all its sub packages to `packages` */
+	private static void addPackages(List<CtPackage> packages, CtPackage ctPackage) {
+		if (ctPackage == null) {
+			return;
+		}
+		packages.add(ctPackage);
+		for (CtPackage subPackage : ctPackage.getPackages()) {
+			addPackages(packages, subPackage);
+		}
 	}
 
 	@Override
@@ -22,6 +22,7 @@ import spoon.reflect.declaration.CtModule;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.support.compiler.jdt.JDTSnippetCompiler;
+import spoon.support.reflect.cu.SourceStore;
 
 import java.io.File;
 import java.io.IOException;
@@ -42,6 +43,15 @@ public class CompilationUnitFactory extends SubFactory {
 
 	private transient Map<String, CompilationUnit> cachedCompilationUnits = new TreeMap<>();
 
+	private final transient SourceStore sourceStore = new SourceStore();
+
+	/**
+	 * @return the store of the original source code of the compilation units
+	 */
+	public SourceStore getSourceStore() {
+		return sourceStore;
+	}
+
 	/**
 	 * Gets the compilation unit map.
 	 *
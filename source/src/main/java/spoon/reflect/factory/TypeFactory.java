@@ -24,6 +24,7 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtFormalTypeDeclarer;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtModule;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtTypeParameter;
@@ -39,6 +40,8 @@ import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.support.DefaultCoreFactory;
 import spoon.support.SpoonClassNotFoundException;
 import spoon.support.StandardEnvironment;
+import spoon.support.reflect.declaration.CtModuleImpl;
+import spoon.support.reflect.declaration.CtPackageImpl;
 import spoon.support.visitor.ClassTypingContext;
 import spoon.support.visitor.GenericTypeAdapter;
 import spoon.support.visitor.MethodTypingContext;
@@ -56,6 +59,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static spoon.testing.utils.ModelUtils.createFactory;
 
@@ -99,7 +104,98 @@ public class TypeFactory extends SubFactory {
 	public final CtTypeReference<Map> MAP = createReference(Map.class);
 	public final CtTypeReference<Enum> ENUM = createReference(Enum.class);
 
-	private final Map<Class<?>, CtType<?>> shadowCache = new HashMap<>();
+	private final Map<Class<?>, CtType<?>> shadowCache = new ConcurrentHashMap<>();
+
+	private final QualifiedNameIndex qualifiedNameIndex = new QualifiedNameIndex();
+
+	/**
+	 * Index of the types of the packages of the model, with their nested types, by qualified name.
+	 * It is dropped when a package, a module or a type of the model changes, see {@link CtModuleImpl#getTypeChangeCount()}.
+	 * The index is then built again when it has been asked for {@link #LOOKUPS_BEFORE_INDEXING} times
+	 * since the last change, so that a sequence of changes and lookups, like the building of the model,
+	 * does not build it each time.
+	 * It is not used while the types of the model are loaded on demand, see {@link CtPackageImpl#getTypeLoader()}.
+	 */
+	private class QualifiedNameIndex {
+		/**
+		 * A lookup without the index goes down the packages and scans the types of one package,
+		 * whereas building the index scans all the types of the model.
+		 * While the model is being built, types are added between a few lookups, so the index is only built
+		 * after this number of lookups without a change of the types. The value is a rough bound, it has not been tuned.
+		 */
+		private static final int LOOKUPS_BEFORE_INDEXING = 32;
+
+		// the index may be read by the threads which print the model, see Environment#setPrintingThreads
+		private volatile IndexState state = new IndexState(-1);
+
+		/**
+		 * @return the index, or null if it cannot be used
+		 */
+		Map<String, CtType<?>> getIndex() {
+			CtModule unnamedModule = factory.getModel().getUnnamedModule();
+			CtPackage rootPackage = unnamedModule.getRootPackage();
+			if (rootPackage instanceof CtPackageImpl && ((CtPackageImpl) rootPackage).getTypeLoader() != null) {
+				// the types are loaded on demand, indexing them would load them all
+				return null;
+			}
+			if (!(unnamedModule instanceof CtModuleImpl)) {
+				return null;
+			}
+			int typeChangeCount = ((CtModuleImpl) unnamedModule).getTypeChangeCount();
+			IndexState state = this.state;
+			if (state.typeChangeCount != typeChangeCount) {
+				state = new IndexState(typeChangeCount);
+				this.state = state;
+			}
+			Map<String, CtType<?>> index = state.index;
+			if (index == null) {
+				if (state.lookups.incrementAndGet() < LOOKUPS_BEFORE_INDEXING) {
+					return null;
+				}
+				index = createIndex(rootPackage);
+				state.index = index;
+			}
+			return index;
+		}
+
+		private Map<String, CtType<?>> createIndex(CtPackage rootPackage) {
+			Map<String, CtType<?>> types = new HashMap<>();
+			for (CtPackage pack : getPackages(rootPackage, new ArrayList<>())) {
+				for (CtType<?> type : pack.getTypes()) {
+					addType(types, type);
+				}
+			}
+			return types;
+		}
+
+		private List<CtPackage> getPackages(CtPackage pack, List<CtPackage> packages) {
+			packages.add(pack);
+			for (CtPackage subPackage : pack.getPackages()) {
+				getPackages(subPackage, packages);
+			}
+			return packages;
+		}
+
+		private void addType(Map<String, CtType<?>> types, CtType<?> type) {
+			types.putIfAbsent(type.getQualifiedName(), type);
+			for (CtType<?> nestedType : type.getNestedTypes()) {
+				addType(types, nestedType);
+			}
+		}
+	}
+
+	/**
+	 * The index of the types, and the lookups made without it, since the last change of the types of the model
+	 */
+	private static final class IndexState {
+		private final int typeChangeCount;
+		private final AtomicInteger lookups = new AtomicInteger();
+		private volatile Map<String, CtType<?>> index;
+
+		IndexState(int typeChangeCount) {
+			this.typeChangeCount = typeChangeCount;
+		}
+	}
 
 	/**
 	 * Returns a reference on the null type (type of null).
@@ -432,6 +528,14 @@ public class TypeFactory extends SubFactory {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> CtType<T> get(final String qualifiedName) {
+		Map<String, CtType<?>> index = qualifiedNameIndex.getIndex();
+		if (index != null) {
+			CtType<?> type = index.get(qualifiedName);
+			// local and anonymous types are not indexed
+			if (type != null || !qualifiedName.contains(CtType.INNERTTYPE_SEPARATOR)) {
+				return (CtType<T>) type;
+			}
+		}
 		int packageIndex = qualifiedName.lastIndexOf(CtPackage.PACKAGE_SEPARATOR);
 		CtPackage pack;
 		if (packageIndex > 0) {
@@ -552,8 +656,9 @@ public class TypeFactory extends SubFactory {
 						}
 					}
 				});
-				this.shadowCache.put(cl, newShadowClass);
-				return newShadowClass;
+				// another thread may have built the same shadow class meanwhile
+				final CtType<T> cachedShadowClass = (CtType<T>) this.shadowCache.putIfAbsent(cl, newShadowClass);
+				return cachedShadowClass == null ? newShadowClass : cachedShadowClass;
 			} else {
 				return shadowClass;
 			}
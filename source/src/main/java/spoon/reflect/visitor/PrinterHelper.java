@@ -16,20 +16,35 @@
  */
 package spoon.reflect.visitor;
 
+import spoon.SpoonException;
 import spoon.compiler.Environment;
 import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtElement;
 import spoon.support.reflect.cu.position.PartialSourcePositionImpl;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Supports configurable printing of text with indentations and line and column counting
+ * Supports configurable printing of text with indentations and line and column counting.
+ * The text is kept in a buffer, or it is written to an output while it is printed, see {@link #PrinterHelper(Environment, Appendable)}.
  */
 public class PrinterHelper {
+	/**
+	 * The number of characters which are buffered before they are written to the output
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The value of a printed line which is not mapped to a line of the original source code
+	 */
+	private static final int UNMAPPED_LINE = Integer.MIN_VALUE;
+
 	/**
 	 * Line separator which is used by the printer helper.
 	 * By default the system line separator is used
@@ -44,7 +59,22 @@ public class PrinterHelper {
 	/**
 	 * The string buffer in which the code is generated.
 	 */
-	private final StringBuffer sbf = new StringBuffer();
+	private final StringBuilder sbf = new StringBuilder();
+
+	/**
+	 * The output to which the generated code is written, null if the whole code is kept in {@link #sbf}
+	 */
+	private final Appendable output;
+
+	/**
+	 * The characters copied from {@link #sbf} to an output {@link Writer}
+	 */
+	private char[] chars;
+
+	/**
+	 * The length of {@link #sbf} from which the code is written to the output
+	 */
+	private int flushLength = BUFFER_SIZE;
 
 	/**
 	 * Number of tabs when we print the source code.
@@ -64,9 +94,9 @@ public class PrinterHelper {
 	private int column = 1;
 
 	/**
-	 * Mapping for line numbers.
+	 * Mapping for line numbers: the line of the original source code of each printed line, or {@link #UNMAPPED_LINE}
 	 */
-	private Map<Integer, Integer> lineNumberMapping = new HashMap<>();
+	private int[] lineNumberMapping = createLineNumberMapping(64);
 
 	/*
 	 * each writeln() sets this to true.
@@ -80,7 +110,19 @@ public class PrinterHelper {
 	private boolean lastCharWasCR = false;
 
 	public PrinterHelper(Environment env) {
+		this(env, null);
+	}
+
+	/**
+	 * Creates a printer helper, which writes the code to the given output while it is printed.
+	 * Only the last printed characters are buffered, the ones which {@link #removeLine()} may change,
+	 * and they are written by {@link #flush()}. {@link #toString()} then returns the code which is not written yet.
+	 *
+	 * @param output the output of the code, or null to keep the whole code in the printer helper
+	 */
+	public PrinterHelper(Environment env, Appendable output) {
 		this.env = env;
+		this.output = output;
 	}
 
 	/**
@@ -88,12 +130,12 @@ public class PrinterHelper {
 	 */
 	public void reset() {
 		sbf.setLength(0);
+		flushLength = BUFFER_SIZE;
 		nbTabs = 0;
 		line = 1;
 		column = 1;
 		shouldWriteTabs = true;
-		//create new map, because clients keeps reference to it
-		lineNumberMapping = new HashMap<>();
+		lineNumberMapping = createLineNumberMapping(64);
 	}
 
 	/**
@@ -114,7 +156,7 @@ public class PrinterHelper {
 	 */
 	public PrinterHelper write(char c) {
 		if (c == '\r') {
-			sbf.append(c);
+			append(c);
 			line++;
 			// reset the column index
 			column = 1;
@@ -123,7 +165,7 @@ public class PrinterHelper {
 			return this;
 		}
 		if (c == '\n') {
-			sbf.append(c);
+			append(c);
 			if (lastCharWasCR) {
 				//increment line only once in sequence of \r\n.
 				//last was \r, so nothing to do
@@ -139,7 +181,7 @@ public class PrinterHelper {
 			return this;
 		}
 		autoWriteTabs();
-		sbf.append(c);
+		append(c);
 		column += 1;
 		lastCharWasCR = false;
 		return this;
@@ -161,17 +203,74 @@ public class PrinterHelper {
 	private void writeTabsInternal() {
 		for (int i = 0; i < nbTabs; i++) {
 			if (env.isUsingTabulations()) {
-				sbf.append('\t');
+				append('\t');
 				column += 1;
 			} else {
 				for (int j = 0; j < env.getTabulationSize(); j++) {
-					sbf.append(' ');
+					append(' ');
 					column += 1;
 				}
 			}
 		}
 	}
 
+	private void append(char c) {
+		sbf.append(c);
+		if (output != null && sbf.length() >= flushLength) {
+			// removeLine() may change the trailing white spaces and the character before them,
+			// it does not check the last characters of the length of a line separator
+			int end = sbf.length() - lineSeparator.length() + 1;
+			while (end > 0 && isWhite(sbf.charAt(end - 1))) {
+				end--;
+			}
+			if (end > 1) {
+				writeToOutput(end - 1);
+			}
+			flushLength = sbf.length() + BUFFER_SIZE;
+		}
+	}
+
+	/**
+	 * Writes the first characters of the buffer to the output and removes them from the buffer
+	 */
+	private void writeToOutput(int end) {
+		try {
+			if (output instanceof Writer) {
+				if (chars == null) {
+					chars = new char[BUFFER_SIZE];
+				}
+				for (int start = 0; start < end; start += chars.length) {
+					int length = Math.min(chars.length, end - start);
+					sbf.getChars(start, start + length, chars, 0);
+					((Writer) output).write(chars, 0, length);
+				}
+			} else {
+				output.append(sbf, 0, end);
+			}
+		} catch (IOException e) {
+			throw new SpoonException("Cannot write the printed code", e);
+		}
+		sbf.delete(0, end);
+	}
+
+	/**
+	 * Writes the buffered code to the output, and flushes the output if it is a {@link Writer}.
+	 * Does nothing if the printer helper has no output.
+	 */
+	public PrinterHelper flush() {
+		if (output != null) {
+			writeToOutput(sbf.length());
+			if (output instanceof Writer) {
+				try {
+					((Writer) output).flush();
+				} catch (IOException e) {
+					throw new SpoonException("Cannot write the printed code", e);
+				}
+			}
+		}
+		return this;
+	}
+
 	private void autoWriteTabs() {
 		if (shouldWriteTabs) {
 			writeTabsInternal();
@@ -214,6 +313,7 @@ public class PrinterHelper {
 		String ls = lineSeparator;
 		int i = sbf.length() - ls.length();
 		boolean hasWhite = false;
+		// the code which has been written to the output is not removable, the bounds are the ones of the buffer
 		while (i > 0 && !ls.equals(sbf.substring(i, i + ls.length()))) {
 			if (!isWhite(sbf.charAt(i))) {
 				return false;
@@ -262,7 +362,7 @@ public class PrinterHelper {
 	}
 
 	public void undefineLine() {
-		if (lineNumberMapping.get(line) == null) {
+		if (line >= lineNumberMapping.length || lineNumberMapping[line] == UNMAPPED_LINE) {
 			putLineNumberMapping(0);
 		}
 	}
@@ -279,14 +379,40 @@ public class PrinterHelper {
 		}
 	}
 
+	/**
+	 * Maps the current printed line to the given line of the original source code
+	 */
 	public void putLineNumberMapping(int valueLine) {
-		lineNumberMapping.put(this.line, valueLine);
+		if (line >= lineNumberMapping.length) {
+			int length = lineNumberMapping.length;
+			lineNumberMapping = Arrays.copyOf(lineNumberMapping, Math.max(line + 1, 2 * length));
+			Arrays.fill(lineNumberMapping, length, lineNumberMapping.length, UNMAPPED_LINE);
+		}
+		lineNumberMapping[line] = valueLine;
+	}
+
+	private static int[] createLineNumberMapping(int length) {
+		int[] mapping = new int[length];
+		Arrays.fill(mapping, UNMAPPED_LINE);
+		return mapping;
 	}
 
+	/**
+	 * @return the line of the original source code of the printed lines which are mapped to one
+	 */
 	public Map<Integer, Integer> getLineNumberMapping() {
-		return Collections.unmodifiableMap(lineNumberMapping);
+		Map<Integer, Integer> mapping = new HashMap<>();
+		for (int i = 0; i < lineNumberMapping.length; i++) {
+			if (lineNumberMapping[i] != UNMAPPED_LINE) {
+				mapping.put(i, lineNumberMapping[i]);
+			}
+		}
+		return Collections.unmodifiableMap(mapping);
 	}
 
+	/**
+	 * @return the printed code, or the printed code which is not written yet if the printer helper has an output
+	 */
 	@Override
 	public String toString() {
 		return sbf.toString();
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.reflect.visitor;
+
+import spoon.SpoonException;
+import spoon.compiler.Environment;
+
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Implementation of {@link TokenWriter}, which writes the tokens to an output while they are printed,
+ * instead of keeping the whole printed code in memory.
+ * The last printed characters are buffered, and {@link #flush()} must be called when the printing is done.
+ * {@link PrettyPrinter#getResult()} then only returns the buffered code.
+ *
+ * For example, a type is printed in a file with:
+ * <pre>
+ * DefaultJavaPrettyPrinter printer = new DefaultJavaPrettyPrinter(environment);
+ * try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+ *     StreamingTokenWriter tokenWriter = new StreamingTokenWriter(environment, channel, environment.getEncoding());
+ *     printer.setPrinterTokenWriter(tokenWriter);
+ *     printer.calculate(compilationUnit, types);
+ *     tokenWriter.flush();
+ * }
+ * </pre>
+ */
+public class StreamingTokenWriter extends DefaultTokenWriter {
+
+	/**
+	 * @param output the output of the printed code, it is not flushed unless it is a {@link java.io.Writer}
+	 */
+	public StreamingTokenWriter(Environment env, Appendable output) {
+		super(new PrinterHelper(env, checkOutput(output)));
+	}
+
+	/**
+	 * @param channel the output of the printed code, which is encoded with the given charset,
+	 * the characters which cannot be encoded are replaced
+	 */
+	public StreamingTokenWriter(Environment env, WritableByteChannel channel, Charset charset) {
+		this(env, Channels.newWriter(checkOutput(channel), charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE), -1));
+	}
+
+	private static <T> T checkOutput(T output) {
+		if (output == null) {
+			throw new SpoonException("The output of the printed code is null");
+		}
+		return output;
+	}
+
+	/**
+	 * Writes the buffered code to the output.
+	 */
+	public StreamingTokenWriter flush() {
+		getPrinterHelper().flush();
+		return this;
+	}
+}
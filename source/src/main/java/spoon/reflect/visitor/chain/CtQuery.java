@@ -65,6 +65,30 @@ public interface CtQuery extends CtQueryable {
 	 */
 	<R extends CtElement> CtQuery select(Filter<R> filter);
 
+	/**
+	 * Same as {@link CtQuery#filterChildren(Filter)}, but only the children which are instances of `type`
+	 * are given to `filter`. The other children are skipped by a {@link Class#isInstance(Object)} check
+	 * before the filter is called, so no {@link ClassCastException} is thrown, whatever the failure policy is.
+	 * Prefer it to a lambda expression whose parameter type is narrower than {@link CtElement},
+	 * because the type of the parameter of a lambda expression is not known at runtime.
+	 *
+	 * @param type the type of the children sent to the filter
+	 * @param filter used to filter the children of type `type`.
+	 * 	If null then all children of type `type` pass to next step.
+	 * @return this to support fluent API
+	 */
+	<R extends CtElement> CtQuery filterChildren(Class<? super R> type, Filter<R> filter);
+
+	/**
+	 * Same as {@link CtQuery#select(Filter)}, but the input elements which are not instances of `type`
+	 * are skipped before the filter is called.
+	 *
+	 * @param type the type of the elements sent to the filter
+	 * @param filter used to detect if input element can pass to next query step. If null then all the elements of type `type` pass.
+	 * @return this to support fluent API
+	 */
+	<R extends CtElement> CtQuery select(Class<? super R> type, Filter<R> filter);
+
 	/**
 	 * Query elements based on a function, the behavior depends on the return type of the function.
 	 * <table summary="">
@@ -81,6 +105,16 @@ public interface CtQuery extends CtQueryable {
 	@Override
 	<I, R> CtQuery map(CtFunction<I, R> function);
 
+	/**
+	 * Same as {@link CtQuery#map(CtFunction)}, but the input elements which are not instances of `inputType`
+	 * are skipped before the function is called, whatever the failure policy is.
+	 *
+	 * @param inputType the type of the input parameter of `function`
+	 * @param function a Function with one parameter of type I returning a value of type R
+	 * @return this to support fluent API
+	 */
+	<I, R> CtQuery map(Class<? super I> inputType, CtFunction<I, R> function);
+
 	/**
 	 * Sets (binds) the input of the query.
 	 * If the query is created by {@link CtElement#map} or {@link CtElement#filterChildren(Filter)},
@@ -102,6 +136,15 @@ public interface CtQuery extends CtQueryable {
 	 */
 	<R> void forEach(CtConsumer<R> consumer);
 
+	/**
+	 * Same as {@link CtQuery#forEach(CtConsumer)}, but only the output elements which are instances of `itemClass`
+	 * are sent to the consumer.
+	 *
+	 * @param itemClass the type of the input parameter of `consumer`
+	 * @param consumer The consumer which accepts the results of the query
+	 */
+	<R> void forEach(Class<? super R> itemClass, CtConsumer<R> consumer);
+
 	/**
 	 * Actually evaluates the query and returns all the elements produced in the last step.<br>
 	 * Note: The type R of the list is not checked by the query. So use the type, which matches the results of your query,
@@ -167,6 +210,16 @@ public interface CtQuery extends CtQueryable {
 	@Override
 	<I> CtQuery map(CtConsumableFunction<I> queryStep);
 
+	/**
+	 * Same as {@link CtQuery#map(CtConsumableFunction)}, but the input elements which are not instances of `inputType`
+	 * are skipped before the function is called, whatever the failure policy is.
+	 *
+	 * @param inputType the type of the first parameter of `queryStep`
+	 * @param queryStep
+	 * @return this to support fluent API
+	 */
+	<I> CtQuery map(Class<? super I> inputType, CtConsumableFunction<I> queryStep);
+
 	/**
 	 * Terminates the evaluation of this query.
 	 * The query still returns all results collected before termination.
@@ -16,11 +16,14 @@
  */
 package spoon.reflect.visitor.chain;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -106,6 +109,15 @@ public class CtQueryImpl implements CtQuery {
 		}
 	}
 
+	@Override
+	public <R> void forEach(Class<? super R> itemClass, CtConsumer<R> consumer) {
+		outputStep.setNext(consumer);
+		outputStep.setInputType(itemClass);
+		for (Object input : inputs) {
+			firstStep.accept(input);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <R extends Object> List<R> list() {
@@ -118,7 +130,7 @@ public class CtQueryImpl implements CtQuery {
 		forEach(new CtConsumer<R>() {
 			@Override
 			public void accept(R out) {
-				if (out != null && itemClass.isAssignableFrom(out.getClass())) {
+				if (itemClass.isInstance(out)) {
 					list.add(out);
 				}
 			}
@@ -138,7 +150,7 @@ public class CtQueryImpl implements CtQuery {
 		outputStep.setNext(new CtConsumer<R>() {
 			@Override
 			public void accept(R out) {
-				if (out != null && itemClass.isAssignableFrom(out.getClass())) {
+				if (itemClass.isInstance(out)) {
 					result[0] = out;
 					terminate();
 				}
@@ -162,12 +174,24 @@ public class CtQueryImpl implements CtQuery {
 		return this;
 	}
 
+	@Override
+	public <I> CtQueryImpl map(Class<? super I> inputType, CtConsumableFunction<I> code) {
+		addStep(new LazyFunctionWrapper(code).setInputType(inputType));
+		return this;
+	}
+
 	@Override
 	public <I, R> CtQueryImpl map(CtFunction<I, R> function) {
 		addStep(new FunctionWrapper(function));
 		return this;
 	}
 
+	@Override
+	public <I, R> CtQueryImpl map(Class<? super I> inputType, CtFunction<I, R> function) {
+		addStep(new FunctionWrapper(function).setInputType(inputType));
+		return this;
+	}
+
 	@Override
 	public <R extends CtElement> CtQueryImpl filterChildren(Filter<R> filter) {
 		map(new CtScannerFunction());
@@ -193,6 +217,25 @@ public class CtQueryImpl implements CtQuery {
 		return this;
 	}
 
+	@Override
+	public <R extends CtElement> CtQueryImpl filterChildren(Class<? super R> type, Filter<R> filter) {
+		map(new CtScannerFunction());
+		select(type, filter);
+		return this;
+	}
+
+	@Override
+	public <R extends CtElement> CtQueryImpl select(Class<? super R> type, final Filter<R> filter) {
+		CtFunction<R, Boolean> fnc = new CtFunction<R, Boolean>() {
+			@Override
+			public Boolean apply(R input) {
+				return filter == null || filter.matches(input);
+			}
+		};
+		addStep(new FunctionWrapper(fnc).setInputType(type));
+		return this;
+	}
+
 	@Override
 	public boolean isTerminated() {
 		return terminated;
@@ -303,6 +346,14 @@ public class CtQueryImpl implements CtQuery {
 		QueryFailurePolicy localFailurePolicy = null;
 		CtConsumer<Object> nextStep;
 		Class<?> expectedClass;
+		/**
+		 * true if expectedClass was given by the client, so the inputs which are not instances of it are always skipped
+		 */
+		boolean inputTypeDeclared = false;
+		/**
+		 * the class of the lambda expression called by this step, null if the callback is not a lambda expression
+		 */
+		Class<?> lambdaClass;
 		String cceStacktraceClass;
 		String cceStacktraceMethodName;
 
@@ -364,17 +415,34 @@ public class CtQueryImpl implements CtQuery {
 		 * @return true if it can be used or if we do not know that yet
 		 */
 		protected boolean isAcceptableType(Object input) {
-			if (isFailOnCCE()) {
+			if (isFailOnCCE() && inputTypeDeclared == false) {
 				//do not check type if it has to fail on cce
 				return true;
 			}
-			if (expectedClass != null && expectedClass.isAssignableFrom(input.getClass()) == false) {
-				log(this, input.getClass().getName() + " cannot be cast to " + expectedClass.getName(), input);
+			if (expectedClass != null && expectedClass.isInstance(input) == false) {
+				if (isLogging()) {
+					log(this, input.getClass().getName() + " cannot be cast to " + expectedClass.getName(), input);
+				}
 				return false;
 			}
 			return true;
 		}
 
+		/**
+		 * Declares the type of the input of the callback of this step,
+		 * so the inputs of other types are skipped without calling the callback
+		 * @param inputType the type of the input parameter of the callback
+		 * @return this step
+		 */
+		AbstractStep setInputType(Class<?> inputType) {
+			if (inputType == null) {
+				throw new SpoonException("The input type of a query step cannot be null");
+			}
+			this.expectedClass = inputType;
+			this.inputTypeDeclared = true;
+			return this;
+		}
+
 		/**
 		 * Sets up type checking following the type of input parameter of callback method
 		 * @param stackClass - name of class of method in the stacktrace, if ClassCastException is thrown on the input parameter of lambda expression
@@ -387,11 +455,15 @@ public class CtQueryImpl implements CtQuery {
 		protected void onCallbackSet(String stackClass, String stackMethodName, Class<?> callbackClass, String callbackMethod, int nrOfParams, int idxOfInputParam) {
 			this.cceStacktraceClass = stackClass;
 			this.cceStacktraceMethodName = stackMethodName;
-			if (callbackClass.getName().indexOf("$$Lambda$") >= 0) {
+			this.inputTypeDeclared = false;
+			if (isLambda(callbackClass)) {
 				//lambda expressions does not provide runtime information about type of input parameter
-				//clear it now. We can detect input type from first ClassCastException
-				this.expectedClass = null;
+				//use the type detected from the first ClassCastException of a previous step with the same lambda expression.
+				//If it is not known yet, we can detect input type from first ClassCastException
+				this.lambdaClass = callbackClass;
+				this.expectedClass = getLambdaInputType(callbackClass);
 			} else {
+				this.lambdaClass = null;
 				Method method = RtHelper.getMethod(callbackClass, callbackMethod, nrOfParams);
 				if (method == null) {
 					throw new SpoonException("The method " + callbackMethod + " with one parameter was not found on the class " + callbackClass.getName());
@@ -449,6 +521,13 @@ public class CtQueryImpl implements CtQuery {
 					 * It wasn't able to detect expected class from the CCE.
 					 * OK, so we cannot optimize next call and we have to let JVM to throw next CCE, but it is only performance problem. Not functional.
 					 */
+				} else if (lambdaClass != null) {
+					/*
+					 * Remember it for the next steps with the same lambda expression.
+					 * The JVM throws preallocated ClassCastExceptions without message once the lambda expression is hot,
+					 * so a next step might not be able to detect it again.
+					 */
+					setLambdaInputType(lambdaClass, expectedClass);
 				}
 				log(this, e.getMessage(), input);
 				return;
@@ -561,8 +640,32 @@ public class CtQueryImpl implements CtQuery {
 		}
 	}
 
+	/**
+	 * The types of the input parameters of the lambda expressions, detected from ClassCastExceptions.
+	 * The keys and the values are weak, so the classes of the clients can be unloaded.
+	 */
+	private static final Map<Class<?>, WeakReference<Class<?>>> lambdaInputTypes = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private static Class<?> getLambdaInputType(Class<?> lambdaClass) {
+		WeakReference<Class<?>> inputType = lambdaInputTypes.get(lambdaClass);
+		return inputType == null ? null : inputType.get();
+	}
+
+	private static void setLambdaInputType(Class<?> lambdaClass, Class<?> inputType) {
+		lambdaInputTypes.put(lambdaClass, new WeakReference<>(inputType));
+	}
+
+	private static boolean isLambda(Class<?> callbackClass) {
+		//the classes of lambda expressions are named Outer$$Lambda$1 or Outer$$Lambda/0x1234 depending on the JVM
+		return callbackClass.isSynthetic() && callbackClass.getName().indexOf("$$Lambda") >= 0;
+	}
+
 	private static final String JDK9_BASE_PREFIX = "java.base/";
-	private static final Pattern cceMessagePattern = Pattern.compile("(\\S+) cannot be cast to (\\S+)");
+	/**
+	 * The message of a ClassCastException is "A cannot be cast to B" before java 11
+	 * and "class A cannot be cast to class B (A and B are in ...)" since java 11
+	 */
+	private static final Pattern cceMessagePattern = Pattern.compile("(?:class )?(\\S+) cannot be cast to (?:class )?(\\S+)(?: \\(.*\\))?");
 	private static final int indexOfCallerInStack = getIndexOfCallerInStackOfLambda();
 	/**
 	 * JVM implementations reports exception in call of lambda in different way.
@@ -19,6 +19,8 @@ package spoon.support;
 import spoon.Launcher;
 import spoon.SpoonException;
 import spoon.compiler.Environment;
+import spoon.experimental.modelobs.EmptyModelChangeListener;
+import spoon.experimental.modelobs.FineModelChangeListener;
 import spoon.processing.AbstractProcessor;
 import spoon.processing.FileGenerator;
 import spoon.processing.TraversalStrategy;
@@ -27,27 +29,63 @@ import spoon.reflect.declaration.CtModule;
 import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
+import spoon.reflect.visitor.DefaultTokenWriter;
 import spoon.reflect.visitor.PrettyPrinter;
+import spoon.reflect.visitor.PrinterHelper;
+import spoon.reflect.visitor.StreamingTokenWriter;
 import spoon.support.compiler.SpoonProgress;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A processor that generates compilable Java source files from the meta-model.
+ * The files are written with the encoding of the environment.
+ *
+ * When it is created with a supplier of pretty-printers and the environment has more than one printing thread
+ * (see {@link Environment#setPrintingThreads(int)}), the top-level types are printed in parallel, each thread
+ * with its own pretty-printer. The printed files, their order and the line number mappings are then the same
+ * as the ones of the sequential printing, and the files are all written when {@link #processingDone()} returns.
+ * The types are printed sequentially when a model change listener is installed
+ * (see {@link Environment#setModelChangeListener(FineModelChangeListener)}), since it would be notified
+ * of the changes made by the pretty-printers from several threads.
+ *
+ * The {@link DefaultJavaPrettyPrinter}s created by the supplier of pretty-printers write the printed code
+ * to the files while it is printed (see {@link StreamingTokenWriter}), instead of keeping whole files in memory.
  */
 public class JavaOutputProcessor extends AbstractProcessor<CtNamedElement> implements FileGenerator<CtNamedElement> {
 	PrettyPrinter printer;
 
 	List<File> printedFiles = new ArrayList<>();
 
+	/**
+	 * Creates the pretty-printers of the printing threads, null if the types are printed sequentially
+	 */
+	private Supplier<? extends PrettyPrinter> printers;
+
+	private ThreadLocal<PrettyPrinter> threadPrinters;
+
+	private ForkJoinPool pool;
+
+	/**
+	 * The types being printed in parallel, in the order in which they are processed
+	 */
+	private List<ForkJoinTask<PrintedFile>> printings = new ArrayList<>();
+
 	/**
 	 * @param printer  the PrettyPrinter to use for written the files
 	 */
@@ -55,6 +93,17 @@ public class JavaOutputProcessor extends AbstractProcessor<CtNamedElement> imple
 		this.printer = printer;
 	}
 
+	/**
+	 * Creates a processor which can print the types in parallel.
+	 *
+	 * @param printers creates the PrettyPrinter of each printing thread,
+	 * and the one used for the package and module files and when the types are printed sequentially
+	 */
+	public JavaOutputProcessor(Supplier<? extends PrettyPrinter> printers) {
+		this(printers.get());
+		this.printers = printers;
+	}
+
 	/**
 	 * Creates a new processor for generating Java source files.
 	 *
@@ -109,9 +158,44 @@ public class JavaOutputProcessor extends AbstractProcessor<CtNamedElement> imple
 				throw new SpoonException("Error creating output directory");
 			}
 		}
+
+		int threads = getEnvironment().getPrintingThreads();
+		if (printers != null && threads > 1 && !isModelChangeListened()) {
+			// the types which are loaded on demand are loaded now, so that the printing threads do not add them to their packages
+			getFactory().getModel().getAllTypes();
+			pool = new ForkJoinPool(threads);
+			threadPrinters = ThreadLocal.withInitial(printers);
+		}
 	}
 
-	Map<String, Map<Integer, Integer>> lineNumberMappings = new HashMap<>();
+	/**
+	 * @return true if the changes of the model are notified to a listener, which may not expect to be notified from any thread
+	 */
+	private boolean isModelChangeListened() {
+		FineModelChangeListener listener = getEnvironment().getModelChangeListener();
+		return listener != null && listener.getClass() != EmptyModelChangeListener.class;
+	}
+
+	/**
+	 * Waits for the types printed in parallel and reports their progress, in the order in which they were processed.
+	 */
+	@Override
+	public void processingDone() {
+		try {
+			for (ForkJoinTask<PrintedFile> printing : printings) {
+				printing.join().done();
+			}
+		} finally {
+			printings.clear();
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+				threadPrinters = null;
+			}
+		}
+	}
+
+	Map<String, Map<Integer, Integer>> lineNumberMappings = new ConcurrentHashMap<>();
 
 	/**
 	 * Creates the Java file associated to the given element. Splits top-level
@@ -127,31 +211,12 @@ public class JavaOutputProcessor extends AbstractProcessor<CtNamedElement> imple
 		}
 
 		CompilationUnit cu = this.getFactory().CompilationUnit().getOrCreate(element);
-		List<CtType<?>> toBePrinted = new ArrayList<>();
-		toBePrinted.add(element);
-
-		printer.calculate(cu, toBePrinted);
-
-
-		try {
-			File file = typePath.toFile();
-			file.createNewFile();
-			if (!printedFiles.contains(file)) {
-				printedFiles.add(file);
-			}
-			// print type
-			try (PrintStream stream = new PrintStream(file)) {
-				stream.print(printer.getResult());
-				for (CtType<?> t : toBePrinted) {
-					lineNumberMappings.put(t.getQualifiedName(), printer.getLineNumberMapping());
-				}
-			}
-		} catch (IOException e) {
-			Launcher.LOGGER.error(e.getMessage(), e);
-		}
-		if (getEnvironment().getSpoonProgress() != null) {
-			getEnvironment().getSpoonProgress().step(SpoonProgress.Process.PRINT, element.getQualifiedName());
-		}
+		createFile(typePath.toFile(), element, printer -> {
+			List<CtType<?>> toBePrinted = new ArrayList<>();
+			toBePrinted.add(element);
+			printer.calculate(cu, toBePrinted);
+			return printer.getResult();
+		}, "");
 	}
 
 	@Override
@@ -176,30 +241,107 @@ public class JavaOutputProcessor extends AbstractProcessor<CtNamedElement> imple
 	private void createPackageFile(CtPackage pack) {
 		// Create package annotation file
 		File packageAnnot = getElementPath(pack).toFile();
-		if (!printedFiles.contains(packageAnnot)) {
-			printedFiles.add(packageAnnot);
-		}
-		try (PrintStream stream = new PrintStream(packageAnnot)) {
-			stream.println(printer.printPackageInfo(pack));
-		} catch (FileNotFoundException e) {
-			Launcher.LOGGER.error(e.getMessage(), e);
-		}
+		createFile(packageAnnot, null, printer -> printer.printPackageInfo(pack), System.lineSeparator());
 	}
 
 	private void createModuleFile(CtModule module) {
 		if (getEnvironment().getComplianceLevel() > 8 && module != getFactory().getModel().getUnnamedModule()) {
 			File moduleFile = getElementPath(module).toFile();
-			if (!printedFiles.contains(moduleFile)) {
-				printedFiles.add(moduleFile);
-			}
-			try (PrintStream stream = new PrintStream(moduleFile)) {
-				stream.println(printer.printModuleInfo(module));
-			} catch (FileNotFoundException e) {
+			createFile(moduleFile, null, printer -> printer.printModuleInfo(module), System.lineSeparator());
+		}
+	}
+
+	/**
+	 * Prints a file, on the processing thread or on a printing thread.
+	 * The file is recorded in the created files when it is created, in the order in which the elements are processed.
+	 *
+	 * @param type the top-level type printed in the file, or null for a package or a module file
+	 * @param printing prints the content of the file with a pretty-printer which is only used by the current thread,
+	 * and returns the printed code
+	 * @param end the characters written after the printed code
+	 */
+	private void createFile(File file, CtType<?> type, Function<PrettyPrinter, String> printing, String end) {
+		if (!printedFiles.contains(file)) {
+			printedFiles.add(file);
+		}
+		if (pool != null) {
+			// the progress is reported when the processing is done
+			printings.add(pool.submit(() -> new PrintedFile(file, type).print(threadPrinters.get(), printing, end)));
+		} else {
+			new PrintedFile(file, type).print(printer, printing, end).done();
+		}
+	}
+
+	/**
+	 * A file, which is written with its line number mapping by the thread which prints it,
+	 * and whose progress is reported by the processing thread
+	 */
+	private class PrintedFile {
+		final File file;
+		final CtType<?> type;
+
+		PrintedFile(File file, CtType<?> type) {
+			this.file = file;
+			this.type = type;
+		}
+
+		PrintedFile print(PrettyPrinter printer, Function<PrettyPrinter, String> printing, String end) {
+			try (Writer writer = createWriter(file)) {
+				if (isStreaming(printer)) {
+					StreamingTokenWriter tokenWriter = new StreamingTokenWriter(getEnvironment(), writer);
+					DefaultJavaPrettyPrinter streamingPrinter = (DefaultJavaPrettyPrinter) printer;
+					streamingPrinter.setPrinterTokenWriter(tokenWriter);
+					try {
+						// the returned code is only the part which is not written yet
+						printing.apply(printer);
+						tokenWriter.flush();
+						putLineNumberMapping(printer);
+					} finally {
+						// the printer does not keep the writer of the file, which is closed
+						streamingPrinter.setPrinterTokenWriter(new DefaultTokenWriter(new PrinterHelper(getEnvironment())));
+					}
+				} else {
+					writer.write(printing.apply(printer));
+					putLineNumberMapping(printer);
+				}
+				writer.write(end);
+			} catch (IOException e) {
 				Launcher.LOGGER.error(e.getMessage(), e);
 			}
+			return this;
+		}
+
+		private void putLineNumberMapping(PrettyPrinter printer) {
+			if (type != null) {
+				Map<Integer, Integer> lineNumberMapping = printer.getLineNumberMapping();
+				if (lineNumberMapping != null) {
+					lineNumberMappings.put(type.getQualifiedName(), lineNumberMapping);
+				}
+			}
+		}
+
+		void done() {
+			if (type != null && getEnvironment().getSpoonProgress() != null) {
+				getEnvironment().getSpoonProgress().step(SpoonProgress.Process.PRINT, type.getQualifiedName());
+			}
 		}
 	}
 
+	/**
+	 * @return true if the printer is a {@link DefaultJavaPrettyPrinter} created by the supplier of pretty-printers,
+	 * whose token writer can be replaced by a {@link StreamingTokenWriter}
+	 */
+	private boolean isStreaming(PrettyPrinter printer) {
+		return printers != null && printer.getClass() == DefaultJavaPrettyPrinter.class;
+	}
+
+	/**
+	 * @return a buffered writer, which encodes the printed characters with the encoding of the environment
+	 */
+	private Writer createWriter(File file) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), getEnvironment().getEncoding()));
+	}
+
 	private Path getElementPath(CtModule type) {
 		return createFolders(getEnvironment().getOutputDestinationHandler()
 				.getOutputPath(type, null, null));
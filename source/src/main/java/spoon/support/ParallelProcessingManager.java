@@ -0,0 +1,287 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support;
+
+import spoon.SpoonException;
+import spoon.processing.ProcessInterruption;
+import spoon.processing.Processor;
+import spoon.processing.TraversalStrategy;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.CtScanner;
+import spoon.support.compiler.SpoonProgress;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This processing manager applies all the processors in a single traversal of the given root elements.
+ * for el : elements
+ *   for p : processors
+ *     p.process(el)
+ * The processors which can process an element are found in a table, which is computed once per element class.
+ *
+ * The traversal has two phases. The elements which are to be processed are collected first: the top-level types
+ * are scanned in parallel, so {@link Processor#isToBeProcessed(CtElement)} must only read the model and be thread-safe.
+ * {@link Processor#process(CtElement)} is then called on the collected elements sequentially, in the order
+ * of the traversal, so it can change the model. Unlike with {@link QueueProcessingManager}, the processors
+ * are not applied to the elements created by the processors, and a processor is asked whether an element
+ * is to be processed before the other processors have changed it.
+ */
+public class ParallelProcessingManager extends QueueProcessingManager {
+	private final int numberOfThreads;
+
+	/**
+	 * Creates a new processing manager, which collects the elements to process on one thread per available processor.
+	 *
+	 * @param factory
+	 * 		the factory on which the processing applies (contains the
+	 * 		meta-model)
+	 */
+	public ParallelProcessingManager(Factory factory) {
+		this(factory, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new processing manager, which collects the elements to process on the given number of threads.
+	 *
+	 * @param factory
+	 * 		the factory on which the processing applies (contains the
+	 * 		meta-model)
+	 * @param numberOfThreads
+	 * 		the number of threads, 1 to collect the elements on the calling thread
+	 */
+	public ParallelProcessingManager(Factory factory, int numberOfThreads) {
+		super(factory);
+		if (numberOfThreads < 1) {
+			throw new SpoonException("The number of threads must be positive: " + numberOfThreads);
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void process(Collection<? extends CtElement> elements) {
+		// copy so that one can reuse the processing manager
+		// among different processing steps
+		Processing processing = new Processing((List<Processor<CtElement>>) (List<?>) new ArrayList<>(getProcessors()));
+		if (factory.getEnvironment().getSpoonProgress() != null) {
+			factory.getEnvironment().getSpoonProgress().start(SpoonProgress.Process.PROCESS);
+		}
+		try {
+			processing.init();
+			processing.process(new ArrayList<>(elements));
+		} finally {
+			processing.done();
+			if (factory.getEnvironment().getSpoonProgress() != null) {
+				factory.getEnvironment().getSpoonProgress().end(SpoonProgress.Process.PROCESS);
+			}
+		}
+	}
+
+	/**
+	 * An element which is to be processed by a processor, or the processor which interrupted the processing
+	 * when it was asked whether the element was to be processed, or the matches of a top-level type,
+	 * which are collected in parallel.
+	 */
+	private static final class Match {
+		final CtElement element;
+		final int processorIndex;
+		final boolean interruption;
+		final ForkJoinTask<List<Match>> typeMatches;
+
+		Match(CtElement element, int processorIndex, boolean interruption) {
+			this.element = element;
+			this.processorIndex = processorIndex;
+			this.interruption = interruption;
+			this.typeMatches = null;
+		}
+
+		Match(ForkJoinTask<List<Match>> typeMatches) {
+			this.element = null;
+			this.processorIndex = -1;
+			this.interruption = false;
+			this.typeMatches = typeMatches;
+		}
+	}
+
+	/**
+	 * The application of the processors to a collection of root elements.
+	 */
+	private class Processing {
+		private final List<Processor<CtElement>> processors;
+		private final boolean[] postOrder;
+		private final boolean[] interrupted;
+		private final Map<Class<?>, int[]> processorsByElementClass = new ConcurrentHashMap<>();
+		private ForkJoinPool pool;
+
+		Processing(List<Processor<CtElement>> processors) {
+			this.processors = processors;
+			this.postOrder = new boolean[processors.size()];
+			this.interrupted = new boolean[processors.size()];
+		}
+
+		void init() {
+			for (int i = 0; i < processors.size(); i++) {
+				Processor<CtElement> p = processors.get(i);
+				getFactory().getEnvironment().reportProgressMessage(p.getClass().getName());
+				p.init(); // load the properties
+				postOrder[i] = p.getTraversalStrategy() == TraversalStrategy.POST_ORDER;
+				try {
+					p.process();
+				} catch (ProcessInterruption ignore) {
+					interrupted[i] = true;
+				}
+			}
+		}
+
+		void process(List<CtElement> elements) {
+			List<Match> matches;
+			if (numberOfThreads > 1) {
+				// the types which are loaded on demand are loaded now, so that the collecting threads do not add them to their packages
+				getFactory().getModel().getAllTypes();
+				pool = new ForkJoinPool(numberOfThreads);
+				try {
+					matches = new MatchCollector(true).collect(elements);
+					// the model must not change while the types are scanned
+					pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.DAYS);
+				} finally {
+					pool.shutdown();
+				}
+			} else {
+				matches = new MatchCollector(false).collect(elements);
+			}
+			apply(matches);
+		}
+
+		private void apply(List<Match> matches) {
+			for (Match match : matches) {
+				if (match.typeMatches != null) {
+					apply(match.typeMatches.join());
+				} else if (match.interruption) {
+					interrupted[match.processorIndex] = true;
+				} else if (!interrupted[match.processorIndex] && !getFactory().getEnvironment().isProcessingStopped()) {
+					try {
+						processors.get(match.processorIndex).process(match.element);
+					} catch (ProcessInterruption ignore) {
+						interrupted[match.processorIndex] = true;
+					}
+				}
+			}
+		}
+
+		void done() {
+			for (int i = 0; i < processors.size(); i++) {
+				Processor<CtElement> p = processors.get(i);
+				p.processingDone();
+				if (factory.getEnvironment().getSpoonProgress() != null) {
+					factory.getEnvironment().getSpoonProgress().step(SpoonProgress.Process.PROCESS, p.getClass().getName(), i + 1, processors.size());
+				}
+			}
+		}
+
+		/**
+		 * @return the indexes of the processors which can process the elements of the given class
+		 */
+		private int[] getProcessorIndexes(Class<?> elementClass) {
+			return processorsByElementClass.computeIfAbsent(elementClass, c -> {
+				List<Integer> indexes = new ArrayList<>();
+				for (int i = 0; i < processors.size(); i++) {
+					if (canBeProcessed(processors.get(i), c)) {
+						indexes.add(i);
+					}
+				}
+				int[] result = new int[indexes.size()];
+				for (int i = 0; i < result.length; i++) {
+					result[i] = indexes.get(i);
+				}
+				return result;
+			});
+		}
+
+		private boolean canBeProcessed(Processor<?> processor, Class<?> elementClass) {
+			if (processor.getProcessedElementTypes() == null) {
+				return false;
+			}
+			for (Class<? extends CtElement> type : processor.getProcessedElementTypes()) {
+				if (!type.isAssignableFrom(elementClass)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Collects the elements which are to be processed, in the order of the traversal.
+		 */
+		private class MatchCollector extends CtScanner {
+			private final boolean parallel;
+			private final boolean[] interruptedHere = new boolean[processors.size()];
+			private List<Match> matches;
+
+			MatchCollector(boolean parallel) {
+				this.parallel = parallel;
+			}
+
+			List<Match> collect(Collection<? extends CtElement> elements) {
+				matches = new ArrayList<>();
+				scan(elements);
+				return matches;
+			}
+
+			@Override
+			public void scan(CtElement e) {
+				if (e == null || getFactory().getEnvironment().isProcessingStopped()) {
+					return;
+				}
+				if (parallel && e instanceof CtType && e.isParentInitialized() && e.getParent() instanceof CtPackage) {
+					final CtType<?> type = (CtType<?>) e;
+					matches.add(new Match(pool.submit(() -> new MatchCollector(false).collect(Collections.singletonList(type)))));
+					return;
+				}
+				int[] indexes = getProcessorIndexes(e.getClass());
+				collect(e, indexes, false);
+				super.scan(e);
+				collect(e, indexes, true);
+			}
+
+			private void collect(CtElement e, int[] indexes, boolean afterChildren) {
+				for (int i : indexes) {
+					if (postOrder[i] == afterChildren && !interrupted[i] && !interruptedHere[i]) {
+						try {
+							if (processors.get(i).isToBeProcessed(e)) {
+								matches.add(new Match(e, i, false));
+							}
+						} catch (ProcessInterruption ignore) {
+							interruptedHere[i] = true;
+							matches.add(new Match(e, i, true));
+						}
+					}
+				}
+			}
+		}
+	}
+}
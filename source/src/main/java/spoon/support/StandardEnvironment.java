@@ -105,6 +105,10 @@ public class StandardEnvironment implements Serializable, Environment {
 
 	private SpoonProgress spoonProgress = null;
 
+	private int modelBuildingThreads = 1;
+
+	private int printingThreads = 1;
+
 	/**
 	 * Creates a new environment with a <code>null</code> default file
 	 * generator.
@@ -588,4 +592,30 @@ public class StandardEnvironment implements Serializable, Environment {
 	public void setSpoonProgress(SpoonProgress spoonProgress) {
 		this.spoonProgress = spoonProgress;
 	}
+
+	@Override
+	public int getModelBuildingThreads() {
+		return modelBuildingThreads;
+	}
+
+	@Override
+	public void setModelBuildingThreads(int threads) {
+		if (threads < 1) {
+			throw new SpoonException("The number of threads must be positive: " + threads);
+		}
+		this.modelBuildingThreads = threads;
+	}
+
+	@Override
+	public int getPrintingThreads() {
+		return printingThreads;
+	}
+
+	@Override
+	public void setPrintingThreads(int threads) {
+		if (threads < 1) {
+			throw new SpoonException("The number of threads must be positive: " + threads);
+		}
+		this.printingThreads = threads;
+	}
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.compiler.jdt;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.TypeDeclaration;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.factory.Factory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the Spoon model of a compilation unit with its own {@link JDTTreeBuilder}, so that the units can be built
+ * in parallel, see {@link spoon.compiler.Environment#setModelBuildingThreads(int)}.
+ * The compilation unit and the packages, which are shared by the units, are created before by {@link #prepare()}.
+ * The top-level types are added to their packages by {@link #addTypes()}, which is called for each unit
+ * in the order of the sequential build, so that the model is the same.
+ * A unit which reads or changes the other shared parts of the model or of the JDT lookup environment,
+ * see {@link JDTTreeBuilder#requireSequentialBuild()}, is not built: it is then built sequentially at its place.
+ * So is a unit which already declares types, to which its comments could be added.
+ */
+class ConfinedUnitBuilder {
+	private final CompilationUnitDeclaration unit;
+	private final Factory factory;
+	private final List<Runnable> packageChanges = new ArrayList<>();
+	private boolean built = false;
+
+	ConfinedUnitBuilder(CompilationUnitDeclaration unit, Factory factory) {
+		this.unit = unit;
+		this.factory = factory;
+	}
+
+	/**
+	 * Creates the compilation unit and the packages of the unit, before the units are built in parallel.
+	 */
+	void prepare() {
+		if (unit.scope == null) {
+			return;
+		}
+		factory.CompilationUnit().getOrCreate(new String(unit.getFileName()));
+		factory.Package().getOrCreate(CharOperation.toString(unit.scope.currentPackageName));
+		if (unit.types != null) {
+			for (TypeDeclaration typeDeclaration : unit.types) {
+				if (typeDeclaration.binding != null && typeDeclaration.binding.fPackage != null) {
+					char[] packageName = typeDeclaration.binding.fPackage.shortReadableName();
+					if (packageName != null && packageName.length > 0) {
+						factory.Package().getOrCreate(new String(packageName));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the unit, with its comments, on the current thread.
+	 */
+	void build() {
+		if (unit.scope == null) {
+			return;
+		}
+		CompilationUnit spoonUnit = factory.CompilationUnit().getOrCreate(new String(unit.getFileName()));
+		if (!spoonUnit.getDeclaredTypes().isEmpty()) {
+			return;
+		}
+		CtPackage declaredPackage = spoonUnit.getDeclaredPackage();
+		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
+		builder.delayPackageChanges(packageChanges);
+		try {
+			unit.traverse(builder, unit.scope);
+			if (factory.getEnvironment().isCommentsEnabled()) {
+				new JDTCommentBuilder(unit, factory).build();
+			}
+			built = true;
+		} catch (SequentialBuildRequired e) {
+			// the unit is built again sequentially. All that this attempt built, with the comments, is only referred to by the unit and by the package changes
+			spoonUnit.setDeclaredTypes(new ArrayList<>());
+			spoonUnit.setDeclaredPackage(declaredPackage);
+			packageChanges.clear();
+		}
+	}
+
+	/**
+	 * @return true if the unit has been built by {@link #build()}, false if it has to be built sequentially
+	 */
+	boolean isBuilt() {
+		return built;
+	}
+
+	/**
+	 * Adds the built top-level types to their packages.
+	 */
+	void addTypes() {
+		for (Runnable change : packageChanges) {
+			change.run();
+		}
+	}
+
+	/**
+	 * Thrown by {@link JDTTreeBuilder#requireSequentialBuild()} to stop building the unit in parallel.
+	 * Any other exception is a failure of the build, which is not hidden by building the unit again.
+	 */
+	static final class SequentialBuildRequired extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		SequentialBuildRequired() {
+			super("The compilation unit has to be built sequentially", null, false, false);
+		}
+	}
+}
@@ -198,6 +198,7 @@ public class ContextBuilder {
 
 			// the variable may have been declared in a super class/interface
 			if (lookingForFields && astPair.node instanceof TypeDeclaration) {
+				jdtTreeBuilder.requireSequentialBuild();
 				final TypeDeclaration nodeDeclaration = (TypeDeclaration) astPair.node;
 				final Deque<ReferenceBinding> referenceBindings = new ArrayDeque<>();
 				// add super class if any
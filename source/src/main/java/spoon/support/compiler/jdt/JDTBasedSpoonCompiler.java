@@ -64,8 +64,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Main class of Spoon to build the model.
@@ -86,6 +90,7 @@ public class JDTBasedSpoonCompiler implements spoon.SpoonModelBuilder {
 	protected String[] templateClasspath = new String[0];
 	protected List<CompilationUnitFilter> compilationUnitFilters = new ArrayList<>();
 	private boolean sortList;
+	private int parallelBuiltUnitCount;
 
 	/**
 	 * Default constructor
@@ -469,22 +474,24 @@ public class JDTBasedSpoonCompiler implements spoon.SpoonModelBuilder {
 		}
 		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
 		List<CompilationUnitDeclaration> unitList = this.sortCompilationUnits(units);
+		Map<CompilationUnitDeclaration, ConfinedUnitBuilder> confinedBuilders = getEnvironment().getModelBuildingThreads() > 1
+				? buildUnitsInParallel(unitList, getEnvironment().getModelBuildingThreads())
+				: Collections.emptyMap();
 
 		int i = 0;
-		unitLoop:
+		parallelBuiltUnitCount = 0;
 		for (CompilationUnitDeclaration unit : unitList) {
-			if (unit.isModuleInfo() || !unit.isEmpty()) {
-				final String unitPath = new String(unit.getFileName());
-				for (final CompilationUnitFilter cuf : compilationUnitFilters) {
-					if (cuf.exclude(unitPath)) {
-						// do not traverse this unit
-						continue unitLoop;
+			if ((unit.isModuleInfo() || !unit.isEmpty()) && !isExcluded(unit)) {
+				ConfinedUnitBuilder confinedBuilder = confinedBuilders.get(unit);
+				if (confinedBuilder != null && confinedBuilder.isBuilt()) {
+					confinedBuilder.addTypes();
+					parallelBuiltUnitCount++;
+				} else {
+					unit.traverse(builder, unit.scope);
+					if (getFactory().getEnvironment().isCommentsEnabled()) {
+						new JDTCommentBuilder(unit, factory).build();
 					}
 				}
-				unit.traverse(builder, unit.scope);
-				if (getFactory().getEnvironment().isCommentsEnabled()) {
-					new JDTCommentBuilder(unit, factory).build();
-				}
 				if (getEnvironment().getSpoonProgress() != null) {
 					getEnvironment().getSpoonProgress().step(SpoonProgress.Process.MODEL, new String(unit.getFileName()), ++i, unitList.size());
 				}
@@ -513,6 +520,55 @@ public class JDTBasedSpoonCompiler implements spoon.SpoonModelBuilder {
 		}
 	}
 
+	/**
+	 * @return the number of compilation units which were built in parallel by the last build of the model,
+	 * the other units were built sequentially, see {@link spoon.compiler.Environment#setModelBuildingThreads(int)}
+	 */
+	public int getParallelBuiltUnitCount() {
+		return parallelBuiltUnitCount;
+	}
+
+	private boolean isExcluded(CompilationUnitDeclaration unit) {
+		final String unitPath = new String(unit.getFileName());
+		for (final CompilationUnitFilter cuf : compilationUnitFilters) {
+			if (cuf.exclude(unitPath)) {
+				// do not traverse this unit
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Builds the units, other than module-info and package-info, whose elements and comments are shared,
+	 * on a pool of threads, each one with its own {@link JDTTreeBuilder}.
+	 * Their top-level types are added to the model afterwards, in the order of the units, see {@link ConfinedUnitBuilder}.
+	 */
+	private Map<CompilationUnitDeclaration, ConfinedUnitBuilder> buildUnitsInParallel(List<CompilationUnitDeclaration> unitList, int threads) {
+		Map<CompilationUnitDeclaration, ConfinedUnitBuilder> confinedBuilders = new IdentityHashMap<>();
+		for (CompilationUnitDeclaration unit : unitList) {
+			if (!unit.isModuleInfo() && !unit.isEmpty() && !isExcluded(unit)
+					&& !DefaultJavaPrettyPrinter.JAVA_PACKAGE_DECLARATION.equals(new File(new String(unit.getFileName())).getName())) {
+				ConfinedUnitBuilder confinedBuilder = new ConfinedUnitBuilder(unit, factory);
+				confinedBuilder.prepare();
+				confinedBuilders.put(unit, confinedBuilder);
+			}
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for (ConfinedUnitBuilder confinedBuilder : confinedBuilders.values()) {
+				tasks.add(pool.submit(confinedBuilder::build));
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return confinedBuilders;
+	}
+
 	protected void generateProcessedSourceFilesUsingTypes(Filter<CtType<?>> typeFilter) {
 		if (factory.getEnvironment().getDefaultFileGenerator() != null) {
 			factory.getEnvironment().debugMessage("Generating source using types...");
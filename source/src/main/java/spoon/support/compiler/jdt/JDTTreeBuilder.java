@@ -153,6 +153,7 @@ import spoon.reflect.reference.CtUnboundVariableReference;
 import spoon.support.reflect.CtExtendedModifier;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static spoon.support.compiler.jdt.JDTTreeBuilderQuery.getBinaryOperatorKind;
@@ -179,6 +180,12 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 	boolean skipTypeInAnnotation = false;
 
+	/**
+	 * The changes of the packages of the model, which are delayed while the unit is built in parallel
+	 * with the other ones, see {@link ConfinedUnitBuilder}, or null if they are made at once
+	 */
+	private List<Runnable> packageChanges;
+
 	public static Logger getLogger() {
 		return LOGGER;
 	}
@@ -220,6 +227,32 @@ public class JDTTreeBuilder extends ASTVisitor {
 		LOGGER.setLevel(factory.getEnvironment().getLevel());
 	}
 
+	void delayPackageChanges(List<Runnable> packageChanges) {
+		this.packageChanges = packageChanges;
+	}
+
+	/**
+	 * Changes a package of the model, which is shared by the units, at once or once the unit is built.
+	 */
+	void changePackage(Runnable change) {
+		if (packageChanges == null) {
+			change.run();
+		} else {
+			packageChanges.add(change);
+		}
+	}
+
+	/**
+	 * Called before reading or changing the parts of the model or of the JDT lookup environment which are shared
+	 * by the units, other than the packages created by {@link ConfinedUnitBuilder#prepare()}:
+	 * the unit cannot be built in parallel with the other ones then.
+	 */
+	void requireSequentialBuild() {
+		if (packageChanges != null) {
+			throw new ConfinedUnitBuilder.SequentialBuildRequired();
+		}
+	}
+
 	// an abstract class here is better because the method is actually package-protected, as the type, (and not public as in the case of interface methods in Java)
 	abstract static class OnAccessListener {
 		abstract boolean onAccess(char[][] tokens, int index);
@@ -731,6 +764,7 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 	@Override
 	public boolean visit(CompilationUnitDeclaration compilationUnitDeclaration, CompilationUnitScope scope) {
+		references.clearExploredBindings();
 		context.compilationunitdeclaration = scope.referenceContext;
 		context.compilationUnitSpoon = getFactory().CompilationUnit().getOrCreate(new String(context.compilationunitdeclaration.getFileName()));
 		context.compilationUnitSpoon.setDeclaredPackage(getFactory().Package().getOrCreate(CharOperation.toString(scope.currentPackageName)));
@@ -1559,6 +1593,7 @@ public class JDTTreeBuilder extends ASTVisitor {
 	@Override
 	public boolean visit(TypeDeclaration typeDeclaration, CompilationUnitScope scope) {
 		if (new String(typeDeclaration.name).equals("package-info")) {
+			requireSequentialBuild();
 			context.enter(factory.Package().getOrCreate(new String(typeDeclaration.binding.fPackage.readableName())), typeDeclaration);
 			return true;
 		} else {
@@ -1569,7 +1604,12 @@ public class JDTTreeBuilder extends ASTVisitor {
 				pack = factory.Package().getRootPackage();
 			}
 			context.enter(pack, typeDeclaration);
-			pack.addType(helper.createType(typeDeclaration));
+			final CtType<?> type = helper.createType(typeDeclaration);
+			if (packageChanges != null) {
+				// the type is built like in its package
+				type.setParent(pack);
+			}
+			changePackage(() -> pack.addType(type));
 			return true;
 		}
 	}
@@ -1590,6 +1630,7 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 	@Override
 	public boolean visit(ModuleDeclaration moduleDeclaration, CompilationUnitScope scope) {
+		requireSequentialBuild();
 		CtModule module = getHelper().createModule(moduleDeclaration);
 		context.compilationUnitSpoon.setDeclaredModule(module);
 		return true;
@@ -746,7 +746,7 @@ public class ParentExiter extends CtInheritanceScanner {
 		if (child instanceof CtClass) {
 			newClass.setAnonymousClass((CtClass<?>) child);
 			final QualifiedAllocationExpression node = (QualifiedAllocationExpression) jdtTreeBuilder.getContextBuilder().stack.peek().node;
-			final ReferenceBinding[] referenceBindings = node.resolvedType == null ? null : node.resolvedType.superInterfaces();
+			final ReferenceBinding[] referenceBindings = node.resolvedType == null ? null : jdtTreeBuilder.getReferencesBuilder().getSuperInterfaces(node.resolvedType);
 			if (referenceBindings != null && referenceBindings.length > 0) {
 				((CtClass<?>) child).addSuperInterface(newClass.getType().clone());
 			} else if (newClass.getType() != null) {
@@ -782,10 +782,13 @@ public class ParentExiter extends CtInheritanceScanner {
 	@Override
 	public void visitCtPackage(CtPackage ctPackage) {
 		if (child instanceof CtType) {
-			if (ctPackage.getTypes().contains(child)) {
-				ctPackage.removeType((CtType<?>) child);
-			}
-			ctPackage.addType((CtType<?>) child);
+			final CtType<?> type = (CtType<?>) child;
+			jdtTreeBuilder.changePackage(() -> {
+				if (ctPackage.getTypes().contains(type)) {
+					ctPackage.removeType(type);
+				}
+				ctPackage.addType(type);
+			});
 			if (child.getPosition().getCompilationUnit() != null) {
 				CompilationUnit cu = child.getPosition().getCompilationUnit();
 				List<CtType<?>> declaredTypes = new ArrayList<>(cu.getDeclaredTypes());
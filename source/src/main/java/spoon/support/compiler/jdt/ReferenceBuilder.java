@@ -64,6 +64,7 @@ import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
 import org.eclipse.jdt.internal.compiler.lookup.Scope;
 import org.eclipse.jdt.internal.compiler.lookup.SourceTypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
 import org.eclipse.jdt.internal.compiler.lookup.TypeVariableBinding;
 import org.eclipse.jdt.internal.compiler.lookup.VariableBinding;
 import org.eclipse.jdt.internal.compiler.lookup.VoidTypeBinding;
@@ -115,6 +116,51 @@ public class ReferenceBuilder {
 		this.jdtTreeBuilder = jdtTreeBuilder;
 	}
 
+	/**
+	 * Forgets the bindings explored while building the previous compilation unit,
+	 * so that the references of a unit do not depend on the units which are built before it.
+	 */
+	void clearExploredBindings() {
+		exploringParameterizedBindings.clear();
+		bindingCache.clear();
+	}
+
+	/**
+	 * JDT resolves the super types and the methods of a type binding on their first call, in the lookup environment
+	 * which is shared by the units. Only the ones of the type variables and of the local and anonymous types,
+	 * which belong to the unit, are read from the binding: the unit is built sequentially to get the other ones,
+	 * see {@link JDTTreeBuilder#requireSequentialBuild()}.
+	 */
+	private void requireResolvedSuperTypes(TypeBinding binding) {
+		if (!(binding instanceof TypeVariableBinding) && !(binding instanceof LocalTypeBinding)) {
+			jdtTreeBuilder.requireSequentialBuild();
+		}
+	}
+
+	/**
+	 * @return the super class of `binding`, see {@link #requireResolvedSuperTypes(TypeBinding)}
+	 */
+	ReferenceBinding getSuperclass(TypeBinding binding) {
+		requireResolvedSuperTypes(binding);
+		return binding.superclass();
+	}
+
+	/**
+	 * @return the super interfaces of `binding`, see {@link #requireResolvedSuperTypes(TypeBinding)}
+	 */
+	ReferenceBinding[] getSuperInterfaces(TypeBinding binding) {
+		requireResolvedSuperTypes(binding);
+		return binding.superInterfaces();
+	}
+
+	/**
+	 * @return the methods of `binding`, which JDT resolves on their first call, so the unit is built sequentially
+	 */
+	MethodBinding[] getMethods(ReferenceBinding binding) {
+		jdtTreeBuilder.requireSequentialBuild();
+		return binding.methods();
+	}
+
 	private CtTypeReference<?> getBoundedTypeReference(TypeBinding binding) {
 		bounds = true;
 		CtTypeReference<?> ref = getTypeReference(binding);
@@ -277,7 +323,7 @@ public class ReferenceBuilder {
 			}
 			final TypeBinding accessBinding = searchTypeBinding(access, units);
 			if (accessBinding != null && listener.onAccess(tokens, i)) {
-				final TypeBinding superClassBinding = searchTypeBinding(accessBinding.superclass(), CharOperation.charToString(tokens[i + 1]));
+				final TypeBinding superClassBinding = searchTypeBinding(getSuperclass(accessBinding), CharOperation.charToString(tokens[i + 1]));
 				if (superClassBinding != null) {
 					return this.getTypeReference(superClassBinding.clone(accessBinding));
 				} else {
@@ -307,6 +353,8 @@ public class ReferenceBuilder {
 		if (cuDeclaration != null && cuDeclaration.imports != null) {
 			for (ImportReference anImport : cuDeclaration.imports) {
 				if (CharOperation.equals(anImport.getImportName()[anImport.getImportName().length - 1], expectedName)) {
+					// the missing types and packages are created in the lookup environment
+					jdtTreeBuilder.requireSequentialBuild();
 					if (anImport.isStatic()) {
 						int indexDeclaring = 2;
 						if ((anImport.bits & ASTNode.OnDemand) != 0) {
@@ -382,7 +430,7 @@ public class ReferenceBuilder {
 			ref.setType(getTypeReference(exec.returnType));
 		}
 		if (exec instanceof ProblemMethodBinding) {
-			if (exec.declaringClass != null && Arrays.asList(exec.declaringClass.methods()).contains(exec)) {
+			if (exec.declaringClass != null && Arrays.asList(getMethods(exec.declaringClass)).contains(exec)) {
 				ref.setDeclaringType(getTypeReference(exec.declaringClass));
 			} else {
 				final CtReference declaringType = getDeclaringReferenceFromImports(exec.constantPoolName());
@@ -584,7 +632,14 @@ public class ReferenceBuilder {
 
 		if (inner.getPackage() == null) {
 			PackageFactory packageFactory = this.jdtTreeBuilder.getFactory().Package();
-			CtPackageReference packageReference = index >= 0 ? packageFactory.getOrCreate(concatSubArray(namesParameterized, index)).getReference() : packageFactory.topLevel();
+			CtPackageReference packageReference;
+			if (index >= 0) {
+				// the package may be created, in the packages shared by the units
+				this.jdtTreeBuilder.requireSequentialBuild();
+				packageReference = packageFactory.getOrCreate(concatSubArray(namesParameterized, index)).getReference();
+			} else {
+				packageReference = packageFactory.topLevel();
+			}
 			inner.setPackage(packageReference);
 		}
 		if (!res.toString().replace(", ?", ",?").endsWith(nameParameterized)) {
@@ -747,13 +802,13 @@ public class ReferenceBuilder {
 			} else {
 				TypeVariableBinding typeParamBinding = (TypeVariableBinding) binding;
 				ReferenceBinding superClass = typeParamBinding.superclass;
-				ReferenceBinding[] superInterfaces = typeParamBinding.superInterfaces();
+				ReferenceBinding[] superInterfaces = getSuperInterfaces(typeParamBinding);
 
 				CtTypeReference refSuperClass = null;
 
 				// if the type parameter has a super class other than java.lang.Object, we get it
-				// superClass.superclass() is null if it's java.lang.Object
-				if (superClass != null && !(superClass.superclass() == null)) {
+				// superClass.superclass() is null if it's java.lang.Object, which is known without resolving it
+				if (superClass != null && superClass.id != TypeIds.T_JavaLangObject && !(getSuperclass(superClass) == null)) {
 
 					// this case could happen with Enum<E extends Enum<E>> for example:
 					// in that case we only want to have E -> Enum -> E
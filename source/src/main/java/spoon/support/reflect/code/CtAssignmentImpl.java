@@ -80,7 +80,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 		if (assigned != null) {
 			assigned.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, ASSIGNED, assigned, this.assigned);
+		getModelChangeListener().onObjectUpdate(this, ASSIGNED, assigned, this.assigned);
 		this.assigned = assigned;
 		return (C) this;
 	}
@@ -90,7 +90,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 		if (assignment != null) {
 			assignment.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, ASSIGNMENT, assignment, this.assignment);
+		getModelChangeListener().onObjectUpdate(this, ASSIGNMENT, assignment, this.assignment);
 		this.assignment = assignment;
 		return (C) this;
 	}
@@ -100,7 +100,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 		if (type != null) {
 			type.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, TYPE, type, this.type);
+		getModelChangeListener().onObjectUpdate(this, TYPE, type, this.type);
 		this.type = type;
 		return (C) this;
 	}
@@ -108,13 +108,14 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 	@Override
 	public <C extends CtExpression<T>> C setTypeCasts(List<CtTypeReference<?>> casts) {
 		if (casts == null || casts.isEmpty()) {
+			countChange();
 			this.typeCasts = CtElementImpl.emptyList();
 			return (C) this;
 		}
 		if (this.typeCasts == CtElementImpl.<CtTypeReference<?>>emptyList()) {
 			this.typeCasts = new ArrayList<>(CASTS_CONTAINER_DEFAULT_CAPACITY);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, CAST, this.typeCasts, new ArrayList<>(this.typeCasts));
+		getModelChangeListener().onListDeleteAll(this, CAST, this.typeCasts, new ArrayList<>(this.typeCasts));
 		this.typeCasts.clear();
 		for (CtTypeReference<?> cast : casts) {
 			addTypeCast(cast);
@@ -131,7 +132,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 			typeCasts = new ArrayList<>(CASTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		type.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, CAST, typeCasts, type);
+		getModelChangeListener().onListAdd(this, CAST, typeCasts, type);
 		typeCasts.add(type);
 		return (C) this;
 	}
@@ -47,7 +47,7 @@ public class CtBreakImpl extends CtStatementImpl implements CtBreak {
 
 	@Override
 	public <T extends CtLabelledFlowBreak> T setTargetLabel(String targetLabel) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, TARGET_LABEL, targetLabel, this.targetLabel);
+		getModelChangeListener().onObjectUpdate(this, TARGET_LABEL, targetLabel, this.targetLabel);
 		this.targetLabel = targetLabel;
 		return (T) this;
 	}
@@ -64,7 +64,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 		if (caseExpression != null) {
 			caseExpression.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CASE, caseExpression, this.caseExpression);
+		getModelChangeListener().onObjectUpdate(this, CASE, caseExpression, this.caseExpression);
 		this.caseExpression = caseExpression;
 		return (T) this;
 	}
@@ -72,10 +72,11 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 	@Override
 	public <T extends CtStatementList> T setStatements(List<CtStatement> statements) {
 		if (statements == null || statements.isEmpty()) {
+			countChange();
 			this.statements = CtElementImpl.emptyList();
 			return (T) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, STATEMENT, this.statements, new ArrayList<>(this.statements));
+		getModelChangeListener().onListDeleteAll(this, STATEMENT, this.statements, new ArrayList<>(this.statements));
 		this.statements.clear();
 		for (CtStatement stmt : statements) {
 			addStatement(stmt);
@@ -101,7 +102,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 		}
 		this.ensureModifiableStatementsList();
 		statement.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, STATEMENT, this.statements, index, statement);
+		getModelChangeListener().onListAdd(this, STATEMENT, this.statements, index, statement);
 		statements.add(index, statement);
 		return (T) this;
 	}
@@ -197,7 +198,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 		if (statements == CtElementImpl.<CtStatement>emptyList()) {
 			return;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, STATEMENT, statements, statements.indexOf(statement), statement);
+		getModelChangeListener().onListDelete(this, STATEMENT, statements, statements.indexOf(statement), statement);
 		statements.remove(statement);
 	}
 
@@ -44,7 +44,7 @@ public class CtCodeSnippetExpressionImpl<T> extends CtExpressionImpl<T> implemen
 
 	@Override
 	public <C extends CtCodeSnippet> C setValue(String value) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, SNIPPET, value, this.value);
+		getModelChangeListener().onObjectUpdate(this, SNIPPET, value, this.value);
 		this.value = value;
 		return (C) this;
 	}
@@ -60,7 +60,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 		if (expression != null) {
 			expression.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, EXPRESSION, expression, this.expression);
+		getModelChangeListener().onObjectUpdate(this, EXPRESSION, expression, this.expression);
 		this.expression = expression;
 		return (T) this;
 	}
@@ -79,7 +79,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 			forInit = new ArrayList<>(FOR_INIT_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		statement.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, FOR_INIT, this.forInit, statement);
+		getModelChangeListener().onListAdd(this, FOR_INIT, this.forInit, statement);
 		forInit.add(statement);
 		return (T) this;
 	}
@@ -87,10 +87,11 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 	@Override
 	public <T extends CtFor> T setForInit(List<CtStatement> statements) {
 		if (statements == null || statements.isEmpty()) {
+			countChange();
 			this.forInit = CtElementImpl.emptyList();
 			return (T) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, FOR_INIT, this.forInit, new ArrayList<>(this.forInit));
+		getModelChangeListener().onListDeleteAll(this, FOR_INIT, this.forInit, new ArrayList<>(this.forInit));
 		this.forInit.clear();
 		for (CtStatement stmt : statements) {
 			addForInit(stmt);
@@ -103,7 +104,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 		if (forInit == CtElementImpl.<CtStatement>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, FOR_INIT, forInit, forInit.indexOf(statement), statement);
+		getModelChangeListener().onListDelete(this, FOR_INIT, forInit, forInit.indexOf(statement), statement);
 		return forInit.remove(statement);
 	}
 
@@ -121,7 +122,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 			forUpdate = new ArrayList<>(FOR_UPDATE_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		statement.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, FOR_UPDATE, this.forUpdate, statement);
+		getModelChangeListener().onListAdd(this, FOR_UPDATE, this.forUpdate, statement);
 		forUpdate.add(statement);
 		return (T) this;
 	}
@@ -129,10 +130,11 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 	@Override
 	public <T extends CtFor> T setForUpdate(List<CtStatement> statements) {
 		if (statements == null || statements.isEmpty()) {
+			countChange();
 			this.forUpdate = CtElementImpl.emptyList();
 			return (T) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, FOR_UPDATE, this.forUpdate, new ArrayList<>(this.forUpdate));
+		getModelChangeListener().onListDeleteAll(this, FOR_UPDATE, this.forUpdate, new ArrayList<>(this.forUpdate));
 		this.forUpdate.clear();
 		for (CtStatement stmt : statements) {
 			addForUpdate(stmt);
@@ -145,7 +147,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 		if (forUpdate == CtElementImpl.<CtStatement>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, FOR_UPDATE, forUpdate, forUpdate.indexOf(statement), statement);
+		getModelChangeListener().onListDelete(this, FOR_UPDATE, forUpdate, forUpdate.indexOf(statement), statement);
 		return forUpdate.remove(statement);
 	}
 
@@ -57,10 +57,11 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 	@Override
 	public <C extends CtNewArray<T>> C setDimensionExpressions(List<CtExpression<Integer>> dimensionExpressions) {
 		if (dimensionExpressions == null || dimensionExpressions.isEmpty()) {
+			countChange();
 			this.dimensionExpressions = CtElementImpl.emptyList();
 			return (C) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, DIMENSION, this.dimensionExpressions, new ArrayList<>(this.dimensionExpressions));
+		getModelChangeListener().onListDeleteAll(this, DIMENSION, this.dimensionExpressions, new ArrayList<>(this.dimensionExpressions));
 		this.dimensionExpressions.clear();
 		for (CtExpression<Integer> expr : dimensionExpressions) {
 			addDimensionExpression(expr);
@@ -77,7 +78,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 			dimensionExpressions = new ArrayList<>(NEW_ARRAY_DEFAULT_EXPRESSIONS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		dimension.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, DIMENSION, this.dimensionExpressions, dimension);
+		getModelChangeListener().onListAdd(this, DIMENSION, this.dimensionExpressions, dimension);
 		dimensionExpressions.add(dimension);
 		return (C) this;
 	}
@@ -87,17 +88,18 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 		if (dimensionExpressions == CtElementImpl.<CtExpression<Integer>>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, DIMENSION, dimensionExpressions, dimensionExpressions.indexOf(dimension), dimension);
+		getModelChangeListener().onListDelete(this, DIMENSION, dimensionExpressions, dimensionExpressions.indexOf(dimension), dimension);
 		return dimensionExpressions.remove(dimension);
 	}
 
 	@Override
 	public <C extends CtNewArray<T>> C setElements(List<CtExpression<?>> expressions) {
 		if (expressions == null || expressions.isEmpty()) {
+			countChange();
 			this.expressions = CtElementImpl.emptyList();
 			return (C) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, EXPRESSION, this.expressions, new ArrayList<>(this.expressions));
+		getModelChangeListener().onListDeleteAll(this, EXPRESSION, this.expressions, new ArrayList<>(this.expressions));
 		this.expressions.clear();
 		for (CtExpression<?> expr : expressions) {
 			addElement(expr);
@@ -114,7 +116,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 			this.expressions = new ArrayList<>();
 		}
 		expression.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, EXPRESSION, this.expressions, expression);
+		getModelChangeListener().onListAdd(this, EXPRESSION, this.expressions, expression);
 		expressions.add(expression);
 		return (C) this;
 	}
@@ -124,7 +126,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 		if (expressions == CtElementImpl.<CtExpression<?>>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, EXPRESSION, expressions, expressions.indexOf(expression), expression);
+		getModelChangeListener().onListDelete(this, EXPRESSION, expressions, expressions.indexOf(expression), expression);
 		return expressions.remove(expression);
 	}
 
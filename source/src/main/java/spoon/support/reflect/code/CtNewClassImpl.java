@@ -44,7 +44,7 @@ public class CtNewClassImpl<T> extends CtConstructorCallImpl<T> implements CtNew
 		if (anonymousClass != null) {
 			anonymousClass.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, NESTED_TYPE, anonymousClass, this.anonymousClass);
+		getModelChangeListener().onObjectUpdate(this, NESTED_TYPE, anonymousClass, this.anonymousClass);
 		this.anonymousClass = anonymousClass;
 		return (N) this;
 	}
@@ -47,7 +47,7 @@ public class CtSuperAccessImpl<T> extends CtVariableReadImpl<T> implements CtSup
 		if (target != null) {
 			target.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, TARGET, target, this.target);
+		getModelChangeListener().onObjectUpdate(this, TARGET, target, this.target);
 		this.target = target;
 		return null;
 	}
@@ -58,10 +58,11 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 	@Override
 	public <T extends CtSwitch<S>> T setCases(List<CtCase<? super S>> cases) {
 		if (cases == null || cases.isEmpty()) {
+			countChange();
 			this.cases = CtElementImpl.emptyList();
 			return (T) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, CASE, this.cases, new ArrayList<>(this.cases));
+		getModelChangeListener().onListDeleteAll(this, CASE, this.cases, new ArrayList<>(this.cases));
 		this.cases.clear();
 		for (CtCase<? super S> aCase : cases) {
 			addCase(aCase);
@@ -74,7 +75,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 		if (selector != null) {
 			selector.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, EXPRESSION, selector, this.expression);
+		getModelChangeListener().onObjectUpdate(this, EXPRESSION, selector, this.expression);
 		this.expression = selector;
 		return (T) this;
 	}
@@ -88,7 +89,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 			cases = new ArrayList<>(SWITCH_CASES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		c.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, CASE, this.cases, c);
+		getModelChangeListener().onListAdd(this, CASE, this.cases, c);
 		cases.add(c);
 		return (T) this;
 	}
@@ -98,7 +99,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 		if (cases == CtElementImpl.<CtCase<? super S>>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CASE, cases, cases.indexOf(c), c);
+		getModelChangeListener().onListDelete(this, CASE, cases, cases.indexOf(c), c);
 		return cases.remove(c);
 	}
 
@@ -46,7 +46,7 @@ public class CtThrowImpl extends CtStatementImpl implements CtThrow {
 		if (expression != null) {
 			expression.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, EXPRESSION, expression, this.throwExpression);
+		getModelChangeListener().onObjectUpdate(this, EXPRESSION, expression, this.throwExpression);
 		this.throwExpression = expression;
 		return (T) this;
 	}
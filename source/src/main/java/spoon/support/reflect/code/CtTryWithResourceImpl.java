@@ -48,10 +48,11 @@ public class CtTryWithResourceImpl extends CtTryImpl implements CtTryWithResourc
 	@Override
 	public <T extends CtTryWithResource> T setResources(List<CtLocalVariable<?>> resources) {
 		if (resources == null || resources.isEmpty()) {
+			countChange();
 			this.resources = CtElementImpl.emptyList();
 			return (T) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, TRY_RESOURCE, this.resources, new ArrayList<>(this.resources));
+		getModelChangeListener().onListDeleteAll(this, TRY_RESOURCE, this.resources, new ArrayList<>(this.resources));
 		this.resources.clear();
 		for (CtLocalVariable<?> l : resources) {
 			addResource(l);
@@ -68,7 +69,7 @@ public class CtTryWithResourceImpl extends CtTryImpl implements CtTryWithResourc
 			resources = new ArrayList<>(RESOURCES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		resource.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, TRY_RESOURCE, this.resources, resource);
+		getModelChangeListener().onListAdd(this, TRY_RESOURCE, this.resources, resource);
 		resources.add(resource);
 		return (T) this;
 	}
@@ -78,7 +79,7 @@ public class CtTryWithResourceImpl extends CtTryImpl implements CtTryWithResourc
 		if (resources == CtElementImpl.<CtLocalVariable<?>>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, TRY_RESOURCE, resources, resources.indexOf(resource), resource);
+		getModelChangeListener().onListDelete(this, TRY_RESOURCE, resources, resources.indexOf(resource), resource);
 		return resources.remove(resource);
 	}
 
@@ -45,7 +45,7 @@ public class CtTypeAccessImpl<A> extends CtExpressionImpl<Void> implements CtTyp
 		if (accessedType != null) {
 			accessedType.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, ACCESSED_TYPE, accessedType, this.type);
+		getModelChangeListener().onObjectUpdate(this, ACCESSED_TYPE, accessedType, this.type);
 		type = accessedType;
 		return (C) this;
 	}
@@ -46,7 +46,7 @@ public abstract class CtVariableAccessImpl<T> extends CtExpressionImpl<T> implem
 		if (variable != null) {
 			variable.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, VARIABLE, variable, this.variable);
+		getModelChangeListener().onObjectUpdate(this, VARIABLE, variable, this.variable);
 		this.variable = variable;
 		return (C) this;
 	}
@@ -29,9 +29,9 @@ import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.support.reflect.cu.position.PartialSourcePositionImpl;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -191,50 +191,99 @@ public class CompilationUnitImpl implements CompilationUnit, FactoryAccessor {
 		return binaries;
 	}
 
-	String originalSourceCode;
-
+	/**
+	 * @return the content of the file of this compilation unit, read by the {@link SourceStore} of the factory
+	 */
 	public String getOriginalSourceCode() {
+		return getFactory().CompilationUnit().getSourceStore().getSourceCode(getFile(), getFactory().getEnvironment().getEncoding());
+	}
 
-		if (originalSourceCode == null) {
-			try (FileInputStream s = new FileInputStream(getFile());) {
-				byte[] elementBytes = new byte[s.available()];
-				s.read(elementBytes);
-				originalSourceCode = new String(elementBytes, this.getFactory().getEnvironment().getEncoding());
-			} catch (Exception e) {
-				throw new RuntimeException(e);
+	/**
+	 * The indexes of the tabulations of the original source code, computed on demand by {@link #getTabulationCount(int, int)}
+	 */
+	private transient volatile TabulationIndexes tabulationIndexes;
+
+	/**
+	 * The indexes of the tabulations of a source code, in ascending order,
+	 * and the hash code of the source code, since it may be read again after it has changed (see {@link SourceStore#setSoftlyReferenced(boolean)})
+	 */
+	private static final class TabulationIndexes {
+		final int sourceHash;
+		final int[] indexes;
+
+		TabulationIndexes(String source) {
+			sourceHash = source.hashCode();
+			int count = 0;
+			for (int i = 0; i < source.length(); i++) {
+				if (source.charAt(i) == '\t') {
+					count++;
+				}
+			}
+			indexes = new int[count];
+			count = 0;
+			for (int i = 0; i < source.length(); i++) {
+				if (source.charAt(i) == '\t') {
+					indexes[count++] = i;
+				}
 			}
 		}
-		return originalSourceCode;
+	}
+
+	/**
+	 * @return the number of tabulations of the original source code from the index `start` (included) to the index `end` (excluded)
+	 */
+	public int getTabulationCount(int start, int end) {
+		if (end <= start) {
+			return 0;
+		}
+		String source = getOriginalSourceCode();
+		TabulationIndexes indexes = tabulationIndexes;
+		if (indexes == null || indexes.sourceHash != source.hashCode()) {
+			indexes = new TabulationIndexes(source);
+			tabulationIndexes = indexes;
+		}
+		int[] tabulations = indexes.indexes;
+		return countBefore(tabulations, end) - countBefore(tabulations, start);
+	}
+
+	/**
+	 * @return the number of the values of the ascending array `values`, which are lower than `value`
+	 */
+	private static int countBefore(int[] values, int value) {
+		int i = Arrays.binarySearch(values, value);
+		return i < 0 ? -i - 1 : i;
 	}
 
 	public int beginOfLineIndex(int index) {
+		String source = getOriginalSourceCode();
 		int cur = index;
-		while (cur >= 0 && getOriginalSourceCode().charAt(cur) != '\n') {
+		while (cur >= 0 && source.charAt(cur) != '\n') {
 			cur--;
 		}
 		return cur + 1;
 	}
 
 	public int nextLineIndex(int index) {
+		String source = getOriginalSourceCode();
 		int cur = index;
-		while (cur < getOriginalSourceCode().length()
-				&& getOriginalSourceCode().charAt(cur) != '\n') {
+		while (cur < source.length()
+				&& source.charAt(cur) != '\n') {
 			cur++;
 		}
 		return cur + 1;
 	}
 
 	public int getTabCount(int index) {
+		String source = getOriginalSourceCode();
 		int cur = index;
 		int tabCount = 0;
 		int whiteSpaceCount = 0;
-		while (cur < getOriginalSourceCode().length()
-				&& (getOriginalSourceCode().charAt(cur) == ' ' || getOriginalSourceCode()
-				.charAt(cur) == '\t')) {
-			if (getOriginalSourceCode().charAt(cur) == '\t') {
+		while (cur < source.length()
+				&& (source.charAt(cur) == ' ' || source.charAt(cur) == '\t')) {
+			if (source.charAt(cur) == '\t') {
 				tabCount++;
 			}
-			if (getOriginalSourceCode().charAt(cur) == ' ') {
+			if (source.charAt(cur) == ' ') {
 				whiteSpaceCount++;
 			}
 			cur++;
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.reflect.cu;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The original source code of the compilation units of a model, see {@link CompilationUnitImpl#getOriginalSourceCode()}.
+ * The source code of a file is read when it is asked for, once for all the compilation units and printers which use it.
+ * By default, the source code is softly referenced: it is dropped when the memory is needed and it is read again when
+ * it is asked for, so that the source code of the whole model is not kept in memory for the lifetime of the model.
+ * A file which has changed in between is then read as it is now, and a warning is logged, since the source positions
+ * of its compilation unit may not match its new content. The source code can be kept instead,
+ * see {@link #setSoftlyReferenced(boolean)}, so that it matches the source positions even if the file changes.
+ */
+public class SourceStore {
+
+	private final Map<File, Source> sources = new ConcurrentHashMap<>();
+
+	private volatile boolean softlyReferenced = true;
+
+	/**
+	 * The source code of a file, and its hash code to detect that the file has changed when it is read again
+	 */
+	private static final class Source {
+		final int hash;
+		private final String code;
+		private final SoftReference<String> softCode;
+
+		Source(String code, boolean softlyReferenced) {
+			this.hash = code.hashCode();
+			this.code = softlyReferenced ? null : code;
+			this.softCode = softlyReferenced ? new SoftReference<>(code) : null;
+		}
+
+		/**
+		 * @return the source code, or null if it was softly referenced and has been dropped
+		 */
+		String get() {
+			return softCode == null ? code : softCode.get();
+		}
+	}
+
+	/**
+	 * @return true if the source code read from now on is dropped when the memory is needed
+	 */
+	public boolean isSoftlyReferenced() {
+		return softlyReferenced;
+	}
+
+	/**
+	 * @param softlyReferenced true to drop the source code read from now on when the memory is needed, and read it again
+	 * when it is asked for, the files should then not change while the model is used. False to keep the source code
+	 * as long as the model. True by default.
+	 */
+	public void setSoftlyReferenced(boolean softlyReferenced) {
+		this.softlyReferenced = softlyReferenced;
+	}
+
+	/**
+	 * @param file the source file
+	 * @param encoding the encoding of the file
+	 * @return the content of the file
+	 */
+	public String getSourceCode(File file, Charset encoding) {
+		if (file == null) {
+			throw new SpoonException("The compilation unit has no file");
+		}
+		Source source = sources.get(file);
+		String code = source == null ? null : source.get();
+		if (code != null) {
+			return code;
+		}
+		code = read(file, encoding);
+		if (source != null && source.hash != code.hashCode()) {
+			Launcher.LOGGER.warn("The source file " + file + " has changed since it was read, the source positions of its compilation unit may not match its content");
+		}
+		sources.put(file, new Source(code, softlyReferenced));
+		return code;
+	}
+
+	private static String read(File file, Charset encoding) {
+		try {
+			return new String(Files.readAllBytes(file.toPath()), encoding);
+		} catch (IOException e) {
+			throw new SpoonException("Cannot read the source file " + file, e);
+		}
+	}
+}
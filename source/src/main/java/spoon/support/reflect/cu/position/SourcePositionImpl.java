@@ -21,9 +21,11 @@ import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.cu.position.BodyHolderSourcePosition;
 import spoon.reflect.cu.position.DeclarationSourcePosition;
+import spoon.support.reflect.cu.CompilationUnitImpl;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * This immutable class represents the position of a Java program element in a source
@@ -73,24 +75,59 @@ public class SourcePositionImpl implements SourcePosition, Serializable {
 		if (length == 0) {
 			return -1;
 		}
-		int i = 0;
-		for (i = 0; i < lineSeparatorPositions.length - 1; i++) {
-			if (lineSeparatorPositions[i] < position && (lineSeparatorPositions[i + 1] > position)) {
-				return position - lineSeparatorPositions[i];
+		int i = Arrays.binarySearch(lineSeparatorPositions, position);
+		if (i < 0) {
+			// the index of the first line separator after the position
+			int next = -i - 1;
+			if (next > 0 && next < length) {
+				return position - lineSeparatorPositions[next - 1];
 			}
 		}
+		// the position is on the first line, on the last line or on a line separator
+		int lastLineSeparator = lineSeparatorPositions[length - 1];
 		int tabCount = 0;
 		int tabSize = 0;
 		if (getCompilationUnit() != null) {
 			tabSize = getCompilationUnit().getFactory().getEnvironment().getTabulationSize();
-			String source = getCompilationUnit().getOriginalSourceCode();
-			for (int j = lineSeparatorPositions[i]; j < position; j++) {
-				if (source.charAt(j) == '\t') {
-					tabCount++;
+			if (getCompilationUnit() instanceof CompilationUnitImpl) {
+				tabCount = ((CompilationUnitImpl) getCompilationUnit()).getTabulationCount(lastLineSeparator, position);
+			} else {
+				String source = getCompilationUnit().getOriginalSourceCode();
+				for (int j = lastLineSeparator; j < position; j++) {
+					if (source.charAt(j) == '\t') {
+						tabCount++;
+					}
 				}
 			}
 		}
-		return (position - lineSeparatorPositions[i]) - tabCount + (tabCount * tabSize);
+		return (position - lastLineSeparator) - tabCount + (tabCount * tabSize);
+	}
+
+	/**
+	 * The columns and the end line of a position, which are computed once
+	 */
+	private static final class Columns {
+		final int column;
+		final int endLine;
+		final int endColumn;
+
+		Columns(int column, int endLine, int endColumn) {
+			this.column = column;
+			this.endLine = endLine;
+			this.endColumn = endColumn;
+		}
+	}
+
+	/**
+	 * @return the columns and the end line of this position
+	 */
+	private Columns getColumns() {
+		Columns result = columns;
+		if (result == null) {
+			result = new Columns(searchColumnNumber(sourceStart), searchLineNumber(sourceEnd), searchColumnNumber(sourceEnd));
+			columns = result;
+		}
+		return result;
 	}
 
 	/** The position of the first byte of this element (incl. documentation and modifiers) */
@@ -104,6 +141,9 @@ public class SourcePositionImpl implements SourcePosition, Serializable {
 	 */
 	private int sourceStartline = -1;
 
+	/** The columns and the end line, computed lazily by {@link #getColumns()} */
+	private transient Columns columns;
+
 	/**
 	 * The index of line breaks, as computed by JDT.
 	 * Used to compute line numbers afterwards.
@@ -125,11 +165,11 @@ public class SourcePositionImpl implements SourcePosition, Serializable {
 	}
 
 	public int getColumn() {
-		return searchColumnNumber(sourceStart);
+		return getColumns().column;
 	}
 
 	public int getEndColumn() {
-		return searchColumnNumber(sourceEnd);
+		return getColumns().endColumn;
 	}
 
 	public File getFile() {
@@ -144,7 +184,7 @@ public class SourcePositionImpl implements SourcePosition, Serializable {
 	}
 
 	public int getEndLine() {
-		return searchLineNumber(sourceEnd);
+		return getColumns().endLine;
 	}
 
 	public int getSourceEnd() {
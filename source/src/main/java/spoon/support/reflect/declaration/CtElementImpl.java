@@ -19,6 +19,7 @@ package spoon.support.reflect.declaration;
 import org.apache.log4j.Logger;
 import spoon.Launcher;
 import spoon.SpoonException;
+import spoon.experimental.modelobs.FineModelChangeListener;
 import spoon.reflect.CtModelImpl;
 import spoon.reflect.annotations.MetamodelPropertyField;
 import spoon.reflect.code.CtComment;
@@ -27,7 +28,9 @@ import spoon.reflect.code.CtJavaDocTag;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtModule;
 import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtShadowable;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ParentNotInitializedException;
@@ -214,12 +217,51 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 		return pr.getHasCode();
 	}
 
+	/**
+	 * Counts a change of this element in the types which contain it, see {@link CtTypeImpl#changeCount},
+	 * and, if this element is a type, a package or a module, in the module which contains it, see {@link CtModuleImpl#getTypeChangeCount()}.
+	 * It is called on every path which changes a property of this element.
+	 */
+	protected void countChange() {
+		boolean typeChange = this instanceof CtType || this instanceof CtPackage || this instanceof CtModule;
+		CtElement element = this;
+		while (element instanceof CtElementImpl) {
+			if (element instanceof CtTypeImpl) {
+				((CtTypeImpl<?>) element).changeCount++;
+			} else if (typeChange && element instanceof CtModuleImpl) {
+				((CtModuleImpl) element).typeChangeCount++;
+			}
+			element = ((CtElementImpl) element).parent;
+		}
+	}
+
+	/**
+	 * @return the listener which has to be notified of a change of this element.
+	 * The change is counted in the types which contain this element, see {@link #countChange()}.
+	 */
+	protected FineModelChangeListener getModelChangeListener() {
+		return getModelChangeListener(this);
+	}
+
+	/**
+	 * @param element the element which is going to change
+	 * @return the listener which has to be notified of the change of `element`.
+	 * The change is counted in the types which contain `element`, see {@link #countChange()}.
+	 */
+	public static FineModelChangeListener getModelChangeListener(CtElement element) {
+		if (element instanceof CtElementImpl) {
+			((CtElementImpl) element).countChange();
+		}
+		return element.getFactory().getEnvironment().getModelChangeListener();
+	}
+
 	public <E extends CtElement> E setAnnotations(List<CtAnnotation<? extends Annotation>> annotations) {
 		if (annotations == null || annotations.isEmpty()) {
+			countChange();
 			this.annotations = CtElementImpl.emptyList();
 			return (E) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, ANNOTATION, this.annotations, new ArrayList<>(this.annotations));
+		getModelChangeListener().onListDeleteAll(this, ANNOTATION, this.annotations, new ArrayList<>(this.annotations));
 		this.annotations.clear();
 		for (CtAnnotation<? extends Annotation> annot : annotations) {
 			addAnnotation(annot);
@@ -241,7 +283,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 			this.annotations = new ArrayList<>(ANNOTATIONS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		annotation.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, ANNOTATION, this.annotations, annotation);
+		getModelChangeListener().onListAdd(this, ANNOTATION, this.annotations, annotation);
 		this.annotations.add(annotation);
 		return (E) this;
 	}
@@ -250,7 +292,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 		if (this.annotations == CtElementImpl.<CtAnnotation<? extends Annotation>>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, ANNOTATION, annotations, annotations.indexOf(annotation), annotation);
+		getModelChangeListener().onListDelete(this, ANNOTATION, annotations, annotations.indexOf(annotation), annotation);
 		return this.annotations.remove(annotation);
 	}
 
@@ -269,7 +311,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 		if (position == null) {
 			position = SourcePosition.NOPOSITION;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, POSITION, position, this.position);
+		getModelChangeListener().onObjectUpdate(this, POSITION, position, this.position);
 		this.position = position;
 		return (E) this;
 	}
@@ -316,7 +358,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 	}
 
 	public <E extends CtElement> E setImplicit(boolean implicit) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, IS_IMPLICIT, implicit, this.implicit);
+		getModelChangeListener().onObjectUpdate(this, IS_IMPLICIT, implicit, this.implicit);
 		this.implicit = implicit;
 		return (E) this;
 	}
@@ -508,7 +550,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 			comments = new ArrayList<>(COMMENT_CONTAINER_DEFAULT_CAPACITY);
 		}
 		comment.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, COMMENT, this.comments, comment);
+		getModelChangeListener().onListAdd(this, COMMENT, this.comments, comment);
 		comments.add(comment);
 		return (E) this;
 	}
@@ -518,7 +560,7 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 		if (this.comments == CtElementImpl.<CtComment>emptyList()) {
 			return (E) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, COMMENT, comments, comments.indexOf(comment), comment);
+		getModelChangeListener().onListDelete(this, COMMENT, comments, comments.indexOf(comment), comment);
 		this.comments.remove(comment);
 		return (E) this;
 	}
@@ -526,10 +568,11 @@ public abstract class CtElementImpl implements CtElement, Serializable {
 	@Override
 	public <E extends CtElement> E setComments(List<CtComment> comments) {
 		if (comments == null || comments.isEmpty()) {
+			countChange();
 			this.comments = CtElementImpl.emptyList();
 			return (E) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, COMMENT, this.comments, new ArrayList<>(this.comments));
+		getModelChangeListener().onListDeleteAll(this, COMMENT, this.comments, new ArrayList<>(this.comments));
 		this.comments.clear();
 		for (CtComment comment : comments) {
 			addComment(comment);
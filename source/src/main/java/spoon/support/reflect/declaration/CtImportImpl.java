@@ -63,7 +63,7 @@ public class CtImportImpl extends CtElementImpl implements CtImport {
 		if (reference != null) {
 			reference.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.IMPORT_REFERENCE, reference, this.localReference);
+		getModelChangeListener().onObjectUpdate(this, CtRole.IMPORT_REFERENCE, reference, this.localReference);
 		this.localReference = reference;
 		return (T) this;
 	}
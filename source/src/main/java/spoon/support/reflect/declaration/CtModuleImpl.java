@@ -29,6 +29,7 @@ import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtModuleReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.DerivedProperty;
+import spoon.support.Internal;
 import spoon.support.comparator.CtLineElementComparator;
 import spoon.support.util.SortedList;
 
@@ -46,10 +47,27 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 	@MetamodelPropertyField(role = CtRole.SUB_PACKAGE)
 	private CtPackage rootPackage;
 
+	/**
+	 * The number of changes of the packages and types of this module, or of this module itself, see {@link CtElementImpl#countChange()}.
+	 * The changes of the other elements, like the statements of a method, are not counted.
+	 * It is volatile because the index of the types may be read by other threads, see {@link spoon.compiler.Environment#setPrintingThreads(int)}.
+	 */
+	transient volatile int typeChangeCount;
+
 	public CtModuleImpl() {
 		super();
 	}
 
+	/**
+	 * @return the number of changes of the packages and types of this module, or of this module itself,
+	 * by which the index of the types of {@link spoon.reflect.factory.TypeFactory} is dropped.
+	 * It is not a property of the model.
+	 */
+	@Internal
+	public int getTypeChangeCount() {
+		return typeChangeCount;
+	}
+
 	@Override
 	public boolean isUnnamedModule() {
 		return TOP_LEVEL_MODULE_NAME.equals(this.getSimpleName());
@@ -62,7 +80,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 
 	@Override
 	public <T extends CtModule> T setModuleDirectives(List<CtModuleDirective> moduleDirectives) {
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, CtRole.MODULE_DIRECTIVE, this.moduleDirectives, new ArrayList<>(this.moduleDirectives));
+		getModelChangeListener().onListDeleteAll(this, CtRole.MODULE_DIRECTIVE, this.moduleDirectives, new ArrayList<>(this.moduleDirectives));
 		if (moduleDirectives == null || moduleDirectives.isEmpty()) {
 			this.moduleDirectives = CtElementImpl.emptyList();
 			return (T) this;
@@ -92,7 +110,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 			moduleDirective.setParent(this);
 			CtRole role = this.computeRoleFromModuleDirectory(moduleDirective);
 
-			getFactory().getEnvironment().getModelChangeListener().onListAdd(this, role, this.moduleDirectives, moduleDirective);
+			getModelChangeListener().onListAdd(this, role, this.moduleDirectives, moduleDirective);
 			this.moduleDirectives.add(moduleDirective);
 		}
 
@@ -133,7 +151,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 			moduleDirective.setParent(this);
 			CtRole role = this.computeRoleFromModuleDirectory(moduleDirective);
 
-			getFactory().getEnvironment().getModelChangeListener().onListAdd(this, role, this.moduleDirectives, position, moduleDirective);
+			getModelChangeListener().onListAdd(this, role, this.moduleDirectives, position, moduleDirective);
 			this.moduleDirectives.add(position, moduleDirective);
 		}
 
@@ -151,7 +169,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 			return (T) this;
 		}
 		if (this.moduleDirectives.contains(moduleDirective)) {
-			getFactory().getEnvironment().getModelChangeListener().onListDelete(this, this.computeRoleFromModuleDirectory(moduleDirective), this.moduleDirectives, this.moduleDirectives.indexOf(moduleDirective), moduleDirective);
+			getModelChangeListener().onListDelete(this, this.computeRoleFromModuleDirectory(moduleDirective), this.moduleDirectives, this.moduleDirectives.indexOf(moduleDirective), moduleDirective);
 			if (this.moduleDirectives.size() == 1) {
 				this.moduleDirectives = CtElementImpl.emptyList();
 			} else {
@@ -164,7 +182,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 
 	@Override
 	public <T extends CtModule> T setIsOpenModule(boolean openModule) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.MODIFIER, openModule, this.openModule);
+		getModelChangeListener().onObjectUpdate(this, CtRole.MODIFIER, openModule, this.openModule);
 		this.openModule = openModule;
 		return (T) this;
 	}
@@ -190,7 +208,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 			return (T) this;
 		}
 		List<CtUsedService> usedServices = getUsedServices();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CtRole.SERVICE_TYPE, this.moduleDirectives, new ArrayList<>(usedServices));
+		getModelChangeListener().onListDelete(this, CtRole.SERVICE_TYPE, this.moduleDirectives, new ArrayList<>(usedServices));
 		this.moduleDirectives.removeAll(usedServices);
 
 		for (CtUsedService consumedService : consumedServices) {
@@ -242,7 +260,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 		}
 
 		List<CtPackageExport> oldExportedPackages = getExportedPackages();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CtRole.EXPORTED_PACKAGE, this.moduleDirectives, new ArrayList<>(oldExportedPackages));
+		getModelChangeListener().onListDelete(this, CtRole.EXPORTED_PACKAGE, this.moduleDirectives, new ArrayList<>(oldExportedPackages));
 		this.moduleDirectives.removeAll(oldExportedPackages);
 
 		for (CtPackageExport exportedPackage : exportedPackages) {
@@ -296,7 +314,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 		}
 
 		List<CtPackageExport> oldOpenedPackages = getOpenedPackages();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CtRole.OPENED_PACKAGE, this.moduleDirectives, new ArrayList<>(oldOpenedPackages));
+		getModelChangeListener().onListDelete(this, CtRole.OPENED_PACKAGE, this.moduleDirectives, new ArrayList<>(oldOpenedPackages));
 		this.moduleDirectives.removeAll(oldOpenedPackages);
 
 		for (CtPackageExport exportedPackage : openedPackages) {
@@ -347,7 +365,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 		}
 
 		List<CtModuleRequirement> oldRequiredModules = getRequiredModules();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CtRole.REQUIRED_MODULE, this.moduleDirectives, new ArrayList<>(oldRequiredModules));
+		getModelChangeListener().onListDelete(this, CtRole.REQUIRED_MODULE, this.moduleDirectives, new ArrayList<>(oldRequiredModules));
 		this.moduleDirectives.removeAll(oldRequiredModules);
 
 		for (CtModuleRequirement moduleRequirement : requiredModules) {
@@ -396,7 +414,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 		}
 
 		List<CtProvidedService> oldProvidedServices = getProvidedServices();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, CtRole.PROVIDED_SERVICE, this.moduleDirectives, new ArrayList<>(oldProvidedServices));
+		getModelChangeListener().onListDelete(this, CtRole.PROVIDED_SERVICE, this.moduleDirectives, new ArrayList<>(oldProvidedServices));
 		this.moduleDirectives.removeAll(oldProvidedServices);
 
 		for (CtProvidedService providedService : providedServices) {
@@ -434,7 +452,7 @@ public class CtModuleImpl extends CtNamedElementImpl implements CtModule {
 		if (rootPackage != null) {
 			rootPackage.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.SUB_PACKAGE, rootPackage, this.rootPackage);
+		getModelChangeListener().onObjectUpdate(this, CtRole.SUB_PACKAGE, rootPackage, this.rootPackage);
 		this.rootPackage = rootPackage;
 		return (T) this;
 	}
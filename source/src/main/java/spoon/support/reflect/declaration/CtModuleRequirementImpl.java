@@ -43,7 +43,7 @@ public class CtModuleRequirementImpl extends CtElementImpl implements CtModuleRe
 
 	@Override
 	public <T extends CtModuleRequirement> T setRequiresModifiers(Set<RequiresModifier> requiresModifiers) {
-		getFactory().getEnvironment().getModelChangeListener().onSetDeleteAll(this, CtRole.MODIFIER, this.requiresModifiers, new HashSet<>(requiresModifiers));
+		getModelChangeListener().onSetDeleteAll(this, CtRole.MODIFIER, this.requiresModifiers, new HashSet<>(requiresModifiers));
 		if (requiresModifiers == null || requiresModifiers.isEmpty()) {
 			this.requiresModifiers = CtElementImpl.emptySet();
 			return (T) this;
@@ -54,7 +54,7 @@ public class CtModuleRequirementImpl extends CtElementImpl implements CtModuleRe
 		}
 		this.requiresModifiers.clear();
 		for (RequiresModifier requiresModifier : requiresModifiers) {
-			getFactory().getEnvironment().getModelChangeListener().onSetAdd(this, CtRole.MODIFIER, this.requiresModifiers, requiresModifier);
+			getModelChangeListener().onSetAdd(this, CtRole.MODIFIER, this.requiresModifiers, requiresModifier);
 			this.requiresModifiers.add(requiresModifier);
 		}
 
@@ -71,7 +71,7 @@ public class CtModuleRequirementImpl extends CtElementImpl implements CtModuleRe
 		if (moduleReference != null) {
 			moduleReference.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.MODULE_REF, moduleReference, this.moduleReference);
+		getModelChangeListener().onObjectUpdate(this, CtRole.MODULE_REF, moduleReference, this.moduleReference);
 		this.moduleReference = moduleReference;
 		return (T) this;
 	}
@@ -46,13 +46,14 @@ public abstract class CtNamedElementImpl extends CtElementImpl implements CtName
 	public <T extends CtNamedElement> T setSimpleName(String simpleName) {
 		Factory factory = getFactory();
 		if (factory == null) {
+			countChange();
 			this.simpleName = simpleName;
 			return (T) this;
 		}
 		if (factory instanceof FactoryImpl) {
 			simpleName = ((FactoryImpl) factory).dedup(simpleName);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, NAME, simpleName, this.simpleName);
+		getModelChangeListener().onObjectUpdate(this, NAME, simpleName, this.simpleName);
 		this.simpleName = simpleName;
 		return (T) this;
 	}
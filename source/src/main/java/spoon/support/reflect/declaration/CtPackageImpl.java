@@ -26,9 +26,12 @@ import spoon.reflect.declaration.ParentNotInitializedException;
 import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.Internal;
 import spoon.support.comparator.QualifiedNameComparator;
 import spoon.support.util.ModelSet;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.Set;
 
 import static spoon.reflect.path.CtRole.IS_SHADOW;
@@ -93,10 +96,58 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 		}
 	};
 
+	/**
+	 * Loads the types of a package on demand, when the package comes from a model which is not entirely loaded yet,
+	 * see {@link spoon.support.snapshot.ModelSnapshotStreamer#loadLazily(java.io.InputStream)}
+	 */
+	public interface TypeLoader {
+		/**
+		 * Adds to `pack` its top level type `simpleName`, if it is not loaded yet, with the other types of its compilation unit.
+		 */
+		void loadType(CtPackageImpl pack, String simpleName);
+
+		/**
+		 * Adds to `pack` all its top level types which are not loaded yet.
+		 */
+		void loadTypes(CtPackageImpl pack);
+	}
+
+	/** the loader of the types which are not loaded yet, null once they are all loaded */
+	private transient TypeLoader typeLoader;
+
 	public CtPackageImpl() {
 		super();
 	}
 
+	/**
+	 * @return the loader of the types of this package which are not loaded yet, or null if all the types of the model are loaded
+	 */
+	public TypeLoader getTypeLoader() {
+		return typeLoader;
+	}
+
+	/**
+	 * Attaches the loader of the types of this package which are not loaded yet, or detaches it with null once they are all loaded.
+	 * It is not a property of the model: the change listener is not notified.
+	 */
+	@Internal
+	public void attachTypeLoader(TypeLoader typeLoader) {
+		this.typeLoader = typeLoader;
+	}
+
+	private void loadTypes() {
+		TypeLoader loader = typeLoader;
+		if (loader != null) {
+			loader.loadTypes(this);
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// the types which are not loaded yet would be lost, the loader is not serialized
+		loadTypes();
+		out.defaultWriteObject();
+	}
+
 	@Override
 	public void accept(CtVisitor v) {
 		v.visitCtPackage(this);
@@ -177,6 +228,10 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T extends CtType<?>> T getType(String simpleName) {
+		TypeLoader loader = typeLoader;
+		if (loader != null) {
+			loader.loadType(this, simpleName);
+		}
 		for (CtType<?> t : types) {
 			if (t.getSimpleName().equals(simpleName)) {
 				return (T) t;
@@ -187,6 +242,7 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 
 	@Override
 	public Set<CtType<?>> getTypes() {
+		loadTypes();
 		return types;
 	}
 
@@ -198,6 +254,7 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 
 	@Override
 	public <T extends CtPackage> T setTypes(Set<CtType<?>> types) {
+		loadTypes();
 		this.types.set(types);
 			return (T) this;
 		}
@@ -209,6 +266,8 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 
 	@Override
 	public <T extends CtPackage> T addType(CtType<?> type) {
+		// a loaded type with the same name would not be added otherwise
+		loadTypes();
 		types.add(type);
 		return (T) this;
 	}
@@ -233,7 +292,7 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 
 	@Override
 	public <E extends CtShadowable> E setShadow(boolean isShadow) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, IS_SHADOW, isShadow, this.isShadow);
+		getModelChangeListener().onObjectUpdate(this, IS_SHADOW, isShadow, this.isShadow);
 		this.isShadow = isShadow;
 		return (E) this;
 	}
@@ -47,7 +47,7 @@ public class CtProvidedServiceImpl extends CtElementImpl implements CtProvidedSe
 		if (providingType != null) {
 			providingType.setParent(this);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.SERVICE_TYPE, providingType, this.serviceType);
+		getModelChangeListener().onObjectUpdate(this, CtRole.SERVICE_TYPE, providingType, this.serviceType);
 		this.serviceType = providingType;
 		return (T) this;
 	}
@@ -59,7 +59,7 @@ public class CtProvidedServiceImpl extends CtElementImpl implements CtProvidedSe
 
 	@Override
 	public <T extends CtProvidedService> T setImplementationTypes(List<CtTypeReference> usedTypes) {
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, CtRole.IMPLEMENTATION_TYPE, this.implementationTypes, new ArrayList<>(this.implementationTypes));
+		getModelChangeListener().onListDeleteAll(this, CtRole.IMPLEMENTATION_TYPE, this.implementationTypes, new ArrayList<>(this.implementationTypes));
 		if (usedTypes == null || usedTypes.size() == 0) {
 			this.implementationTypes = CtElementImpl.emptyList();
 			return (T) this;
@@ -85,7 +85,7 @@ public class CtProvidedServiceImpl extends CtElementImpl implements CtProvidedSe
 			this.implementationTypes = new ArrayList<>();
 		}
 
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, CtRole.IMPLEMENTATION_TYPE, this.implementationTypes, usedType);
+		getModelChangeListener().onListAdd(this, CtRole.IMPLEMENTATION_TYPE, this.implementationTypes, usedType);
 		usedType.setParent(this);
 		this.implementationTypes.add(usedType);
 		return (T) this;
@@ -24,6 +24,7 @@ import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtAnnotationType;
 import spoon.reflect.declaration.CtAnonymousExecutable;
 import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtFormalTypeDeclarer;
@@ -47,9 +48,12 @@ import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.EarlyTerminatingScanner;
 import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.chain.CtConsumer;
+import spoon.reflect.visitor.chain.ScanningMode;
 import spoon.reflect.visitor.filter.AllTypeMembersFunction;
 import spoon.reflect.visitor.filter.NamedElementFilter;
 import spoon.reflect.visitor.filter.ReferenceTypeFilter;
+import spoon.reflect.visitor.filter.SuperInheritanceHierarchyFunction;
+import spoon.reflect.visitor.filter.SuperInheritanceHierarchyFunction.DistinctTypeListener;
 import spoon.support.DerivedProperty;
 import spoon.support.UnsettableProperty;
 import spoon.support.comparator.CtLineElementComparator;
@@ -66,8 +70,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
@@ -99,6 +105,16 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@MetamodelPropertyField(role = {CtRole.TYPE_MEMBER, CtRole.FIELD, CtRole.CONSTRUCTOR, CtRole.ANNONYMOUS_EXECUTABLE, CtRole.METHOD, CtRole.NESTED_TYPE})
 	List<CtTypeMember> typeMembers = emptyList();
 
+	/**
+	 * The number of changes of this type or of one of its children, see {@link CtElementImpl#getModelChangeListener(CtElement)}.
+	 * The cached methods of a type are valid as long as the types they come from do not change.
+	 */
+	transient int changeCount;
+
+	private transient MethodsByName declaredMethods;
+
+	private transient AllMethods allMethods;
+
 	public CtTypeImpl() {
 		super();
 	}
@@ -163,7 +179,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			} else {
 				role = NESTED_TYPE;
 			}
-			getFactory().getEnvironment().getModelChangeListener().onListAdd(this, role, this.typeMembers, position, member);
+			getModelChangeListener().onListAdd(this, role, this.typeMembers, position, member);
 			if (position < typeMembers.size()) {
 				this.typeMembers.add(position, member);
 			} else {
@@ -189,7 +205,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 		}
 		if (typeMembers.size() == 1) {
 			if (typeMembers.contains(member)) {
-				getFactory().getEnvironment().getModelChangeListener().onListDelete(this, role, this.typeMembers, this.typeMembers.indexOf(member), member);
+				getModelChangeListener().onListDelete(this, role, this.typeMembers, this.typeMembers.indexOf(member), member);
 				typeMembers = emptyList();
 				return true;
 			} else {
@@ -197,7 +213,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			}
 		}
 		if (typeMembers.contains(member)) {
-			getFactory().getEnvironment().getModelChangeListener().onListDelete(this, role, this.typeMembers, this.typeMembers.indexOf(member), member);
+			getModelChangeListener().onListDelete(this, role, this.typeMembers, this.typeMembers.indexOf(member), member);
 			return typeMembers.remove(member);
 		}
 		return false;
@@ -209,6 +225,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			removeTypeMember(typeMember);
 		}
 		if (members == null || members.isEmpty()) {
+			countChange();
 			this.typeMembers = emptyList();
 			return (C) this;
 		}
@@ -241,7 +258,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			this.typeMembers.removeAll(oldFields);
 			return (C) this;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, FIELD, this.typeMembers, new ArrayList<>(oldFields));
+		getModelChangeListener().onListDelete(this, FIELD, this.typeMembers, new ArrayList<>(oldFields));
 		typeMembers.removeAll(oldFields);
 		for (CtField<?> field : fields) {
 			addField(field);
@@ -301,7 +318,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	public <C extends CtType<T>> C setNestedTypes(Set<CtType<?>> nestedTypes) {
 		Set<CtType<?>> oldNestedTypes = getNestedTypes();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, NESTED_TYPE, typeMembers, oldNestedTypes);
+		getModelChangeListener().onListDelete(this, NESTED_TYPE, typeMembers, oldNestedTypes);
 		if (nestedTypes == null || nestedTypes.isEmpty()) {
 			this.typeMembers.removeAll(oldNestedTypes);
 			return (C) this;
@@ -647,14 +664,14 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			interfaces = new QualifiedNameBasedSortedSet<>();
 		}
 		interfac.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onSetAdd(this, INTERFACE, this.interfaces, interfac);
+		getModelChangeListener().onSetAdd(this, INTERFACE, this.interfaces, interfac);
 		interfaces.add(interfac);
 		return (C) this;
 	}
 
 	@Override
 	public <S> boolean removeSuperInterface(CtTypeReference<S> interfac) {
-		getFactory().getEnvironment().getModelChangeListener().onSetDelete(this, INTERFACE, interfaces, interfac);
+		getModelChangeListener().onSetDelete(this, INTERFACE, interfaces, interfac);
 		if (interfaces == CtElementImpl.<CtTypeReference<?>>emptySet()) {
 			return false;
 		} else if (interfaces.size() == 1) {
@@ -677,7 +694,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <C extends CtFormalTypeDeclarer> C setFormalCtTypeParameters(List<CtTypeParameter> formalTypeParameters) {
-		getFactory().getEnvironment().getModelChangeListener().onListDeleteAll(this, TYPE_PARAMETER, formalCtTypeParameters, new ArrayList<>(formalCtTypeParameters));
+		getModelChangeListener().onListDeleteAll(this, TYPE_PARAMETER, formalCtTypeParameters, new ArrayList<>(formalCtTypeParameters));
 		if (formalTypeParameters == null || formalTypeParameters.isEmpty()) {
 			this.formalCtTypeParameters = CtElementImpl.emptyList();
 			return (C) this;
@@ -701,7 +718,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 			formalCtTypeParameters = new ArrayList<>(TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		formalTypeParameter.setParent(this);
-		getFactory().getEnvironment().getModelChangeListener().onListAdd(this, TYPE_PARAMETER, this.formalCtTypeParameters, formalTypeParameter);
+		getModelChangeListener().onListAdd(this, TYPE_PARAMETER, this.formalCtTypeParameters, formalTypeParameter);
 		formalCtTypeParameters.add(formalTypeParameter);
 		return (C) this;
 	}
@@ -711,32 +728,30 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 		if (formalCtTypeParameters == CtElementImpl.<CtTypeParameter>emptyList()) {
 			return false;
 		}
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, TYPE_PARAMETER, formalCtTypeParameters, formalCtTypeParameters.indexOf(formalTypeParameter), formalTypeParameter);
+		getModelChangeListener().onListDelete(this, TYPE_PARAMETER, formalCtTypeParameters, formalCtTypeParameters.indexOf(formalTypeParameter), formalTypeParameter);
 		return formalCtTypeParameters.remove(formalTypeParameter);
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <R> CtMethod<R> getMethod(CtTypeReference<R> returnType, String name, CtTypeReference<?>... parameterTypes) {
-		for (CtTypeMember typeMember : typeMembers) {
-			if (!(typeMember instanceof CtMethod)) {
+		if (name == null) {
+			return null;
+		}
+		for (CtMethod<?> candidate : getMethodsByName(name)) {
+			CtMethod<R> m = (CtMethod<R>) candidate;
+			if (!m.getType().equals(returnType)) {
 				continue;
 			}
-			CtMethod<R> m = (CtMethod<R>) typeMember;
-			if (m.getSimpleName().equals(name)) {
-				if (!m.getType().equals(returnType)) {
-					continue;
-				}
-				boolean cont = m.getParameters().size() == parameterTypes.length;
-				for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
-					if (!m.getParameters().get(i).getType().getQualifiedName().equals(parameterTypes[i].getQualifiedName())) {
-						cont = false;
-					}
-				}
-				if (cont) {
-					return m;
+			boolean cont = m.getParameters().size() == parameterTypes.length;
+			for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
+				if (!m.getParameters().get(i).getType().getQualifiedName().equals(parameterTypes[i].getQualifiedName())) {
+					cont = false;
 				}
 			}
+			if (cont) {
+				return m;
+			}
 		}
 		return null;
 	}
@@ -850,6 +865,25 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public List<CtMethod<?>> getMethodsByName(String name) {
+		MethodsByName cached = declaredMethods;
+		if (cached != null && cached.changeCount == changeCount) {
+			if (cached.methods != null) {
+				List<CtMethod<?>> methods = cached.methods.get(name);
+				return methods == null ? new ArrayList<>(1) : new ArrayList<>(methods);
+			}
+			// the second lookup without change, the methods are indexed
+			Map<String, List<CtMethod<?>>> methods = new HashMap<>();
+			for (CtTypeMember typeMember : typeMembers) {
+				if (typeMember instanceof CtMethod) {
+					methods.computeIfAbsent(typeMember.getSimpleName(), k -> new ArrayList<>(1)).add((CtMethod<?>) typeMember);
+				}
+			}
+			declaredMethods = new MethodsByName(changeCount, methods);
+			List<CtMethod<?>> sameNameMethods = methods.get(name);
+			return sameNameMethods == null ? new ArrayList<>(1) : new ArrayList<>(sameNameMethods);
+		}
+		// a type which changes between the lookups, like a type being built, is not indexed
+		declaredMethods = new MethodsByName(changeCount, null);
 		List<CtMethod<?>> result = new ArrayList<>(1);
 		for (CtTypeMember typeMember : typeMembers) {
 			if (!(typeMember instanceof CtMethod)) {
@@ -925,7 +959,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	public <C extends CtType<T>> C setMethods(Set<CtMethod<?>> methods) {
 		Set<CtMethod<?>> allMethods = getMethods();
-		getFactory().getEnvironment().getModelChangeListener().onListDelete(this, METHOD, this.typeMembers, new ArrayList(allMethods));
+		getModelChangeListener().onListDelete(this, METHOD, this.typeMembers, new ArrayList(allMethods));
 		typeMembers.removeAll(allMethods);
 		if (methods == null || methods.isEmpty()) {
 			return (C) this;
@@ -946,13 +980,14 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	public <C extends CtType<T>> C setSuperInterfaces(Set<CtTypeReference<?>> interfaces) {
 		if (interfaces == null || interfaces.isEmpty()) {
+			countChange();
 			this.interfaces = CtElementImpl.emptySet();
 			return (C) this;
 		}
 		if (this.interfaces == CtElementImpl.<CtTypeReference<?>>emptySet()) {
 			this.interfaces = new QualifiedNameBasedSortedSet<>();
 		}
-		getFactory().getEnvironment().getModelChangeListener().onSetDeleteAll(this, INTERFACE, this.interfaces, new HashSet<>(this.interfaces));
+		getModelChangeListener().onSetDeleteAll(this, INTERFACE, this.interfaces, new HashSet<>(this.interfaces));
 		this.interfaces.clear();
 		for (CtTypeReference<?> anInterface : interfaces) {
 			addSuperInterface(anInterface);
@@ -975,6 +1010,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	public Collection<CtExecutableReference<?>> getAllExecutables() {
 		Set<CtExecutableReference<?>> l = new SignatureBasedSortedSet();
+		// the methods are read from the cache of getAllMethods()
 		for (CtMethod<?> m : getAllMethods()) {
 			l.add((CtExecutableReference<?>) m.getReference());
 		}
@@ -983,21 +1019,105 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public Set<CtMethod<?>> getAllMethods() {
+		AllMethods cached = allMethods;
+		if (cached != null && cached.isValid()) {
+			return cached.methods;
+		}
+		final List<CtTypeImpl<?>> types = new ArrayList<>();
+		final int[] enteredTypes = new int[1];
+		final Map<String, List<CtMethod<?>>> methodsBySignature = new HashMap<>();
 		final Set<CtMethod<?>> l = new HashSet<>();
 		final ClassTypingContext ctc = new ClassTypingContext(this);
-		map(new AllTypeMembersFunction(CtMethod.class)).forEach(new CtConsumer<CtMethod<?>>() {
+		map(new SuperInheritanceHierarchyFunction().includingSelf(true).setListener(new DistinctTypeListener(new HashSet<>()) {
+			@Override
+			public ScanningMode enter(CtElement element) {
+				ScanningMode mode = super.enter(element);
+				if (mode == ScanningMode.NORMAL) {
+					enteredTypes[0]++;
+				}
+				return mode;
+			}
+		})).forEach(new CtConsumer<CtType<?>>() {
 			@Override
-			public void accept(CtMethod<?> currentMethod) {
-				for (CtMethod<?> alreadyVisitedMethod : l) {
+			public void accept(CtType<?> type) {
+				if (type instanceof CtTypeImpl) {
+					types.add((CtTypeImpl<?>) type);
+				}
+				for (CtTypeMember typeMember : type.getTypeMembers()) {
+					if (typeMember instanceof CtMethod) {
+						addMethod((CtMethod<?>) typeMember);
+					}
+				}
+			}
+
+			private void addMethod(CtMethod<?> currentMethod) {
+				// the methods with the same signature have the same name and the same number of parameters
+				List<CtMethod<?>> sameNameMethods = methodsBySignature.computeIfAbsent(
+						currentMethod.getSimpleName() + "/" + currentMethod.getParameters().size(), k -> new ArrayList<>(1));
+				for (CtMethod<?> alreadyVisitedMethod : sameNameMethods) {
 					if (ctc.isSameSignature(currentMethod, alreadyVisitedMethod)) {
 						return;
 					}
 				}
-
+				sameNameMethods.add(currentMethod);
 				l.add(currentMethod);
 			}
 		});
-		return Collections.unmodifiableSet(l);
+		Set<CtMethod<?>> methods = Collections.unmodifiableSet(l);
+		if (types.size() == enteredTypes[0]) {
+			// all the super types are known, else they may be added to the model later
+			allMethods = new AllMethods(types, methods);
+		}
+		return methods;
+	}
+
+	/**
+	 * The methods of a type and of its super types, see {@link #getAllMethods()}
+	 */
+	private static final class AllMethods {
+		private final CtTypeImpl<?>[] types;
+		private final CtTypeReference<?>[] references;
+		private final int[] changeCounts;
+		private final Set<CtMethod<?>> methods;
+
+		AllMethods(List<CtTypeImpl<?>> types, Set<CtMethod<?>> methods) {
+			this.types = types.toArray(new CtTypeImpl<?>[0]);
+			this.references = new CtTypeReference<?>[this.types.length];
+			this.changeCounts = new int[this.types.length];
+			for (int i = 0; i < this.types.length; i++) {
+				references[i] = this.types[i].getReference();
+				changeCounts[i] = this.types[i].changeCount;
+			}
+			this.methods = methods;
+		}
+
+		/**
+		 * The change counts only show the changes of the types of the hierarchy, a super type may also be
+		 * replaced by another type of the same name, which is then resolved instead of the collected one.
+		 * @return true if none of the types of the hierarchy has changed since the methods were collected,
+		 * and if each of them is still the type resolved by its name
+		 */
+		boolean isValid() {
+			for (int i = 0; i < types.length; i++) {
+				if (types[i].changeCount != changeCounts[i] || references[i].getTypeDeclaration() != types[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The methods declared in a type by name, see {@link #getMethodsByName(String)}
+	 */
+	private static final class MethodsByName {
+		private final int changeCount;
+		private final Map<String, List<CtMethod<?>>> methods;
+
+		MethodsByName(int changeCount, Map<String, List<CtMethod<?>>> methods) {
+			this.changeCount = changeCount;
+			this.methods = methods;
+		}
 	}
 
 	@Override
@@ -1015,7 +1135,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <E extends CtShadowable> E setShadow(boolean isShadow) {
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, IS_SHADOW, isShadow, this.isShadow);
+		getModelChangeListener().onObjectUpdate(this, IS_SHADOW, isShadow, this.isShadow);
 		this.isShadow = isShadow;
 		return (E) this;
 	}
@@ -37,7 +37,7 @@ public class CtUsedServiceImpl extends CtElementImpl implements CtUsedService {
 			usedService.setParent(this);
 		}
 
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, CtRole.SERVICE_TYPE, usedService, this.serviceType);
+		getModelChangeListener().onObjectUpdate(this, CtRole.SERVICE_TYPE, usedService, this.serviceType);
 		this.serviceType = usedService;
 		return (T) this;
 	}
@@ -56,13 +56,14 @@ public abstract class CtReferenceImpl extends CtElementImpl implements CtReferen
 	public <T extends CtReference> T setSimpleName(String simplename) {
 		Factory factory = getFactory();
 		if (factory == null) {
+			countChange();
 			this.simplename = simplename;
 			return (T) this;
 		}
 		if (factory instanceof FactoryImpl) {
 			simplename = ((FactoryImpl) factory).dedup(simplename);
 		}
-		getFactory().getEnvironment().getModelChangeListener().onObjectUpdate(this, NAME, simplename, this.simplename);
+		getModelChangeListener().onObjectUpdate(this, NAME, simplename, this.simplename);
 		this.simplename = simplename;
 		return (T) this;
 	}
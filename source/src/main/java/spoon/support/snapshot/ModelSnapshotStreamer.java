@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.snapshot;
+
+import org.apache.commons.io.IOUtils;
+import spoon.SpoonException;
+import spoon.reflect.ModelStreamer;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.FactoryImpl;
+import spoon.support.DefaultCoreFactory;
+import spoon.support.StandardEnvironment;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This class saves and loads a model in a compact binary snapshot,
+ * which is much smaller and faster to load than the Java serialization of {@link spoon.support.SerializationModelStreamer}.
+ *
+ * The snapshot is made of:
+ * <ul>
+ * <li>the tables of the strings, of the line separators of the compilation units, of the classes
+ * with the list of their fields, and of the interned references, which are shared by the whole snapshot</li>
+ * <li>the skeleton of the model: its modules and its packages, without their types</li>
+ * <li>one section per compilation unit, with its top level types</li>
+ * </ul>
+ * Each section can be read without the other sections, once the tables and the skeleton are read:
+ * see {@link #loadLazily(InputStream)}.
+ *
+ * The state of an element is the one of its fields annotated by {@link spoon.reflect.annotations.MetamodelPropertyField},
+ * which are written and read directly, without the setters: loading a snapshot does not fire model change events.
+ */
+public class ModelSnapshotStreamer implements ModelStreamer {
+
+	@Override
+	public void save(Factory f, OutputStream out) throws IOException {
+		try (OutputStream bufferedOut = new BufferedOutputStream(out)) {
+			new SnapshotWriter(f).write(bufferedOut);
+		}
+	}
+
+	/**
+	 * @throws SpoonException if the content of `in` is not a snapshot of this version of Spoon
+	 */
+	@Override
+	public Factory load(InputStream in) throws IOException {
+		Factory factory = new FactoryImpl(new DefaultCoreFactory(), new StandardEnvironment());
+		new SnapshotReader(factory, readBytes(in)).readAll();
+		return factory;
+	}
+
+	/**
+	 * Loads the modules and the packages of a snapshot, and only the index of its compilation units and of their types.
+	 * A compilation unit and its types are loaded the first time one of its types is asked to its package,
+	 * by {@link spoon.reflect.declaration.CtPackage#getType(String)}, and so by
+	 * {@link spoon.reflect.factory.TypeFactory#get(String)}, or by {@link spoon.reflect.declaration.CtPackage#getTypes()},
+	 * and so by a scan of the package. The snapshot stays in memory until all the types are loaded.
+	 *
+	 * @throws SpoonException if the content of `in` is not a snapshot of this version of Spoon
+	 */
+	public Factory loadLazily(InputStream in) throws IOException {
+		Factory factory = new FactoryImpl(new DefaultCoreFactory(), new StandardEnvironment());
+		new SnapshotReader(factory, readBytes(in)).readLazily();
+		return factory;
+	}
+
+	private static byte[] readBytes(InputStream in) throws IOException {
+		try {
+			return IOUtils.toByteArray(in);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.snapshot;
+
+import spoon.SpoonException;
+import spoon.reflect.annotations.MetamodelPropertyField;
+import spoon.support.reflect.CtExtendedModifier;
+import spoon.support.reflect.CtModifierHandler;
+import spoon.support.reflect.cu.position.BodyHolderSourcePositionImpl;
+import spoon.support.reflect.cu.position.DeclarationSourcePositionImpl;
+import spoon.support.reflect.cu.position.PartialSourcePositionImpl;
+import spoon.support.reflect.cu.position.SourcePositionImpl;
+import spoon.support.reflect.declaration.CtElementImpl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The constants and the layouts of the snapshot format shared by {@link SnapshotWriter} and {@link SnapshotReader}.
+ *
+ * A snapshot is made of:
+ * <ul>
+ * <li>a header: the magic number and the version</li>
+ * <li>the tables shared by the whole snapshot: the strings, the int arrays (line separators),
+ * the layouts of the classes, the global objects and the interned references</li>
+ * <li>the skeleton: the fields of the modules and of the packages, without their types</li>
+ * <li>the sections: one per compilation unit, with the fields of the compilation unit and of its top level types.
+ * Each section is preceded by its length, so that it can be skipped or decoded independently of the others.</li>
+ * </ul>
+ * The global objects (modules, packages, compilation units, top level types) are created before any section is decoded,
+ * so that a section refers to them by their index. The other objects are local to a section.
+ */
+final class SnapshotFormat {
+
+	static final int MAGIC = 0x53504E53;
+	static final int VERSION = 1;
+
+	// the tags of the values
+	static final int NULL = 0;
+	/** an object of the current section, which is already decoded, by its id */
+	static final int REF = 1;
+	/** a global object, by its index */
+	static final int GLOBAL = 2;
+	static final int STRING = 3;
+	static final int TRUE = 4;
+	static final int FALSE = 5;
+	static final int INT = 6;
+	static final int LONG = 7;
+	static final int CHAR = 8;
+	static final int BYTE = 9;
+	static final int SHORT = 10;
+	static final int FLOAT = 11;
+	static final int DOUBLE = 12;
+	static final int ENUM = 13;
+	static final int FILE = 14;
+	/** an int array of the table of int arrays, by its index */
+	static final int INT_ARRAY = 15;
+	/** an object, with its class and the values of the fields of its layout */
+	static final int OBJECT = 16;
+	static final int LIST = 17;
+	static final int SET = 18;
+	static final int MAP = 19;
+	/** the content of a collection which is created by the constructor of its owner, like a {@link spoon.support.util.ModelList} */
+	static final int OWNED_LIST = 20;
+	static final int OWNED_SET = 21;
+	static final int OWNED_MAP = 22;
+	/** {@link CtElementImpl#emptyList()} */
+	static final int EMPTY_LIST = 23;
+	/** {@link CtElementImpl#emptySet()} */
+	static final int EMPTY_SET = 24;
+	static final int JDK_EMPTY_LIST = 25;
+	static final int JDK_EMPTY_SET = 26;
+	static final int JDK_EMPTY_MAP = 27;
+	/** {@link spoon.reflect.cu.SourcePosition#NOPOSITION} */
+	static final int NO_POSITION = 28;
+	/** the factory of the model */
+	static final int FACTORY = 29;
+	/** a reference of the table of interned references, by its index */
+	static final int REFERENCE = 30;
+	/** any other serializable value, with java serialization */
+	static final int SERIALIZED = 31;
+
+	// the kinds of the classes
+	/** a {@link CtElementImpl}: its parent, the fields of the metamodel and the metadata */
+	static final int KIND_ELEMENT = 0;
+	/** any other object of spoon: its fields which are not transient */
+	static final int KIND_OBJECT = 1;
+	/** a collection, which has no layout */
+	static final int KIND_COLLECTION = 2;
+
+	private SnapshotFormat() {
+	}
+
+	/** the parent and the factory of an element, which are not fields of the metamodel */
+	static final Field PARENT_FIELD = getField(CtElementImpl.class, "parent");
+	static final Field FACTORY_FIELD = getField(CtElementImpl.class, "factory");
+	private static final Field METADATA_FIELD = getField(CtElementImpl.class, "metadata");
+
+	/**
+	 * The instances of these classes are created with a constructor with arguments, their fields are set afterwards
+	 */
+	private static final Map<Class<?>, Supplier<Object>> INSTANTIATORS = new ConcurrentHashMap<>();
+	static {
+		INSTANTIATORS.put(SourcePositionImpl.class, () -> new SourcePositionImpl(null, 0, 0, null));
+		INSTANTIATORS.put(DeclarationSourcePositionImpl.class, () -> new DeclarationSourcePositionImpl(null, 0, 0, 0, -1, 0, 0, null));
+		INSTANTIATORS.put(BodyHolderSourcePositionImpl.class, () -> new BodyHolderSourcePositionImpl(null, 0, 0, 0, -1, 0, 0, 1, 0, null));
+		INSTANTIATORS.put(PartialSourcePositionImpl.class, () -> new PartialSourcePositionImpl(null));
+		INSTANTIATORS.put(CtExtendedModifier.class, () -> new CtExtendedModifier(null));
+		INSTANTIATORS.put(CtModifierHandler.class, () -> new CtModifierHandler(null));
+	}
+
+	private static final Map<Class<?>, List<Field>> LAYOUTS = new ConcurrentHashMap<>();
+
+	static Field getField(Class<?> declaringClass, String name) {
+		try {
+			Field field = declaringClass.getDeclaredField(name);
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new SpoonException("The snapshot does not match the field " + declaringClass.getName() + "." + name, e);
+		}
+	}
+
+	/**
+	 * @return the fields of `c` which are stored in a snapshot.
+	 * For an element, they are its parent, the fields of the metamodel (annotated with {@link MetamodelPropertyField}),
+	 * and its metadata. Its factory is not stored, the elements get the factory in which they are loaded.
+	 * For the other objects, they are all the fields which are not static nor transient.
+	 */
+	static List<Field> getLayout(Class<?> c) {
+		List<Field> layout = LAYOUTS.get(c);
+		if (layout == null) {
+			List<Field> fields = new ArrayList<>();
+			boolean element = CtElementImpl.class.isAssignableFrom(c);
+			if (element) {
+				fields.add(PARENT_FIELD);
+				fields.add(METADATA_FIELD);
+			}
+			List<Class<?>> hierarchy = new ArrayList<>();
+			for (Class<?> current = c; current != null && current != Object.class; current = current.getSuperclass()) {
+				hierarchy.add(0, current);
+			}
+			for (Class<?> current : hierarchy) {
+				Field[] declaredFields = current.getDeclaredFields();
+				Arrays.sort(declaredFields, (f1, f2) -> f1.getName().compareTo(f2.getName()));
+				for (Field field : declaredFields) {
+					int modifiers = field.getModifiers();
+					if (Modifier.isStatic(modifiers)) {
+						continue;
+					}
+					if (element ? field.isAnnotationPresent(MetamodelPropertyField.class) : !Modifier.isTransient(modifiers)) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			layout = Collections.unmodifiableList(fields);
+			LAYOUTS.put(c, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 * @return the field `name` of the layout of `c`, which is the same instance as the one of {@link #getLayout(Class)}
+	 */
+	static Field getLayoutField(Class<?> c, String name) {
+		for (Field field : getLayout(c)) {
+			if (field.getName().equals(name)) {
+				return field;
+			}
+		}
+		throw new SpoonException("The layout of " + c.getName() + " has no field " + name);
+	}
+
+	/**
+	 * @return true if the instances of `c` can be created by {@link #newInstance(Class)}
+	 */
+	static boolean isInstantiable(Class<?> c) {
+		if (INSTANTIATORS.containsKey(c)) {
+			return true;
+		}
+		if (Modifier.isAbstract(c.getModifiers()) || c.isAnonymousClass() || (c.getEnclosingClass() != null && !Modifier.isStatic(c.getModifiers()))) {
+			return false;
+		}
+		try {
+			c.getDeclaredConstructor();
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return a new instance of `c`, whose fields are set by the caller
+	 */
+	static Object newInstance(Class<?> c) {
+		Supplier<Object> instantiator = INSTANTIATORS.get(c);
+		if (instantiator != null) {
+			return instantiator.get();
+		}
+		try {
+			Constructor<?> constructor = c.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new SpoonException("Unable to create an instance of " + c.getName() + " from a snapshot", e);
+		}
+	}
+
+	/**
+	 * A growable buffer of bytes, with variable length encodings of the numbers
+	 */
+	static final class Output {
+		private byte[] bytes = new byte[256];
+		private int size;
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+			}
+		}
+
+		void writeByte(int b) {
+			ensureCapacity(size + 1);
+			bytes[size++] = (byte) b;
+		}
+
+		/** writes a positive int with 1 byte per 7 bits */
+		void writeVarInt(int value) {
+			ensureCapacity(size + 5);
+			while ((value & ~0x7F) != 0) {
+				bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			bytes[size++] = (byte) value;
+		}
+
+		/** writes an int whose absolute value is small with few bytes */
+		void writeSignedVarInt(int value) {
+			writeVarInt((value << 1) ^ (value >> 31));
+		}
+
+		void writeVarLong(long value) {
+			long zigzag = (value << 1) ^ (value >> 63);
+			ensureCapacity(size + 10);
+			while ((zigzag & ~0x7FL) != 0) {
+				bytes[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+				zigzag >>>= 7;
+			}
+			bytes[size++] = (byte) zigzag;
+		}
+
+		void writeInt(int value) {
+			ensureCapacity(size + 4);
+			bytes[size++] = (byte) (value >>> 24);
+			bytes[size++] = (byte) (value >>> 16);
+			bytes[size++] = (byte) (value >>> 8);
+			bytes[size++] = (byte) value;
+		}
+
+		void writeLong(long value) {
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		void writeBytes(byte[] b, int offset, int length) {
+			ensureCapacity(size + length);
+			System.arraycopy(b, offset, bytes, size, length);
+			size += length;
+		}
+
+		void writeBytes(Output output) {
+			writeBytes(output.bytes, 0, output.size);
+		}
+
+		int size() {
+			return size;
+		}
+
+		/** forgets the bytes written after `size` */
+		void truncate(int size) {
+			this.size = size;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(bytes, size);
+		}
+
+		byte[] toByteArray(int from) {
+			return Arrays.copyOfRange(bytes, from, size);
+		}
+	}
+
+	/**
+	 * Reads the bytes written by an {@link Output}
+	 */
+	static final class Input {
+		private final byte[] bytes;
+		private int position;
+		private final int limit;
+
+		Input(byte[] bytes) {
+			this(bytes, 0, bytes.length);
+		}
+
+		Input(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.position = offset;
+			this.limit = offset + length;
+		}
+
+		private void check(int length) {
+			if (position + length > limit) {
+				throw new SpoonException("Unexpected end of the snapshot");
+			}
+		}
+
+		int readByte() {
+			check(1);
+			return bytes[position++] & 0xFF;
+		}
+
+		int readVarInt() {
+			int value = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = readByte();
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+
+		int readSignedVarInt() {
+			int zigzag = readVarInt();
+			return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+
+		long readVarLong() {
+			long zigzag = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = readByte();
+				zigzag |= ((long) (b & 0x7F)) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+
+		int readInt() {
+			check(4);
+			int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+					| ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+			position += 4;
+			return value;
+		}
+
+		long readLong() {
+			return (((long) readInt()) << 32) | (readInt() & 0xFFFFFFFFL);
+		}
+
+		byte[] readBytes(int length) {
+			check(length);
+			byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+			position += length;
+			return result;
+		}
+
+		/** @return an input of the next `length` bytes, which are skipped by this input */
+		Input slice(int length) {
+			check(length);
+			Input slice = new Input(bytes, position, length);
+			position += length;
+			return slice;
+		}
+
+		/** @return the offset of the next byte in the underlying array */
+		int getPosition() {
+			return position;
+		}
+
+		boolean isAtEnd() {
+			return position >= limit;
+		}
+	}
+}
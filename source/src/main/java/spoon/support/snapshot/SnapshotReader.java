@@ -0,0 +1,686 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.snapshot;
+
+import spoon.SpoonException;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtModule;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.ModuleFactory;
+import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.declaration.CtPackageImpl;
+import spoon.support.snapshot.SnapshotFormat.Input;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static spoon.support.snapshot.SnapshotFormat.BYTE;
+import static spoon.support.snapshot.SnapshotFormat.CHAR;
+import static spoon.support.snapshot.SnapshotFormat.DOUBLE;
+import static spoon.support.snapshot.SnapshotFormat.EMPTY_LIST;
+import static spoon.support.snapshot.SnapshotFormat.EMPTY_SET;
+import static spoon.support.snapshot.SnapshotFormat.ENUM;
+import static spoon.support.snapshot.SnapshotFormat.FACTORY;
+import static spoon.support.snapshot.SnapshotFormat.FACTORY_FIELD;
+import static spoon.support.snapshot.SnapshotFormat.FALSE;
+import static spoon.support.snapshot.SnapshotFormat.FILE;
+import static spoon.support.snapshot.SnapshotFormat.FLOAT;
+import static spoon.support.snapshot.SnapshotFormat.GLOBAL;
+import static spoon.support.snapshot.SnapshotFormat.INT;
+import static spoon.support.snapshot.SnapshotFormat.INT_ARRAY;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_LIST;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_MAP;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_SET;
+import static spoon.support.snapshot.SnapshotFormat.KIND_COLLECTION;
+import static spoon.support.snapshot.SnapshotFormat.KIND_ELEMENT;
+import static spoon.support.snapshot.SnapshotFormat.LIST;
+import static spoon.support.snapshot.SnapshotFormat.LONG;
+import static spoon.support.snapshot.SnapshotFormat.MAGIC;
+import static spoon.support.snapshot.SnapshotFormat.MAP;
+import static spoon.support.snapshot.SnapshotFormat.NO_POSITION;
+import static spoon.support.snapshot.SnapshotFormat.NULL;
+import static spoon.support.snapshot.SnapshotFormat.OBJECT;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_LIST;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_MAP;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_SET;
+import static spoon.support.snapshot.SnapshotFormat.PARENT_FIELD;
+import static spoon.support.snapshot.SnapshotFormat.REF;
+import static spoon.support.snapshot.SnapshotFormat.REFERENCE;
+import static spoon.support.snapshot.SnapshotFormat.SERIALIZED;
+import static spoon.support.snapshot.SnapshotFormat.SET;
+import static spoon.support.snapshot.SnapshotFormat.SHORT;
+import static spoon.support.snapshot.SnapshotFormat.STRING;
+import static spoon.support.snapshot.SnapshotFormat.TRUE;
+import static spoon.support.snapshot.SnapshotFormat.VERSION;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} into a factory.
+ *
+ * The fields of the objects are set directly: the setters are not called, so no model change event is fired.
+ * The factory of the elements is set while they are created.
+ * The content of the sets and of the maps is added once all the objects of a section are complete,
+ * because their hash codes and their order depend on the content of the objects.
+ *
+ * When the snapshot is read lazily, it is the {@link CtPackageImpl.TypeLoader} of the packages:
+ * a section is read when one of its types is asked to its package,
+ * or when an object of another section refers to its compilation unit or to one of its types.
+ */
+class SnapshotReader implements CtPackageImpl.TypeLoader {
+
+	private static final Field PACKAGE_TYPES_FIELD = SnapshotFormat.getLayoutField(CtPackageImpl.class, "types");
+	private static final Field MODEL_SET_FIELD = SnapshotFormat.getField(ModelSet.class, "set");
+	private static final Field MODEL_LIST_FIELD = SnapshotFormat.getField(ModelList.class, "list");
+	private static final Constructor<?> MODEL_LIST_INTERNAL_LIST;
+	static {
+		try {
+			MODEL_LIST_INTERNAL_LIST = Class.forName(ModelList.class.getName() + "$InternalList").getDeclaredConstructor(int.class);
+			MODEL_LIST_INTERNAL_LIST.setAccessible(true);
+		} catch (ReflectiveOperationException e) {
+			throw new SpoonException("Unable to access the internal list of " + ModelList.class.getName(), e);
+		}
+	}
+
+	/** The layout of a class of the snapshot */
+	private static class ClassLayout {
+		final Class<?> type;
+		final int kind;
+		final Field[] fields;
+
+		ClassLayout(Class<?> type, int kind, Field[] fields) {
+			this.type = type;
+			this.kind = kind;
+			this.fields = fields;
+		}
+	}
+
+	/** The index of a section: its compilation unit, its top level types and their packages */
+	private static class SectionIndex {
+		final int compilationUnit;
+		final int[] types;
+		final int[] packages;
+		final int offset;
+		final int length;
+
+		SectionIndex(int compilationUnit, int[] types, int[] packages, int offset, int length) {
+			this.compilationUnit = compilationUnit;
+			this.types = types;
+			this.packages = packages;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private final Factory factory;
+	private final byte[] bytes;
+
+	private final String[] strings;
+	private final int[][] arrays;
+	private final ClassLayout[] classes;
+	private final Object[] globals;
+	private final String[] globalNames;
+	private final byte[][] references;
+	private final int skeletonOffset;
+	private final int skeletonLength;
+	private final SectionIndex[] sections;
+	/** the section of each global object, or -1 for the modules and the packages */
+	private final int[] globalSections;
+	/** true for each section which is read, or being read */
+	private final boolean[] readSections;
+	private int unreadSections;
+	/** the sections which are not read yet of the types of each package, by simple name of type */
+	private final Map<CtPackageImpl, Map<String, Integer>> unreadTypes = new IdentityHashMap<>();
+
+	/** the objects of the section being read, by id */
+	private List<Object> localObjects = new ArrayList<>();
+	/** the contents of the sets and maps of the section being read, added once the section is read */
+	private List<Runnable> pendingContents = new ArrayList<>();
+	/** true while the modules and the packages are read */
+	private boolean readingSkeleton;
+	/** true while an interned reference is read */
+	private boolean byValue;
+
+	/**
+	 * Reads the tables and the index of the sections of a snapshot, and creates its global objects in `factory`
+	 */
+	SnapshotReader(Factory factory, byte[] bytes) {
+		this.factory = factory;
+		this.bytes = bytes;
+		Input in = new Input(bytes);
+		if (in.readInt() != MAGIC) {
+			throw new SpoonException("This is not a snapshot of a model");
+		}
+		int version = in.readVarInt();
+		if (version != VERSION) {
+			throw new SpoonException("Unsupported version of snapshot: " + version);
+		}
+
+		strings = new String[in.readVarInt()];
+		for (int i = 0; i < strings.length; i++) {
+			char[] chars = new char[in.readVarInt()];
+			for (int j = 0; j < chars.length; j++) {
+				chars[j] = (char) in.readVarInt();
+			}
+			strings[i] = new String(chars);
+		}
+
+		arrays = new int[in.readVarInt()][];
+		for (int i = 0; i < arrays.length; i++) {
+			int[] array = new int[in.readVarInt()];
+			int previous = 0;
+			for (int j = 0; j < array.length; j++) {
+				previous += in.readSignedVarInt();
+				array[j] = previous;
+			}
+			arrays[i] = array;
+		}
+
+		classes = new ClassLayout[in.readVarInt()];
+		for (int i = 0; i < classes.length; i++) {
+			Class<?> c = getClass(strings[in.readVarInt()]);
+			int kind = in.readByte();
+			Field[] fields = new Field[in.readVarInt()];
+			List<Field> layout = kind == KIND_COLLECTION ? Collections.<Field>emptyList() : SnapshotFormat.getLayout(c);
+			if (fields.length != layout.size()) {
+				throw new SpoonException("The snapshot does not match the fields of " + c.getName());
+			}
+			for (int j = 0; j < fields.length; j++) {
+				// the fields of the layout are the same instances as the ones of SnapshotFormat
+				fields[j] = layout.get(j);
+				String declaringClass = strings[in.readVarInt()];
+				String name = strings[in.readVarInt()];
+				if (!fields[j].getDeclaringClass().getName().equals(declaringClass) || !fields[j].getName().equals(name)) {
+					throw new SpoonException("The snapshot does not match the fields of " + c.getName());
+				}
+			}
+			classes[i] = new ClassLayout(c, kind, fields);
+		}
+
+		globals = new Object[in.readVarInt()];
+		globalNames = new String[globals.length];
+		for (int i = 0; i < globals.length; i++) {
+			ClassLayout layout = classes[in.readVarInt()];
+			globalNames[i] = strings[in.readVarInt()];
+			if (i == 0) {
+				// the unnamed module of the snapshot is the one of the factory
+				globals[i] = factory.getModel().getUnnamedModule();
+			} else {
+				globals[i] = newInstance(layout);
+			}
+		}
+
+		references = new byte[in.readVarInt()][];
+		for (int i = 0; i < references.length; i++) {
+			references[i] = in.readBytes(in.readVarInt());
+		}
+
+		skeletonLength = in.readVarInt();
+		skeletonOffset = in.getPosition();
+		in.slice(skeletonLength);
+
+		sections = new SectionIndex[in.readVarInt()];
+		int[] lengths = new int[sections.length];
+		List<int[]> sectionTypes = new ArrayList<>();
+		List<int[]> sectionPackages = new ArrayList<>();
+		int[] compilationUnits = new int[sections.length];
+		for (int i = 0; i < sections.length; i++) {
+			compilationUnits[i] = in.readVarInt() - 1;
+			int[] types = new int[in.readVarInt()];
+			int[] packages = new int[types.length];
+			for (int j = 0; j < types.length; j++) {
+				types[j] = in.readVarInt();
+				packages[j] = in.readVarInt();
+			}
+			sectionTypes.add(types);
+			sectionPackages.add(packages);
+			lengths[i] = in.readVarInt();
+		}
+		int offset = in.getPosition();
+		globalSections = new int[globals.length];
+		Arrays.fill(globalSections, -1);
+		for (int i = 0; i < sections.length; i++) {
+			sections[i] = new SectionIndex(compilationUnits[i], sectionTypes.get(i), sectionPackages.get(i), offset, lengths[i]);
+			offset += lengths[i];
+			if (compilationUnits[i] >= 0) {
+				globalSections[compilationUnits[i]] = i;
+			}
+			for (int type : sectionTypes.get(i)) {
+				globalSections[type] = i;
+			}
+		}
+		if (offset != bytes.length) {
+			throw new SpoonException("Unexpected length of the snapshot");
+		}
+		readSections = new boolean[sections.length];
+		unreadSections = sections.length;
+	}
+
+	/**
+	 * Reads the whole model of the snapshot
+	 */
+	void readAll() {
+		readSkeleton();
+		for (int i = 0; i < sections.length; i++) {
+			readSection(i);
+		}
+	}
+
+	/**
+	 * Reads the modules, the packages and the compilation units without types,
+	 * the other sections are read on demand by the packages
+	 */
+	synchronized void readLazily() {
+		for (int index = 0; index < sections.length; index++) {
+			SectionIndex section = sections[index];
+			for (int i = 0; i < section.types.length; i++) {
+				unreadTypes.computeIfAbsent((CtPackageImpl) globals[section.packages[i]], pack -> new HashMap<>())
+						.put(getSimpleName(section.types[i]), index);
+			}
+		}
+		readSkeleton();
+		for (int i = 0; i < sections.length; i++) {
+			if (sections[i].types.length == 0) {
+				readSection(i);
+			}
+		}
+		if (unreadSections > 0) {
+			attachTypeLoader(this);
+		}
+	}
+
+	/** @return the simple name of a top level type */
+	private String getSimpleName(int type) {
+		String qualifiedName = globalNames[type];
+		return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+	}
+
+	@Override
+	public synchronized void loadType(CtPackageImpl pack, String simpleName) {
+		Map<String, Integer> types = unreadTypes.get(pack);
+		if (types != null) {
+			Integer section = types.get(simpleName);
+			if (section != null) {
+				readSection(section);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void loadTypes(CtPackageImpl pack) {
+		Map<String, Integer> types = unreadTypes.get(pack);
+		if (types != null) {
+			for (Integer section : new ArrayList<>(types.values())) {
+				readSection(section);
+			}
+		}
+	}
+
+	private void attachTypeLoader(CtPackageImpl.TypeLoader typeLoader) {
+		for (Object global : globals) {
+			if (global instanceof CtPackageImpl) {
+				((CtPackageImpl) global).attachTypeLoader(typeLoader);
+			}
+		}
+	}
+
+	/**
+	 * Reads the modules and the packages, without their types.
+	 * The sections they refer to are not read meanwhile, because their types are sorted by qualified name in their packages.
+	 */
+	private void readSkeleton() {
+		readingSkeleton = true;
+		Input in = new Input(bytes, skeletonOffset, skeletonLength);
+		for (Object global : globals) {
+			if (global instanceof CtModule || global instanceof CtPackage) {
+				readFields(global, getLayout(global), in);
+			}
+		}
+		endOfSection(in);
+		readingSkeleton = false;
+		ModuleFactory.CtUnnamedModule unnamedModule = (ModuleFactory.CtUnnamedModule) globals[0];
+		for (Object global : globals) {
+			if (global instanceof CtModule && global != unnamedModule) {
+				unnamedModule.addModule((CtModule) global);
+			}
+		}
+	}
+
+	/**
+	 * Reads a compilation unit and its top level types, and adds the types to their packages, if it is not read yet.
+	 * It can be called while another section is read, when the other section refers to an object of this one.
+	 */
+	private void readSection(int index) {
+		if (readSections[index]) {
+			return;
+		}
+		readSections[index] = true;
+		SectionIndex section = sections[index];
+		for (int i = 0; i < section.types.length; i++) {
+			Map<String, Integer> types = unreadTypes.get(globals[section.packages[i]]);
+			if (types != null) {
+				types.remove(getSimpleName(section.types[i]));
+				if (types.isEmpty()) {
+					unreadTypes.remove(globals[section.packages[i]]);
+				}
+			}
+		}
+
+		List<Object> outerObjects = localObjects;
+		List<Runnable> outerContents = pendingContents;
+		boolean outerByValue = byValue;
+		localObjects = new ArrayList<>();
+		pendingContents = new ArrayList<>();
+		byValue = false;
+		try {
+			Input in = new Input(bytes, section.offset, section.length);
+			if (section.compilationUnit >= 0) {
+				readFields(globals[section.compilationUnit], getLayout(globals[section.compilationUnit]), in);
+			}
+			for (int type : section.types) {
+				readFields(globals[type], getLayout(globals[type]), in);
+			}
+			endOfSection(in);
+		} finally {
+			localObjects = outerObjects;
+			pendingContents = outerContents;
+			byValue = outerByValue;
+		}
+		for (int i = 0; i < section.types.length; i++) {
+			getContent(getFieldValue(PACKAGE_TYPES_FIELD, globals[section.packages[i]])).add(globals[section.types[i]]);
+		}
+		if (--unreadSections == 0) {
+			attachTypeLoader(null);
+		}
+	}
+
+	private void endOfSection(Input in) {
+		if (!in.isAtEnd()) {
+			throw new SpoonException("Unexpected content at the end of a section of the snapshot");
+		}
+		for (Runnable pendingContent : pendingContents) {
+			pendingContent.run();
+		}
+		pendingContents.clear();
+		localObjects.clear();
+	}
+
+	private ClassLayout getLayout(Object o) {
+		for (ClassLayout layout : classes) {
+			if (layout.type == o.getClass()) {
+				return layout;
+			}
+		}
+		throw new SpoonException("The snapshot has no layout for " + o.getClass().getName());
+	}
+
+	private static Class<?> getClass(String name) {
+		try {
+			return Class.forName(name, false, SnapshotReader.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new SpoonException("The class " + name + " of the snapshot does not exist", e);
+		}
+	}
+
+	private Object newInstance(ClassLayout layout) {
+		Object o = SnapshotFormat.newInstance(layout.type);
+		if (layout.kind == KIND_ELEMENT) {
+			setFieldValue(FACTORY_FIELD, o, factory);
+		}
+		return o;
+	}
+
+	private static Object getFieldValue(Field field, Object o) {
+		try {
+			return field.get(o);
+		} catch (IllegalAccessException e) {
+			throw new SpoonException("Unable to read the field " + field, e);
+		}
+	}
+
+	private static void setFieldValue(Field field, Object o, Object value) {
+		try {
+			field.set(o, value);
+		} catch (IllegalAccessException e) {
+			throw new SpoonException("Unable to set the field " + field, e);
+		}
+	}
+
+	/** @return the collection which holds the content of a {@link ModelSet}, or the set itself */
+	@SuppressWarnings("unchecked")
+	private static Collection<Object> getContent(Object set) {
+		if (set instanceof ModelSet) {
+			return (Collection<Object>) getFieldValue(MODEL_SET_FIELD, set);
+		}
+		return (Collection<Object>) set;
+	}
+
+	private void readFields(Object o, ClassLayout layout, Input in) {
+		for (Field field : layout.fields) {
+			if (byValue && field == PARENT_FIELD) {
+				continue;
+			}
+			int tag = in.readByte();
+			switch (tag) {
+			case OWNED_LIST:
+				readOwnedList(getFieldValue(field, o), o, in);
+				break;
+			case OWNED_SET:
+				readSet(getFieldValue(field, o), o, in);
+				break;
+			case OWNED_MAP:
+				readMap(getFieldValue(field, o), o, in);
+				break;
+			default:
+				setFieldValue(field, o, readValue(tag, o, in));
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readOwnedList(Object list, Object owner, Input in) {
+		int size = in.readVarInt();
+		if (size == 0) {
+			return;
+		}
+		List<Object> content;
+		if (list instanceof ModelList) {
+			try {
+				content = (List<Object>) MODEL_LIST_INTERNAL_LIST.newInstance(size);
+			} catch (ReflectiveOperationException e) {
+				throw new SpoonException("Unable to create the content of a " + ModelList.class.getName(), e);
+			}
+			setFieldValue(MODEL_LIST_FIELD, list, content);
+		} else {
+			content = (List<Object>) list;
+		}
+		for (int i = 0; i < size; i++) {
+			content.add(readValue(in.readByte(), owner, in));
+		}
+	}
+
+	private void readSet(Object set, Object owner, Input in) {
+		int size = in.readVarInt();
+		if (size == 0) {
+			return;
+		}
+		List<Object> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			items.add(readValue(in.readByte(), owner, in));
+		}
+		Collection<Object> content = getContent(set);
+		pendingContents.add(() -> content.addAll(items));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readMap(Object map, Object owner, Input in) {
+		int size = in.readVarInt();
+		if (size == 0) {
+			return;
+		}
+		Object[] entries = new Object[size * 2];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = readValue(in.readByte(), owner, in);
+		}
+		Map<Object, Object> content = (Map<Object, Object>) map;
+		pendingContents.add(() -> {
+			for (int i = 0; i < entries.length; i += 2) {
+				content.put(entries[i], entries[i + 1]);
+			}
+		});
+	}
+
+	/**
+	 * @param owner the object which contains the value, which is the parent of an element of an interned reference
+	 */
+	private Object readValue(int tag, Object owner, Input in) {
+		switch (tag) {
+		case NULL:
+			return null;
+		case REF:
+			return localObjects.get(in.readVarInt());
+		case GLOBAL: {
+			int index = in.readVarInt();
+			if (globalSections[index] >= 0 && !readingSkeleton) {
+				// the objects of another section are read before they are used
+				readSection(globalSections[index]);
+			}
+			return globals[index];
+		}
+		case STRING:
+			return strings[in.readVarInt()];
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case INT:
+			return in.readSignedVarInt();
+		case LONG:
+			return in.readVarLong();
+		case CHAR:
+			return (char) in.readVarInt();
+		case BYTE:
+			return (byte) in.readByte();
+		case SHORT:
+			return (short) in.readSignedVarInt();
+		case FLOAT:
+			return Float.intBitsToFloat(in.readInt());
+		case DOUBLE:
+			return Double.longBitsToDouble(in.readLong());
+		case ENUM:
+			return readEnum(in);
+		case FILE:
+			return new File(strings[in.readVarInt()]);
+		case INT_ARRAY:
+			return arrays[in.readVarInt()];
+		case FACTORY:
+			return factory;
+		case NO_POSITION:
+			return SourcePosition.NOPOSITION;
+		case EMPTY_LIST:
+			return CtElementImpl.emptyList();
+		case EMPTY_SET:
+			return CtElementImpl.emptySet();
+		case JDK_EMPTY_LIST:
+			return Collections.emptyList();
+		case JDK_EMPTY_SET:
+			return Collections.emptySet();
+		case JDK_EMPTY_MAP:
+			return Collections.emptyMap();
+		case REFERENCE:
+			return readReference(in.readVarInt(), owner);
+		case SERIALIZED:
+			return readSerialized(in);
+		case OBJECT: {
+			ClassLayout layout = classes[in.readVarInt()];
+			Object o = newInstance(layout);
+			if (!byValue) {
+				localObjects.add(o);
+			} else if (layout.kind == KIND_ELEMENT) {
+				setFieldValue(PARENT_FIELD, o, owner);
+			}
+			readFields(o, layout, in);
+			return o;
+		}
+		case LIST: {
+			Object list = newCollection(in);
+			readOwnedList(list, owner, in);
+			return list;
+		}
+		case SET: {
+			Object set = newCollection(in);
+			readSet(set, owner, in);
+			return set;
+		}
+		case MAP: {
+			Object map = newCollection(in);
+			readMap(map, owner, in);
+			return map;
+		}
+		default:
+			throw new SpoonException("Unexpected tag " + tag + " in the snapshot");
+		}
+	}
+
+	private Object newCollection(Input in) {
+		Object collection = SnapshotFormat.newInstance(classes[in.readVarInt()].type);
+		if (!byValue) {
+			localObjects.add(collection);
+		}
+		return collection;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum(Input in) {
+		Class enumClass = getClass(strings[in.readVarInt()]);
+		return Enum.valueOf(enumClass, strings[in.readVarInt()]);
+	}
+
+	/** @return a new instance of an interned reference, whose parent is `owner` */
+	private Object readReference(int index, Object owner) {
+		Input in = new Input(references[index]);
+		boolean wasByValue = byValue;
+		byValue = true;
+		try {
+			return readValue(in.readByte(), owner, in);
+		} finally {
+			byValue = wasByValue;
+		}
+	}
+
+	private Object readSerialized(Input in) {
+		byte[] serialized = in.readBytes(in.readVarInt());
+		try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			return objectIn.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new SpoonException("Unable to read a serialized value of the snapshot", e);
+		}
+	}
+}
@@ -0,0 +1,730 @@
+/**
+ * Copyright (C) 2006-2018 INRIA and contributors
+ * Spoon - http://spoon.gforge.inria.fr/
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.snapshot;
+
+import spoon.SpoonException;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.cu.position.NoSourcePosition;
+import spoon.reflect.declaration.CtModule;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtReference;
+import spoon.support.reflect.cu.CompilationUnitImpl;
+import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.declaration.CtPackageImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.snapshot.SnapshotFormat.Output;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static spoon.support.snapshot.SnapshotFormat.BYTE;
+import static spoon.support.snapshot.SnapshotFormat.CHAR;
+import static spoon.support.snapshot.SnapshotFormat.DOUBLE;
+import static spoon.support.snapshot.SnapshotFormat.EMPTY_LIST;
+import static spoon.support.snapshot.SnapshotFormat.EMPTY_SET;
+import static spoon.support.snapshot.SnapshotFormat.ENUM;
+import static spoon.support.snapshot.SnapshotFormat.FACTORY;
+import static spoon.support.snapshot.SnapshotFormat.FALSE;
+import static spoon.support.snapshot.SnapshotFormat.FILE;
+import static spoon.support.snapshot.SnapshotFormat.FLOAT;
+import static spoon.support.snapshot.SnapshotFormat.GLOBAL;
+import static spoon.support.snapshot.SnapshotFormat.INT;
+import static spoon.support.snapshot.SnapshotFormat.INT_ARRAY;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_LIST;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_MAP;
+import static spoon.support.snapshot.SnapshotFormat.JDK_EMPTY_SET;
+import static spoon.support.snapshot.SnapshotFormat.KIND_COLLECTION;
+import static spoon.support.snapshot.SnapshotFormat.KIND_ELEMENT;
+import static spoon.support.snapshot.SnapshotFormat.KIND_OBJECT;
+import static spoon.support.snapshot.SnapshotFormat.LIST;
+import static spoon.support.snapshot.SnapshotFormat.LONG;
+import static spoon.support.snapshot.SnapshotFormat.MAGIC;
+import static spoon.support.snapshot.SnapshotFormat.MAP;
+import static spoon.support.snapshot.SnapshotFormat.NO_POSITION;
+import static spoon.support.snapshot.SnapshotFormat.NULL;
+import static spoon.support.snapshot.SnapshotFormat.OBJECT;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_LIST;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_MAP;
+import static spoon.support.snapshot.SnapshotFormat.OWNED_SET;
+import static spoon.support.snapshot.SnapshotFormat.PARENT_FIELD;
+import static spoon.support.snapshot.SnapshotFormat.REF;
+import static spoon.support.snapshot.SnapshotFormat.REFERENCE;
+import static spoon.support.snapshot.SnapshotFormat.SERIALIZED;
+import static spoon.support.snapshot.SnapshotFormat.SET;
+import static spoon.support.snapshot.SnapshotFormat.SHORT;
+import static spoon.support.snapshot.SnapshotFormat.STRING;
+import static spoon.support.snapshot.SnapshotFormat.TRUE;
+import static spoon.support.snapshot.SnapshotFormat.VERSION;
+
+/**
+ * Writes the snapshot of the model of a factory, see {@link SnapshotFormat}.
+ *
+ * The references are interned: a reference whose bytes are the same as the ones of a reference written before
+ * is written as the index of the first one in the table of references.
+ */
+class SnapshotWriter {
+
+	/** The top level types of a compilation unit, and their packages */
+	private static class Section {
+		final CompilationUnit compilationUnit;
+		final List<CtType<?>> types = new ArrayList<>();
+		final List<CtPackage> packages = new ArrayList<>();
+		byte[] body;
+
+		Section(CompilationUnit compilationUnit) {
+			this.compilationUnit = compilationUnit;
+		}
+	}
+
+	/** Thrown when a reference can not be written by value, so it is written as the other elements */
+	private static class NotInternableException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		NotInternableException() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static final NotInternableException NOT_INTERNABLE = new NotInternableException();
+
+	private static final Field PACKAGE_TYPES_FIELD = SnapshotFormat.getLayoutField(CtPackageImpl.class, "types");
+
+	private final Factory factory;
+
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	private final Map<int[], Integer> arrayIndexesByIdentity = new IdentityHashMap<>();
+	private final Map<IntBuffer, Integer> arrayIndexes = new HashMap<>();
+	private final List<int[]> arrays = new ArrayList<>();
+	private final Map<Class<?>, Integer> classIndexes = new HashMap<>();
+	private final Map<Class<?>, Integer> valueTags = new HashMap<>();
+	private final List<Class<?>> classes = new ArrayList<>();
+	private final Map<Object, Integer> globalIndexes = new IdentityHashMap<>();
+	private final List<Object> globals = new ArrayList<>();
+	private final Map<ByteBuffer, Integer> referenceIndexes = new HashMap<>();
+	private final List<byte[]> references = new ArrayList<>();
+
+	private final List<Object> skeletonGlobals = new ArrayList<>();
+	private byte[] skeleton;
+	private final Map<CompilationUnit, Section> sectionsByCompilationUnit = new LinkedHashMap<>();
+	private final Section orphanSection = new Section(null);
+	private final List<Section> sections = new ArrayList<>();
+
+	/** the ids of the objects of the section being written */
+	private Map<Object, Integer> localIds = new IdentityHashMap<>();
+	/** true while a reference is written by value */
+	private boolean byValue;
+	/** the objects being written by value, to detect cycles */
+	private final Map<Object, Boolean> byValueStack = new IdentityHashMap<>();
+	private final Output scratch = new Output();
+
+	SnapshotWriter(Factory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Writes the snapshot of the model of the factory to `out`
+	 */
+	void write(OutputStream out) throws IOException {
+		collectGlobals();
+
+		Output skeletonOutput = new Output();
+		for (Object global : skeletonGlobals) {
+			writeFields(global, skeletonOutput);
+		}
+		skeleton = skeletonOutput.toByteArray();
+		localIds.clear();
+
+		List<Section> typeSections = new ArrayList<>(sectionsByCompilationUnit.values());
+		if (!orphanSection.types.isEmpty()) {
+			typeSections.add(orphanSection);
+		}
+		for (Section section : typeSections) {
+			writeSection(section);
+		}
+		// the compilation units without types (package-info, module-info), and the ones only found while writing
+		for (int i = 0; i < globals.size(); i++) {
+			Object global = globals.get(i);
+			if (global instanceof CompilationUnit && !sectionsByCompilationUnit.containsKey(global)) {
+				Section section = new Section((CompilationUnit) global);
+				sectionsByCompilationUnit.put(section.compilationUnit, section);
+				writeSection(section);
+			}
+		}
+
+		Output output = new Output();
+		output.writeInt(MAGIC);
+		output.writeVarInt(VERSION);
+		writeTables(output);
+		output.writeVarInt(skeleton.length);
+		output.writeBytes(skeleton, 0, skeleton.length);
+		output.writeVarInt(sections.size());
+		for (Section section : sections) {
+			output.writeVarInt(section.compilationUnit == null ? 0 : globalIndexes.get(section.compilationUnit) + 1);
+			output.writeVarInt(section.types.size());
+			for (int i = 0; i < section.types.size(); i++) {
+				output.writeVarInt(globalIndexes.get(section.types.get(i)));
+				output.writeVarInt(globalIndexes.get(section.packages.get(i)));
+			}
+			output.writeVarInt(section.body.length);
+		}
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.write(output.toByteArray());
+		for (Section section : sections) {
+			dataOut.write(section.body);
+		}
+		dataOut.flush();
+	}
+
+	/** registers the modules, the packages, the top level types and their compilation units as global objects */
+	private void collectGlobals() {
+		CtModule unnamedModule = factory.getModel().getUnnamedModule();
+		List<CtModule> modules = new ArrayList<>(factory.getModel().getAllModules());
+		modules.remove(unnamedModule);
+		modules.sort(Comparator.comparing(CtModule::getSimpleName));
+		modules.add(0, unnamedModule);
+		for (CtModule module : modules) {
+			addGlobal(module);
+			skeletonGlobals.add(module);
+		}
+		for (CtModule module : modules) {
+			collectGlobals(module.getRootPackage());
+		}
+	}
+
+	private void collectGlobals(CtPackage ctPackage) {
+		if (ctPackage == null || globalIndexes.containsKey(ctPackage)) {
+			return;
+		}
+		addGlobal(ctPackage);
+		skeletonGlobals.add(ctPackage);
+		for (CtType<?> type : ctPackage.getTypes()) {
+			if (globalIndexes.containsKey(type)) {
+				continue;
+			}
+			addGlobal(type);
+			SourcePosition position = type.getPosition();
+			CompilationUnit compilationUnit = position == null ? null : position.getCompilationUnit();
+			Section section = orphanSection;
+			if (compilationUnit != null) {
+				addGlobal(compilationUnit);
+				section = sectionsByCompilationUnit.computeIfAbsent(compilationUnit, Section::new);
+			}
+			section.types.add(type);
+			section.packages.add(ctPackage);
+		}
+		for (CtPackage subPackage : ctPackage.getPackages()) {
+			collectGlobals(subPackage);
+		}
+	}
+
+	private int addGlobal(Object global) {
+		Integer index = globalIndexes.get(global);
+		if (index == null) {
+			index = globals.size();
+			globals.add(global);
+			globalIndexes.put(global, index);
+			getClassIndex(global.getClass());
+		}
+		return index;
+	}
+
+	private void writeSection(Section section) {
+		// a new map, because a cleared one keeps the capacity of the biggest section
+		localIds = new IdentityHashMap<>();
+		Output body = new Output();
+		if (section.compilationUnit != null) {
+			writeFields(section.compilationUnit, body);
+		}
+		for (CtType<?> type : section.types) {
+			writeFields(type, body);
+		}
+		section.body = body.toByteArray();
+		sections.add(section);
+	}
+
+	private void writeTables(Output output) {
+		// the names of the classes, of the fields and of the globals are strings too
+		for (Class<?> c : classes) {
+			getStringIndex(c.getName());
+			for (Field field : getLayout(c)) {
+				getStringIndex(field.getDeclaringClass().getName());
+				getStringIndex(field.getName());
+			}
+		}
+		List<Integer> globalNames = new ArrayList<>(globals.size());
+		for (Object global : globals) {
+			globalNames.add(getStringIndex(getGlobalName(global)));
+		}
+
+		output.writeVarInt(strings.size());
+		for (String string : strings) {
+			output.writeVarInt(string.length());
+			for (int i = 0; i < string.length(); i++) {
+				output.writeVarInt(string.charAt(i));
+			}
+		}
+
+		output.writeVarInt(arrays.size());
+		for (int[] array : arrays) {
+			output.writeVarInt(array.length);
+			int previous = 0;
+			for (int value : array) {
+				output.writeSignedVarInt(value - previous);
+				previous = value;
+			}
+		}
+
+		output.writeVarInt(classes.size());
+		for (Class<?> c : classes) {
+			output.writeVarInt(getStringIndex(c.getName()));
+			output.writeByte(getKind(c));
+			List<Field> layout = getLayout(c);
+			output.writeVarInt(layout.size());
+			for (Field field : layout) {
+				output.writeVarInt(getStringIndex(field.getDeclaringClass().getName()));
+				output.writeVarInt(getStringIndex(field.getName()));
+			}
+		}
+
+		output.writeVarInt(globals.size());
+		for (int i = 0; i < globals.size(); i++) {
+			output.writeVarInt(getClassIndex(globals.get(i).getClass()));
+			output.writeVarInt(globalNames.get(i));
+		}
+
+		output.writeVarInt(references.size());
+		for (byte[] reference : references) {
+			output.writeVarInt(reference.length);
+			output.writeBytes(reference, 0, reference.length);
+		}
+	}
+
+	/** @return the qualified name of a global object, or the path of a compilation unit */
+	private static String getGlobalName(Object global) {
+		if (global instanceof CtModule) {
+			return ((CtModule) global).getSimpleName();
+		}
+		if (global instanceof CtPackage) {
+			return ((CtPackage) global).getQualifiedName();
+		}
+		if (global instanceof CtType) {
+			return ((CtType<?>) global).getQualifiedName();
+		}
+		File file = ((CompilationUnit) global).getFile();
+		return file == null ? "" : file.getPath();
+	}
+
+	private static int getKind(Class<?> c) {
+		if (CtElementImpl.class.isAssignableFrom(c)) {
+			return KIND_ELEMENT;
+		}
+		if (Collection.class.isAssignableFrom(c) || Map.class.isAssignableFrom(c)) {
+			return KIND_COLLECTION;
+		}
+		return KIND_OBJECT;
+	}
+
+	private static List<Field> getLayout(Class<?> c) {
+		return getKind(c) == KIND_COLLECTION ? Collections.<Field>emptyList() : SnapshotFormat.getLayout(c);
+	}
+
+	/**
+	 * Writes a reference to `value` if it was already written in the current section
+	 * @return true if `value` was already written
+	 */
+	private boolean writeLocalId(Object value, Output out) {
+		Integer localId = localIds.get(value);
+		if (localId == null) {
+			return false;
+		}
+		if (byValue) {
+			throw NOT_INTERNABLE;
+		}
+		out.writeByte(REF);
+		out.writeVarInt(localId);
+		return true;
+	}
+
+	private int getStringIndex(String string) {
+		Integer index = stringIndexes.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.add(string);
+			stringIndexes.put(string, index);
+		}
+		return index;
+	}
+
+	private int getArrayIndex(int[] array) {
+		Integer index = arrayIndexesByIdentity.get(array);
+		if (index == null) {
+			IntBuffer content = IntBuffer.wrap(array);
+			index = arrayIndexes.get(content);
+			if (index == null) {
+				index = arrays.size();
+				arrays.add(array);
+				arrayIndexes.put(content, index);
+			}
+			arrayIndexesByIdentity.put(array, index);
+		}
+		return index;
+	}
+
+	private int getClassIndex(Class<?> c) {
+		Integer index = classIndexes.get(c);
+		if (index == null) {
+			index = classes.size();
+			classes.add(c);
+			classIndexes.put(c, index);
+		}
+		return index;
+	}
+
+	private static Object get(Field field, Object o) {
+		try {
+			return field.get(o);
+		} catch (IllegalAccessException e) {
+			throw new SpoonException("Unable to read the field " + field, e);
+		}
+	}
+
+	/** writes the values of the fields of the layout of `o`, without any tag */
+	private void writeFields(Object o, Output out) {
+		for (Field field : SnapshotFormat.getLayout(o.getClass())) {
+			if (byValue && field == PARENT_FIELD) {
+				continue;
+			}
+			if (field == PACKAGE_TYPES_FIELD && !byValue) {
+				// the types of a package are in the sections
+				out.writeByte(OWNED_SET);
+				out.writeVarInt(0);
+				continue;
+			}
+			writeValue(get(field, o), o, true, out);
+		}
+	}
+
+	/**
+	 * Writes a value with its tag
+	 * @param owner the object which contains the value
+	 * @param isField true if the value is the one of a field of `owner`, false if it is an item of a collection
+	 */
+	private void writeValue(Object value, Object owner, boolean isField, Output out) {
+		if (value == null) {
+			out.writeByte(NULL);
+			return;
+		}
+		Class<?> c = value.getClass();
+		if (c == String.class) {
+			out.writeByte(STRING);
+			out.writeVarInt(getStringIndex((String) value));
+			return;
+		}
+		switch (getValueTag(c)) {
+		case TRUE:
+			out.writeByte((Boolean) value ? TRUE : FALSE);
+			break;
+		case INT:
+			out.writeByte(INT);
+			out.writeSignedVarInt((Integer) value);
+			break;
+		case LONG:
+			out.writeByte(LONG);
+			out.writeVarLong((Long) value);
+			break;
+		case CHAR:
+			out.writeByte(CHAR);
+			out.writeVarInt((Character) value);
+			break;
+		case BYTE:
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+			break;
+		case SHORT:
+			out.writeByte(SHORT);
+			out.writeSignedVarInt((Short) value);
+			break;
+		case FLOAT:
+			out.writeByte(FLOAT);
+			out.writeInt(Float.floatToRawIntBits((Float) value));
+			break;
+		case DOUBLE:
+			out.writeByte(DOUBLE);
+			out.writeLong(Double.doubleToRawLongBits((Double) value));
+			break;
+		case ENUM:
+			out.writeByte(ENUM);
+			out.writeVarInt(getStringIndex(((Enum<?>) value).getDeclaringClass().getName()));
+			out.writeVarInt(getStringIndex(((Enum<?>) value).name()));
+			break;
+		case FILE:
+			out.writeByte(FILE);
+			out.writeVarInt(getStringIndex(((File) value).getPath()));
+			break;
+		case INT_ARRAY:
+			out.writeByte(INT_ARRAY);
+			out.writeVarInt(getArrayIndex((int[]) value));
+			break;
+		case FACTORY:
+			out.writeByte(FACTORY);
+			break;
+		case NO_POSITION:
+			out.writeByte(NO_POSITION);
+			break;
+		case LIST:
+			if (!writeEmptyCollection(value, out) && !writeLocalId(value, out)) {
+				writeCollection(value, owner, isField, out);
+			}
+			break;
+		case OBJECT:
+			if (writeGlobal(value, out) || writeLocalId(value, out)) {
+				break;
+			}
+			if (value instanceof CtReferenceImpl && !byValue && owner == get(PARENT_FIELD, value)
+					&& writeInterned((CtReference) value, owner, out)) {
+				break;
+			}
+			writeObject(value, owner, out);
+			break;
+		case SERIALIZED:
+			writeSerialized(value, out);
+			break;
+		default:
+			throw new SpoonException("Unable to write a value of " + c.getName() + " in a snapshot");
+		}
+	}
+
+	/**
+	 * @return the tag of the values of `c`, {@link SnapshotFormat#TRUE} for the booleans,
+	 * {@link SnapshotFormat#LIST} for all the collections and maps, or -1 if they cannot be written.
+	 * It is computed once per class, because checking the interfaces of the elements is slow.
+	 */
+	private int getValueTag(Class<?> c) {
+		Integer tag = valueTags.get(c);
+		if (tag == null) {
+			if (c == Boolean.class) {
+				tag = TRUE;
+			} else if (c == Integer.class) {
+				tag = INT;
+			} else if (c == Long.class) {
+				tag = LONG;
+			} else if (c == Character.class) {
+				tag = CHAR;
+			} else if (c == Byte.class) {
+				tag = BYTE;
+			} else if (c == Short.class) {
+				tag = SHORT;
+			} else if (c == Float.class) {
+				tag = FLOAT;
+			} else if (c == Double.class) {
+				tag = DOUBLE;
+			} else if (Enum.class.isAssignableFrom(c)) {
+				tag = ENUM;
+			} else if (c == File.class) {
+				tag = FILE;
+			} else if (c == int[].class) {
+				tag = INT_ARRAY;
+			} else if (Factory.class.isAssignableFrom(c)) {
+				tag = FACTORY;
+			} else if (c == NoSourcePosition.class) {
+				tag = NO_POSITION;
+			} else if (Collection.class.isAssignableFrom(c) || Map.class.isAssignableFrom(c)) {
+				tag = LIST;
+			} else if (c.getName().startsWith("spoon.")) {
+				tag = SnapshotFormat.isInstantiable(c) ? OBJECT : -1;
+			} else if (Serializable.class.isAssignableFrom(c)) {
+				tag = SERIALIZED;
+			} else {
+				tag = -1;
+			}
+			valueTags.put(c, tag);
+		}
+		return tag;
+	}
+
+	/**
+	 * Writes a reference to `value` if it is a module, a package, a top level type or a compilation unit
+	 * @return true if `value` is a global object
+	 */
+	private boolean writeGlobal(Object value, Output out) {
+		Integer globalIndex = globalIndexes.get(value);
+		if (globalIndex == null && value instanceof CompilationUnitImpl) {
+			globalIndex = addGlobal(value);
+		}
+		if (globalIndex == null) {
+			return false;
+		}
+		out.writeByte(GLOBAL);
+		out.writeVarInt(globalIndex);
+		return true;
+	}
+
+	/**
+	 * Writes the tag of the shared empty collections
+	 * @return true if `value` is one of them
+	 */
+	private static boolean writeEmptyCollection(Object value, Output out) {
+		if (value == CtElementImpl.emptyList()) {
+			out.writeByte(EMPTY_LIST);
+		} else if (value == CtElementImpl.emptySet()) {
+			out.writeByte(EMPTY_SET);
+		} else if (value == Collections.emptyList()) {
+			out.writeByte(JDK_EMPTY_LIST);
+		} else if (value == Collections.emptySet()) {
+			out.writeByte(JDK_EMPTY_SET);
+		} else if (value == Collections.emptyMap()) {
+			out.writeByte(JDK_EMPTY_MAP);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private void writeObject(Object value, Object owner, Output out) {
+		out.writeByte(OBJECT);
+		out.writeVarInt(getClassIndex(value.getClass()));
+		if (byValue) {
+			if (value instanceof CtElementImpl && owner != get(PARENT_FIELD, value)) {
+				// the parent of an element written by value is its owner
+				throw NOT_INTERNABLE;
+			}
+			if (byValueStack.put(value, Boolean.TRUE) != null) {
+				throw NOT_INTERNABLE;
+			}
+			writeFields(value, out);
+			byValueStack.remove(value);
+		} else {
+			localIds.put(value, localIds.size());
+			writeFields(value, out);
+		}
+	}
+
+	/**
+	 * Writes `reference` as an index in the table of references
+	 * @return false if it can not be written by value, because it is shared with other objects of the model
+	 */
+	private boolean writeInterned(CtReference reference, Object owner, Output out) {
+		int start = scratch.size();
+		byValue = true;
+		try {
+			writeObject(reference, owner, scratch);
+		} catch (NotInternableException e) {
+			scratch.truncate(start);
+			return false;
+		} finally {
+			byValue = false;
+			byValueStack.clear();
+		}
+		ByteBuffer bytes = ByteBuffer.wrap(scratch.toByteArray(start));
+		scratch.truncate(start);
+		Integer index = referenceIndexes.get(bytes);
+		if (index == null) {
+			index = references.size();
+			references.add(bytes.array());
+			referenceIndexes.put(bytes, index);
+		}
+		out.writeByte(REFERENCE);
+		out.writeVarInt(index);
+		return true;
+	}
+
+	private void writeCollection(Object value, Object owner, boolean isField, Output out) {
+		Class<?> c = value.getClass();
+		boolean owned = value instanceof ModelList || value instanceof ModelSet || !SnapshotFormat.isInstantiable(c);
+		if (owned && !isField) {
+			throw new SpoonException("Unable to write a collection of " + c.getName() + " in a snapshot");
+		}
+		if (!owned && (c == TreeSet.class && ((SortedSet<?>) value).comparator() != null
+				|| c == TreeMap.class && ((SortedMap<?, ?>) value).comparator() != null)) {
+			throw new SpoonException("Unable to write a sorted collection with a comparator in a snapshot");
+		}
+		if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			if (owned) {
+				out.writeByte(OWNED_MAP);
+			} else {
+				out.writeByte(MAP);
+				out.writeVarInt(getClassIndex(c));
+				registerCollection(value);
+			}
+			out.writeVarInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(entry.getKey(), owner, false, out);
+				writeValue(entry.getValue(), owner, false, out);
+			}
+			return;
+		}
+		Collection<?> collection = (Collection<?>) value;
+		boolean list = value instanceof List;
+		if (owned) {
+			out.writeByte(list ? OWNED_LIST : OWNED_SET);
+		} else {
+			out.writeByte(list ? LIST : SET);
+			out.writeVarInt(getClassIndex(c));
+			registerCollection(value);
+		}
+		out.writeVarInt(collection.size());
+		for (Object item : collection) {
+			writeValue(item, owner, false, out);
+		}
+	}
+
+	private void registerCollection(Object collection) {
+		if (!byValue) {
+			localIds.put(collection, localIds.size());
+		}
+	}
+
+	private void writeSerialized(Object value, Output out) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+			objectOut.writeObject(value);
+		} catch (IOException e) {
+			throw new SpoonException("Unable to write a value of " + value.getClass().getName() + " in a snapshot", e);
+		}
+		out.writeByte(SERIALIZED);
+		out.writeVarInt(bytes.size());
+		out.writeBytes(bytes.toByteArray(), 0, bytes.size());
+	}
+}
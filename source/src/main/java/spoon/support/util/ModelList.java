@@ -244,6 +244,6 @@ public abstract class ModelList<T extends CtElement> extends AbstractList<T> imp
 	}
 
 	private FineModelChangeListener getModelChangeListener() {
-		return getOwner().getFactory().getEnvironment().getModelChangeListener();
+		return CtElementImpl.getModelChangeListener(getOwner());
 	}
 }
@@ -29,6 +29,7 @@ import spoon.SpoonException;
 import spoon.experimental.modelobs.FineModelChangeListener;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.path.CtRole;
+import spoon.support.reflect.declaration.CtElementImpl;
 
 import static spoon.support.util.ModelList.linkToParent;
 
@@ -154,7 +155,7 @@ public abstract class ModelSet<T extends CtElement> extends AbstractSet<T> imple
 	}
 
 	private FineModelChangeListener getModelChangeListener() {
-		return getOwner().getFactory().getEnvironment().getModelChangeListener();
+		return CtElementImpl.getModelChangeListener(getOwner());
 	}
 
 	public void set(Collection<T> elements) {
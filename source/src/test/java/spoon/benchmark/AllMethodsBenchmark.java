@@ -0,0 +1,105 @@
+package spoon.benchmark;
+
+import spoon.reflect.code.CtCodeSnippetStatement;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtParameter;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.AllTypeMembersFunction;
+import spoon.support.visitor.ClassTypingContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static spoon.testing.utils.ModelUtils.createFactory;
+
+/**
+ * Measures the throughput of {@link spoon.reflect.declaration.CtType#getAllMethods()} on a deep class hierarchy,
+ * whose last class inherits hundreds of methods, some of them overridden and overloaded:
+ * with the former scan, which compares each method with all the methods already found,
+ * after a change of the hierarchy, where the methods are compared with the ones of the same name and number of parameters,
+ * and without change, where the methods are cached.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.AllMethodsBenchmark [depth] [methods per class] [seconds]
+ */
+public class AllMethodsBenchmark {
+
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int methodsPerClass = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		long millis = 1000L * (args.length > 2 ? Integer.parseInt(args[2]) : 5);
+
+		Factory factory = createFactory();
+		factory.getEnvironment().setLevel("ERROR");
+		CtClass<?> type = null;
+		for (int level = 0; level < depth; level++) {
+			CtClass<?> subClass = factory.Class().create("Level" + level);
+			if (type != null) {
+				subClass.setSuperclass(type.getReference());
+			}
+			for (int i = 0; i < methodsPerClass; i++) {
+				// a quarter of the methods override the ones of the super class, the others overload them
+				String name = "m" + (i % 4 == 0 ? i : level * methodsPerClass + i);
+				List<CtParameter<?>> parameters = new ArrayList<>();
+				for (int p = 0; p < i % 3; p++) {
+					CtParameter<Integer> parameter = factory.Core().createParameter();
+					parameter.setType(factory.Type().integerPrimitiveType());
+					parameters.add(parameter.setSimpleName("p" + p));
+				}
+				CtMethod<?> method = factory.Method().create(subClass, new HashSet<>(), factory.Type().voidType(), name, parameters, new HashSet<>());
+				CtCodeSnippetStatement statement = factory.Code().createCodeSnippetStatement("System.out.println(" + i + ")");
+				method.setBody(factory.Code().createCtBlock(statement));
+			}
+			type = subClass;
+		}
+		final CtClass<?> lastClass = type;
+		final CtMethod<?> changedMethod = lastClass.getMethods().iterator().next();
+		System.out.println(lastClass.getAllMethods().size() + " methods in " + lastClass.getQualifiedName());
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("former scan", millis, () -> allMethodsByScan(lastClass).size());
+			measure("after change", millis, () -> {
+				changedMethod.setSimpleName(changedMethod.getSimpleName());
+				return lastClass.getAllMethods().size();
+			});
+			measure("cached", millis, () -> lastClass.getAllMethods().size());
+		}
+	}
+
+	/**
+	 * @return the methods of the type and of its super types, found as before the methods were indexed by signature
+	 */
+	private static Set<CtMethod<?>> allMethodsByScan(CtClass<?> type) {
+		final Set<CtMethod<?>> l = new HashSet<>();
+		final ClassTypingContext ctc = new ClassTypingContext(type);
+		type.map(new AllTypeMembersFunction(CtMethod.class)).forEach((CtMethod<?> currentMethod) -> {
+			for (CtMethod<?> alreadyVisitedMethod : l) {
+				if (ctc.isSameSignature(currentMethod, alreadyVisitedMethod)) {
+					return;
+				}
+			}
+			l.add(currentMethod);
+		});
+		return l;
+	}
+
+	private interface Query {
+		int run();
+	}
+
+	private static void measure(String name, long millis, Query query) {
+		long queries = 0;
+		int results = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			results = query.run();
+			queries++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("%-13s %12.2f calls/s (%d methods)", name, queries / seconds, results));
+	}
+}
@@ -0,0 +1,55 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.function.Supplier;
+
+/**
+ * Measures the queries of all the packages and types of a model of the size of the spoon sources:
+ * {@link CtModel#getAllPackages()}, {@link CtModel#getAllTypes()}, the TypeFactory and PackageFactory getAll,
+ * and the scan of the model for packages they used to do.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.AllTypesBenchmark [sources] [iterations]
+ */
+public class AllTypesBenchmark {
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		long start = System.currentTimeMillis();
+		launcher.buildModel();
+		CtModel model = launcher.getModel();
+		Factory factory = launcher.getFactory();
+		System.out.println("model of " + sources + " built in " + (System.currentTimeMillis() - start) + " ms: "
+				+ model.getAllPackages().size() + " packages, " + model.getAllTypes().size() + " types");
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("scan for packages", iterations, () -> model.getElements(new TypeFilter<>(CtPackage.class)).size());
+			measure("CtModel.getAllPackages", iterations, () -> model.getAllPackages().size());
+			measure("CtModel.getAllTypes", iterations, () -> model.getAllTypes().size());
+			measure("TypeFactory.getAll", iterations, () -> factory.Type().getAll().size());
+			measure("TypeFactory.getAll(nested)", iterations, () -> factory.Type().getAll(true).size());
+			measure("PackageFactory.getAll", iterations, () -> factory.Package().getAll().size());
+		}
+	}
+
+	private static void measure(String name, int iterations, Supplier<Integer> query) {
+		long start = System.nanoTime();
+		int size = 0;
+		for (int i = 0; i < iterations; i++) {
+			size += query.get();
+		}
+		long nanos = (System.nanoTime() - start) / iterations;
+		System.out.println(String.format("%-28s %10.3f ms (%d elements)", name, nanos / 1e6, size / iterations));
+	}
+}
@@ -0,0 +1,48 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
+
+/**
+ * Measures the time to build the model of the spoon sources with one thread and with several threads,
+ * see {@link spoon.compiler.Environment#setModelBuildingThreads(int)}, and the number of units built in parallel.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.ModelBuildingBenchmark [sources] [threads] [iterations]
+ */
+public class ModelBuildingBenchmark {
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			long sequential = measure(sources, 1, iterations);
+			long parallel = measure(sources, threads, iterations);
+			System.out.println(String.format("speedup with %d threads: %.2f", threads, (double) sequential / parallel));
+		}
+	}
+
+	/**
+	 * @return the average time to build the model, in milliseconds
+	 */
+	private static long measure(String sources, int threads, int iterations) {
+		long millis = 0;
+		int parallelUnits = 0;
+		for (int i = 0; i < iterations; i++) {
+			Launcher launcher = new Launcher();
+			launcher.addInputResource(sources);
+			launcher.getEnvironment().setNoClasspath(true);
+			launcher.getEnvironment().setComplianceLevel(8);
+			launcher.getEnvironment().setModelBuildingThreads(threads);
+			long start = System.currentTimeMillis();
+			launcher.buildModel();
+			millis += System.currentTimeMillis() - start;
+			parallelUnits = ((JDTBasedSpoonCompiler) launcher.getModelBuilder()).getParallelBuiltUnitCount();
+		}
+		millis /= iterations;
+		System.out.println(String.format("%2d threads %8d ms (%d units built in parallel)", threads, millis, parallelUnits));
+		return millis;
+	}
+}
@@ -0,0 +1,63 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.ModelStreamer;
+import spoon.reflect.factory.Factory;
+import spoon.support.SerializationModelStreamer;
+import spoon.support.snapshot.ModelSnapshotStreamer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Measures the size of the saved model of the spoon sources and the time to save and to load it,
+ * with the Java serialization and with the binary snapshot.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.ModelStreamerBenchmark [sources] [seconds]
+ */
+public class ModelStreamerBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 5);
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+		System.out.println(factory.Type().getAll().size() + " types in the model of " + sources);
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("serialization", millis, factory, new SerializationModelStreamer());
+			measure("snapshot", millis, factory, new ModelSnapshotStreamer());
+		}
+	}
+
+	private static void measure(String name, long millis, Factory factory, ModelStreamer streamer) throws IOException {
+		byte[] bytes = null;
+		long saves = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			streamer.save(factory, out);
+			bytes = out.toByteArray();
+			saves++;
+		}
+		double saveMillis = (System.nanoTime() - start) / 1e6 / saves;
+
+		long loads = 0;
+		start = System.nanoTime();
+		end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			streamer.load(new ByteArrayInputStream(bytes));
+			loads++;
+		}
+		double loadMillis = (System.nanoTime() - start) / 1e6 / loads;
+		System.out.println(String.format("%-14s %10d bytes %10.1f ms/save %10.1f ms/load", name, bytes.length, saveMillis, loadMillis));
+	}
+}
@@ -0,0 +1,55 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.support.JavaOutputProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Measures the time to print the model of the spoon sources in source files,
+ * with one printing thread and with several ones, see {@link spoon.compiler.Environment#setPrintingThreads(int)}.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.PrintingBenchmark [sources] [threads]
+ */
+public class PrintingBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.getEnvironment().setCommentEnabled(true);
+		launcher.getEnvironment().setAutoImports(true);
+		launcher.buildModel();
+		System.out.println(launcher.getModel().getAllTypes().size() + " top-level types in the model of " + sources);
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure(launcher, 1);
+			if (threads > 1) {
+				measure(launcher, threads);
+			}
+		}
+	}
+
+	private static void measure(Launcher launcher, int threads) throws IOException {
+		double millis = Double.MAX_VALUE;
+		int files = 0;
+		// the best of 5 runs
+		for (int run = 0; run < 5; run++) {
+			File directory = Files.createTempDirectory("printing").toFile();
+			launcher.getEnvironment().setPrintingThreads(threads);
+			launcher.setSourceOutputDirectory(directory);
+			long start = System.nanoTime();
+			launcher.prettyprint();
+			millis = Math.min(millis, (System.nanoTime() - start) / 1e6);
+			files = ((JavaOutputProcessor) launcher.getEnvironment().getDefaultFileGenerator()).getCreatedFiles().size();
+		}
+		System.out.println(String.format("%2d threads %10.1f ms (%d files)", threads, millis, files));
+	}
+}
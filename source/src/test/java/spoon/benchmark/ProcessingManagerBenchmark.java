@@ -0,0 +1,101 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.processing.AbstractProcessor;
+import spoon.processing.ProcessingManager;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtVariableAccess;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.support.ParallelProcessingManager;
+import spoon.support.QueueProcessingManager;
+
+import java.util.function.Function;
+
+/**
+ * Measures the time to apply N read-only processors to a model of the size of the spoon sources,
+ * with the {@link QueueProcessingManager}, which scans the model once per processor,
+ * and with the {@link ParallelProcessingManager}, which scans it once for all the processors.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.ProcessingManagerBenchmark [sources] [threads]
+ */
+public class ProcessingManagerBenchmark {
+
+	private static final Class<?>[] PROCESSED_TYPES = {
+			CtInvocation.class, CtMethod.class, CtField.class, CtLiteral.class, CtVariableAccess.class, CtTypeReference.class
+	};
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+		CtPackage rootPackage = factory.getModel().getRootPackage();
+		System.out.println(rootPackage.filterChildren(null).list().size() + " elements in the model of " + sources + ", " + threads + " threads");
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			for (int processors : new int[] {1, 5, 10, 20}) {
+				measure("queue", processors, rootPackage, f -> new QueueProcessingManager(f));
+				measure("parallel", processors, rootPackage, f -> new ParallelProcessingManager(f, threads));
+			}
+		}
+	}
+
+	private static void measure(String name, int processors, CtPackage rootPackage, Function<Factory, ProcessingManager> managers) {
+		double millis = Double.MAX_VALUE;
+		long processed = 0;
+		// the best of 5 runs
+		for (int run = 0; run < 5; run++) {
+			ProcessingManager manager = managers.apply(rootPackage.getFactory());
+			CountingProcessor[] counters = new CountingProcessor[processors];
+			for (int i = 0; i < processors; i++) {
+				counters[i] = new CountingProcessor(PROCESSED_TYPES[i % PROCESSED_TYPES.length], i);
+				manager.addProcessor(counters[i]);
+			}
+			long start = System.nanoTime();
+			manager.process(rootPackage);
+			millis = Math.min(millis, (System.nanoTime() - start) / 1e6);
+			processed = 0;
+			for (CountingProcessor counter : counters) {
+				processed += counter.count;
+			}
+		}
+		System.out.println(String.format("%-9s %2d processors %10.1f ms (%d processed elements)", name, processors, millis, processed));
+	}
+
+	/**
+	 * Counts the elements of a type which have a position, and whose line is not in a class given by the index of the processor.
+	 */
+	private static class CountingProcessor extends AbstractProcessor<CtElement> {
+		private final int index;
+		long count = 0;
+
+		@SuppressWarnings("unchecked")
+		CountingProcessor(Class<?> processedType, int index) {
+			clearProcessedElementType();
+			addProcessedElementType((Class<? extends CtElement>) processedType);
+			this.index = index;
+		}
+
+		@Override
+		public boolean isToBeProcessed(CtElement candidate) {
+			return candidate.getPosition().isValidPosition() && candidate.getPosition().getLine() % 4 != index % 4;
+		}
+
+		@Override
+		public void process(CtElement element) {
+			count++;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtParameter;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.chain.QueryFailurePolicy;
+
+/**
+ * Measures the throughput of filterChildren/map query chains on a model of the size of the spoon sources,
+ * where most of the scanned elements are not accepted by the steps of the query:
+ * with lambda expressions, whose input type is detected from a {@link ClassCastException},
+ * and with the steps whose input type is declared, which skip the other elements by an instance check.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.QueryBenchmark [sources] [seconds]
+ */
+public class QueryBenchmark {
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 5);
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.buildModel();
+		CtPackage rootPackage = launcher.getFactory().getModel().getRootPackage();
+		System.out.println(rootPackage.filterChildren(null).list().size() + " elements in the model of " + sources);
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("lambda", millis, () -> rootPackage.filterChildren((CtMethod<?> m) -> m.isPublic())
+					.map((CtMethod<?> m) -> m.getParameters())
+					.map((CtParameter<?> p) -> p.getType())
+					.failurePolicy(QueryFailurePolicy.IGNORE)
+					.list().size());
+			measure("declared type", millis, () -> launcher.getFactory().Query().createQuery(rootPackage)
+					.filterChildren(CtMethod.class, (CtMethod<?> m) -> m.isPublic())
+					.map(CtMethod.class, (CtMethod<?> m) -> m.getParameters())
+					.map(CtParameter.class, (CtParameter<?> p) -> p.getType())
+					.list(CtTypeReference.class).size());
+		}
+	}
+
+	private interface Query {
+		int run();
+	}
+
+	private static void measure(String name, long millis, Query query) {
+		long queries = 0;
+		int results = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			results = query.run();
+			queries++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("%-14s %10.2f queries/s (%d results)", name, queries / seconds, results));
+	}
+}
@@ -0,0 +1,128 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+import spoon.support.reflect.cu.position.SourcePositionImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the throughput of the line and column queries of the positions of the elements of a large file:
+ * with the former linear search of the line separators,
+ * for new positions, whose line and columns are searched once,
+ * and for the positions of the model, whose lines and columns are cached.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.SourcePositionBenchmark [lines] [seconds]
+ */
+public class SourcePositionBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int methods = (args.length > 0 ? Integer.parseInt(args[0]) : 20000) / 5;
+		long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 5);
+
+		StringBuilder source = new StringBuilder("public class Large {\n");
+		for (int i = 0; i < methods; i++) {
+			source.append("\tint m").append(i).append("(int a) {\n")
+					.append("\t\tint b = a * ").append(i).append(";\n")
+					.append("\t\treturn b + m").append(i).append("(b);\n")
+					.append("\t}\n\n");
+		}
+		source.append("}\n");
+		File directory = Files.createTempDirectory("positions").toFile();
+		File file = new File(directory, "Large.java");
+		Files.write(file.toPath(), source.toString().getBytes(StandardCharsets.UTF_8));
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(file.getPath());
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.buildModel();
+		CtType<?> type = launcher.getFactory().Type().get("Large");
+		CompilationUnit compilationUnit = type.getPosition().getCompilationUnit();
+		List<SourcePosition> positions = new ArrayList<>();
+		for (CtElement element : type.filterChildren(null).<CtElement>list()) {
+			if (element.getPosition() instanceof SourcePositionImpl) {
+				positions.add(element.getPosition());
+			}
+		}
+		List<Integer> separators = new ArrayList<>();
+		for (int i = 0; i < source.length(); i++) {
+			if (source.charAt(i) == '\n') {
+				separators.add(i);
+			}
+		}
+		int[] lineSeparatorPositions = separators.stream().mapToInt(Integer::intValue).toArray();
+		System.out.println(positions.size() + " positions in a file of " + lineSeparatorPositions.length + " lines");
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("former search", millis, positions.size(), () -> {
+				int sum = 0;
+				for (SourcePosition position : positions) {
+					sum += searchColumnNumber(compilationUnit, lineSeparatorPositions, position.getSourceStart())
+							+ searchColumnNumber(compilationUnit, lineSeparatorPositions, position.getSourceEnd());
+				}
+				return sum;
+			});
+			measure("new positions", millis, positions.size(), () -> {
+				int sum = 0;
+				for (SourcePosition position : positions) {
+					SourcePosition newPosition = new SourcePositionImpl(compilationUnit, position.getSourceStart(), position.getSourceEnd(), lineSeparatorPositions);
+					sum += newPosition.getLine() + newPosition.getColumn() + newPosition.getEndLine() + newPosition.getEndColumn();
+				}
+				return sum;
+			});
+			measure("cached", millis, positions.size(), () -> {
+				int sum = 0;
+				for (SourcePosition position : positions) {
+					sum += position.getLine() + position.getColumn() + position.getEndLine() + position.getEndColumn();
+				}
+				return sum;
+			});
+		}
+	}
+
+	/**
+	 * The column search of {@link SourcePositionImpl} before the line of a position was searched by dichotomy
+	 */
+	private static int searchColumnNumber(CompilationUnit compilationUnit, int[] lineSeparatorPositions, int position) {
+		int i;
+		for (i = 0; i < lineSeparatorPositions.length - 1; i++) {
+			if (lineSeparatorPositions[i] < position && (lineSeparatorPositions[i + 1] > position)) {
+				return position - lineSeparatorPositions[i];
+			}
+		}
+		int tabCount = 0;
+		int tabSize = compilationUnit.getFactory().getEnvironment().getTabulationSize();
+		String source = compilationUnit.getOriginalSourceCode();
+		for (int j = lineSeparatorPositions[i]; j < position; j++) {
+			if (source.charAt(j) == '\t') {
+				tabCount++;
+			}
+		}
+		return (position - lineSeparatorPositions[i]) - tabCount + (tabCount * tabSize);
+	}
+
+	private interface Queries {
+		int run();
+	}
+
+	private static void measure(String name, long millis, int positions, Queries queries) {
+		long runs = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			queries.run();
+			runs++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("%-14s %14.0f positions/s", name, runs * positions / seconds));
+	}
+}
@@ -0,0 +1,67 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.cu.CompilationUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by the original source code of the compilation units of a model of the size of the spoon sources,
+ * when the {@link spoon.support.reflect.cu.SourceStore} keeps it and when it softly references it, the default.
+ * The source code of all the units is read, then the memory is needed, which drops the softly referenced source code.
+ * It is not a test. Run it from the root of the project with a bounded heap, for example
+ * java -Xmx1g -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.SourceStoreBenchmark [sources]
+ */
+public class SourceStoreBenchmark {
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		measure(sources, false);
+		measure(sources, true);
+	}
+
+	private static void measure(String sources, boolean softlyReferenced) {
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.getFactory().CompilationUnit().getSourceStore().setSoftlyReferenced(softlyReferenced);
+		launcher.buildModel();
+		long before = usedHeap();
+
+		long characters = 0;
+		for (CompilationUnit cu : launcher.getFactory().CompilationUnit().getMap().values()) {
+			characters += cu.getOriginalSourceCode().length();
+		}
+		long read = usedHeap();
+		needMemory();
+		long retained = usedHeap();
+
+		System.out.println(String.format("%-20s %8d characters read, %8d KB after reading, %8d KB retained when the memory is needed (%d units)",
+				softlyReferenced ? "softly referenced" : "kept", characters, (read - before) / 1024, (retained - before) / 1024,
+				launcher.getFactory().CompilationUnit().getMap().size()));
+	}
+
+	/**
+	 * Allocates until the heap is exhausted, the soft references are cleared before an {@link OutOfMemoryError} is thrown
+	 */
+	private static void needMemory() {
+		List<long[]> blocks = new ArrayList<>();
+		try {
+			while (true) {
+				blocks.add(new long[1 << 20]);
+			}
+		} catch (OutOfMemoryError e) {
+			blocks.clear();
+		}
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,85 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
+import spoon.reflect.visitor.StreamingTokenWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the time to print a large generated class and the number of characters the printer keeps in memory,
+ * with the default token writer, which builds the whole code before it is written,
+ * and with the {@link StreamingTokenWriter}, which writes the code to a channel while it is printed.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.StreamingPrintingBenchmark [methods]
+ */
+public class StreamingPrintingBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int methods = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+		StringBuilder source = new StringBuilder("public class Large {\n");
+		for (int i = 0; i < methods; i++) {
+			source.append("\t/** returns the value ").append(i).append(" */\n")
+					.append("\tint m").append(i).append("(int a) {\n")
+					.append("\t\tint b = a * ").append(i).append(";\n")
+					.append("\t\treturn b + m").append(i).append("(b);\n")
+					.append("\t}\n\n");
+		}
+		source.append("}\n");
+		File directory = Files.createTempDirectory("printing").toFile();
+		File file = new File(directory, "Large.java");
+		Files.write(file.toPath(), source.toString().getBytes(StandardCharsets.UTF_8));
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(file.getPath());
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setCommentEnabled(true);
+		launcher.buildModel();
+		CtType<?> type = launcher.getFactory().Type().get("Large");
+		List<CtType<?>> types = Collections.singletonList(type);
+		CompilationUnit compilationUnit = type.getPosition().getCompilationUnit();
+		WritableByteChannel channel = Channels.newChannel(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		});
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			DefaultJavaPrettyPrinter printer = new DefaultJavaPrettyPrinter(launcher.getEnvironment());
+			long start = System.nanoTime();
+			printer.calculate(compilationUnit, types);
+			String code = printer.getResult();
+			channel.write(StandardCharsets.UTF_8.encode(code));
+			report("string", start, code.length());
+
+			printer = new DefaultJavaPrettyPrinter(launcher.getEnvironment());
+			StreamingTokenWriter tokenWriter = new StreamingTokenWriter(launcher.getEnvironment(), channel, StandardCharsets.UTF_8);
+			printer.setPrinterTokenWriter(tokenWriter);
+			start = System.nanoTime();
+			printer.calculate(compilationUnit, types);
+			int buffered = printer.getResult().length();
+			tokenWriter.flush();
+			report("streaming", start, buffered);
+		}
+	}
+
+	private static void report(String name, long start, int characters) {
+		System.out.println(String.format("%-10s %10.1f ms, %10d characters in memory", name, (System.nanoTime() - start) / 1e6, characters));
+	}
+}
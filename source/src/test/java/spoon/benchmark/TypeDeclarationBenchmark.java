@@ -0,0 +1,87 @@
+package spoon.benchmark;
+
+import spoon.Launcher;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtArrayTypeReference;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Measures the throughput of {@link spoon.reflect.factory.TypeFactory#get(String)} on the qualified names
+ * of all the type references of a model of the size of the spoon sources, with the qualified name index of TypeFactory,
+ * and with the search of the packages it replaces.
+ * It is not a test. Run it from the root of the project with
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; spoon.benchmark.TypeDeclarationBenchmark [sources] [seconds]
+ */
+public class TypeDeclarationBenchmark {
+
+	public static void main(String[] args) {
+		String sources = args.length > 0 ? args[0] : "./src/main/java";
+		long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 5);
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(sources);
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setComplianceLevel(8);
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+		// the declarations of array and type parameter references are found differently
+		List<CtTypeReference<?>> references = factory.getModel().getElements(new TypeFilter<CtTypeReference<?>>(CtTypeReference.class) {
+			@Override
+			public boolean matches(CtTypeReference<?> reference) {
+				return super.matches(reference) && !(reference instanceof CtArrayTypeReference) && !(reference instanceof CtTypeParameterReference)
+						&& !reference.isPrimitive();
+			}
+		});
+		List<String> qualifiedNames = new ArrayList<>();
+		for (CtTypeReference<?> reference : references) {
+			qualifiedNames.add(reference.getQualifiedName());
+		}
+		System.out.println(qualifiedNames.size() + " type references in the model of " + sources);
+
+		for (int round = 0; round < 2; round++) {
+			System.out.println(round == 0 ? "warm up" : "measure");
+			measure("with index", qualifiedNames, millis, factory.Type()::get);
+			measure("package search", qualifiedNames, millis, qualifiedName -> searchPackages(factory, qualifiedName));
+		}
+	}
+
+	/**
+	 * The search of TypeFactory#get(String) before the types were indexed: the package, and then the type in it
+	 */
+	private static CtType<?> searchPackages(Factory factory, String qualifiedName) {
+		int packageIndex = qualifiedName.lastIndexOf(CtPackage.PACKAGE_SEPARATOR);
+		CtPackage pack = packageIndex > 0 ? factory.Package().get(qualifiedName.substring(0, packageIndex)) : factory.Package().getRootPackage();
+		CtType<?> type = pack == null ? null : pack.getType(qualifiedName.substring(packageIndex + 1));
+		int nestedTypeIndex = qualifiedName.lastIndexOf(CtType.INNERTTYPE_SEPARATOR);
+		if (type == null && nestedTypeIndex > 0) {
+			CtType<?> declaringType = searchPackages(factory, qualifiedName.substring(0, nestedTypeIndex));
+			return declaringType == null ? null : declaringType.getNestedType(qualifiedName.substring(nestedTypeIndex + 1));
+		}
+		return type;
+	}
+
+	private static void measure(String name, List<String> qualifiedNames, long millis, Function<String, CtType<?>> lookUp) {
+		long operations = 0;
+		int found = 0;
+		long start = System.nanoTime();
+		long end = start + millis * 1000000;
+		while (System.nanoTime() < end) {
+			for (String qualifiedName : qualifiedNames) {
+				if (lookUp.apply(qualifiedName) != null) {
+					found++;
+				}
+			}
+			operations += qualifiedNames.size();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("%-14s %12.0f lookups/s (%d found)", name, operations / seconds, found * (long) qualifiedNames.size() / operations));
+	}
+}
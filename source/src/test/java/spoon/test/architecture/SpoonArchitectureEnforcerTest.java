@@ -363,6 +363,7 @@ public class SpoonArchitectureEnforcerTest {
 		officialPackages.add("spoon.support.compiler.jdt");
 		officialPackages.add("spoon.support.compiler");
 		officialPackages.add("spoon.support.gui");
+		officialPackages.add("spoon.support.snapshot");
 		officialPackages.add("spoon.support.reflect.code");
 		officialPackages.add("spoon.support.reflect.cu.position");
 		officialPackages.add("spoon.support.reflect.cu");
@@ -16,6 +16,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
 import org.junit.Assert;
@@ -24,11 +25,13 @@ import org.junit.Test;
 import spoon.Launcher;
 import spoon.SpoonException;
 import spoon.SpoonModelBuilder;
+import spoon.reflect.CtModel;
 import spoon.reflect.code.BinaryOperatorKind;
 import spoon.reflect.code.CtBinaryOperator;
 import spoon.reflect.code.CtBlock;
 import spoon.reflect.code.CtReturn;
 import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ModifierKind;
@@ -447,4 +450,45 @@ public class CompilationTest {
 
 		assertThat(tempDirPath.toFile().listFiles().length, not(0));
 	}
+
+	@Test
+	public void testParallelModelBuilding() {
+		// contract: the model built by several threads is the same as the model built sequentially,
+		// including the units in noclasspath mode which have to be built sequentially
+		Launcher sequentialLauncher = createModelBuildingLauncher(1);
+		Launcher parallelLauncher = createModelBuildingLauncher(4);
+		CtModel sequentialModel = sequentialLauncher.buildModel();
+		CtModel parallelModel = parallelLauncher.buildModel();
+		// contract: the units which do not have to be built sequentially are built in parallel
+		assertEquals(0, ((JDTBasedSpoonCompiler) sequentialLauncher.getModelBuilder()).getParallelBuiltUnitCount());
+		assertTrue(((JDTBasedSpoonCompiler) parallelLauncher.getModelBuilder()).getParallelBuiltUnitCount() > 0);
+
+		assertEquals(sequentialModel.getAllTypes(), parallelModel.getAllTypes());
+		List<CtElement> sequentialElements = sequentialModel.getRootPackage().getElements(new TypeFilter<>(CtElement.class));
+		List<CtElement> parallelElements = parallelModel.getRootPackage().getElements(new TypeFilter<>(CtElement.class));
+		assertEquals(sequentialElements.size(), parallelElements.size());
+		for (int i = 0; i < sequentialElements.size(); i++) {
+			assertEquals(sequentialElements.get(i).getPosition().toString(), parallelElements.get(i).getPosition().toString());
+			assertEquals(sequentialElements.get(i).getComments(), parallelElements.get(i).getComments());
+		}
+
+		Map<String, spoon.reflect.cu.CompilationUnit> sequentialUnits = sequentialLauncher.getFactory().CompilationUnit().getMap();
+		Map<String, spoon.reflect.cu.CompilationUnit> parallelUnits = parallelLauncher.getFactory().CompilationUnit().getMap();
+		assertEquals(sequentialUnits.keySet(), parallelUnits.keySet());
+		for (String path : sequentialUnits.keySet()) {
+			assertEquals(sequentialUnits.get(path).getDeclaredTypes(), parallelUnits.get(path).getDeclaredTypes());
+			assertEquals(sequentialUnits.get(path).getImports(), parallelUnits.get(path).getImports());
+		}
+	}
+
+	private Launcher createModelBuildingLauncher(int threads) {
+		Launcher launcher = new Launcher();
+		launcher.addInputResource("./src/main/java/spoon/reflect/reference");
+		launcher.addInputResource("./src/test/resources/noclasspath/lambdas");
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setCommentEnabled(true);
+		launcher.getEnvironment().setAutoImports(true);
+		launcher.getEnvironment().setModelBuildingThreads(threads);
+		return launcher;
+	}
 }
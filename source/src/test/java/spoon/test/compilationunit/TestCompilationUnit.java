@@ -1,7 +1,9 @@
 package spoon.test.compilationunit;
 
 import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import spoon.Launcher;
 import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.cu.SourcePosition;
@@ -32,6 +34,9 @@ import static org.junit.Assert.fail;
  */
 public class TestCompilationUnit {
 
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
     @Test
     public void testIsoEncodingIsSupported() throws Exception {
 
@@ -155,4 +160,35 @@ public class TestCompilationUnit {
         File f = new File(Launcher.OUTPUTDIR, "my/new/MyClass.java");
         assertEquals(f.getCanonicalFile(), cu.getFile());
     }
+
+    @Test
+    public void testOriginalSourceCodeIsReadThroughTheSourceStore() throws IOException {
+        // contract: the original source code of a compilation unit is read once and shared
+        StringBuilder source = new StringBuilder("public class Large {\n");
+        for (int i = 0; i < 5000; i++) {
+            source.append("\tint m").append(i).append("() { return ").append(i).append("; } // \u00e9\u00e8\n");
+        }
+        source.append("}\n");
+        File file = tmpFolder.newFile("Large.java");
+        Files.write(file.toPath(), source.toString().getBytes("UTF-8"));
+        assertTrue(file.length() > 64 * 1024);
+
+        final Launcher launcher = new Launcher();
+        launcher.addInputResource(file.getPath());
+        launcher.getEnvironment().setNoClasspath(true);
+        launcher.getEnvironment().setEncoding(Charset.forName("UTF-8"));
+        // contract: the source code is dropped when the memory is needed by default
+        assertTrue(launcher.getFactory().CompilationUnit().getSourceStore().isSoftlyReferenced());
+        launcher.getFactory().CompilationUnit().getSourceStore().setSoftlyReferenced(false);
+        launcher.buildModel();
+
+        CompilationUnit cu = launcher.getFactory().Type().get("Large").getPosition().getCompilationUnit();
+        assertEquals(source.toString(), cu.getOriginalSourceCode());
+        assertSame(cu.getOriginalSourceCode(), cu.getOriginalSourceCode());
+        assertSame(cu.getOriginalSourceCode(), launcher.getFactory().CompilationUnit().getSourceStore().getSourceCode(cu.getFile(), Charset.forName("UTF-8")));
+
+        // contract: the source code which is not softly referenced is kept, and does not change with the file
+        Files.write(file.toPath(), "public class Large {}\n".getBytes("UTF-8"));
+        assertEquals(source.toString(), cu.getOriginalSourceCode());
+    }
 }
@@ -3,11 +3,20 @@ package spoon.test.ctElement;
 import org.junit.Test;
 import spoon.Launcher;
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtTypeReference;
 import spoon.support.reflect.declaration.CtAnnotationImpl;
 import spoon.support.reflect.declaration.CtMethodImpl;
+import spoon.support.util.IdentitySet;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by urli on 28/06/2017.
@@ -34,4 +43,27 @@ public class ElementTest {
         // contract: a singleton is used for the default factory
         assertSame(otherElement.getFactory(), yetAnotherOne.getFactory());
     }
+
+    @Test
+    public void testIdentitySet() {
+        // contract: an IdentitySet keeps the elements which are equal but distinct
+        Factory factory = new Launcher().getFactory();
+        CtTypeReference<?> reference = factory.Type().createReference("foo.A");
+        CtTypeReference<?> otherReference = factory.Type().createReference("foo.A");
+        assertEquals(reference, otherReference);
+
+        Set<CtTypeReference<?>> set = new HashSet<>();
+        set.add(reference);
+        set.add(otherReference);
+        assertEquals(1, set.size());
+
+        Set<CtTypeReference<?>> identitySet = new IdentitySet<>();
+        assertTrue(identitySet.add(reference));
+        assertFalse(identitySet.add(reference));
+        assertTrue(identitySet.add(otherReference));
+        assertEquals(2, identitySet.size());
+        assertTrue(identitySet.remove(reference));
+        assertFalse(identitySet.contains(reference));
+        assertTrue(identitySet.contains(otherReference));
+    }
 }
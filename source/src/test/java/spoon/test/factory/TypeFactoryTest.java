@@ -3,20 +3,37 @@ package spoon.test.factory;
 import com.mysema.query.types.expr.ComparableExpressionBase;
 import org.junit.Test;
 import spoon.Launcher;
+import spoon.experimental.modelobs.ChangeCollector;
+import spoon.experimental.modelobs.EmptyModelChangeListener;
+import spoon.experimental.modelobs.FineModelChangeListener;
 import spoon.reflect.code.CtJavaDoc;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.FactoryImpl;
 import spoon.reflect.factory.TypeFactory;
+import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.support.DefaultCoreFactory;
+import spoon.support.reflect.declaration.CtModuleImpl;
 import spoon.test.factory.testclasses3.Cooking;
 import spoon.test.factory.testclasses3.Prepare;
 import spoon.testing.utils.ModelUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class TypeFactoryTest {
 
@@ -85,4 +102,98 @@ public class TypeFactoryTest {
 		assertNotNull(poorNameChoice);
 		assertEquals(poorNameChoice,poorName.getMethodsByName("lookingForTroubles").get(0).getType().getTypeDeclaration());
 	}
+
+	@Test
+	public void testGetTypeByQualifiedNameFollowsChanges() throws Exception {
+		// contract: TypeFactory#get(String) finds the types of the model, and their nested types, after any change of the model
+		Factory factory = ModelUtils.build(new File("./src/test/java/spoon/test/factory/testclasses3"));
+		for (CtType<?> type : factory.Type().getAll(true)) {
+			assertSame(type, lookUp(factory, type.getQualifiedName()));
+		}
+		assertNull(lookUp(factory, "spoon.test.factory.testclasses3.Unknown"));
+		assertNull(lookUp(factory, "spoon.test.factory.testclasses3.Prepare$Unknown"));
+
+		CtClass<?> prepare = factory.Class().get(Prepare.class);
+		prepare.setSimpleName("Prepared");
+		assertNull(lookUp(factory, "spoon.test.factory.testclasses3.Prepare"));
+		assertSame(prepare, lookUp(factory, "spoon.test.factory.testclasses3.Prepared"));
+		assertSame(prepare.getNestedType("Tacos"), lookUp(factory, "spoon.test.factory.testclasses3.Prepared$Tacos"));
+
+		CtClass<?> added = factory.Class().create(prepare, "Added");
+		assertSame(added, lookUp(factory, "spoon.test.factory.testclasses3.Prepared$Added"));
+		added.delete();
+		assertNull(lookUp(factory, "spoon.test.factory.testclasses3.Prepared$Added"));
+
+		CtClass<?> inNewPackage = factory.Class().create("spoon.test.factory.added.InNewPackage");
+		assertSame(inNewPackage, lookUp(factory, "spoon.test.factory.added.InNewPackage"));
+		factory.Package().get("spoon.test.factory.added").setSimpleName("renamed");
+		assertNull(lookUp(factory, "spoon.test.factory.added.InNewPackage"));
+		assertSame(inNewPackage, lookUp(factory, "spoon.test.factory.renamed.InNewPackage"));
+
+		// contract: the index does not replace the model change listener of the environment, which still gets the changes
+		ChangeCollector changeCollector = new ChangeCollector().attachTo(factory.getEnvironment());
+		FineModelChangeListener listener = factory.getEnvironment().getModelChangeListener();
+		assertSame(inNewPackage, lookUp(factory, "spoon.test.factory.renamed.InNewPackage"));
+		assertSame(listener, factory.getEnvironment().getModelChangeListener());
+		assertSame(changeCollector, ChangeCollector.getChangeCollector(factory.getEnvironment()));
+		CtPackage renamed = inNewPackage.getPackage();
+		inNewPackage.delete();
+		assertNull(lookUp(factory, "spoon.test.factory.renamed.InNewPackage"));
+		assertEquals(Collections.singleton(CtRole.CONTAINED_TYPE), changeCollector.getDirectChanges(renamed));
+	}
+
+	@Test
+	public void testGetTypeByQualifiedNameWithSharedEnvironment() throws Exception {
+		// contract: the indexes of the factories which share an environment both follow the changes, without changing its listener
+		Factory factory = new Launcher().getFactory();
+		Factory otherFactory = new FactoryImpl(new DefaultCoreFactory(), factory.getEnvironment());
+		CtClass<?> type = factory.Class().create("spoon.test.factory.A");
+		CtClass<?> otherType = otherFactory.Class().create("spoon.test.factory.B");
+		for (int i = 0; i < 10; i++) {
+			assertSame(type, lookUp(factory, "spoon.test.factory.A"));
+			assertSame(otherType, lookUp(otherFactory, "spoon.test.factory.B"));
+		}
+		assertSame(EmptyModelChangeListener.class, factory.getEnvironment().getModelChangeListener().getClass());
+
+		type.setSimpleName("C");
+		otherType.setSimpleName("D");
+		assertSame(type, lookUp(factory, "spoon.test.factory.C"));
+		assertSame(otherType, lookUp(otherFactory, "spoon.test.factory.D"));
+		assertNull(lookUp(otherFactory, "spoon.test.factory.B"));
+	}
+
+	@Test
+	public void testGetTypeByQualifiedNameIndexSurvivesChangesInMethods() throws Exception {
+		// contract: the index of the types is kept when the methods and their bodies change, it is dropped when a type changes
+		Factory factory = new Launcher().getFactory();
+		CtClass<?> type = factory.Class().create("spoon.test.factory.A");
+		CtMethod<Void> method = factory.Method().create(type, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>(), factory.Core().createBlock());
+		CtModuleImpl module = (CtModuleImpl) factory.getModel().getUnnamedModule();
+		assertSame(type, lookUp(factory, "spoon.test.factory.A"));
+		int typeChangeCount = module.getTypeChangeCount();
+
+		CtLiteral<Integer> literal = factory.Code().createLiteral(1);
+		CtLocalVariable<Integer> variable = factory.Code().createLocalVariable(factory.Type().integerPrimitiveType(), "i", literal);
+		method.getBody().addStatement(variable);
+		literal.setValue(2);
+		variable.setSimpleName("j");
+		method.setSimpleName("n");
+		assertEquals(typeChangeCount, module.getTypeChangeCount());
+		assertSame(type, lookUp(factory, "spoon.test.factory.A"));
+
+		type.setSimpleName("B");
+		assertNotEquals(typeChangeCount, module.getTypeChangeCount());
+		assertNull(lookUp(factory, "spoon.test.factory.A"));
+		assertSame(type, lookUp(factory, "spoon.test.factory.B"));
+	}
+
+	/** looks up a type many times, so that both the search in the packages and the index of the types are used */
+	private static CtType<?> lookUp(Factory factory, String qualifiedName) {
+		CtType<?> type = factory.Type().get(qualifiedName);
+		for (int i = 0; i < 100; i++) {
+			assertSame(type, factory.Type().get(qualifiedName));
+		}
+		return type;
+	}
 }
+
@@ -707,6 +707,58 @@ public class FilterTest {
 		assertTrue(context.count>0);
 	}
 	@Test
+	public void testTypedQuerySteps() throws Exception {
+		// contract: the steps with a declared input type are called only with the instances of that type,
+		// even with the default failure policy, and produce the same elements as the untyped steps with QueryFailurePolicy.IGNORE
+		final Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] {"--output-type", "nooutput","--level","info" });
+		launcher.addInputResource("./src/test/java/spoon/test/filters/testclasses");
+		launcher.run();
+		CtPackage rootPackage = launcher.getFactory().Package().getRootPackage();
+
+		List<CtMethod<?>> expected = rootPackage.filterChildren((CtElement c)->{return true;})
+			.map((CtMethod<?> m)->m)
+			.failurePolicy(QueryFailurePolicy.IGNORE)
+			.list();
+		assertTrue(expected.size() > 0);
+
+		class Context {
+			int count = 0;
+		}
+		Context context = new Context();
+		List<CtMethod<?>> methods = new ArrayList<>();
+		launcher.getFactory().Query().createQuery(rootPackage).filterChildren(CtElement.class, null)
+			.map(CtMethod.class, (CtMethod<?> m)->{
+				context.count++;
+				return m;
+			})
+			.forEach(CtMethod.class, (CtMethod<?> m)->{
+				methods.add(m);
+			});
+		assertEquals(expected, methods);
+		assertEquals(expected.size(), context.count);
+
+		// contract: filterChildren(type, filter) and select(type, filter) give only the elements of the type to the filter
+		assertEquals(expected, launcher.getFactory().Query().createQuery(rootPackage).filterChildren(CtMethod.class, (CtMethod<?> m)->true).list());
+		assertEquals(rootPackage.getElements(new TypeFilter<>(CtClass.class)),
+			launcher.getFactory().Query().createQuery(rootPackage).filterChildren(null).select(CtClass.class, (CtClass<?> c)->true).list());
+
+		// contract: map(type, consumableFunction) skips the elements of other types too
+		assertEquals(expected, launcher.getFactory().Query().createQuery(rootPackage).filterChildren(null)
+			.map(CtMethod.class, (CtMethod<?> m, CtConsumer<Object> out)->out.accept(m)).list());
+
+		// contract: a ClassCastException thrown by the body of a typed step is reported
+		try {
+			launcher.getFactory().Query().createQuery(rootPackage).filterChildren(null)
+				.map(CtMethod.class, (CtMethod<?> m)->{
+					throw new ClassCastException("TEST");
+				}).list();
+			fail();
+		} catch (ClassCastException e) {
+			assertEquals("TEST", e.getMessage());
+		}
+	}
+	@Test
 	public void testElementMapFunction() throws Exception {
 		// contract: a map(Function) can be followed by a forEach(...) or by a list()
 		final Launcher launcher = new Launcher();
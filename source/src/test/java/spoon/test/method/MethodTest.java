@@ -21,19 +21,25 @@ import org.junit.Test;
 import spoon.Launcher;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.visitor.filter.NamedElementFilter;
 import spoon.test.delete.testclasses.Adobada;
 import spoon.test.method.testclasses.Tacos;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static spoon.testing.utils.ModelUtils.build;
@@ -110,4 +116,99 @@ public class MethodTest {
 		assertTrue(compareFound);
 	}
 
+	@Test
+	public void testGetAllMethodsAfterChanges() throws Exception {
+		// contract: the methods of a type and of its super types are found again when one of these types changes
+		final Factory factory = createFactory();
+		final CtClass<Object> superClass = factory.Class().create("SuperTacos");
+		final CtClass<Object> tacos = factory.Class().create("Tacos");
+		tacos.setSuperclass(superClass.getReference());
+		final CtMethod<Void> superMethod = factory.Method().create(superClass, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+		final CtMethod<Void> method = factory.Method().create(tacos, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+
+		assertTrue(containsSame(tacos.getAllMethods(), method));
+		assertFalse(containsSame(tacos.getAllMethods(), superMethod));
+		assertSame(tacos.getAllMethods(), tacos.getAllMethods());
+
+		final CtMethod<Void> otherMethod = factory.Method().create(superClass, new HashSet<>(), factory.Type().voidType(), "n", new ArrayList<>(), new HashSet<>());
+		assertTrue(containsSame(tacos.getAllMethods(), otherMethod));
+
+		method.setSimpleName("o");
+		assertTrue(containsSame(tacos.getAllMethods(), method));
+		assertTrue(containsSame(tacos.getAllMethods(), superMethod));
+		assertSame(method, tacos.getMethod("o"));
+		assertSame(method, tacos.getMethod("o"));
+		assertNull(tacos.getMethod("m"));
+
+		tacos.removeMethod(method);
+		assertFalse(containsSame(tacos.getAllMethods(), method));
+		assertNull(tacos.getMethod("o"));
+
+		// the super class is replaced by another class of the same name, which does not change Tacos
+		assertTrue(containsSame(tacos.getAllMethods(), superMethod));
+		superClass.delete();
+		final CtClass<Object> newSuperClass = factory.Class().create("SuperTacos");
+		final CtMethod<Void> newSuperMethod = factory.Method().create(newSuperClass, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+		assertTrue(containsSame(tacos.getAllMethods(), newSuperMethod));
+		assertFalse(containsSame(tacos.getAllMethods(), superMethod));
+
+		tacos.setSuperclass(null);
+		assertFalse(containsSame(tacos.getAllMethods(), newSuperMethod));
+	}
+
+	@Test
+	public void testGetAllMethodsAfterChangeOfAParameter() throws Exception {
+		// contract: the cached methods follow the changes of the elements nested in a method, here the type of a parameter
+		final Factory factory = createFactory();
+		final CtClass<Object> superClass = factory.Class().create("SuperTacos");
+		final CtClass<Object> tacos = factory.Class().create("Tacos");
+		tacos.setSuperclass(superClass.getReference());
+		final CtMethod<Void> superMethod = factory.Method().create(superClass, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+		final CtMethod<Void> method = factory.Method().create(tacos, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+		factory.Executable().createParameter(superMethod, factory.Type().integerPrimitiveType(), "i");
+		final CtParameter<?> parameter = factory.Executable().createParameter(method, factory.Type().integerPrimitiveType(), "i");
+
+		assertTrue(containsSame(tacos.getAllMethods(), method));
+		assertFalse(containsSame(tacos.getAllMethods(), superMethod));
+
+		parameter.getType().setSimpleName("long");
+		assertTrue(containsSame(tacos.getAllMethods(), method));
+		assertTrue(containsSame(tacos.getAllMethods(), superMethod));
+	}
+
+	@Test
+	public void testGetAllExecutablesAfterChanges() throws Exception {
+		// contract: getAllExecutables reads the methods cached by getAllMethods, and follows the changes of the super types
+		final Factory factory = createFactory();
+		final CtClass<Object> superClass = factory.Class().create("SuperTacos");
+		final CtClass<Object> tacos = factory.Class().create("Tacos");
+		tacos.setSuperclass(superClass.getReference());
+		factory.Method().create(superClass, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+		factory.Method().create(tacos, new HashSet<>(), factory.Type().voidType(), "m", new ArrayList<>(), new HashSet<>());
+
+		assertEquals(tacos.getAllMethods().size(), tacos.getAllExecutables().size());
+		assertTrue(signatures(tacos.getAllExecutables()).contains("m()"));
+		assertFalse(signatures(tacos.getAllExecutables()).contains("n()"));
+
+		factory.Method().create(superClass, new HashSet<>(), factory.Type().voidType(), "n", new ArrayList<>(), new HashSet<>());
+		assertEquals(tacos.getAllMethods().size(), tacos.getAllExecutables().size());
+		assertTrue(signatures(tacos.getAllExecutables()).contains("n()"));
+
+		tacos.setSuperclass(null);
+		assertTrue(signatures(tacos.getAllExecutables()).contains("m()"));
+		assertFalse(signatures(tacos.getAllExecutables()).contains("n()"));
+	}
+
+	private static Set<String> signatures(Collection<CtExecutableReference<?>> executables) {
+		Set<String> signatures = new HashSet<>();
+		for (CtExecutableReference<?> executable : executables) {
+			signatures.add(executable.getSignature());
+		}
+		return signatures;
+	}
+
+	private static boolean containsSame(Set<CtMethod<?>> methods, CtMethod<?> method) {
+		// the methods with the same signature and body are equal
+		return methods.stream().anyMatch(m -> m == method);
+	}
 }
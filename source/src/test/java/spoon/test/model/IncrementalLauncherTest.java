@@ -1,6 +1,9 @@
 package spoon.test.model;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -18,15 +21,18 @@ import spoon.IncrementalLauncher;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtAssignment;
 import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
+import spoon.support.reflect.declaration.CtPackageImpl;
 
 public class IncrementalLauncherTest {
 
 	final File RESOURCES_DIR = new File("./src/test/resources/incremental");
 	final File ORIGINAL_FILES_DIR = new File(RESOURCES_DIR, "original-files");
 	final File CHANGED_FILES_DIR = new File(RESOURCES_DIR, "changed-files");
+	final File INHERITANCE_DIR = new File(RESOURCES_DIR, "inheritance");
 	final File WORKING_DIR = new File(RESOURCES_DIR, "temp");
 	final File CACHE_DIR = new File(WORKING_DIR, "cache");
 
@@ -207,6 +213,173 @@ public class IncrementalLauncherTest {
 		assertTrue(lhs2.getType().getSimpleName().equals("float"));
 	}
 
+	@Test
+	public void testIncremental4() throws IOException, InterruptedException {
+		// Build model from A.java, B.java, C.java, then change type of field val in C twice.
+		// The dependencies of B, which is rebuilt after the first change, are kept for the second one.
+		FileUtils.deleteDirectory(WORKING_DIR);
+		FileUtils.copyDirectory(ORIGINAL_FILES_DIR, WORKING_DIR);
+
+		Set<File> inputResources = new HashSet<>();
+		inputResources.add(new File(WORKING_DIR, "A.java"));
+		inputResources.add(new File(WORKING_DIR, "B.java"));
+		inputResources.add(new File(WORKING_DIR, "C.java"));
+		Set<String> sourceClasspath = Collections.emptySet();
+
+		IncrementalLauncher launcher1 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		launcher1.buildModel();
+		launcher1.saveCache();
+
+		TimeUnit.MILLISECONDS.sleep(1000);
+		FileUtils.copyFile(new File(CHANGED_FILES_DIR, "C.java"), new File(WORKING_DIR, "C.java"), true);
+		FileUtils.touch(new File(WORKING_DIR, "C.java"));
+
+		IncrementalLauncher launcher2 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertTrue(launcher2.changesPresent());
+		CtModel model2 = launcher2.buildModel();
+		launcher2.saveCache();
+
+		CtType<?> b2 = getTypeByName(model2.getAllTypes(), "B");
+		CtAssignment<?, ?> assignment2 = (CtAssignment<?, ?>) b2.getMethodsByName("func").get(0).getBody().getStatement(0);
+		assertTrue(assignment2.getType().getSimpleName().equals("float"));
+
+		TimeUnit.MILLISECONDS.sleep(1000);
+		FileUtils.copyFile(new File(ORIGINAL_FILES_DIR, "C.java"), new File(WORKING_DIR, "C.java"), true);
+		FileUtils.touch(new File(WORKING_DIR, "C.java"));
+
+		IncrementalLauncher launcher3 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertTrue(launcher3.changesPresent());
+		CtModel model3 = launcher3.buildModel();
+		launcher3.saveCache();
+
+		assertTrue(model3.getAllTypes().size() == 3);
+		CtType<?> b3 = getTypeByName(model3.getAllTypes(), "B");
+		CtAssignment<?, ?> assignment3 = (CtAssignment<?, ?>) b3.getMethodsByName("func").get(0).getBody().getStatement(0);
+		assertTrue(assignment3.getType().getSimpleName().equals("int"));
+	}
+
+	@Test
+	public void testTouchedSources() throws IOException, InterruptedException {
+		// Build model from A.java, B.java, C.java, D.java, then restore the same files with new timestamps,
+		// like a checkout or a restore of the cache do => load everything from cache.
+		FileUtils.deleteDirectory(WORKING_DIR);
+		FileUtils.copyDirectory(ORIGINAL_FILES_DIR, WORKING_DIR);
+
+		Set<File> inputResources = Collections.singleton(WORKING_DIR);
+		Set<String> sourceClasspath = Collections.emptySet();
+
+		IncrementalLauncher launcher1 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertTrue(launcher1.changesPresent());
+		CtModel originalModel = launcher1.buildModel();
+		launcher1.saveCache();
+
+		TimeUnit.MILLISECONDS.sleep(1000);
+		FileUtils.copyDirectory(ORIGINAL_FILES_DIR, WORKING_DIR, false);
+		for (File f : ORIGINAL_FILES_DIR.listFiles()) {
+			FileUtils.touch(new File(WORKING_DIR, f.getName()));
+		}
+
+		IncrementalLauncher launcher2 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertFalse(launcher2.changesPresent());
+		CtModel cachedModel = launcher2.buildModel();
+		launcher2.saveCache();
+
+		assertTrue(originalModel.getAllTypes().equals(cachedModel.getAllTypes()));
+	}
+
+	@Test
+	public void testChangedSourceWithOldTimestamp() throws IOException {
+		// Build model from A.java, B.java, C.java, then change C.java but keep its old timestamp => build B and C.
+		FileUtils.deleteDirectory(WORKING_DIR);
+		FileUtils.copyDirectory(ORIGINAL_FILES_DIR, WORKING_DIR);
+
+		Set<File> inputResources = new HashSet<>();
+		inputResources.add(new File(WORKING_DIR, "A.java"));
+		inputResources.add(new File(WORKING_DIR, "B.java"));
+		inputResources.add(new File(WORKING_DIR, "C.java"));
+		Set<String> sourceClasspath = Collections.emptySet();
+
+		IncrementalLauncher launcher1 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		launcher1.buildModel();
+		launcher1.saveCache();
+
+		File c = new File(WORKING_DIR, "C.java");
+		long lastModified = c.lastModified();
+		FileUtils.copyFile(new File(CHANGED_FILES_DIR, "C.java"), c, false);
+		assertTrue(c.setLastModified(lastModified));
+
+		IncrementalLauncher launcher2 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertTrue(launcher2.changesPresent());
+		CtModel newModel = launcher2.buildModel();
+		launcher2.saveCache();
+
+		CtType<?> c2 = getTypeByName(newModel.getAllTypes(), "C");
+		assertTrue(c2.getField("val").getType().getSimpleName().equals("float"));
+		CtType<?> b2 = getTypeByName(newModel.getAllTypes(), "B");
+		CtAssignment<?, ?> assignment2 = (CtAssignment<?, ?>) b2.getMethodsByName("func").get(0).getBody().getStatement(0);
+		assertTrue(assignment2.getType().getSimpleName().equals("float"));
+	}
+
+	@Test
+	public void testLazyCache() throws IOException {
+		// Build model from A.java, B.java, C.java, D.java, then load it from cache => the types are loaded when they are used.
+		FileUtils.deleteDirectory(WORKING_DIR);
+		FileUtils.copyDirectory(ORIGINAL_FILES_DIR, WORKING_DIR);
+
+		Set<File> inputResources = Collections.singleton(WORKING_DIR);
+		Set<String> sourceClasspath = Collections.emptySet();
+
+		IncrementalLauncher launcher1 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		CtModel originalModel = launcher1.buildModel();
+		launcher1.saveCache();
+
+		IncrementalLauncher launcher2 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertFalse(launcher2.changesPresent());
+		// the consistency checks scan the whole model
+		launcher2.getEnvironment().disableConsistencyChecks();
+		CtModel cachedModel = launcher2.buildModel();
+		CtPackageImpl rootPackage = (CtPackageImpl) cachedModel.getRootPackage();
+		assertNotNull(rootPackage.getTypeLoader());
+
+		CtType<?> a = launcher2.getFactory().Type().get("A");
+		assertEquals(getTypeByName(originalModel.getAllTypes(), "A"), a);
+		assertNotNull(rootPackage.getTypeLoader());
+
+		assertTrue(originalModel.getAllTypes().equals(cachedModel.getAllTypes()));
+		assertNull(rootPackage.getTypeLoader());
+	}
+
+	@Test
+	public void testGrandparentChange() throws IOException, InterruptedException {
+		// Build model from Base.java, Middle.java, Leaf.java, then add an overload of m to Base.
+		// Leaf extends Middle extends Base and does not refer to Base, but its invocation of m must bind to the new overload.
+		FileUtils.deleteDirectory(WORKING_DIR);
+		FileUtils.copyDirectory(new File(INHERITANCE_DIR, "original-files"), WORKING_DIR);
+
+		Set<File> inputResources = Collections.singleton(WORKING_DIR);
+		Set<String> sourceClasspath = Collections.emptySet();
+
+		IncrementalLauncher launcher1 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		CtModel model1 = launcher1.buildModel();
+		launcher1.saveCache();
+		CtInvocation<?> invocation1 = (CtInvocation<?>) getTypeByName(model1.getAllTypes(), "Leaf").getMethodsByName("call").get(0).getBody().getStatement(0);
+		assertEquals("m(java.lang.Object)", invocation1.getExecutable().getSignature());
+
+		TimeUnit.MILLISECONDS.sleep(1000);
+		FileUtils.copyFile(new File(INHERITANCE_DIR, "changed-files/Base.java"), new File(WORKING_DIR, "Base.java"), true);
+		FileUtils.touch(new File(WORKING_DIR, "Base.java"));
+
+		IncrementalLauncher launcher2 = new IncrementalLauncher(inputResources, sourceClasspath, CACHE_DIR);
+		assertTrue(launcher2.changesPresent());
+		CtModel model2 = launcher2.buildModel();
+		launcher2.saveCache();
+
+		assertEquals(3, model2.getAllTypes().size());
+		CtInvocation<?> invocation2 = (CtInvocation<?>) getTypeByName(model2.getAllTypes(), "Leaf").getMethodsByName("call").get(0).getBody().getStatement(0);
+		assertEquals("m(java.lang.String)", invocation2.getExecutable().getSignature());
+		assertEquals("Base", invocation2.getExecutable().getDeclaringType().getQualifiedName());
+	}
+
 	@Test
 	public void cleanup() throws IOException {
 		FileUtils.deleteDirectory(WORKING_DIR);
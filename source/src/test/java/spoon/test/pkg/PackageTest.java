@@ -7,6 +7,7 @@ import spoon.OutputType;
 import spoon.SpoonModelBuilder;
 import spoon.compiler.Environment;
 import spoon.compiler.SpoonResourceHelper;
+import spoon.reflect.CtModel;
 import spoon.reflect.code.CtComment;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtAnnotationType;
@@ -18,6 +19,7 @@ import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.PrettyPrinter;
 import spoon.reflect.visitor.filter.NamedElementFilter;
+import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.support.JavaOutputProcessor;
 import spoon.test.annotation.testclasses.GlobalAnnotation;
 import spoon.test.pkg.name.PackageTestClass;
@@ -29,6 +31,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -298,4 +301,29 @@ public class PackageTest {
 		assertEquals("info.guardianproject.onionkit.ui", fieldPkg.getSimpleName());
 		assertEquals("info.guardianproject.onionkit.ui", fieldPkg.getQualifiedName());
 	}
+
+	@Test
+	public void testGetAllPackagesWithoutScanningTypes() {
+		// contract: getAllPackages returns the packages a scan of the model finds, in the same order, and follows the changes of the model
+		final Launcher spoon = new Launcher();
+		spoon.addInputResource("./src/test/java/spoon/test/pkg");
+		spoon.getEnvironment().setNoClasspath(true);
+		spoon.buildModel();
+		CtModel model = spoon.getModel();
+
+		assertEquals(model.getElements(new TypeFilter<>(CtPackage.class)), new ArrayList<>(model.getAllPackages()));
+
+		CtPackage added = spoon.getFactory().Package().getOrCreate("spoon.test.pkg.added.sub");
+		assertTrue(model.getAllPackages().contains(added));
+		assertTrue(model.getAllPackages().contains(added.getParent()));
+		assertEquals(model.getElements(new TypeFilter<>(CtPackage.class)), new ArrayList<>(model.getAllPackages()));
+
+		CtClass<?> addedClass = spoon.getFactory().Class().create("spoon.test.pkg.added.sub.Added");
+		assertTrue(model.getAllTypes().contains(addedClass));
+
+		added.delete();
+		assertFalse(model.getAllPackages().contains(added));
+		assertFalse(model.getAllTypes().contains(addedClass));
+		assertEquals(model.getElements(new TypeFilter<>(CtPackage.class)), new ArrayList<>(model.getAllPackages()));
+	}
 }
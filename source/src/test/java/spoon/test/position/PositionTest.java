@@ -768,4 +768,40 @@ public class PositionTest {
 			assertEquals("String arg[]", contentAtPosition(classContent, param.getType().getPosition()));
 		}
 	}
+
+	@Test
+	public void testLinesAndColumns() throws Exception {
+		//contract: the line and the column of a position are counted from the line separators of the source,
+		//and they are the same when they are asked again
+		final CtType<?> foo = ModelUtils.buildClass(FooStatement.class);
+		String classContent = getClassContent(foo);
+		List<CtStatement> statements = foo.getElements(new TypeFilter<>(CtStatement.class));
+		assertFalse(statements.isEmpty());
+		for (CtStatement statement : statements) {
+			SourcePosition position = statement.getPosition();
+			if (position.isValidPosition() == false || position instanceof DeclarationSourcePosition) {
+				continue;
+			}
+			int start = position.getSourceStart();
+			int end = position.getSourceEnd();
+			int lineStart = classContent.lastIndexOf('\n', start - 1);
+			int endLineStart = classContent.lastIndexOf('\n', end - 1);
+			assertEquals(countLines(classContent, start), position.getLine());
+			assertEquals(start - lineStart, position.getColumn());
+			assertEquals(countLines(classContent, end), position.getEndLine());
+			assertEquals(end - endLineStart, position.getEndColumn());
+			assertEquals(start - lineStart, position.getColumn());
+			assertEquals(end - endLineStart, position.getEndColumn());
+		}
+	}
+
+	private static int countLines(String content, int index) {
+		int lines = 1;
+		for (int i = 0; i < index; i++) {
+			if (content.charAt(i) == '\n') {
+				lines++;
+			}
+		}
+		return lines;
+	}
 }
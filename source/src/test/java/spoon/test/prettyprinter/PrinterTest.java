@@ -1,18 +1,25 @@
 package spoon.test.prettyprinter;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static spoon.testing.utils.ModelUtils.canBeBuilt;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
 import spoon.Launcher;
 import spoon.SpoonException;
 import spoon.compiler.SpoonResourceHelper;
+import spoon.experimental.modelobs.EmptyModelChangeListener;
 import spoon.reflect.code.CtComment;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
+import spoon.reflect.path.CtRole;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.ElementPrinterHelper;
 import spoon.reflect.visitor.ListPrinter;
@@ -20,16 +27,27 @@ import spoon.reflect.visitor.PrettyPrinter;
 import spoon.reflect.visitor.PrinterHelper;
 import spoon.reflect.visitor.TokenWriter;
 import spoon.reflect.visitor.DefaultTokenWriter;
+import spoon.reflect.visitor.StreamingTokenWriter;
+import spoon.support.JavaOutputProcessor;
 import spoon.test.prettyprinter.testclasses.MissingVariableDeclaration;
 import spoon.testing.utils.ModelUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PrinterTest {
 
@@ -460,4 +478,170 @@ public class PrinterTest {
 		String expectedResult = " start un next deux next trois end";
 		assertEquals(expectedResult, pp.toString());
 	}
+
+	@Test
+	public void testParallelPrinting() throws Exception {
+		// contract: the files printed by several threads are byte-identical to the ones printed sequentially,
+		// and they are reported in the same order with the same line number mappings
+		JavaOutputProcessor sequentialOutput = printWithThreads(1);
+		JavaOutputProcessor parallelOutput = printWithThreads(4);
+
+		Path sequentialDirectory = sequentialOutput.getOutputDirectory().toPath();
+		Path parallelDirectory = parallelOutput.getOutputDirectory().toPath();
+		List<File> sequentialFiles = sequentialOutput.getCreatedFiles();
+		List<File> parallelFiles = parallelOutput.getCreatedFiles();
+		assertTrue(sequentialFiles.size() > 50);
+		assertEquals(sequentialFiles.size(), parallelFiles.size());
+		for (int i = 0; i < sequentialFiles.size(); i++) {
+			Path relativePath = sequentialDirectory.relativize(sequentialFiles.get(i).toPath());
+			assertEquals(relativePath, parallelDirectory.relativize(parallelFiles.get(i).toPath()));
+			assertArrayEquals(relativePath.toString(), Files.readAllBytes(sequentialFiles.get(i).toPath()), Files.readAllBytes(parallelFiles.get(i).toPath()));
+		}
+		assertEquals(sequentialOutput.getLineNumberMappings(), parallelOutput.getLineNumberMappings());
+	}
+
+	@Test
+	public void testParallelPrintingWithModelChangeListener() throws Exception {
+		// contract: the types are printed sequentially when a model change listener is installed,
+		// so that it is only notified from the processing thread
+		Set<Thread> notifyingThreads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		Launcher launcher = new Launcher();
+		launcher.addInputResource("./src/main/java/spoon/reflect/reference");
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setAutoImports(true);
+		launcher.getEnvironment().setPrintingThreads(4);
+		File outputDirectory = Files.createTempDirectory("printing").toFile();
+		launcher.setSourceOutputDirectory(outputDirectory);
+		launcher.buildModel();
+		launcher.getEnvironment().setModelChangeListener(new EmptyModelChangeListener() {
+			@Override
+			public void onObjectUpdate(CtElement currentElement, CtRole role, CtElement newValue, CtElement oldValue) {
+				notifyingThreads.add(Thread.currentThread());
+			}
+
+			@Override
+			public void onObjectUpdate(CtElement currentElement, CtRole role, Object newValue, Object oldValue) {
+				notifyingThreads.add(Thread.currentThread());
+			}
+		});
+		// the index of the types wraps the installed listener
+		launcher.getFactory().Type().get("spoon.reflect.reference.CtTypeReference");
+		try {
+			launcher.prettyprint();
+
+			assertEquals(Collections.singleton(Thread.currentThread()), notifyingThreads);
+			assertTrue(((JavaOutputProcessor) launcher.getEnvironment().getDefaultFileGenerator()).getCreatedFiles().size() > 10);
+		} finally {
+			FileUtils.deleteDirectory(outputDirectory);
+		}
+	}
+
+	private JavaOutputProcessor printWithThreads(int threads) throws IOException {
+		Launcher launcher = new Launcher();
+		launcher.addInputResource("./src/main/java/spoon/reflect/reference");
+		launcher.addInputResource("./src/main/java/spoon/reflect/visitor");
+		launcher.addInputResource("./src/test/java/spoon/test/pkg/package-info.java");
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setCommentEnabled(true);
+		launcher.getEnvironment().setAutoImports(true);
+		launcher.getEnvironment().setPrintingThreads(threads);
+		launcher.setSourceOutputDirectory(Files.createTempDirectory("printing").toFile());
+		launcher.buildModel();
+		launcher.prettyprint();
+		return (JavaOutputProcessor) launcher.getEnvironment().getDefaultFileGenerator();
+	}
+
+	@Test
+	public void testStreamingTokenWriter() throws Exception {
+		// contract: the StreamingTokenWriter writes the same code and the same line number mapping as the default token writer,
+		// while it only buffers the last printed characters
+		for (boolean preserveLineNumbers : new boolean[] {false, true}) {
+			for (String lineSeparator : new String[] {"\n", "\r\n"}) {
+				Launcher launcher = new Launcher();
+				launcher.addInputResource("./src/main/java/spoon/reflect/visitor/DefaultJavaPrettyPrinter.java");
+				launcher.addInputResource("./src/main/java/spoon/reflect/visitor/ImportScannerImpl.java");
+				launcher.getEnvironment().setNoClasspath(true);
+				launcher.getEnvironment().setCommentEnabled(true);
+				launcher.getEnvironment().setAutoImports(true);
+				launcher.getEnvironment().setPreserveLineNumbers(preserveLineNumbers);
+				launcher.buildModel();
+
+				for (CtType<?> type : launcher.getModel().getAllTypes()) {
+					List<CtType<?>> types = Collections.singletonList(type);
+					CompilationUnit cu = type.getPosition().getCompilationUnit();
+
+					DefaultJavaPrettyPrinter printer = new DefaultJavaPrettyPrinter(launcher.getEnvironment());
+					printer.setLineSeparator(lineSeparator);
+					printer.calculate(cu, types);
+					String expected = printer.getResult();
+					Map<Integer, Integer> expectedMapping = printer.getLineNumberMapping();
+
+					StringBuilder output = new StringBuilder();
+					StreamingTokenWriter tokenWriter = new StreamingTokenWriter(launcher.getEnvironment(), output);
+					DefaultJavaPrettyPrinter streamingPrinter = new DefaultJavaPrettyPrinter(launcher.getEnvironment());
+					streamingPrinter.setPrinterTokenWriter(tokenWriter);
+					streamingPrinter.setLineSeparator(lineSeparator);
+					streamingPrinter.calculate(cu, types);
+					assertTrue(streamingPrinter.getResult().length() < 10000);
+					tokenWriter.flush();
+					assertEquals(expected, output.toString());
+					assertEquals(expectedMapping, streamingPrinter.getLineNumberMapping());
+
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					tokenWriter = new StreamingTokenWriter(launcher.getEnvironment(), Channels.newChannel(bytes), StandardCharsets.ISO_8859_1);
+					streamingPrinter.setPrinterTokenWriter(tokenWriter);
+					streamingPrinter.setLineSeparator(lineSeparator);
+					streamingPrinter.calculate(cu, types);
+					tokenWriter.flush();
+					assertArrayEquals(expected.getBytes(StandardCharsets.ISO_8859_1), bytes.toByteArray());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testStreamingPrinterHelperRemovesLines() {
+		// contract: the lines which are removed after the printed code has been written to the output are the same
+		Launcher launcher = new Launcher();
+		for (String lineSeparator : new String[] {"\n", "\r\n"}) {
+			StringBuilder output = new StringBuilder();
+			PrinterHelper streamingHelper = new PrinterHelper(launcher.getEnvironment(), output);
+			PrinterHelper helper = new PrinterHelper(launcher.getEnvironment());
+			for (PrinterHelper h : Arrays.asList(streamingHelper, helper)) {
+				h.setLineSeparator(lineSeparator);
+				for (int i = 0; i < 8190; i++) {
+					h.write('a');
+				}
+				h.writeln().writeln().write("  ").writeln().write(' ');
+			}
+			assertTrue(output.length() > 0);
+			boolean removed;
+			do {
+				removed = helper.removeLine();
+				assertEquals(removed, streamingHelper.removeLine());
+			} while (removed);
+			streamingHelper.flush();
+			assertEquals(helper.toString(), output.toString());
+		}
+	}
+
+	@Test
+	public void testStreamingPrinterHelperDoesNotRemoveFlushedLines() {
+		// contract: the lines which have been flushed to the output are not removed
+		Launcher launcher = new Launcher();
+		for (String lineSeparator : new String[] {"\n", "\r\n"}) {
+			StringBuilder output = new StringBuilder();
+			PrinterHelper helper = new PrinterHelper(launcher.getEnvironment(), output);
+			helper.setLineSeparator(lineSeparator);
+			helper.write("a").writeln().writeln().flush();
+			assertFalse(helper.removeLine());
+			helper.writeln();
+			assertFalse(helper.removeLine());
+			helper.write("b").writeln().write(' ');
+			assertTrue(helper.removeLine());
+			assertFalse(helper.removeLine());
+			helper.flush();
+			assertEquals("a" + lineSeparator + lineSeparator + lineSeparator + "b ", output.toString());
+		}
+	}
 }
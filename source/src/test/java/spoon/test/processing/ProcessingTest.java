@@ -6,6 +6,7 @@ import spoon.Launcher;
 import spoon.SpoonException;
 import spoon.processing.AbstractManualProcessor;
 import spoon.processing.AbstractProcessor;
+import spoon.processing.ProcessingManager;
 import spoon.processing.ProcessorProperties;
 import spoon.processing.ProcessorPropertiesImpl;
 import spoon.processing.Property;
@@ -15,8 +16,11 @@ import spoon.reflect.declaration.CtConstructor;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.ParallelProcessingManager;
+import spoon.support.QueueProcessingManager;
 import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
 import spoon.test.processing.testclasses.CtClassProcessor;
 import spoon.test.processing.testclasses.CtInterfaceProcessor;
@@ -383,4 +387,57 @@ public class ProcessingTest {
 			}
 		}
 	}
+
+	@Test
+	public void testParallelProcessingManager() {
+		// contract: the ParallelProcessingManager applies the processors to the same elements as the QueueProcessingManager,
+		// in the same order for each processor, and the processors can change the model
+		Launcher spoon = new Launcher();
+		spoon.addInputResource("./src/test/java/spoon/test/imports/testclasses");
+		spoon.buildModel();
+		CtPackage rootPackage = spoon.getFactory().getModel().getRootPackage();
+
+		CtClassProcessor classProcessor = new CtClassProcessor();
+		CtTypeProcessor typeProcessor = new CtTypeProcessor();
+		CtInterfaceProcessor interfaceProcessor = new CtInterfaceProcessor();
+		ProcessingManager queueManager = new QueueProcessingManager(spoon.getFactory());
+		queueManager.addProcessor(classProcessor);
+		queueManager.addProcessor(typeProcessor);
+		queueManager.addProcessor(interfaceProcessor);
+		queueManager.process(rootPackage);
+
+		CtClassProcessor parallelClassProcessor = new CtClassProcessor();
+		CtTypeProcessor parallelTypeProcessor = new CtTypeProcessor();
+		CtInterfaceProcessor parallelInterfaceProcessor = new CtInterfaceProcessor();
+		ProcessingManager parallelManager = new ParallelProcessingManager(spoon.getFactory(), 4);
+		parallelManager.addProcessor(parallelClassProcessor);
+		parallelManager.addProcessor(parallelTypeProcessor);
+		parallelManager.addProcessor(parallelInterfaceProcessor);
+		parallelManager.process(rootPackage);
+
+		assertFalse(classProcessor.elements.isEmpty());
+		assertEquals(classProcessor.elements, parallelClassProcessor.elements);
+		assertEquals(typeProcessor.elements, parallelTypeProcessor.elements);
+		assertEquals(interfaceProcessor.elements, parallelInterfaceProcessor.elements);
+
+		List<CtMethod<?>> methods = rootPackage.getElements(new TypeFilter<>(CtMethod.class));
+		assertFalse(methods.isEmpty());
+		parallelManager = new ParallelProcessingManager(spoon.getFactory(), 4);
+		parallelManager.addProcessor(new AbstractProcessor<CtMethod<?>>() {
+			@Override
+			public boolean isToBeProcessed(CtMethod<?> candidate) {
+				return !candidate.getSimpleName().endsWith("Processed");
+			}
+
+			@Override
+			public void process(CtMethod<?> element) {
+				element.setSimpleName(element.getSimpleName() + "Processed");
+			}
+		});
+		parallelManager.process(rootPackage);
+		for (CtMethod<?> method : methods) {
+			assertTrue(method.getSimpleName(), method.getSimpleName().endsWith("Processed"));
+			assertFalse(method.getSimpleName(), method.getSimpleName().endsWith("ProcessedProcessed"));
+		}
+	}
 }
@@ -1,18 +1,27 @@
 package spoon.test.serializable;
 
 import org.junit.Test;
+import spoon.Launcher;
 import spoon.reflect.code.CtStatement;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.visitor.CtScanner;
 import spoon.support.DefaultCoreFactory;
 import spoon.support.SerializationModelStreamer;
 import spoon.support.StandardEnvironment;
+import spoon.support.reflect.declaration.CtPackageImpl;
+import spoon.support.snapshot.ModelSnapshotStreamer;
 import spoon.support.util.ByteSerialization;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -88,4 +97,93 @@ public class SerializableTest {
 			assertSame(loadedFactory, type.getPosition().getCompilationUnit().getFactory());
 		}
 	}
+
+	@Test
+	public void testModelSnapshotStreamer() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.addInputResource("./src/test/java/spoon/test/imports/testclasses");
+		launcher.addInputResource("./src/test/java/spoon/test/comment/testclasses");
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setCommentEnabled(true);
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+
+		ByteArrayOutputStream outstr = new ByteArrayOutputStream();
+		new ModelSnapshotStreamer().save(factory, outstr);
+		Factory loadedFactory = new ModelSnapshotStreamer().load(new ByteArrayInputStream(outstr.toByteArray()));
+		//the environment is not part of the model
+		loadedFactory.getEnvironment().setCommentEnabled(true);
+
+		//contract: the loaded model is equal to the saved one
+		List<CtType<?>> types = factory.Type().getAll();
+		List<CtType<?>> loadedTypes = loadedFactory.Type().getAll();
+		assertFalse(types.isEmpty());
+		assertEquals(types.size(), loadedTypes.size());
+		assertEquals(factory.getModel().getRootPackage(), loadedFactory.getModel().getRootPackage());
+		for (CtType<?> type : types) {
+			CtType<?> loadedType = loadedFactory.Type().get(type.getQualifiedName());
+			assertEquals(type, loadedType);
+			assertEquals(type.toString(), loadedType.toString());
+			assertEquals(type.getComments().size(), loadedType.getComments().size());
+			//contract: the positions and the compilation units are loaded too
+			assertEquals(type.getPosition().getFile(), loadedType.getPosition().getFile());
+			assertEquals(type.getPosition().getLine(), loadedType.getPosition().getLine());
+			assertEquals(type.getPosition().getSourceEnd(), loadedType.getPosition().getSourceEnd());
+			CompilationUnit compilationUnit = type.getPosition().getCompilationUnit();
+			CompilationUnit loadedCompilationUnit = loadedType.getPosition().getCompilationUnit();
+			assertEquals(compilationUnit.getImports().size(), loadedCompilationUnit.getImports().size());
+			assertEquals(compilationUnit.getOriginalSourceCode(), loadedCompilationUnit.getOriginalSourceCode());
+			assertSame(loadedFactory, loadedCompilationUnit.getFactory());
+		}
+
+		//contract: each element of the loaded model has the loaded factory and the element which contains it as parent
+		Deque<CtElement> parents = new ArrayDeque<>();
+		new CtScanner() {
+			@Override
+			protected void enter(CtElement e) {
+				assertSame(loadedFactory, e.getFactory());
+				if (!parents.isEmpty()) {
+					assertSame(parents.peek(), e.getParent());
+				}
+				parents.push(e);
+			}
+
+			@Override
+			protected void exit(CtElement e) {
+				parents.pop();
+			}
+		}.scan(loadedFactory.getModel().getUnnamedModule());
+	}
+
+	@Test
+	public void testModelSnapshotLazyLoading() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.addInputResource("./src/test/java/spoon/test/imports/testclasses");
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+
+		ByteArrayOutputStream outstr = new ByteArrayOutputStream();
+		new ModelSnapshotStreamer().save(factory, outstr);
+		Factory loadedFactory = new ModelSnapshotStreamer().loadLazily(new ByteArrayInputStream(outstr.toByteArray()));
+
+		//contract: the packages are loaded, their types are loaded on demand
+		CtPackageImpl loadedPackage = (CtPackageImpl) loadedFactory.Package().get("spoon.test.imports.testclasses");
+		assertNotNull(loadedPackage);
+		assertNotNull(loadedPackage.getTypeLoader());
+
+		//contract: a type is loaded when it is asked by its name, without the other types
+		CtType<?> type = factory.Type().get("spoon.test.imports.testclasses.Pozole");
+		CtType<?> loadedType = loadedFactory.Type().get("spoon.test.imports.testclasses.Pozole");
+		assertEquals(type, loadedType);
+		assertEquals(type.toString(), loadedType.toString());
+		assertSame(loadedPackage, loadedType.getPackage());
+		assertNotNull(loadedPackage.getTypeLoader());
+
+		//contract: all the types of a package are loaded when they are asked
+		assertEquals(factory.Package().get("spoon.test.imports.testclasses").getTypes(), loadedPackage.getTypes());
+		assertSame(loadedType, loadedFactory.Type().get("spoon.test.imports.testclasses.Pozole"));
+		assertEquals(factory.getModel().getRootPackage(), loadedFactory.getModel().getRootPackage());
+		assertNull(loadedPackage.getTypeLoader());
+	}
 }
@@ -0,0 +1,8 @@
+public class Base {
+
+	void m(Object o) {
+	}
+
+	void m(String s) {
+	}
+}
@@ -0,0 +1,5 @@
+public class Base {
+
+	void m(Object o) {
+	}
+}
@@ -0,0 +1,6 @@
+public class Leaf extends Middle {
+
+	void call() {
+		m("leaf");
+	}
+}
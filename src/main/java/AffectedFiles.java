@@ -0,0 +1,105 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*
+AffectedFiles finds the java files of an input directory which have issues, so that a targeted repair can build
+the model of these files only.
+A SonarQube component is "projectKey:path/from/module/root/File.java". A file of the input matches a component when
+its path relative to the input is a suffix of the path of the component (the input is a source directory, like
+src/main/java), or when the path of the component is a suffix of its path (the input contains the module).
+The files of the secondary locations of the issues are affected too, they are often needed to repair an issue.
+ */
+public class AffectedFiles
+{
+    private final File input;
+    private final Map<String, List<File>> filesByName = new HashMap<>();
+    private int numberOfFiles = 0;
+
+    public AffectedFiles(File input) throws IOException
+    {
+        this.input = input;
+        if(input.isFile())
+        {
+            add(input.toPath());
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(input.toPath())) {
+            paths.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path)).forEach(this::add);
+        }
+    }
+
+    private void add(Path path)
+    {
+        File file = path.toFile();
+        filesByName.computeIfAbsent(file.getName(), name -> new ArrayList<>()).add(file);
+        numberOfFiles++;
+    }
+
+    //number of java files of the input
+    public int getNumberOfFiles()
+    {
+        return numberOfFiles;
+    }
+
+    /*
+    the files of the input which have issues of the given rules, in the order of the issues
+     */
+    public List<File> find(IssueSource issueSource, List<Integer> rulekeys) throws Exception
+    {
+        Set<String> components = new LinkedHashSet<>();
+        for(int rulekey:rulekeys)
+        {
+            for(Bug bug:Bug.createSetOfBugs(issueSource.getIssues(rulekey)))
+            {
+                components.add(bug.getComponent());
+                for(Bug.Location location:bug.getLocations())
+                {
+                    if(location.getComponent()!=null)
+                    {
+                        components.add(location.getComponent());
+                    }
+                }
+            }
+        }
+        Set<File> affected = new LinkedHashSet<>();
+        for(String component:components)
+        {
+            affected.addAll(getFiles(component));
+        }
+        return new ArrayList<>(affected);
+    }
+
+    //the files of the input which match the given component
+    public List<File> getFiles(String component)
+    {
+        String componentPath = component.substring(component.lastIndexOf(':')+1).replace('\\', '/');
+        String fileName = componentPath.substring(componentPath.lastIndexOf('/')+1);
+        List<File> files = new ArrayList<>();
+        for(File file:filesByName.getOrDefault(fileName, new ArrayList<>()))
+        {
+            String absolutePath = file.getAbsolutePath().replace('\\', '/');
+            String relativePath = input.isFile() ? fileName
+                    : input.toPath().relativize(file.toPath()).toString().replace('\\', '/');
+            if(isPathSuffix(componentPath, relativePath)||isPathSuffix(absolutePath, componentPath))
+            {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    //true if suffix is made of the last segments of path
+    private static boolean isPathSuffix(String path, String suffix)
+    {
+        return path.equals(suffix) || path.endsWith("/"+suffix);
+    }
+}
@@ -0,0 +1,102 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+IssueSource which fetches the issues of one or several components (a project, or modules of a project) from the SonarQube API.
+The requests for several rules, components and pages are sent in parallel by a ConcurrentIssueFetcher, and the issues
+of each rule are fetched once per ApiIssueSource, however many processors ask for them.
+ */
+public class ApiIssueSource implements IssueSource
+{
+    private final List<String> componentKeys;
+    private final ConcurrentIssueFetcher fetcher;
+    private final Map<Integer, JSONArray> issuesByRule = new HashMap<>();
+
+    public ApiIssueSource(String projectKey)
+    {
+        this(Collections.singletonList(projectKey));
+    }
+
+    public ApiIssueSource(List<String> componentKeys)
+    {
+        this(componentKeys, ConcurrentIssueFetcher.DEFAULT_CONCURRENCY);
+    }
+
+    public ApiIssueSource(List<String> componentKeys, int concurrency)
+    {
+        this.componentKeys = new ArrayList<>(componentKeys);
+        SonarIssueClient client = SonarIssueClient.forProject(componentKeys.get(0));
+        client.setCacheDir(ParseAPI.CACHE_DIR);
+        this.fetcher = new ConcurrentIssueFetcher(client, concurrency);
+    }
+
+    /*
+    parses a comma separated list of component keys, for example "se.kth:app,se.kth:lib"
+     */
+    public static ApiIssueSource forComponents(String componentKeys)
+    {
+        return new ApiIssueSource(Arrays.asList(componentKeys.split(",")));
+    }
+
+    public List<String> getComponentKeys()
+    {
+        return componentKeys;
+    }
+
+    @Override
+    public synchronized JSONArray getIssues(int rulekey) throws Exception
+    {
+        JSONArray issues = issuesByRule.get(rulekey);
+        if(issues==null)
+        {
+            prefetch(Collections.singletonList(rulekey));
+            issues = issuesByRule.get(rulekey);
+        }
+        return issues;
+    }
+
+    @Override
+    public synchronized void prefetch(List<Integer> rulekeys) throws Exception
+    {
+        List<Integer> missing = new ArrayList<>();
+        for(int rulekey:rulekeys)
+        {
+            if(!issuesByRule.containsKey(rulekey)&&!missing.contains(rulekey))
+            {
+                missing.add(rulekey);
+                issuesByRule.put(rulekey, new JSONArray());
+            }
+        }
+        if(missing.isEmpty())
+        {
+            return;
+        }
+        JSONArray issues;
+        try {
+            issues = fetcher.fetch(missing, componentKeys);
+        } catch (Exception e) {
+            for(int rulekey:missing)
+            {
+                issuesByRule.remove(rulekey);
+            }
+            throw e;
+        }
+        for(int i=0;i<issues.length();i++)
+        {
+            JSONObject issue = issues.getJSONObject(i);
+            JSONArray issuesOfRule = issuesByRule.get(InMemoryIssueSource.getRuleNumber(issue));
+            if(issuesOfRule!=null)
+            {
+                issuesOfRule.put(issue);
+            }
+        }
+        System.out.println(issues.length()+" SonarQube issues fetched for rules "+missing+" in "+componentKeys);
+    }
+}
@@ -2,73 +2,131 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
-public class Bug
+/*
+Bug is an immutable SonarQube issue, holding only the fields the repair needs.
+The JSONObject it is created from is not kept : the component and rule are interned, since many issues share them,
+and the message is split on double quotes once.
+Two bugs are equal when they have the same SonarQube issue key.
+ */
+public final class Bug
 {
+    private final String key;
+    private final String rule;
+    private final String component;
+    private final String fileName;
+    private final int line;
+    private final int startOffset;
+    private final int endOffset;
+    private final String name;
+    private final String[] nameTokens;//name split on double quotes
+    private final List<Location> locations;//locations of the first flow of the issue
 
-    public JSONObject jsonObject;
-    public JSONArray locations;
-    public long lineNumber;
-    public String name;
-    public String fileName;
-    public Bug() throws Exception {
+    /*
+    a secondary location of an issue, from its "flows"
+     */
+    public static final class Location
+    {
+        private final String component;
+        private final int line;
+        private final int startOffset;
+        private final int endOffset;
+        private final String message;
 
-    }
+        Location(JSONObject location)
+        {
+            String locationComponent = location.optString("component", null);
+            component = locationComponent==null ? null : locationComponent.intern();
+            JSONObject textRange = location.optJSONObject("textRange");
+            line = textRange==null ? -1 : textRange.optInt("startLine", -1);
+            startOffset = textRange==null ? -1 : textRange.optInt("startOffset", -1);
+            endOffset = textRange==null ? -1 : textRange.optInt("endOffset", -1);
+            message = location.optString("msg", "");
+        }
 
-    public Bug(JSONObject jsonObject) throws JSONException {
-        this.jsonObject=jsonObject;
-        init();
-    }
-    public Bug(Bug bug) throws JSONException {
-        this.jsonObject=bug.jsonObject;
-        init();
+        public String getComponent() { return component; }
+
+        public int getLine() { return line; }
+
+        public int getStartOffset() { return startOffset; }
+
+        public int getEndOffset() { return endOffset; }
+
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString()
+        {
+            return component+":"+line+":"+startOffset+"-"+endOffset+" "+message;
+        }
     }
-    private void init() throws JSONException
+
+    public Bug(JSONObject jsonObject) throws JSONException
     {
-        JSONArray flow=jsonObject.getJSONArray("flows");
-        if(flow.length()>0)
+        component = jsonObject.get("component").toString().intern();
+        int separator = Math.max(component.lastIndexOf('/'), component.lastIndexOf(':'));
+        fileName = component.substring(separator + 1).intern();
+        line = jsonObject.getInt("line");
+        name = jsonObject.getString("message");
+        nameTokens = name.split("\"");
+        rule = jsonObject.optString("rule", "").intern();
+        JSONObject textRange = jsonObject.optJSONObject("textRange");
+        startOffset = textRange==null ? -1 : textRange.optInt("startOffset", -1);
+        endOffset = textRange==null ? -1 : textRange.optInt("endOffset", -1);
+        String issueKey = jsonObject.optString("key", null);
+        //issues exported without their key are identified by their location and message
+        key = issueKey!=null ? issueKey : rule+"|"+component+"|"+line+"|"+startOffset+"|"+name;
+
+        JSONArray flows = jsonObject.optJSONArray("flows");
+        JSONArray flowLocations = flows!=null && flows.length()>0 ? flows.getJSONObject(0).optJSONArray("locations") : null;
+        if(flowLocations==null||flowLocations.length()==0)
         {
-            locations = flow.getJSONObject(0).getJSONArray("locations");
+            locations = Collections.emptyList();
+        }
+        else
+        {
+            List<Location> list = new ArrayList<>(flowLocations.length());
+            for(int i=0;i<flowLocations.length();i++)
+            {
+                list.add(new Location(flowLocations.getJSONObject(i)));
+            }
+            locations = Collections.unmodifiableList(list);
         }
-        lineNumber=(long)(int)(jsonObject.get("line"));//cast first to int thecn to long
-        name=(String) jsonObject.get("message");
-        String split[]=jsonObject.get("component").toString().split("/");
-        fileName=split[split.length-1];
     }
 
     @Override
     public int hashCode()
     {
-        return this.jsonObject.toString().hashCode();
+        return key.hashCode();
     }
 
     @Override
     public boolean equals(Object obj)
     {
-        if(!(obj instanceof Bug))
-        {
-            return false;
-        }
         if(obj==this)
         {
             return true;
         }
-        Bug rhs=(Bug) obj;
-        return rhs.jsonObject.toString().equals(this.jsonObject.toString());
+        if(!(obj instanceof Bug))
+        {
+            return false;
+        }
+        return ((Bug) obj).key.equals(key);
     }
 
     public static Set<Bug> createSetOfBugs(JSONArray jsonArray) throws Exception {
-        Set<Bug> SetOfBugs = new HashSet<Bug>();
         if (jsonArray == null) {
             throw new Exception("null JSONArray passed to createSetOfBugs()");
         }
+        Set<Bug> SetOfBugs = new HashSet<Bug>(Math.max(16, (int) (jsonArray.length() / .75f) + 1));
         for (int i = 0; i < jsonArray.length(); ++i) {
-            JSONObject obj = null;
             try {
-                obj = jsonArray.getJSONObject(i);
-                Bug bug = new Bug(obj);
+                Bug bug = new Bug(jsonArray.getJSONObject(i));
                 SetOfBugs.add(bug);
             } catch (JSONException e) {
                 e.printStackTrace();
@@ -77,16 +135,38 @@ public class Bug
         return SetOfBugs;
     }
 
-    public JSONObject getJsonObject(){return jsonObject;}
+    public String getKey() {
+        return key;
+    }
 
-    public JSONArray getLocations(){ return locations;}
+    public String getRule() {
+        return rule;
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    public List<Location> getLocations(){ return locations;}
 
     public String getName() {
         return name;
     }
 
+    public String[] getNameTokens() {
+        return nameTokens;
+    }
+
     public long getLineNumber() {
-        return lineNumber;
+        return line;
+    }
+
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    public int getEndOffset() {
+        return endOffset;
     }
 
     public String getFileName() {
@@ -95,16 +175,18 @@ public class Bug
 
     public void printBugLocations()
     {
-        try {
-            if(locations!=null)
-            {
-                for (int i = 0; i < locations.length(); ++i) {
-                    System.out.println(locations.getJSONObject(i));
-                }
+        if(!locations.isEmpty())
+        {
+            for (Location location : locations) {
+                System.out.println(location);
             }
-            else System.out.println("null locations");
-        } catch (JSONException e) {
-            e.printStackTrace();
         }
+        else System.out.println("null locations");
+    }
+
+    @Override
+    public String toString()
+    {
+        return key+" "+rule+" "+component+":"+line+":"+startOffset+" "+name;
     }
 }
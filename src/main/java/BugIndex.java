@@ -0,0 +1,62 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+BugIndex groups a set of bugs by the file they were reported in and by their line number,
+so that a processor can find the bugs of the element it is visiting with two hash lookups
+instead of scanning every bug of the rule.
+ */
+public class BugIndex
+{
+    private final Map<String, Map<Long, List<Bug>>> bugsByFile;
+    private final int size;
+
+    public BugIndex(Set<Bug> setOfBugs)
+    {
+        bugsByFile = new HashMap<>();
+        for(Bug bug:setOfBugs)
+        {
+            Map<Long, List<Bug>> bugsByLine = bugsByFile.computeIfAbsent(bug.getFileName(), k -> new HashMap<>());
+            bugsByLine.computeIfAbsent(bug.getLineNumber(), k -> new ArrayList<>(1)).add(bug);
+        }
+        size = setOfBugs.size();
+    }
+
+    /*
+    returns the bugs reported at the given line of the given file, or an empty list if there is none.
+    fileName is the simple name of the file, as returned by Bug.getFileName()
+     */
+    public List<Bug> get(String fileName, long line)
+    {
+        Map<Long, List<Bug>> bugsByLine = bugsByFile.get(fileName);
+        if(bugsByLine==null)
+        {
+            return Collections.emptyList();
+        }
+        List<Bug> bugs = bugsByLine.get(line);
+        if(bugs==null)
+        {
+            return Collections.emptyList();
+        }
+        return bugs;
+    }
+
+    public boolean containsFile(String fileName)
+    {
+        return bugsByFile.containsKey(fileName);
+    }
+
+    public Set<String> getFileNames()
+    {
+        return Collections.unmodifiableSet(bugsByFile.keySet());
+    }
+
+    public int size()
+    {
+        return size;
+    }
+}
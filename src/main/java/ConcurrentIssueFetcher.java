@@ -0,0 +1,250 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ConcurrentIssueFetcher fetches the issues of several rules in several components (projects or modules) with a
+SonarIssueClient, sending at most `concurrency` requests at the same time.
+It works in two rounds : the first page of every (rule, component) search is requested in parallel, which tells
+the total number of issues of each search, then all the remaining pages of all the searches are requested in parallel.
+When the server does not tell the total of a search, its remaining pages are requested one after the other until one is not full.
+When the cache of the client is enabled, the date of the last analysis of the project, which keys the cache, is requested once.
+A request which fails is retried after a delay which doubles with each attempt.
+The issues are merged into one list, in the order of the rules, components and pages, without the issues which
+are returned by several searches (for example by a project and one of its modules).
+ */
+public class ConcurrentIssueFetcher
+{
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final SonarIssueClient client;
+    private final int concurrency;
+    private int maxRetries = 3;
+    private long backoffMillis = 500;
+
+    public ConcurrentIssueFetcher(SonarIssueClient client)
+    {
+        this(client, DEFAULT_CONCURRENCY);
+    }
+
+    public ConcurrentIssueFetcher(SonarIssueClient client, int concurrency)
+    {
+        if(concurrency<1)
+        {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.client = client;
+        this.concurrency = concurrency;
+    }
+
+    /*
+    sets how many times a failed request is retried, and the delay before the first retry
+     */
+    public void setRetries(int maxRetries, long backoffMillis)
+    {
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+    }
+
+    //the issues of one rule in one component
+    private static class Search
+    {
+        final int rulekey;
+        final String componentKey;
+        File cacheFile;
+        int total = -1;
+        final List<List<JSONObject>> pages = new ArrayList<>();
+
+        Search(int rulekey, String componentKey)
+        {
+            this.rulekey = rulekey;
+            this.componentKey = componentKey;
+        }
+    }
+
+    /*
+    returns the unresolved issues of all the given rules in all the given components, each issue once.
+    The first component is the project whose last analysis date keys the cache.
+     */
+    public JSONArray fetch(List<Integer> rulekeys, List<String> componentKeys) throws Exception
+    {
+        return fetch(rulekeys, componentKeys, componentKeys.get(0));
+    }
+
+    /*
+    returns the unresolved issues of all the given rules in all the given components of the given project, each issue once.
+     */
+    public JSONArray fetch(List<Integer> rulekeys, List<String> componentKeys, String projectKey) throws Exception
+    {
+        //the modules have no analyses of their own, the issues of every search are cached until the project is analysed again
+        String analysisDate = client.getCacheDir()==null ? null : client.getAnalysisDate(projectKey);
+        List<Search> searches = new ArrayList<>();
+        for(int rulekey:rulekeys)
+        {
+            for(String componentKey:componentKeys)
+            {
+                searches.add(new Search(rulekey, componentKey));
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            //first round : the cached issues, or the first page of each search
+            List<Future<List<JSONObject>>> firstPages = new ArrayList<>();
+            for(Search search:searches)
+            {
+                firstPages.add(executor.submit(() -> {
+                    search.cacheFile = client.getCacheFile(search.rulekey, "", search.componentKey, analysisDate);
+                    if(search.cacheFile!=null&&search.cacheFile.isFile())
+                    {
+                        List<JSONObject> issues = new ArrayList<>();
+                        client.readCache(search.cacheFile, issues::add);
+                        search.total = issues.size();
+                        return issues;
+                    }
+                    return fetchPage(search, 1);
+                }));
+            }
+            List<List<Future<List<JSONObject>>>> otherPages = new ArrayList<>();
+            for(int i=0;i<searches.size();i++)
+            {
+                Search search = searches.get(i);
+                search.pages.add(get(firstPages.get(i)));
+                //second round : the remaining pages of the searches which were not cached
+                List<Future<List<JSONObject>>> futures = new ArrayList<>();
+                if(search.cacheFile==null||!search.cacheFile.isFile())
+                {
+                    if(search.total<0&&search.pages.get(0).size()>=client.getPageSize())
+                    {
+                        futures.add(executor.submit(() -> fetchRemainingPages(search)));
+                    }
+                    else
+                    {
+                        for(int page = 2; page<=lastPage(search); page++)
+                        {
+                            int p = page;
+                            futures.add(executor.submit(() -> fetchPage(search, p)));
+                        }
+                    }
+                }
+                otherPages.add(futures);
+            }
+            Map<String, JSONObject> issuesByKey = new LinkedHashMap<>();
+            for(int i=0;i<searches.size();i++)
+            {
+                Search search = searches.get(i);
+                for(Future<List<JSONObject>> future:otherPages.get(i))
+                {
+                    search.pages.add(get(future));
+                }
+                List<JSONObject> issues = new ArrayList<>();
+                for(List<JSONObject> page:search.pages)
+                {
+                    issues.addAll(page);
+                }
+                if(search.cacheFile!=null&&!search.cacheFile.isFile())
+                {
+                    client.writeCache(search.cacheFile, issues);
+                }
+                for(JSONObject issue:issues)
+                {
+                    issuesByKey.putIfAbsent(issue.optString("key", issue.toString()), issue);
+                }
+            }
+            JSONArray merged = new JSONArray();
+            for(JSONObject issue:issuesByKey.values())
+            {
+                merged.put(issue);
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int lastPage(Search search)
+    {
+        int pageSize = client.getPageSize();
+        if(search.total<0)
+        {
+            //the server did not tell the total, and the first page is not full
+            return 1;
+        }
+        int total = search.total;
+        if(total>SonarIssueClient.MAX_RESULTS)
+        {
+            System.out.println("WARNING : SonarQube does not return more than "+SonarIssueClient.MAX_RESULTS+" issues for one search, "
+                    +(total-SonarIssueClient.MAX_RESULTS)+" issues of rule "+search.rulekey+" in "+search.componentKey+" were not fetched.");
+            total = SonarIssueClient.MAX_RESULTS;
+        }
+        return (total+pageSize-1)/pageSize;
+    }
+
+    /*
+    fetches the pages after the first one until a page is not full, for a search whose total number of issues is not known.
+    returns the issues of all these pages.
+     */
+    private List<JSONObject> fetchRemainingPages(Search search) throws Exception
+    {
+        int pageSize = client.getPageSize();
+        List<JSONObject> issues = new ArrayList<>();
+        for(int page = 2; page*pageSize<=SonarIssueClient.MAX_RESULTS; page++)
+        {
+            List<JSONObject> received = fetchPage(search, page);
+            issues.addAll(received);
+            if(received.size()<pageSize)
+            {
+                return issues;
+            }
+        }
+        System.out.println("WARNING : SonarQube does not return more than "+SonarIssueClient.MAX_RESULTS+" issues for one search, "
+                +"the other issues of rule "+search.rulekey+" in "+search.componentKey+" were not fetched.");
+        return issues;
+    }
+
+    private List<JSONObject> fetchPage(Search search, int page) throws Exception
+    {
+        for(int attempt = 0; ; attempt++)
+        {
+            List<JSONObject> issues = new ArrayList<>();
+            int[] total = {-1};
+            try {
+                client.fetchPage(search.rulekey, "", search.componentKey, page, total, issues::add);
+                if(page==1)
+                {
+                    search.total = total[0];
+                }
+                return issues;
+            } catch (Exception e) {
+                if(attempt>=maxRetries)
+                {
+                    throw e;
+                }
+                long delay = backoffMillis<<attempt;
+                System.out.println("Request for page "+page+" of rule "+search.rulekey+" in "+search.componentKey+" failed ("+e.getMessage()+"), retrying in "+delay+" ms");
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private static List<JSONObject> get(Future<List<JSONObject>> future) throws Exception
+    {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof Exception)
+            {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -1,35 +1,29 @@
 import org.json.JSONArray;
-import org.json.JSONException;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.CtAssignment;
 import spoon.reflect.code.CtCodeSnippetStatement;
 import spoon.reflect.code.CtLocalVariable;
 import spoon.reflect.code.CtStatement;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 
 public class DeadStoreProcessor extends AbstractProcessor<CtStatement> {
 
-    private JSONArray jsonArray;//array of JSONObjects, each of which is a bug
-    private Set<Bug> SetOfBugs;//set of bugs, corresponding to jsonArray
-    private Set<Long> SetOfLineNumbers;//set of line numbers corresponding to bugs, just for efficiency
-    private Set<String> SetOfFileNames;//-----
+    private Set<Bug> SetOfBugs;//set of bugs of the rule
+    private BugIndex bugIndex;         //bugs of SetOfBugs grouped by file name and line number, for efficient lookup
     private Bug thisBug;               //current bug. This is set inside isToBeProcessed function
     private String thisBugName;        //name (message) of current thisBug.
     String var;//contains name of variable which is uselessly assigned in the current bug.
     public DeadStoreProcessor(String projectKey) throws Exception {
-        jsonArray= ParseAPI.parse(1854,"",projectKey);
-        SetOfBugs = Bug.createSetOfBugs(this.jsonArray);
-        SetOfLineNumbers=new HashSet<Long>();
-        SetOfFileNames=new HashSet<String>();
-        thisBug=new Bug();
-        for(Bug bug:SetOfBugs)
-        {
-            SetOfLineNumbers.add(bug.getLineNumber());
-            SetOfFileNames.add(bug.getFileName());
-        }
+        this(new ApiIssueSource(projectKey));
+    }
+
+    public DeadStoreProcessor(IssueSource issueSource) throws Exception {
+        JSONArray jsonArray= issueSource.getIssues(1854);
+        SetOfBugs = Bug.createSetOfBugs(jsonArray);
+        bugIndex=new BugIndex(SetOfBugs);
     }
 
 
@@ -42,55 +36,41 @@ public class DeadStoreProcessor extends AbstractProcessor<CtStatement> {
         }
         long line =-1;
         String targetName="",fileOfElement="";
-        if(element instanceof CtLocalVariable)
+        if(!(element instanceof CtLocalVariable)&&!(element instanceof CtAssignment))
         {
-            targetName = ((CtLocalVariable)element).getSimpleName();
-            line=(long) element.getPosition().getLine();
-            String split1[]=element.getPosition().getFile().toString().split("/");
-            fileOfElement=split1[split1.length-1];
+            return false;
         }
-        else if(element instanceof CtAssignment)
+        if(element.getPosition().getFile()==null)//elements inserted by a repair have no position
         {
-            targetName=((CtAssignment) element).getAssigned().toString();
-            line=(long) element.getPosition().getLine();
-            String split1[]=element.getPosition().getFile().toString().split("/");
-            fileOfElement=split1[split1.length-1];
+            return false;
         }
-        else return false;
-        if(!SetOfLineNumbers.contains(line)||!SetOfFileNames.contains(fileOfElement))
+        line=(long) element.getPosition().getLine();
+        fileOfElement=element.getPosition().getFile().getName();
+        List<Bug> bugsOnLine=bugIndex.get(fileOfElement,line);
+        if(bugsOnLine.isEmpty())
         {
             return false;
         }
-        try {
-            thisBug = new Bug();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if(element instanceof CtLocalVariable)
+        {
+            targetName = ((CtLocalVariable)element).getSimpleName();
         }
-
-        for(Bug bug:SetOfBugs)
+        else
         {
-            if(bug.getLineNumber()!=line||!bug.getFileName().equals(fileOfElement))
-            {
-                continue;
-            }
+            targetName=((CtAssignment) element).getAssigned().toString();
+        }
+        thisBug = null;
 
-            String bugName=bug.getName();
-            String[] split = bugName.split("\"");
-            for(String bugword:split)
+        for(Bug bug:bugsOnLine)
+        {
+            for(String bugword:bug.getNameTokens())
             {
                 if(targetName.equals(bugword))
                 {
-                    try
-                    {
-                        thisBug = new Bug(bug);
-                        thisBugName = bugword;
-                        var=targetName;
-                        return true;
-                    }
-                    catch (JSONException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    thisBug = bug;
+                    thisBugName = bugword;
+                    var=targetName;
+                    return true;
                 }
             }
         }
@@ -1,73 +1,96 @@
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/*
+Execute runs shell commands with a ProcessRunner and waits for their end.
+The output of a command is printed while it runs, unless it is suppressed. Its error output is printed too,
+and when the output is suppressed, the last lines of the error output are printed if the command fails.
+The commands return their exit code, -1 if they could not be run.
+ */
 public class Execute
 {
-    public static void command(String command)
+    public static int command(String command)
     {
         System.out.println("command : "+command);
-        StringBuffer output = new StringBuffer();
-        Process p;
-        try {
-            p = Runtime.getRuntime().exec(command);
-            p.waitFor();
-            BufferedReader reader =
-                    new BufferedReader(new InputStreamReader(p.getInputStream()));
-
-            String line = "";
-            while ((line = reader.readLine())!= null) {
-                output.append(line + "\n");
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        System.out.println(output.toString());
+        return run(command, null, false, 0);
     }
-    public static void command(String command, String dir)
+    public static int command(String command, String dir)
+    {
+        return command(command, dir, false);
+    }
+    public static int command(String command, String dir, boolean suppress)
+    {
+        return command(command, dir, suppress, 0);
+    }
+    /*
+    timeoutMillis is the time after which the command is destroyed, 0 for no timeout
+     */
+    public static int command(String command, String dir, boolean suppress, long timeoutMillis)
     {
         System.out.println("command : cd "+dir+" && "+command);
-        StringBuffer output = new StringBuffer();
-        Process p;
-        try {
-            p = Runtime.getRuntime().exec(command,null,new File(dir));
-            p.waitFor();
-            BufferedReader reader =
-                    new BufferedReader(new InputStreamReader(p.getInputStream()));
+        return run(command, new File(dir), suppress, timeoutMillis);
+    }
 
-            String line = "";
-            while ((line = reader.readLine())!= null) {
-                output.append(line + "\n");
+    /*
+    runs the commands in dir at the same time and returns their exit codes, in the order of the commands
+     */
+    public static int[] commands(List<String> commands, String dir, boolean suppress)
+    {
+        System.out.println("commands : cd "+dir+" && "+String.join(" & ", commands));
+        ProcessRunner runner = createRunner(new File(dir), suppress, 0);
+        int[] exitCodes = new int[commands.size()];
+        try {
+            List<ProcessRunner.Result> results = runner.runAll(commands);
+            for(int i=0;i<exitCodes.length;i++)
+            {
+                exitCodes[i] = report(results.get(i), suppress);
             }
-
         } catch (Exception e) {
             e.printStackTrace();
+            Arrays.fill(exitCodes, -1);
         }
-        System.out.println(output.toString());
+        return exitCodes;
     }
-    public static void command(String command, String dir, boolean suppress)
+
+    private static int run(String command, File dir, boolean suppress, long timeoutMillis)
     {
-        System.out.println("command : cd "+dir+" && "+command);
-        StringBuffer output = new StringBuffer();
-        Process p;
+        ProcessRunner runner = createRunner(dir, suppress, timeoutMillis);
         try {
-            p = Runtime.getRuntime().exec(command,null,new File(dir));
-            p.waitFor();
-            BufferedReader reader =
-                    new BufferedReader(new InputStreamReader(p.getInputStream()));
-
-            String line = "";
-            while ((line = reader.readLine())!= null) {
-                output.append(line + "\n");
-            }
-
+            return report(runner.run(command), suppress);
         } catch (Exception e) {
             e.printStackTrace();
+            return -1;
         }
+    }
+
+    private static ProcessRunner createRunner(File dir, boolean suppress, long timeoutMillis)
+    {
+        ProcessRunner runner = new ProcessRunner();
+        runner.setDirectory(dir);
+        runner.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
         if(!suppress)
         {
-            System.out.println(output.toString());
+            runner.setStdoutConsumer(System.out::println);
+            runner.setStderrConsumer(System.err::println);
+        }
+        return runner;
+    }
+
+    private static int report(ProcessRunner.Result result, boolean suppress)
+    {
+        if(!result.isSuccess())
+        {
+            System.out.println(result);
+            if(suppress)
+            {
+                for(String line:result.getStderr())
+                {
+                    System.err.println(line);
+                }
+            }
         }
+        return result.getExitCode();
     }
-}
\ No newline at end of file
+}
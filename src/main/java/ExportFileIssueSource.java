@@ -0,0 +1,74 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/*
+IssueSource which reads the issues from a file, so that repairs can run without access to a SonarQube server.
+The file is either
+- a JSON export : a saved response of api/issues/search, i.e. an object with an "issues" array, or a JSON array of issues
+- a NDJSON export : one issue object per line, as written in the cache of SonarIssueClient
+The file is read once, when the source is created.
+ */
+public class ExportFileIssueSource extends InMemoryIssueSource
+{
+    private final File file;
+
+    public ExportFileIssueSource(File file) throws Exception
+    {
+        this.file = file;
+        if(!file.isFile())
+        {
+            throw new Exception("ERROR : SonarQube export file "+file+" does not exist");
+        }
+        try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            in.mark(1);
+            int first = in.read();
+            while(first!=-1&&Character.isWhitespace(first))
+            {
+                in.mark(1);
+                first = in.read();
+            }
+            in.reset();
+            if(first=='[')
+            {
+                JSONArray issues = new JSONArray(new JSONTokener(in));
+                for(int i=0;i<issues.length();i++)
+                {
+                    addIssue(issues.getJSONObject(i));
+                }
+            }
+            else if(file.getName().endsWith(".ndjson"))
+            {
+                readNdjson((BufferedReader) in);
+            }
+            else
+            {
+                SonarIssueClient.readIssues(in, this::addIssue, null);
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader in) throws Exception
+    {
+        String line;
+        while((line = in.readLine())!=null)
+        {
+            if(!line.trim().isEmpty())
+            {
+                addIssue(new JSONObject(line));
+            }
+        }
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+}
@@ -0,0 +1,60 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+IssueSource over a list of issues held in memory. The issues are grouped by rule once, when they are added.
+ */
+public class InMemoryIssueSource implements IssueSource
+{
+    private final Map<Integer, JSONArray> issuesByRule = new HashMap<>();
+
+    public InMemoryIssueSource()
+    {
+    }
+
+    public InMemoryIssueSource(JSONArray issues)
+    {
+        for(int i=0;i<issues.length();i++)
+        {
+            addIssue(issues.getJSONObject(i));
+        }
+    }
+
+    public void addIssue(JSONObject issue)
+    {
+        int rulekey = getRuleNumber(issue);
+        issuesByRule.computeIfAbsent(rulekey, k -> new JSONArray()).put(issue);
+    }
+
+    @Override
+    public JSONArray getIssues(int rulekey)
+    {
+        JSONArray issues = issuesByRule.get(rulekey);
+        if(issues==null)
+        {
+            return new JSONArray();
+        }
+        return issues;
+    }
+
+    /*
+    returns the rule-number of an issue, for example 2259 for the rule "squid:S2259", or 0 if the rule is not of that form.
+     */
+    public static int getRuleNumber(JSONObject issue)
+    {
+        String rule = issue.optString("rule", "");
+        int index = rule.lastIndexOf(":S");
+        if(index==-1)
+        {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(rule.substring(index + 2));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import spoon.Launcher;
+import spoon.compiler.Environment;
+import spoon.processing.Processor;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtType;
+import spoon.support.JavaOutputProcessor;
+import spoon.support.OutputDestinationHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*
+InProcessVerifier checks a repair without building the project and analysing it on a SonarQube server.
+It prints the repaired types, those of the files which have issues, into a temporary workspace, compiles them
+with the JDT batch compiler bundled with spoon (without writing class files), and scans the repaired model again
+with new processors of the same rules : an issue which is still found by the processor of its rule is not repaired.
+It does not replace the analysis of the server, which also finds the issues a repair may have introduced,
+but it confirms most repairs in milliseconds.
+The remaining issues are found by the repair processors themselves, which skip the code they have already repaired
+(the null checks, tries and comments they insert). A remaining issue count of 0 therefore only shows that every issue
+was repaired by its processor, not that the repaired code is free of the issue : that is what the analysis of the
+server checks. The compilation of the repaired files does not depend on the processors.
+ */
+public class InProcessVerifier
+{
+    /*
+    the result of a verification
+     */
+    public static final class Verdict
+    {
+        private final boolean compiled;
+        private final String compilerOutput;
+        private final Map<Integer, Integer> remainingIssues;
+        private final List<File> printedFiles;
+        private final long elapsedMillis;
+
+        Verdict(boolean compiled, String compilerOutput, Map<Integer, Integer> remainingIssues, List<File> printedFiles, long elapsedMillis)
+        {
+            this.compiled = compiled;
+            this.compilerOutput = compilerOutput;
+            this.remainingIssues = remainingIssues;
+            this.printedFiles = printedFiles;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        //true if the repaired files compile and no issue is left
+        public boolean isFixed()
+        {
+            return compiled && getRemainingIssues()==0;
+        }
+
+        public boolean isCompiled() { return compiled; }
+
+        //the errors reported by the compiler, empty if the repaired files compile
+        public String getCompilerOutput() { return compilerOutput; }
+
+        //number of issues still found by the processor of each rule
+        public Map<Integer, Integer> getRemainingIssuesByRule() { return remainingIssues; }
+
+        public int getRemainingIssues()
+        {
+            int remaining = 0;
+            for(int count:remainingIssues.values())
+            {
+                remaining += count;
+            }
+            return remaining;
+        }
+
+        //names of the files which were printed and compiled. They are deleted once verified.
+        public List<File> getPrintedFiles() { return printedFiles; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append(isFixed() ? "FIXED" : "NOT FIXED");
+            sb.append(" : ").append(printedFiles.size()).append(" files ");
+            sb.append(compiled ? "compile" : "do not compile");
+            sb.append(", remaining issues ").append(remainingIssues);
+            sb.append(", verified in ").append(elapsedMillis).append(" ms");
+            if(!compiled)
+            {
+                sb.append(System.lineSeparator()).append(compilerOutput);
+            }
+            return sb.toString();
+        }
+    }
+
+    private String complianceLevel = "1.8";
+
+    public void setComplianceLevel(String complianceLevel)
+    {
+        this.complianceLevel = complianceLevel;
+    }
+
+    /*
+    verifies the model of repaired, processed by the processors of rulekeys with the issues of issueSource.
+     */
+    public Verdict verify(Launcher repaired, IssueSource issueSource, List<Integer> rulekeys) throws Exception
+    {
+        long start = System.currentTimeMillis();
+        Set<String> fileNames = new HashSet<>();
+        for(int rulekey:rulekeys)
+        {
+            for(Bug bug:Bug.createSetOfBugs(issueSource.getIssues(rulekey)))
+            {
+                fileNames.add(bug.getFileName());
+            }
+        }
+
+        Path workspace = Files.createTempDirectory("sonarqube-repair-verify");
+        try {
+            List<File> printedFiles = print(repaired, fileNames, workspace.toFile());
+            StringWriter errors = new StringWriter();
+            boolean compiled = printedFiles.isEmpty() || compile(repaired, printedFiles, errors);
+            Map<Integer, Integer> remainingIssues = countRemainingIssues(repaired, issueSource, rulekeys);
+            return new Verdict(compiled, errors.toString(), remainingIssues, printedFiles, System.currentTimeMillis()-start);
+        } finally {
+            delete(workspace);
+        }
+    }
+
+    //prints the top level types declared in the files named fileNames into outputDirectory
+    private static List<File> print(Launcher repaired, Set<String> fileNames, File outputDirectory)
+    {
+        //the output writer prints in the source output directory of the environment, which is restored afterwards
+        Environment env = repaired.getEnvironment();
+        OutputDestinationHandler destination = env.getOutputDestinationHandler();
+        env.setSourceOutputDirectory(outputDirectory);
+        try {
+            JavaOutputProcessor writer = repaired.createOutputWriter();
+            writer.init();
+            for(CtType<?> type:repaired.getModel().getAllTypes())
+            {
+                SourcePosition position = type.getPosition();
+                if(type.isTopLevel()&&position!=null&&position.getFile()!=null&&fileNames.contains(position.getFile().getName()))
+                {
+                    writer.createJavaFile(type);
+                }
+            }
+            writer.processingDone();
+            return new ArrayList<>(writer.getCreatedFiles());
+        } finally {
+            env.setOutputDestinationHandler(destination);
+        }
+    }
+
+    //compiles files with the JDT batch compiler, without writing class files
+    private boolean compile(Launcher repaired, List<File> files, StringWriter errors)
+    {
+        List<String> args = new ArrayList<>();
+        args.add("-d");
+        args.add("none");
+        args.add("-source");
+        args.add(complianceLevel);
+        args.add("-target");
+        args.add(complianceLevel);
+        args.add("-nowarn");
+        args.add("-encoding");
+        args.add("UTF-8");
+        String[] classpath = repaired.getEnvironment().getSourceClasspath();
+        if(classpath!=null&&classpath.length>0)
+        {
+            args.add("-classpath");
+            args.add(String.join(File.pathSeparator, classpath));
+        }
+        //the other input files of the model, unchanged, are found on the source path
+        List<String> sourcepath = new ArrayList<>();
+        for(File input:repaired.getModelBuilder().getInputSources())
+        {
+            if(input.isDirectory())
+            {
+                sourcepath.add(input.getPath());
+            }
+        }
+        if(!sourcepath.isEmpty())
+        {
+            args.add("-sourcepath");
+            args.add(String.join(File.pathSeparator, sourcepath));
+        }
+        for(File file:files)
+        {
+            args.add(file.getPath());
+        }
+        PrintWriter err = new PrintWriter(errors);
+        boolean compiled = BatchCompiler.compile(args.toArray(new String[0]), new PrintWriter(new StringWriter()), err, null);
+        err.flush();
+        return compiled;
+    }
+
+    //scans the repaired model with new processors, which only count the issues they would repair
+    private static Map<Integer, Integer> countRemainingIssues(Launcher repaired, IssueSource issueSource, List<Integer> rulekeys) throws Exception
+    {
+        MultiRuleScanner scanner = new MultiRuleScanner();
+        scanner.setMatchOnly(true);
+        for(int rulekey:rulekeys)
+        {
+            scanner.addProcessor(TestHelp.createProcessor(rulekey, issueSource));
+        }
+        for(Processor<?> processor:scanner.getProcessors())
+        {
+            processor.setFactory(repaired.getFactory());
+            processor.init();
+        }
+        scanner.scan(repaired.getModel().getRootPackage());
+        Map<Integer, Integer> remainingIssues = new LinkedHashMap<>();
+        for(int i=0;i<rulekeys.size();i++)
+        {
+            remainingIssues.put(rulekeys.get(i), scanner.getRewrittenCount(i));
+        }
+        return remainingIssues;
+    }
+
+    private static void delete(Path directory) throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for(Path path:(Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+            {
+                Files.delete(path);
+            }
+        }
+    }
+}
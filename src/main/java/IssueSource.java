@@ -0,0 +1,24 @@
+import org.json.JSONArray;
+
+import java.util.List;
+
+/*
+IssueSource is where the repair processors take the SonarQube issues they fix from.
+Implementations : ApiIssueSource queries a SonarQube server, ExportFileIssueSource reads an export of the issues
+from a file, and InMemoryIssueSource holds issues which are already loaded.
+ */
+public interface IssueSource
+{
+    /*
+    returns the unresolved issues of the given sonarqube rule-number, for example 2259.
+    The issues are JSONObjects, in the format of the "issues" array returned by api/issues/search.
+     */
+    JSONArray getIssues(int rulekey) throws Exception;
+
+    /*
+    tells the source that the issues of all these rules are going to be asked for, so that it can load them together.
+     */
+    default void prefetch(List<Integer> rulekeys) throws Exception
+    {
+    }
+}
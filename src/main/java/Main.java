@@ -1,44 +1,101 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 public class Main {
 
     /**
      *
      * @param args string array. Give either 0, 1 or 2 arguments. first argument is sonarqube rule-number which you can get from https://rules.sonarsource.com/java/type/Bug
+     *             It can also be a comma separated list of rule-numbers, for example "1854,2259", or "all" to apply every available repair in a single pass.
      *             second argument is the projectKey for the sonarqube analysis of source files. for  example "fr.inria.gforge.spoon:spoon-core"
+     *             Several components (for example the modules of a project) can be given as a comma separated list of keys.
+     *             It can also be the path of a file with the issues exported from SonarQube (see ExportFileIssueSource), in which case no request is made to SonarQube.
+     *             third argument, optional, is "targeted" to build the model of the files which have issues only (see TestHelp.repairTargeted),
+     *             or "targeted:classpath" to also give the classpath in which the other types of the project are found.
+     *             The system property "patch" (-Dpatch=repair.patch) is the file in which a unified diff of the repaired files is written.
      */
     public static void main(String[] args) throws Exception
     {
         System.out.println();
 
         String projectKey="fr.inria.gforge.spoon:spoon-core";
-        int rulenumber = 2095;//default NullDereference
+        List<Integer> rulenumbers = new ArrayList<>();
+        rulenumbers.add(2095);//default NullDereference
+        boolean targeted = false;
+        String[] contextClasspath = null;
 
         if(args.length>0)
         {
-            rulenumber = Integer.parseInt(args[0]);
+            rulenumbers = TestHelp.parseRuleKeys(args[0]);
 
             if(args.length==1)
             {
                 projectKey="fr.inria.gforge.spoon:spoon-core";
-                System.out.println("One argument given. Applying "+TestHelp.getProcessor(rulenumber).getName()+ " on "+projectKey);
+                System.out.println("One argument given. Applying "+processorNames(rulenumbers)+ " on "+projectKey);
             }
             else if(args.length==2)
             {
                 projectKey = args[1];
-                System.out.println("Two argument given. Applying "+TestHelp.getProcessor(rulenumber).getName()+ " on "+projectKey);
+                System.out.println("Two argument given. Applying "+processorNames(rulenumbers)+ " on "+projectKey);
+            }
+            else if(args.length==3&&args[2].startsWith("targeted"))
+            {
+                projectKey = args[1];
+                targeted = true;
+                if(args[2].startsWith("targeted:"))
+                {
+                    contextClasspath = args[2].substring("targeted:".length()).split(File.pathSeparator);
+                }
+                System.out.println("Three argument given. Applying "+processorNames(rulenumbers)+ " on the files of "+projectKey+" which have issues");
             }
             else
             {
-                throw new IllegalArgumentException("Enter less than three arguments");
+                throw new IllegalArgumentException("Enter less than four arguments, the third one being targeted or targeted:classpath");
             }
         }
         else //no arguments given
         {
-            System.out.println("No arguments given. Using "+ TestHelp.getProcessor(rulenumber).getName()+ " by default on "+projectKey);
+            System.out.println("No arguments given. Using "+ processorNames(rulenumbers)+ " by default on "+projectKey);
+        }
+        IssueSource issueSource;
+        if(new File(projectKey).isFile())
+        {
+            issueSource = new ExportFileIssueSource(new File(projectKey));
+        }
+        else
+        {
+            issueSource = ApiIssueSource.forComponents(projectKey);
+        }
+        if(System.getProperty("patch")!=null)
+        {
+            TestHelp.setPatchFile(new File(System.getProperty("patch")));
+        }
+        if(targeted)
+        {
+            TestHelp.repairTargeted("./source/act/",issueSource,rulenumbers,contextClasspath);
+        }
+        else
+        {
+            TestHelp.repair("./source/act/",issueSource,rulenumbers);
         }
-        TestHelp.repair("./source/act/",projectKey,rulenumber);
 
         System.out.println("done");
 	}
+
+    private static String processorNames(List<Integer> rulenumbers)
+    {
+        StringBuilder names = new StringBuilder();
+        for(int rulenumber:rulenumbers)
+        {
+            if(names.length()>0)
+            {
+                names.append(", ");
+            }
+            names.append(TestHelp.getProcessor(rulenumber).getName());
+        }
+        return names.toString();
+    }
 }
 /*
         rule.putIfAbsent(1854, DeadStoreProcessor.class);
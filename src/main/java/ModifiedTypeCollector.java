@@ -0,0 +1,63 @@
+import spoon.experimental.modelobs.ChangeCollector;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.path.CtRole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ModifiedTypeCollector is a ChangeCollector which also remembers the top level types in which the model was changed,
+so that only the files of these types are printed after a repair.
+Attach it to the environment once the model is built : the changes made while building the model are not repairs.
+Changes of elements which are not in the model yet (an element being created by a processor) are ignored,
+adding them to the model is a change of their new parent.
+ */
+public class ModifiedTypeCollector extends ChangeCollector
+{
+    private final Map<CtType<?>, Boolean> modifiedTypes = new IdentityHashMap<>();
+
+    @Override
+    protected void onChange(CtElement currentElement, CtRole role)
+    {
+        super.onChange(currentElement, role);
+        CtType<?> topLevelType = getTopLevelType(currentElement);
+        if(topLevelType!=null)
+        {
+            modifiedTypes.put(topLevelType, Boolean.TRUE);
+        }
+    }
+
+    //the top level type which contains element, null if element is not in a type
+    private static CtType<?> getTopLevelType(CtElement element)
+    {
+        CtType<?> topLevelType = null;
+        CtElement current = element;
+        while(current!=null)
+        {
+            if(current instanceof CtType)
+            {
+                topLevelType = (CtType<?>) current;
+            }
+            if(!current.isParentInitialized())
+            {
+                break;
+            }
+            current = current.getParent();
+        }
+        return topLevelType!=null&&topLevelType.isTopLevel() ? topLevelType : null;
+    }
+
+    public boolean isModified(CtType<?> type)
+    {
+        return modifiedTypes.containsKey(type);
+    }
+
+    public List<CtType<?>> getModifiedTypes()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(modifiedTypes.keySet()));
+    }
+}
@@ -0,0 +1,135 @@
+import spoon.processing.Processor;
+import spoon.processing.TraversalStrategy;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+MultiRuleScanner applies several repair processors in one traversal of the model.
+For every visited element, each processor whose processed element type matches the element is asked
+isToBeProcessed and then process, exactly like spoon's ProcessingVisitor does for a single processor :
+before the children of the element are scanned for a PRE_ORDER processor, after them for a POST_ORDER one,
+and not at all once the processing is stopped in the environment.
+The processors that apply to a given element class are computed once per class.
+It also records, per processor, the time spent in it and the number of elements it rewrote.
+In match-only mode, process is not called : the scanner only counts the elements each processor would rewrite.
+ */
+public class MultiRuleScanner extends CtScanner
+{
+    private final List<Processor<CtElement>> processors = new ArrayList<>();
+    private final Map<Class<?>, int[]> processorsByElementClass = new HashMap<>();
+    private long[] nanos = new long[0];
+    private int[] rewritten = new int[0];
+    private boolean matchOnly = false;
+
+    @SuppressWarnings("unchecked")
+    public void addProcessor(Processor<?> processor)
+    {
+        processors.add((Processor<CtElement>) processor);
+        processorsByElementClass.clear();
+        nanos = new long[processors.size()];
+        rewritten = new int[processors.size()];
+    }
+
+    @Override
+    public void scan(CtElement element)
+    {
+        if(element==null)
+        {
+            return;
+        }
+        int[] indexes = getProcessorIndexes(element.getClass());
+        process(element,indexes,TraversalStrategy.PRE_ORDER);
+        super.scan(element);
+        process(element,indexes,TraversalStrategy.POST_ORDER);
+    }
+
+    //applies to element the processors of the given traversal strategy, unless the processing is stopped
+    private void process(CtElement element, int[] indexes, TraversalStrategy strategy)
+    {
+        for(int i:indexes)
+        {
+            Processor<CtElement> processor = processors.get(i);
+            if(processor.getTraversalStrategy()!=strategy || processor.getFactory().getEnvironment().isProcessingStopped())
+            {
+                continue;
+            }
+            long start = System.nanoTime();
+            if(processor.isToBeProcessed(element))
+            {
+                if(!matchOnly)
+                {
+                    processor.process(element);
+                }
+                rewritten[i]++;
+            }
+            nanos[i] += System.nanoTime() - start;
+        }
+    }
+
+    //indexes of the processors which can process elements of the given class
+    private int[] getProcessorIndexes(Class<?> elementClass)
+    {
+        int[] indexes = processorsByElementClass.get(elementClass);
+        if(indexes==null)
+        {
+            List<Integer> matching = new ArrayList<>();
+            for(int i=0;i<processors.size();i++)
+            {
+                if(canBeProcessed(processors.get(i),elementClass))
+                {
+                    matching.add(i);
+                }
+            }
+            indexes = new int[matching.size()];
+            for(int i=0;i<indexes.length;i++)
+            {
+                indexes[i] = matching.get(i);
+            }
+            processorsByElementClass.put(elementClass,indexes);
+        }
+        return indexes;
+    }
+
+    private static boolean canBeProcessed(Processor<?> processor, Class<?> elementClass)
+    {
+        if(processor.getProcessedElementTypes()==null)
+        {
+            return false;
+        }
+        for(Class<? extends CtElement> type:processor.getProcessedElementTypes())
+        {
+            if(!type.isAssignableFrom(elementClass))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setMatchOnly(boolean matchOnly)
+    {
+        this.matchOnly = matchOnly;
+    }
+
+    public List<Processor<CtElement>> getProcessors()
+    {
+        return processors;
+    }
+
+    //time spent in isToBeProcessed and process of the i-th processor, in milliseconds
+    public long getTimeMillis(int i)
+    {
+        return nanos[i]/1000000;
+    }
+
+    //number of elements the i-th processor has processed, or would have processed in match-only mode
+    public int getRewrittenCount(int i)
+    {
+        return rewritten[i];
+    }
+}
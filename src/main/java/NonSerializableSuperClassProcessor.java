@@ -1,5 +1,4 @@
 import org.json.JSONArray;
-import org.json.JSONException;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.CtComment;
 import spoon.reflect.code.CtStatement;
@@ -7,28 +6,23 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtConstructor;
 import spoon.reflect.declaration.ModifierKind;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class NonSerializableSuperClassProcessor extends AbstractProcessor<CtClass> {
 
-    private JSONArray jsonArray;//array of JSONObjects, each of which is a bug
-    private Set<Bug> SetOfBugs;//set of bugs, corresponding to jsonArray
-    private Set<Long> SetOfLineNumbers;//set of line numbers corresponding to bugs, just for efficiency
-    private Set<String> SetOfFileNames;//-----
+    private Set<Bug> SetOfBugs;//set of bugs of the rule
+    private BugIndex bugIndex;         //bugs of SetOfBugs grouped by file name and line number, for efficient lookup
     private Bug thisBug;               //current bug. This is set inside isToBeProcessed function
     private String thisBugName;        //name (message) of current thisBug.
     public NonSerializableSuperClassProcessor(String projectKey) throws Exception {
-        jsonArray= ParseAPI.parse(2055,"",projectKey);
-        SetOfBugs = Bug.createSetOfBugs(this.jsonArray);
-        SetOfLineNumbers=new HashSet<Long>();
-        SetOfFileNames=new HashSet<String>();
-        thisBug=new Bug();
-        for(Bug bug:SetOfBugs)
-        {
-            SetOfLineNumbers.add(bug.getLineNumber());
-            SetOfFileNames.add(bug.getFileName());
-        }
+        this(new ApiIssueSource(projectKey));
+    }
+
+    public NonSerializableSuperClassProcessor(IssueSource issueSource) throws Exception {
+        JSONArray jsonArray= issueSource.getIssues(2055);
+        SetOfBugs = Bug.createSetOfBugs(jsonArray);
+        bugIndex=new BugIndex(SetOfBugs);
     }
 
 
@@ -39,48 +33,42 @@ public class NonSerializableSuperClassProcessor extends AbstractProcessor<CtClas
         {
             return false;
         }
+        if(element.getPosition().getFile()==null)//elements inserted by a repair have no position
+        {
+            return false;
+        }
         long line =-1;
         String targetName="",fileOfElement="";
 
         line=(long) element.getPosition().getLine();
-        String split1[]=element.getPosition().getFile().toString().split("/");
-        fileOfElement=split1[split1.length-1];
-        CtClass ct =(CtClass)element.getSuperclass().getTypeDeclaration();
-        targetName=ct.getSimpleName();
+        fileOfElement=element.getPosition().getFile().getName();
 
-        if(!SetOfLineNumbers.contains(line)||!SetOfFileNames.contains(fileOfElement))
+        List<Bug> bugsOnLine=bugIndex.get(fileOfElement,line);
+        if(bugsOnLine.isEmpty())
         {
             return false;
         }
-        try {
-            thisBug = new Bug();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if(!(element.getSuperclass().getTypeDeclaration() instanceof CtClass))
+        {
+            return false;
         }
-
-        for(Bug bug:SetOfBugs)
+        CtClass ct =(CtClass)element.getSuperclass().getTypeDeclaration();
+        if(hasAccessibleNoArgConstructor(ct))//already repaired
         {
-            if(bug.getLineNumber()!=line||!bug.getFileName().equals(fileOfElement))
-            {
-                continue;
-            }
+            return false;
+        }
+        targetName=ct.getSimpleName();
+        thisBug = null;
 
-            String bugName=bug.getName();
-            String[] split = bugName.split("\"");
-            for(String bugword:split)
+        for(Bug bug:bugsOnLine)
+        {
+            for(String bugword:bug.getNameTokens())
             {
                 if(targetName.equals(bugword))
                 {
-                    try
-                    {
-                        thisBug = new Bug(bug);
-                        thisBugName = bugword;
-                        return true;
-                    }
-                    catch (JSONException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    thisBug = bug;
+                    thisBugName = bugword;
+                    return true;
                 }
             }
         }
@@ -94,9 +82,15 @@ public class NonSerializableSuperClassProcessor extends AbstractProcessor<CtClas
         CtComment comment = getFactory().createComment(value,CtComment.CommentType.BLOCK);
 
         CtClass ct =(CtClass)element.getSuperclass().getTypeDeclaration();
+        if(hasAccessibleNoArgConstructor(ct))
+        {
+            return;
+        }
         CtConstructor alreadyPresent=ct.getConstructor();
-        if(alreadyPresent!=null)
+        if(alreadyPresent!=null)//a private no-argument constructor is made public
         {
+            alreadyPresent.setVisibility(ModifierKind.PUBLIC);
+            alreadyPresent.addComment(comment);
             return;
         }
         CtConstructor constructor = getFactory().createConstructor();
@@ -106,4 +100,11 @@ public class NonSerializableSuperClassProcessor extends AbstractProcessor<CtClas
         constructor.addComment(comment);
         ct.addConstructor(constructor);
     }
-}
\ No newline at end of file
+
+    //true if ct has a no-argument constructor which its subclasses can call
+    private static boolean hasAccessibleNoArgConstructor(CtClass ct)
+    {
+        CtConstructor constructor=ct.getConstructor();
+        return constructor!=null&&!constructor.hasModifier(ModifierKind.PRIVATE);
+    }
+}
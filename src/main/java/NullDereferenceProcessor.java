@@ -1,10 +1,9 @@
 import org.json.JSONArray;
-import org.json.JSONException;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.*;
 import spoon.reflect.cu.SourcePosition;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static java.lang.Math.abs;
@@ -12,24 +11,19 @@ import static java.lang.Math.abs;
 
 public class NullDereferenceProcessor extends AbstractProcessor<CtInvocation<?>> {
 
-    private JSONArray jsonArray;//array of JSONObjects, each of which is a bug
-    private Set<Bug> SetOfBugs;//set of bugs, corresponding to jsonArray
-    private Set<Long> SetOfLineNumbers;//set of line numbers corresponding to bugs, just for efficiency
-    private Set<String> SetOfFileNames;//-----
+    private Set<Bug> SetOfBugs;//set of bugs of the rule
+    private BugIndex bugIndex;         //bugs of SetOfBugs grouped by file name and line number, for efficient lookup
     private Bug thisBug;               //current bug. This is set inside isToBeProcessed function
     private String thisBugName;        //name (message) of current thisBug.
 
     public NullDereferenceProcessor(String projectKey) throws Exception {
-        jsonArray= ParseAPI.parse(2259,"",projectKey);
-        SetOfBugs = Bug.createSetOfBugs(this.jsonArray);
-        SetOfLineNumbers=new HashSet<Long>();
-        SetOfFileNames=new HashSet<String>();
-        thisBug=new Bug();
-        for(Bug bug:SetOfBugs)
-        {
-            SetOfLineNumbers.add(bug.getLineNumber());
-            SetOfFileNames.add(bug.getFileName());
-        }
+        this(new ApiIssueSource(projectKey));
+    }
+
+    public NullDereferenceProcessor(IssueSource issueSource) throws Exception {
+        JSONArray jsonArray= issueSource.getIssues(2259);
+        SetOfBugs = Bug.createSetOfBugs(jsonArray);
+        bugIndex=new BugIndex(SetOfBugs);
     }
 
         @Override
@@ -39,29 +33,23 @@ public class NullDereferenceProcessor extends AbstractProcessor<CtInvocation<?>>
             {
                 return false;
             }
+            if(element.getPosition().getFile()==null)//elements inserted by a repair have no position
+            {
+                return false;
+            }
             CtExpression expr=element.getTarget();
             long line = (long) element.getPosition().getLine();
-            String targetName=expr.toString();
-            String split1[]=element.getPosition().getFile().toString().split("/");
-            String fileOfElement=split1[split1.length-1];
-            if(!SetOfLineNumbers.contains(line)||!SetOfFileNames.contains(fileOfElement))
+            String fileOfElement=element.getPosition().getFile().getName();
+            List<Bug> bugsOnLine=bugIndex.get(fileOfElement,line);
+            if(bugsOnLine.isEmpty())
             {
                 return false;
             }
-            try {
-                thisBug = new    Bug();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            for(Bug bug:SetOfBugs)
+            String targetName=expr.toString();//printing the target is costly, so it is done only for candidate elements
+            thisBug = null;
+            for(Bug bug:bugsOnLine)
             {
-                if(bug.getLineNumber()!=line||!bug.getFileName().equals(fileOfElement))
-                {
-                    continue;
-                }
-                String bugName=bug.getName();
-                String[] split = bugName.split("\"");
-                for(String bugword:split)
+                for(String bugword:bug.getNameTokens())
                 {
                     if(bugword.indexOf('(')!=-1)
                     {
@@ -69,44 +57,85 @@ public class NullDereferenceProcessor extends AbstractProcessor<CtInvocation<?>>
                     }
                     if(targetName.contains(bugword))
                     {
-                        try {
-                            SourcePosition sp = expr.getPosition();
-                            if (!sp.isValidPosition()) {
-                                continue;
-                            }
-                            int exprcolumn = sp.getColumn();
-                            int bugcolumn = bug.getJsonObject().getJSONObject("textRange").getInt("startOffset");
-                            if (element.getTarget() instanceof CtVariableRead) {
-                                if(targetName.equals(bugword))
-                                {
-                                    if (abs(exprcolumn - bugcolumn) <= 1) {
-                                        thisBug = new Bug(bug);
-                                        thisBugName = bugword;
-                                        return true;
-                                    }
+                        SourcePosition sp = expr.getPosition();
+                        if (!sp.isValidPosition()) {
+                            continue;
+                        }
+                        int exprcolumn = sp.getColumn();
+                        int bugcolumn = bug.getStartOffset();
+                        if (isGuarded(element, bugword)) {
+                            continue;
+                        }
+                        if (element.getTarget() instanceof CtVariableRead) {
+                            if(targetName.equals(bugword))
+                            {
+                                if (abs(exprcolumn - bugcolumn) <= 1) {
+                                    thisBug = bug;
+                                    thisBugName = bugword;
+                                    return true;
                                 }
+                            }
 
-                            } else if(element.getTarget() instanceof CtInvocation) {
+                        } else if(element.getTarget() instanceof CtInvocation) {
 
-                                CtInvocation target1 = (CtInvocation) element.getTarget();
-                                if(target1.getExecutable().getSimpleName().equals(bugword)) {
-                                    if (abs(exprcolumn - bugcolumn) <= 1) {
-                                        thisBug = new Bug(bug);
-                                        thisBugName = bugword;
-                                        return true;
-                                    }
+                            CtInvocation target1 = (CtInvocation) element.getTarget();
+                            if(target1.getExecutable().getSimpleName().equals(bugword)) {
+                                if (abs(exprcolumn - bugcolumn) <= 1) {
+                                    thisBug = bug;
+                                    thisBugName = bugword;
+                                    return true;
                                 }
                             }
                         }
-                        catch (JSONException e)
-                        {
-                            e.printStackTrace();
-                        }
                     }
                 }
             }
             return false;
         }
+    /*
+    returns true if the null check or the try inserted by process for this variable is already there.
+     */
+    private static boolean isGuarded(CtInvocation<?> element, String name)
+    {
+        if(element.getTarget() instanceof CtVariableRead)
+        {
+            CtStatement st = element.getParent(CtStatement.class);
+            if(st==null||!(st.getParent() instanceof CtStatementList))
+            {
+                return false;
+            }
+            List<CtStatement> statements = ((CtStatementList) st.getParent()).getStatements();
+            int index = -1;
+            for(int i=0;i<statements.size();i++)
+            {
+                if(statements.get(i)==st)//indexOf would compare statements by equals
+                {
+                    index = i;
+                    break;
+                }
+            }
+            if(index<1||!(statements.get(index-1) instanceof CtCodeSnippetStatement))
+            {
+                return false;
+            }
+            String value = ((CtCodeSnippetStatement) statements.get(index-1)).getValue();
+            return value.contains(String.format("[Spoon inserted check], %s might be null", name));
+        }
+        CtTry ctTry = element.getParent(CtTry.class);
+        if(ctTry==null)
+        {
+            return false;
+        }
+        for(CtComment comment:ctTry.getComments())
+        {
+            if(comment.getContent().contains(String.format("Repairs sonarqube rule 2259:Null pointers should not be dereferenced\n%s might be null", name)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void process(CtInvocation<?> element) {
         CtExpression target=element.getTarget();
@@ -1,62 +1,28 @@
-import java.net.*;
-import java.io.*;
+import java.io.File;
 
-import org.json.*;
-
-import static java.lang.System.exit;
+import org.json.JSONArray;
 
 public class ParseAPI {
 
+    public static final File CACHE_DIR = new File(".sonarqube-repair-cache");
 
     /*
     parse(int,String) makes a GET request and parses the returned JSONObject.
     Pass the rulekey as the first parameter to parse. If no particular rule is required, pass 0 to it.
     The second parameter is the specific file or directory in spoon you want to get the bugs for.
     Example: fname="src/main/java/spoon/MavenLauncher.java"; If you want to parse the entire source code, you need to pass "src/" in fname
+    All the pages of the result are fetched, and they are kept in CACHE_DIR until the project is analysed again.
      */
     public static JSONArray parse(int rulekey, String fname,String projectKey)throws Exception
     {
-        String ruleparameter="&rules=squid:S"+ Integer.toString(rulekey);
-        String url="";
-        if(projectKey.equals("fr.inria.gforge.spoon:spoon-core"))
-        {
-            url = "https://sonarqube.ow2.org/api/issues/search?resolved=false&ps=500" + ruleparameter + "&componentKeys=" + projectKey;
-        }
-        else
-        {
-            url = "https://sonarcloud.io/api/issues/search?resolved=false&ps=500" + ruleparameter + "&componentKeys=" + projectKey;
-        }
-        if(fname.length()>0)
-        {
-            url=url+":"+fname;
-        }
-        URL url1 = new URL(url);
-        HttpURLConnection con = (HttpURLConnection) url1.openConnection();
-        con.setRequestMethod("GET");
-        int responseCode=con.getResponseCode();
-        System.out.println("\nSending GET request to SonarQube API : " + url);
-        if(responseCode!=200)
-        {
-            System.out.println("Response Code : "+responseCode);
-            throw new Exception("ERROR : Wrong Reponse Code from Sonarqube API. Check Internet Connection");
-        }
+        SonarIssueClient client = SonarIssueClient.forProject(projectKey);
+        client.setCacheDir(CACHE_DIR);
+        JSONArray jsonArray = client.fetch(rulekey, fname, projectKey);
         System.out.println("GET Request Successful");
         System.out.println();
-        BufferedReader in = new BufferedReader( new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
-
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-        }
-        in.close();
-        JSONObject jo = new JSONObject(response.toString());
-        JSONArray jsonArray = jo.getJSONArray("issues");
         if(jsonArray.length()==0)
         {
             System.out.println("No Sonarqube issues found. Maybe you entered wrong project key.");
-            System.out.println("Here is the JSON response from Sonarqube:");
-            System.out.println(jo.toString());
         }
         if(projectKey.equals("se.kth:sonatest"))
         {
@@ -64,4 +30,4 @@ public class ParseAPI {
         }
         return jsonArray;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,413 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ProcessRunner starts external commands without blocking the caller.
+The standard output and the standard error of each process are read at the same time by two threads, so that a
+child which writes a lot (like maven) never blocks on a full pipe. Each line is given to an optional LineConsumer
+as soon as it is read, and the last lines of each stream are kept in a bounded LineRingBuffer.
+A command can have a timeout, after which its process is destroyed, and can be cancelled.
+Several commands can run at the same time : start returns immediately an Execution, whose Result holds the exit code.
+ */
+public class ProcessRunner
+{
+    public static final int DEFAULT_BUFFERED_LINES = 200;
+
+    //time given to a destroyed process to exit before it is killed forcibly
+    private static final long DESTROY_GRACE_MILLIS = 2000;
+
+    /*
+    receives the lines of an output of a process, from the thread which reads that output
+     */
+    public interface LineConsumer
+    {
+        void accept(String line);
+    }
+
+    private static final ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "process-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private File directory;
+    private long timeoutMillis = 0;
+    private int bufferedLines = DEFAULT_BUFFERED_LINES;
+    private LineConsumer stdoutConsumer;
+    private LineConsumer stderrConsumer;
+
+    //the working directory of the commands, the current directory if null
+    public void setDirectory(File directory)
+    {
+        this.directory = directory;
+    }
+
+    //the time after which a command is destroyed, 0 for no timeout
+    public void setTimeout(long timeout, TimeUnit unit)
+    {
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    //the number of last lines of each output kept in the Result
+    public void setBufferedLines(int bufferedLines)
+    {
+        this.bufferedLines = bufferedLines;
+    }
+
+    public void setStdoutConsumer(LineConsumer stdoutConsumer)
+    {
+        this.stdoutConsumer = stdoutConsumer;
+    }
+
+    public void setStderrConsumer(LineConsumer stderrConsumer)
+    {
+        this.stderrConsumer = stderrConsumer;
+    }
+
+    /*
+    starts command, split on white spaces like Runtime.exec does
+     */
+    public Execution start(String command) throws IOException
+    {
+        StringTokenizer tokenizer = new StringTokenizer(command);
+        List<String> commandAndArguments = new ArrayList<>();
+        while(tokenizer.hasMoreTokens())
+        {
+            commandAndArguments.add(tokenizer.nextToken());
+        }
+        return start(commandAndArguments);
+    }
+
+    public Execution start(List<String> commandAndArguments) throws IOException
+    {
+        ProcessBuilder builder = new ProcessBuilder(commandAndArguments);
+        if(directory!=null)
+        {
+            builder.directory(directory);
+        }
+        Execution execution = new Execution(String.join(" ", commandAndArguments), builder.start(), bufferedLines, timeoutMillis);
+        execution.pumpAndWait(stdoutConsumer, stderrConsumer);
+        return execution;
+    }
+
+    /*
+    starts command and waits for its end
+     */
+    public Result run(String command) throws IOException, InterruptedException
+    {
+        return start(command).waitFor();
+    }
+
+    /*
+    runs all the commands at the same time and returns their results, in the order of the commands
+     */
+    public List<Result> runAll(List<String> commands) throws IOException, InterruptedException
+    {
+        List<Execution> executions = new ArrayList<>();
+        try {
+            for(String command:commands)
+            {
+                executions.add(start(command));
+            }
+            List<Result> results = new ArrayList<>();
+            for(Execution execution:executions)
+            {
+                results.add(execution.waitFor());
+            }
+            return results;
+        } catch (IOException|InterruptedException e) {
+            for(Execution execution:executions)
+            {
+                execution.cancel();
+            }
+            throw e;
+        }
+    }
+
+    /*
+    a running command
+     */
+    public static final class Execution
+    {
+        private final String command;
+        private final Process process;
+        private final LineRingBuffer stdout;
+        private final LineRingBuffer stderr;
+        private final long timeoutMillis;
+        private final long start = System.currentTimeMillis();
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        private volatile boolean timedOut = false;
+        private volatile boolean cancelled = false;
+
+        private Execution(String command, Process process, int bufferedLines, long timeoutMillis)
+        {
+            this.command = command;
+            this.process = process;
+            this.stdout = new LineRingBuffer(bufferedLines);
+            this.stderr = new LineRingBuffer(bufferedLines);
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        private void pumpAndWait(LineConsumer stdoutConsumer, LineConsumer stderrConsumer) throws IOException
+        {
+            //the commands do not read their standard input
+            process.getOutputStream().close();
+            Future<?> stdoutPump = threads.submit(() -> pump(process.getInputStream(), stdout, stdoutConsumer));
+            Future<?> stderrPump = threads.submit(() -> pump(process.getErrorStream(), stderr, stderrConsumer));
+            threads.submit(() -> {
+                try {
+                    if(timeoutMillis>0&&!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS))
+                    {
+                        timedOut = true;
+                        destroy();
+                    }
+                    int exitCode = process.waitFor();
+                    //the outputs are complete once the pumps have read them to the end
+                    awaitPump(stdoutPump);
+                    awaitPump(stderrPump);
+                    result.complete(new Result(command, exitCode, timedOut, cancelled,
+                            System.currentTimeMillis()-start, stdout, stderr));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+                return null;
+            });
+        }
+
+        private static void pump(InputStream stream, LineRingBuffer buffer, LineConsumer consumer)
+        {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+                String line;
+                while((line = reader.readLine())!=null)
+                {
+                    buffer.add(line);
+                    if(consumer!=null)
+                    {
+                        try {
+                            consumer.accept(line);
+                        } catch (RuntimeException e) {
+                            //the output must still be read, or the process would block
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                //the stream is closed when the process is destroyed
+            }
+        }
+
+        //a child of the process may keep the output open after the process ended : do not wait for it forever
+        private static void awaitPump(Future<?> pump) throws InterruptedException, ExecutionException
+        {
+            try {
+                pump.get(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                pump.cancel(true);
+            }
+        }
+
+        private void destroy() throws InterruptedException
+        {
+            process.destroy();
+            if(!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                process.destroyForcibly();
+            }
+        }
+
+        /*
+        destroys the process. Returns false if it had already ended.
+         */
+        public boolean cancel()
+        {
+            if(!process.isAlive())
+            {
+                return false;
+            }
+            cancelled = true;
+            process.destroy();
+            threads.submit(() -> {
+                if(!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS))
+                {
+                    process.destroyForcibly();
+                }
+                return null;
+            });
+            return true;
+        }
+
+        public boolean isAlive()
+        {
+            return process.isAlive();
+        }
+
+        public String getCommand()
+        {
+            return command;
+        }
+
+        //the last lines read so far from the standard output
+        public List<String> getStdout()
+        {
+            return stdout.getLines();
+        }
+
+        public List<String> getStderr()
+        {
+            return stderr.getLines();
+        }
+
+        //completed with the Result when the process has ended and its outputs have been read
+        public CompletableFuture<Result> getResult()
+        {
+            return result;
+        }
+
+        public Result waitFor() throws InterruptedException
+        {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("could not wait for "+command, e.getCause());
+            }
+        }
+
+        /*
+        waits at most timeout for the end of the process, returns null if it is still running
+         */
+        public Result waitFor(long timeout, TimeUnit unit) throws InterruptedException
+        {
+            try {
+                return result.get(timeout, unit);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("could not wait for "+command, e.getCause());
+            }
+        }
+    }
+
+    /*
+    the end of a command
+     */
+    public static final class Result
+    {
+        private final String command;
+        private final int exitCode;
+        private final boolean timedOut;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+        private final List<String> stdout;
+        private final List<String> stderr;
+        private final long droppedStdoutLines;
+        private final long droppedStderrLines;
+
+        private Result(String command, int exitCode, boolean timedOut, boolean cancelled, long elapsedMillis,
+                       LineRingBuffer stdout, LineRingBuffer stderr)
+        {
+            this.command = command;
+            this.exitCode = exitCode;
+            this.timedOut = timedOut;
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+            this.stdout = stdout.getLines();
+            this.stderr = stderr.getLines();
+            this.droppedStdoutLines = stdout.getDroppedLines();
+            this.droppedStderrLines = stderr.getDroppedLines();
+        }
+
+        public String getCommand() { return command; }
+
+        public int getExitCode() { return exitCode; }
+
+        public boolean isTimedOut() { return timedOut; }
+
+        public boolean isCancelled() { return cancelled; }
+
+        //true if the command ended by itself with exit code 0
+        public boolean isSuccess() { return exitCode==0 && !timedOut && !cancelled; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        //the last lines of the standard output
+        public List<String> getStdout() { return stdout; }
+
+        public List<String> getStderr() { return stderr; }
+
+        //number of lines of the standard output which were not kept
+        public long getDroppedStdoutLines() { return droppedStdoutLines; }
+
+        public long getDroppedStderrLines() { return droppedStderrLines; }
+
+        @Override
+        public String toString()
+        {
+            String end = timedOut ? "timed out" : cancelled ? "cancelled" : "exit code "+exitCode;
+            return command+" : "+end+" in "+elapsedMillis+" ms";
+        }
+    }
+
+    /*
+    keeps the last lines added to it
+     */
+    public static final class LineRingBuffer
+    {
+        private final String[] lines;
+        private int next = 0;
+        private long added = 0;
+
+        public LineRingBuffer(int capacity)
+        {
+            lines = new String[Math.max(0, capacity)];
+        }
+
+        public synchronized void add(String line)
+        {
+            added++;
+            if(lines.length==0)
+            {
+                return;
+            }
+            lines[next] = line;
+            next = (next+1)%lines.length;
+        }
+
+        //the kept lines, oldest first
+        public synchronized List<String> getLines()
+        {
+            int size = (int) Math.min(added, lines.length);
+            if(size==0)
+            {
+                return Collections.emptyList();
+            }
+            String[] copy = new String[size];
+            int first = (next-size+lines.length)%lines.length;
+            for(int i=0;i<size;i++)
+            {
+                copy[i] = lines[(first+i)%lines.length];
+            }
+            return Collections.unmodifiableList(Arrays.asList(copy));
+        }
+
+        //number of lines added which were overwritten by later lines
+        public synchronized long getDroppedLines()
+        {
+            return added-Math.min(added, lines.length);
+        }
+    }
+}
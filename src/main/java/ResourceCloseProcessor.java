@@ -1,34 +1,28 @@
 import org.json.JSONArray;
-import org.json.JSONException;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.*;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.reference.CtVariableReference;
 
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class ResourceCloseProcessor extends AbstractProcessor<CtConstructorCall> {
 
-    private JSONArray jsonArray;//array of JSONObjects, each of which is a bug
-    private Set<Bug> SetOfBugs;//set of bugs, corresponding to jsonArray
-    private Set<Long> SetOfLineNumbers;//set of line numbers corresponding to bugs, just for efficiency
-    private Set<String> SetOfFileNames;//-----
+    private Set<Bug> SetOfBugs;//set of bugs of the rule
+    private BugIndex bugIndex;         //bugs of SetOfBugs grouped by file name and line number, for efficient lookup
     private Bug thisBug;               //current bug. This is set inside isToBeProcessed function
     private String thisBugName;        //name (message) of current thisBug.
     String var;//contains name of resource which is unclosed in the current bug.
 
     public ResourceCloseProcessor(String projectKey) throws Exception {
-        jsonArray= ParseAPI.parse(2095,"",projectKey);
-        SetOfBugs = Bug.createSetOfBugs(this.jsonArray);
-        SetOfLineNumbers=new HashSet<Long>();
-        SetOfFileNames=new HashSet<String>();
-        thisBug=new Bug();
-        for(Bug bug:SetOfBugs)
-        {
-            SetOfLineNumbers.add(bug.getLineNumber());
-            SetOfFileNames.add(bug.getFileName());
-        }
+        this(new ApiIssueSource(projectKey));
+    }
+
+    public ResourceCloseProcessor(IssueSource issueSource) throws Exception {
+        JSONArray jsonArray= issueSource.getIssues(2095);
+        SetOfBugs = Bug.createSetOfBugs(jsonArray);
+        bugIndex=new BugIndex(SetOfBugs);
     }
 
 
@@ -40,54 +34,51 @@ public class ResourceCloseProcessor extends AbstractProcessor<CtConstructorCall>
             return false;
         }
 
+        if(element.getPosition().getFile()==null)//elements inserted by a repair have no position
+        {
+            return false;
+        }
+
         long line =-1;
         String targetName="",fileOfElement="";
-        targetName = element.getExecutable().getDeclaringType().getSimpleName();
         line=(long) element.getPosition().getLine();
-        String split1[]=element.getPosition().getFile().toString().split("/");
-        fileOfElement=split1[split1.length-1];
+        fileOfElement=element.getPosition().getFile().getName();
 
-
-        if(!SetOfLineNumbers.contains(line)||!SetOfFileNames.contains(fileOfElement))
+        List<Bug> bugsOnLine=bugIndex.get(fileOfElement,line);
+        if(bugsOnLine.isEmpty())
         {
             return false;
         }
-        try {
-            thisBug = new Bug();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if(isResourceOfTry(element))//already repaired
+        {
+            return false;
         }
+        targetName = element.getExecutable().getDeclaringType().getSimpleName();
+        thisBug = null;
 
-        for(Bug bug:SetOfBugs)
+        for(Bug bug:bugsOnLine)
         {
-            if(bug.getLineNumber()!=line||!bug.getFileName().equals(fileOfElement))
-            {
-                continue;
-            }
-
-            String bugName=bug.getName();
-            String[] split = bugName.split("\"");
-            for(String bugword:split)
+            for(String bugword:bug.getNameTokens())
             {
                 if(targetName.equals(bugword))
                 {
-                    try
-                    {
-                        thisBug = new Bug(bug);
-                        thisBugName = bugword;
-                        var=targetName;
-                        return true;
-                    }
-                    catch (JSONException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    thisBug = bug;
+                    thisBugName = bugword;
+                    var=targetName;
+                    return true;
                 }
             }
         }
         return false;
     }
 
+    private static boolean isResourceOfTry(CtConstructorCall element)
+    {
+        //the statements of a try are in its body block, so a variable whose parent is the try is one of its resources
+        CtLocalVariable variable = element.getParent(CtLocalVariable.class);
+        return variable!=null&&variable.getParent() instanceof CtTryWithResource;
+    }
+
     @Override
     public void process(CtConstructorCall element) {
 
@@ -1,80 +1,60 @@
 import org.json.JSONArray;
-import org.json.JSONException;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.*;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.ModifierKind;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class SerializableFieldProcessor extends AbstractProcessor<CtField> {
 
-    private JSONArray jsonArray;//array of JSONObjects, each of which is a bug
-    private Set<Bug> SetOfBugs;//set of bugs, corresponding to jsonArray
-    private Set<Long> SetOfLineNumbers;//set of line numbers corresponding to bugs, just for efficiency
-    private Set<String> SetOfFileNames;//-----
+    private Set<Bug> SetOfBugs;//set of bugs of the rule
+    private BugIndex bugIndex;         //bugs of SetOfBugs grouped by file name and line number, for efficient lookup
     private Bug thisBug;               //current bug. This is set inside isToBeProcessed function
     private String thisBugName;        //name (message) of current thisBug.
     public SerializableFieldProcessor(String projectKey) throws Exception {
-        jsonArray= ParseAPI.parse(1948,"",projectKey);
-        SetOfBugs = Bug.createSetOfBugs(this.jsonArray);
-        SetOfLineNumbers=new HashSet<Long>();
-        SetOfFileNames=new HashSet<String>();
-        thisBug=new Bug();
-        for(Bug bug:SetOfBugs)
-        {
-            SetOfLineNumbers.add(bug.getLineNumber());
-            SetOfFileNames.add(bug.getFileName());
-        }
+        this(new ApiIssueSource(projectKey));
+    }
+
+    public SerializableFieldProcessor(IssueSource issueSource) throws Exception {
+        JSONArray jsonArray= issueSource.getIssues(1948);
+        SetOfBugs = Bug.createSetOfBugs(jsonArray);
+        bugIndex=new BugIndex(SetOfBugs);
     }
 
 
     @Override
     public boolean isToBeProcessed(CtField element)
     {
-        if(element==null)
+        if(element==null||element.hasModifier(ModifierKind.TRANSIENT))//a transient field is already repaired
+        {
+            return false;
+        }
+        if(element.getPosition().getFile()==null)//elements inserted by a repair have no position
         {
             return false;
         }
         long line =-1;
         String targetName="",fileOfElement="";
         line=(long) element.getPosition().getLine();
-        String split1[]=element.getPosition().getFile().toString().split("/");
-        fileOfElement=split1[split1.length-1];
+        fileOfElement=element.getPosition().getFile().getName();
         targetName=element.getSimpleName();
-        if(!SetOfLineNumbers.contains(line)||!SetOfFileNames.contains(fileOfElement))
+        List<Bug> bugsOnLine=bugIndex.get(fileOfElement,line);
+        if(bugsOnLine.isEmpty())
         {
             return false;
         }
-        try {
-            thisBug = new Bug();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        thisBug = null;
 
-        for(Bug bug:SetOfBugs)
+        for(Bug bug:bugsOnLine)
         {
-            if(bug.getLineNumber()!=line||!bug.getFileName().equals(fileOfElement))
-            {
-                continue;
-            }
-
-            String bugName=bug.getName();
-            String[] split = bugName.split("\"");
-            for(String bugword:split)
+            for(String bugword:bug.getNameTokens())
             {
                 if(targetName.equals(bugword))
                 {
-                    try
-                    {
-                        thisBug = new Bug(bug);
-                        thisBugName = bugword;
-                        return true;
-                    }
-                    catch (JSONException e)
-                    {
-                        e.printStackTrace();
-                    }
+                    thisBug = bug;
+                    thisBugName = bugword;
+                    return true;
                 }
             }
         }
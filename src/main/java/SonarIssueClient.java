@@ -0,0 +1,449 @@
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/*
+SonarIssueClient fetches the issues of a project from the api/issues/search web service of a SonarQube server,
+page by page. Each page is parsed as a stream : the issues are handed one at a time to an IssueConsumer,
+so that neither a page nor the whole result is ever held as a single document.
+The issues can be saved to a local cache, keyed by project key, component, rule and date of the last analysis
+of the project. As long as the project is not analysed again, the issues are read back from the cache
+instead of the server. When the date of the last analysis cannot be fetched, for example without network access,
+the issues are read from the most recent cache file of the search if there is one.
+ */
+public class SonarIssueClient
+{
+    public interface IssueConsumer
+    {
+        void accept(JSONObject issue) throws Exception;
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    //api/issues/search does not return more than this number of issues, whatever the page
+    public static final int MAX_RESULTS = 10000;
+
+    private final String serverUrl;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private File cacheDir;
+
+    /*
+    serverUrl is the base url of the SonarQube server, for example "https://sonarcloud.io"
+     */
+    public SonarIssueClient(String serverUrl)
+    {
+        this.serverUrl = serverUrl.endsWith("/") ? serverUrl.substring(0, serverUrl.length() - 1) : serverUrl;
+    }
+
+    /*
+    returns a client for the server on which the given project is analysed
+     */
+    public static SonarIssueClient forProject(String projectKey)
+    {
+        if(projectKey.equals("fr.inria.gforge.spoon:spoon-core"))
+        {
+            return new SonarIssueClient("https://sonarqube.ow2.org");
+        }
+        return new SonarIssueClient("https://sonarcloud.io");
+    }
+
+    public String getServerUrl()
+    {
+        return serverUrl;
+    }
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize)
+    {
+        if(pageSize<1||pageSize>DEFAULT_PAGE_SIZE)
+        {
+            throw new IllegalArgumentException("page size must be between 1 and "+DEFAULT_PAGE_SIZE);
+        }
+        this.pageSize = pageSize;
+    }
+
+    /*
+    sets the directory of the local cache. Pass null to disable the cache, which is the default.
+     */
+    public void setCacheDir(File cacheDir)
+    {
+        this.cacheDir = cacheDir;
+    }
+
+    public File getCacheDir()
+    {
+        return cacheDir;
+    }
+
+    /*
+    returns all the unresolved issues of the given rule in the given project.
+    Pass 0 as rulekey to get the issues of every rule, and "" as fname to get the issues of the whole project.
+     */
+    public JSONArray fetch(int rulekey, String fname, String projectKey) throws Exception
+    {
+        JSONArray issues = new JSONArray();
+        fetch(rulekey, fname, projectKey, issues::put);
+        return issues;
+    }
+
+    /*
+    streams all the unresolved issues of the given rule in the given project to the consumer.
+    returns the number of issues.
+     */
+    public int fetch(int rulekey, String fname, String projectKey, IssueConsumer consumer) throws Exception
+    {
+        File cacheFile = getCacheFile(rulekey, fname, projectKey);
+        if(cacheFile!=null&&cacheFile.isFile())
+        {
+            return readCache(cacheFile, consumer);
+        }
+        if(cacheFile==null)
+        {
+            return fetchPages(rulekey, fname, projectKey, consumer);
+        }
+        //write the issues to a temporary file first, so that an interrupted run never leaves a truncated cache entry
+        File tmp = createCacheTempFile(cacheFile);
+        int count;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            count = fetchPages(rulekey, fname, projectKey, issue -> {
+                out.write(issue.toString());
+                out.write('\n');
+                consumer.accept(issue);
+            });
+        } catch (Exception e) {
+            tmp.delete();
+            throw e;
+        }
+        Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /*
+    returns the cache file of the given search, which exists if the issues were already fetched since the last analysis,
+    or null if the cache is disabled.
+    When the date of the last analysis is not known, returns the most recent cache file of the search, or null if there is none.
+     */
+    public File getCacheFile(int rulekey, String fname, String projectKey)
+    {
+        if(cacheDir==null)
+        {
+            return null;
+        }
+        return getCacheFile(rulekey, fname, projectKey, getAnalysisDate(projectKey));
+    }
+
+    /*
+    returns the cache file of the given search for the given date of the last analysis, see getCacheFile(int, String, String).
+    analysisDate is null if it is not known.
+     */
+    public File getCacheFile(int rulekey, String fname, String projectKey, String analysisDate)
+    {
+        if(cacheDir==null)
+        {
+            return null;
+        }
+        if(analysisDate!=null)
+        {
+            return new File(cacheDir, cacheFileName(projectKey, fname, rulekey, analysisDate));
+        }
+        String prefix = cacheFilePrefix(projectKey, fname, rulekey);
+        File[] cacheFiles = cacheDir.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(".ndjson"));
+        File latest = null;
+        if(cacheFiles!=null)
+        {
+            for(File cacheFile:cacheFiles)
+            {
+                if(latest==null||cacheFile.lastModified()>latest.lastModified())
+                {
+                    latest = cacheFile;
+                }
+            }
+        }
+        if(latest!=null)
+        {
+            System.out.println("The date of the last analysis of "+projectKey+" is not known, the most recent cached issues are used");
+        }
+        return latest;
+    }
+
+    public int readCache(File cacheFile, IssueConsumer consumer) throws Exception
+    {
+        System.out.println("Reading SonarQube issues from cache : " + cacheFile);
+        return readNdjson(cacheFile, consumer);
+    }
+
+    public void writeCache(File cacheFile, List<JSONObject> issues) throws IOException
+    {
+        File tmp = createCacheTempFile(cacheFile);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            for(JSONObject issue:issues)
+            {
+                out.write(issue.toString());
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static File createCacheTempFile(File cacheFile) throws IOException
+    {
+        cacheFile.getParentFile().mkdirs();
+        return File.createTempFile("issues", ".tmp", cacheFile.getParentFile());
+    }
+
+    private int fetchPages(int rulekey, String fname, String projectKey, IssueConsumer consumer) throws Exception
+    {
+        int count = 0;
+        for(int page = 1; ; page++)
+        {
+            int[] total = {-1};
+            int received = fetchPage(rulekey, fname, projectKey, page, total, consumer);
+            count += received;
+            if(received<pageSize||(total[0]>=0&&page*pageSize>=total[0]))
+            {
+                return count;
+            }
+            if((page+1)*pageSize>MAX_RESULTS)
+            {
+                String notFetched = total[0]>count ? String.valueOf(total[0]-count) : "the other";
+                System.out.println("WARNING : SonarQube does not return more than "+MAX_RESULTS+" issues for one search, "+notFetched+" issues were not fetched.");
+                return count;
+            }
+        }
+    }
+
+    /*
+    fetches one page of issues and returns the number of issues on it. total[0] is set to the total number of issues if the server reports it.
+     */
+    public int fetchPage(int rulekey, String fname, String projectKey, int page, int[] total, IssueConsumer consumer) throws Exception
+    {
+        String url = getIssueSearchUrl(rulekey, fname, projectKey, page);
+        try (Reader in = open(url)) {
+            return readIssues(in, consumer, total);
+        }
+    }
+
+    public String getIssueSearchUrl(int rulekey, String fname, String projectKey, int page) throws IOException
+    {
+        String component = fname.length()>0 ? projectKey+":"+fname : projectKey;
+        String url = serverUrl + "/api/issues/search?resolved=false&ps=" + pageSize + "&p=" + page;
+        if(rulekey!=0)
+        {
+            url = url + "&rules=" + encode("squid:S" + rulekey);
+        }
+        return url + "&componentKeys=" + encode(component);
+    }
+
+    /*
+    returns the date of the last analysis of the project, or null if the server does not report it.
+     */
+    public String getAnalysisDate(String projectKey)
+    {
+        try (Reader in = open(serverUrl + "/api/project_analyses/search?ps=1&project=" + encode(projectKey))) {
+            JSONObject jo = new JSONObject(new JSONTokener(in));
+            JSONArray analyses = jo.optJSONArray("analyses");
+            if(analyses==null||analyses.length()==0)
+            {
+                return null;
+            }
+            return analyses.getJSONObject(0).optString("date", null);
+        } catch (Exception e) {
+            System.out.println("Could not get the last analysis date of "+projectKey+", the issues will not be cached : "+e.getMessage());
+            return null;
+        }
+    }
+
+    private Reader open(String url) throws Exception
+    {
+        System.out.println("\nSending GET request to SonarQube API : " + url);
+        URLConnection con = new URL(url).openConnection();
+        if(con instanceof HttpURLConnection)
+        {
+            HttpURLConnection http = (HttpURLConnection) con;
+            http.setRequestMethod("GET");
+            int responseCode = http.getResponseCode();
+            if(responseCode!=200)
+            {
+                System.out.println("Response Code : "+responseCode);
+                http.disconnect();
+                throw new Exception("ERROR : Wrong Reponse Code from Sonarqube API. Check Internet Connection");
+            }
+        }
+        InputStream in = con.getInputStream();
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /*
+    reads a response of api/issues/search, for example a recorded JSON file, and hands each element of its
+    "issues" array to the consumer as soon as it is parsed. The rest of the response is skipped, except the
+    total number of issues which is stored in total[0] when total is not null.
+    returns the number of issues read.
+     */
+    public static int readIssues(Reader reader, IssueConsumer consumer, int[] total) throws Exception
+    {
+        JSONTokener x = new JSONTokener(reader);
+        if(x.nextClean()!='{')
+        {
+            throw x.syntaxError("A JSONObject text must begin with '{'");
+        }
+        int count = 0;
+        char c = x.nextClean();
+        while(c!='}')
+        {
+            x.back();
+            String key = x.nextValue().toString();
+            if(x.nextClean()!=':')
+            {
+                throw x.syntaxError("Expected a ':' after a key");
+            }
+            if(key.equals("issues"))
+            {
+                count += readArray(x, consumer);
+            }
+            else
+            {
+                Object value = x.nextValue();
+                if(total!=null&&key.equals("total")&&value instanceof Number)
+                {
+                    total[0] = ((Number) value).intValue();
+                }
+                else if(total!=null&&key.equals("paging")&&value instanceof JSONObject)
+                {
+                    total[0] = ((JSONObject) value).optInt("total", total[0]);
+                }
+            }
+            c = x.nextClean();
+            if(c==',')
+            {
+                c = x.nextClean();
+            }
+            else if(c!='}')
+            {
+                throw x.syntaxError("Expected a ',' or '}'");
+            }
+        }
+        return count;
+    }
+
+    public static int readIssues(File recordedResponse, IssueConsumer consumer) throws Exception
+    {
+        try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(recordedResponse), StandardCharsets.UTF_8))) {
+            return readIssues(in, consumer, null);
+        }
+    }
+
+    private static int readArray(JSONTokener x, IssueConsumer consumer) throws Exception
+    {
+        if(x.nextClean()!='[')
+        {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        int count = 0;
+        char c = x.nextClean();
+        while(c!=']')
+        {
+            x.back();
+            Object value = x.nextValue();
+            if(!(value instanceof JSONObject))
+            {
+                throw new JSONException("Expected an issue object but found "+value);
+            }
+            consumer.accept((JSONObject) value);
+            count++;
+            c = x.nextClean();
+            if(c==',')
+            {
+                c = x.nextClean();
+            }
+            else if(c!=']')
+            {
+                throw x.syntaxError("Expected a ',' or ']'");
+            }
+        }
+        return count;
+    }
+
+    //reads the issues of a cache file, which holds one issue per line
+    private static int readNdjson(File file, IssueConsumer consumer) throws Exception
+    {
+        int count = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = in.readLine())!=null)
+            {
+                if(line.trim().isEmpty())
+                {
+                    continue;
+                }
+                consumer.accept(new JSONObject(line));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static String cacheFileName(String projectKey, String fname, int rulekey, String analysisDate)
+    {
+        return cacheFilePrefix(projectKey, fname, rulekey) + hash(analysisDate) + ".ndjson";
+    }
+
+    /*
+    the readable part of the name is not unique, "a.b" and "a_b" give the same one,
+    so it is followed by a hash of the exact project key, component and rule.
+     */
+    private static String cacheFilePrefix(String projectKey, String fname, int rulekey)
+    {
+        String name = projectKey + "_" + fname + "_S" + rulekey;
+        return name.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + hash(projectKey + "\n" + fname + "\n" + rulekey) + "_";
+    }
+
+    //the first 16 hexadecimal digits of the SHA-256 of the value
+    private static String hash(String value)
+    {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for(int i=0;i<8;i++)
+            {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) throws IOException
+    {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+}
@@ -1,11 +1,18 @@
 import org.json.JSONArray;
 import spoon.Launcher;
 import spoon.processing.Processor;
+import spoon.reflect.declaration.CtType;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import static java.lang.System.exit;
 import static java.lang.Thread.sleep;
@@ -14,6 +21,13 @@ public class TestHelp {
 
     public static Map<Integer, Class<? extends Processor>> rule;
 
+    //if not null, the unified diff of the repaired files with the original files is written in this file
+    private static File patchFile;
+
+    public static void setPatchFile(File file) {
+        patchFile = file;
+    }
+
     public static void initmap() {
         rule = new HashMap<>();
         rule.putIfAbsent(1854, DeadStoreProcessor.class);
@@ -34,26 +48,173 @@ public class TestHelp {
         return rule.get(ruleKey);
     }
 
-    public static void repair(String pathToFile, String projectKey, int rulekey) throws Exception {
+    public static Launcher repair(String pathToFile, String projectKey, int rulekey) throws Exception {
+        return repair(pathToFile, new ApiIssueSource(projectKey), rulekey);
+    }
+
+    public static Launcher repair(String pathToFile, IssueSource issueSource, int rulekey) throws Exception {
+        List<Integer> rulekeys = new ArrayList<>();
+        rulekeys.add(rulekey);
+        return repair(pathToFile, issueSource, rulekeys);
+    }
+
+    public static Launcher repair(String pathToFile, String projectKey, List<Integer> rulekeys) throws Exception {
+        return repair(pathToFile, new ApiIssueSource(projectKey), rulekeys);
+    }
+
+    /*
+    Builds the model of pathToFile once and applies, with the issues of issueSource, the processors of all the given rules in a single traversal.
+    Prints, for every rule, the time spent in its processor and the number of elements it rewrote.
+    Returns the launcher, whose model holds the repaired code.
+     */
+    public static Launcher repair(String pathToFile, IssueSource issueSource, List<Integer> rulekeys) throws Exception {
 
         //Not Sniper  Mode
-        Launcher launcher = new Launcher();
+        Launcher launcher = createLauncher();
 
         launcher.addInputResource(pathToFile);
 
+        issueSource.prefetch(rulekeys);
+        return repair(launcher, issueSource, rulekeys);
+    }
+
+    /*
+    Targeted repair : builds the model of the files of pathToFile which have issues only, see AffectedFiles.
+    The other types are not parsed. They are found in contextClasspath (compiled classes or jars of the project,
+    or its source directories, in which case the sources of the types used by the affected files are parsed too),
+    or, if contextClasspath is null, the model is built in noclasspath mode.
+    The time and memory spent building the model depend on the number of affected files, not on the size of the project.
+     */
+    public static Launcher repairTargeted(String pathToFile, IssueSource issueSource, List<Integer> rulekeys, String[] contextClasspath) throws Exception {
+        issueSource.prefetch(rulekeys);
+        AffectedFiles affectedFiles = new AffectedFiles(new File(pathToFile));
+        List<File> files = affectedFiles.find(issueSource, rulekeys);
+        System.out.println("Targeted model : " + files.size() + " of " + affectedFiles.getNumberOfFiles() + " files have issues");
+
+        Launcher launcher = createLauncher();
+        for (File file : files) {
+            launcher.addInputResource(file.getPath());
+        }
+        launcher.getEnvironment().setNoClasspath(true);
+        if (contextClasspath != null) {
+            launcher.getEnvironment().setSourceClasspath(contextClasspath);
+        }
+        return repair(launcher, issueSource, rulekeys);
+    }
+
+    private static Launcher createLauncher() {
+        Launcher launcher = new Launcher();
         launcher.getEnvironment().setCommentEnabled(true);
         launcher.getEnvironment().setAutoImports(true);
         launcher.getEnvironment().setTabulationSize(4);
         launcher.getEnvironment().useTabulations(true);
+        return launcher;
+    }
 
-        Class<?> processor = getProcessor(rulekey);
-        Constructor<?> cons = processor.getConstructor(String.class);
-        Object object = cons.newInstance(projectKey);
-        launcher.addProcessor((Processor) object);
-        launcher.run();
+    //builds the model of the input resources of launcher and repairs it
+    private static Launcher repair(Launcher launcher, IssueSource issueSource, List<Integer> rulekeys) throws Exception {
+        MultiRuleScanner scanner = new MultiRuleScanner();
+        for (int rulekey : rulekeys) {
+            scanner.addProcessor(createProcessor(rulekey, issueSource));
+        }
+
+        long start = System.currentTimeMillis();
+        launcher.buildModel();
+        System.out.println("Model built in " + (System.currentTimeMillis() - start) + " ms");
+        ModifiedTypeCollector changes = new ModifiedTypeCollector();
+        changes.attachTo(launcher.getEnvironment());
+
+        for (Processor<?> processor : scanner.getProcessors()) {
+            processor.setFactory(launcher.getFactory());
+            processor.init();
+            processor.process();
+        }
+        start = System.currentTimeMillis();
+        scanner.scan(launcher.getModel().getRootPackage());
+        System.out.println("Model processed in " + (System.currentTimeMillis() - start) + " ms");
+        for (int i = 0; i < rulekeys.size(); i++) {
+            Processor<?> processor = scanner.getProcessors().get(i);
+            processor.processingDone();
+            System.out.println("Rule " + rulekeys.get(i) + " (" + processor.getClass().getSimpleName() + ") : "
+                    + scanner.getRewrittenCount(i) + " elements rewritten in " + scanner.getTimeMillis(i) + " ms");
+        }
+
+        //only the files of the types which were repaired are printed
+        start = System.currentTimeMillis();
+        launcher.setOutputFilter(changes::isModified);
+        launcher.prettyprint();
+        System.out.println(changes.getModifiedTypes().size() + " files printed in " + (System.currentTimeMillis() - start) + " ms");
+        if (patchFile != null) {
+            writePatch(launcher, changes.getModifiedTypes(), patchFile);
+        }
 //        new SpoonModelTree(launcher.getFactory());
+        return launcher;
+    }
+
+    //writes the unified diff of the printed files of the given types with their original files
+    private static void writePatch(Launcher launcher, List<CtType<?>> types, File patch) throws IOException {
+        Map<File, File> revisedByOriginal = new LinkedHashMap<>();
+        File outputDirectory = launcher.getEnvironment().getSourceOutputDirectory();
+        for (CtType<?> type : types) {
+            File original = type.getPosition().getFile();
+            if (original != null) {
+                revisedByOriginal.put(original, new File(outputDirectory, type.getQualifiedName().replace('.', File.separatorChar) + ".java"));
+            }
+        }
+        UnifiedDiff.writePatch(patch, revisedByOriginal);
+        System.out.println("Patch of " + revisedByOriginal.size() + " files written in " + patch);
+    }
+
+    //a new processor of the given rule, which repairs the issues of issueSource
+    public static Processor<?> createProcessor(int rulekey, IssueSource issueSource) throws Exception {
+        Class<?> processor = getProcessor(rulekey);
+        Constructor<?> cons = processor.getConstructor(IssueSource.class);
+        return (Processor<?>) cons.newInstance(issueSource);
+    }
+
+    /*
+    Checks, without a SonarQube analysis, the repair made by repair(pathToFile, issueSource, rulekeys) :
+    see InProcessVerifier.
+     */
+    public static InProcessVerifier.Verdict verify(Launcher repaired, IssueSource issueSource, List<Integer> rulekeys) throws Exception {
+        InProcessVerifier.Verdict verdict = new InProcessVerifier().verify(repaired, issueSource, rulekeys);
+        System.out.println(verdict);
+        return verdict;
+    }
+
+    public static InProcessVerifier.Verdict verify(Launcher repaired, IssueSource issueSource, int rulekey) throws Exception {
+        List<Integer> rulekeys = new ArrayList<>();
+        rulekeys.add(rulekey);
+        return verify(repaired, issueSource, rulekeys);
+    }
+
+    /*
+    Parses a comma separated list of rule keys, for example "1854,2259".
+    "all" stands for every rule which has a processor in the rule map.
+     */
+    public static List<Integer> parseRuleKeys(String arg) {
+        if (rule == null) {
+            initmap();
+        }
+        List<Integer> rulekeys = new ArrayList<>();
+        if (arg.equals("all")) {
+            rulekeys.addAll(new TreeSet<>(rule.keySet()));
+            return rulekeys;
+        }
+        for (String key : arg.split(",")) {
+            int rulekey = Integer.parseInt(key.trim());
+            getProcessor(rulekey);//exits if the rule is not supported
+            if (!rulekeys.contains(rulekey)) {
+                rulekeys.add(rulekey);
+            }
+        }
+        return rulekeys;
     }
 
+    /*
+    Confirms a repair on the SonarQube server : builds and analyses ./src/test/sonarepaired/ with the repaired file.
+    It takes minutes, verify gives the same answer for most repairs in-process.
+     */
     public static boolean checkBugs(String pathToFile, int rulekey) throws Exception {
         String cdrep = "./src/test/sonarepaired/";
         String cdtest = "./src/test/sonatest/";
@@ -82,7 +243,7 @@ public class TestHelp {
             for (Bug bug : setOfBugs) {
                 String bugFileName = bug.getFileName();
                 if (bugFileName.equals(fileName)) {
-                    System.out.println(bug.getJsonObject().toString());
+                    System.out.println(bug);
                     return true;
                 }
             }
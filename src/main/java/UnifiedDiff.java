@@ -0,0 +1,265 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+UnifiedDiff computes the differences between two lists of lines with the algorithm of Myers, and formats them
+as a unified diff, which can be applied with `git apply` or `patch -p1`.
+ */
+public class UnifiedDiff
+{
+    public static final int DEFAULT_CONTEXT = 3;
+
+    private static final int EQUAL = 0;
+    private static final int DELETE = 1;
+    private static final int INSERT = 2;
+
+    //one line of the edit script, with the number of lines of each file before it
+    private static final class Edit
+    {
+        final int type;
+        final int originalIndex;
+        final int revisedIndex;
+
+        Edit(int type, int originalIndex, int revisedIndex)
+        {
+            this.type = type;
+            this.originalIndex = originalIndex;
+            this.revisedIndex = revisedIndex;
+        }
+    }
+
+    /*
+    the lines of the unified diff from original to revised, empty if they are the same
+     */
+    public static List<String> diff(String originalName, List<String> original, String revisedName, List<String> revised, int context)
+    {
+        List<Edit> edits = editScript(original, revised);
+        List<String> lines = new ArrayList<>();
+        int i = 0;
+        while(i<edits.size())
+        {
+            if(edits.get(i).type==EQUAL)
+            {
+                i++;
+                continue;
+            }
+            //a hunk goes from `context` lines before a change to `context` lines after the last change which is
+            //less than 2*context lines after the previous one
+            int start = Math.max(0, i-context);
+            int end = i;
+            int equalRun = 0;
+            for(int j=i;j<edits.size();j++)
+            {
+                if(edits.get(j).type==EQUAL)
+                {
+                    equalRun++;
+                    if(equalRun>2*context)
+                    {
+                        break;
+                    }
+                }
+                else
+                {
+                    equalRun = 0;
+                    end = j;
+                }
+            }
+            end = Math.min(edits.size()-1, end+context);
+            if(lines.isEmpty())
+            {
+                lines.add("--- "+originalName);
+                lines.add("+++ "+revisedName);
+            }
+            lines.add(hunkHeader(edits, start, end));
+            for(int j=start;j<=end;j++)
+            {
+                Edit edit = edits.get(j);
+                switch(edit.type)
+                {
+                    case EQUAL:
+                        lines.add(" "+original.get(edit.originalIndex));
+                        break;
+                    case DELETE:
+                        lines.add("-"+original.get(edit.originalIndex));
+                        break;
+                    default:
+                        lines.add("+"+revised.get(edit.revisedIndex));
+                }
+            }
+            i = end+1;
+        }
+        return lines;
+    }
+
+    private static String hunkHeader(List<Edit> edits, int start, int end)
+    {
+        int originalLength = 0;
+        int revisedLength = 0;
+        for(int j=start;j<=end;j++)
+        {
+            int type = edits.get(j).type;
+            if(type!=INSERT)
+            {
+                originalLength++;
+            }
+            if(type!=DELETE)
+            {
+                revisedLength++;
+            }
+        }
+        Edit first = edits.get(start);
+        //an empty range starts at the line before it
+        int originalStart = originalLength==0 ? first.originalIndex : first.originalIndex+1;
+        int revisedStart = revisedLength==0 ? first.revisedIndex : first.revisedIndex+1;
+        return "@@ -"+originalStart+","+originalLength+" +"+revisedStart+","+revisedLength+" @@";
+    }
+
+    //the shortest edit script from original to revised
+    private static List<Edit> editScript(List<String> original, List<String> revised)
+    {
+        //the common first and last lines are equal without searching
+        int prefix = 0;
+        while(prefix<original.size()&&prefix<revised.size()&&original.get(prefix).equals(revised.get(prefix)))
+        {
+            prefix++;
+        }
+        int suffix = 0;
+        while(suffix<original.size()-prefix&&suffix<revised.size()-prefix
+                &&original.get(original.size()-1-suffix).equals(revised.get(revised.size()-1-suffix)))
+        {
+            suffix++;
+        }
+        List<Edit> edits = new ArrayList<>();
+        for(int i=0;i<prefix;i++)
+        {
+            edits.add(new Edit(EQUAL, i, i));
+        }
+        edits.addAll(myers(original.subList(prefix, original.size()-suffix), revised.subList(prefix, revised.size()-suffix), prefix));
+        for(int i=suffix;i>0;i--)
+        {
+            edits.add(new Edit(EQUAL, original.size()-i, revised.size()-i));
+        }
+        return edits;
+    }
+
+    private static List<Edit> myers(List<String> a, List<String> b, int shift)
+    {
+        int n = a.size();
+        int m = b.size();
+        int max = n+m;
+        int offset = max+1;
+        int[] v = new int[2*max+3];
+        //trace.get(d) holds v[-d-1..d+1] before the step d
+        List<int[]> trace = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        search:
+        for(int d=0;d<=max;d++)
+        {
+            trace.add(Arrays.copyOfRange(v, offset-d-1, offset+d+2));
+            for(int k=-d;k<=d;k+=2)
+            {
+                if(k==-d||(k!=d&&v[offset+k-1]<v[offset+k+1]))
+                {
+                    x = v[offset+k+1];
+                }
+                else
+                {
+                    x = v[offset+k-1]+1;
+                }
+                y = x-k;
+                while(x<n&&y<m&&a.get(x).equals(b.get(y)))
+                {
+                    x++;
+                    y++;
+                }
+                v[offset+k] = x;
+                if(x>=n&&y>=m)
+                {
+                    break search;
+                }
+            }
+        }
+        List<Edit> reversed = new ArrayList<>();
+        x = n;
+        y = m;
+        for(int d=trace.size()-1;d>=0;d--)
+        {
+            int[] previous = trace.get(d);
+            int base = d+1;//index of k=0 in previous
+            int k = x-y;
+            int previousK;
+            if(k==-d||(k!=d&&previous[base+k-1]<previous[base+k+1]))
+            {
+                previousK = k+1;
+            }
+            else
+            {
+                previousK = k-1;
+            }
+            int previousX = d==0 ? 0 : previous[base+previousK];
+            int previousY = previousX-previousK;
+            while(x>previousX&&y>previousY)
+            {
+                x--;
+                y--;
+                reversed.add(new Edit(EQUAL, shift+x, shift+y));
+            }
+            if(d>0)
+            {
+                if(x==previousX)
+                {
+                    reversed.add(new Edit(INSERT, shift+previousX, shift+previousY));
+                }
+                else
+                {
+                    reversed.add(new Edit(DELETE, shift+previousX, shift+previousY));
+                }
+            }
+            x = previousX;
+            y = previousY;
+        }
+        List<Edit> edits = new ArrayList<>(reversed.size());
+        for(int i=reversed.size()-1;i>=0;i--)
+        {
+            edits.add(reversed.get(i));
+        }
+        return edits;
+    }
+
+    /*
+    writes in patchFile the unified diff of each original file (key) with its revised file (value).
+    The files are named by their path relative to the current directory, prefixed with a/ and b/ like git does,
+    so that the patch applies to the original files.
+     */
+    public static void writePatch(File patchFile, Map<File, File> revisedByOriginal) throws IOException
+    {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(patchFile.toPath(), StandardCharsets.UTF_8))) {
+            for(Map.Entry<File, File> entry:revisedByOriginal.entrySet())
+            {
+                String name = relativePath(entry.getKey());
+                List<String> original = Files.readAllLines(entry.getKey().toPath(), StandardCharsets.UTF_8);
+                List<String> revised = Files.readAllLines(entry.getValue().toPath(), StandardCharsets.UTF_8);
+                for(String line:diff("a/"+name, original, "b/"+name, revised, DEFAULT_CONTEXT))
+                {
+                    writer.print(line);
+                    writer.print('\n');
+                }
+            }
+        }
+    }
+
+    private static String relativePath(File file)
+    {
+        File currentDirectory = new File("").getAbsoluteFile();
+        String path = currentDirectory.toPath().relativize(file.getAbsoluteFile().toPath().normalize()).toString();
+        return path.replace(File.separatorChar, '/');
+    }
+}
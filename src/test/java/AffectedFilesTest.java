@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AffectedFilesTest {
+
+    private static final File SOURCES = new File("./src/test/sonatest/src/main/java");
+    private static final File MODULE = new File("./src/test/sonatest");
+
+    @Test
+    void matchesComponentsInASourceDirectory() throws Exception {
+        AffectedFiles affectedFiles = new AffectedFiles(SOURCES);
+        assertEquals(3, affectedFiles.getNumberOfFiles());
+        assertEquals(Collections.singletonList(new File(SOURCES, "DeadStores.java")),
+                affectedFiles.getFiles("se.kth:sonatest:src/main/java/DeadStores.java"));
+    }
+
+    @Test
+    void matchesComponentsInAModuleDirectory() throws Exception {
+        AffectedFiles affectedFiles = new AffectedFiles(MODULE);
+        assertEquals(Collections.singletonList(new File(SOURCES, "DeadStores.java")),
+                affectedFiles.getFiles("se.kth:sonatest:src/main/java/DeadStores.java"));
+        //same file name in another directory
+        assertEquals(Collections.emptyList(), affectedFiles.getFiles("se.kth:sonatest:src/test/java/DeadStores.java"));
+    }
+
+    @Test
+    void findsTheFilesOfTheIssuesOfTheGivenRules() throws Exception {
+        AffectedFiles affectedFiles = new AffectedFiles(SOURCES);
+        IssueSource issues = new ExportFileIssueSource(new File("./src/test/resources/sonatest-issues.json"));
+        assertEquals(Collections.singletonList(new File(SOURCES, "NullDereferences.java")),
+                affectedFiles.find(issues, Collections.singletonList(2259)));
+        assertEquals(2, affectedFiles.find(issues, Arrays.asList(1854, 2259)).size());
+        assertEquals(Collections.emptyList(), affectedFiles.find(issues, Collections.singletonList(2095)));
+    }
+}
@@ -0,0 +1,146 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/*
+Compares Bug with the former JSONObject-backed representation of an issue (JsonBug below) :
+the time of Bug.createSetOfBugs and the heap retained by the set of bugs once the JSON issues are released.
+It is a plain timing loop rather than a JMH benchmark : JMH is not a dependency of this project, like for
+BugIndexBenchmark, and the heap retained by the set of bugs, which is what Bug was changed for, is not a JMH measure.
+It is not run by surefire. Run it with :
+java -cp target/classes:target/test-classes:<json jar> BugBenchmark [numberOfIssues]
+ */
+public class BugBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        int numberOfIssues = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        String json = createIssues(numberOfIssues).toString();
+        System.out.println(numberOfIssues + " issues");
+
+        for (int round = 0; round < 3; round++) {
+            long baseline = usedMemory();
+            JSONArray issues = new JSONArray(json);
+            long start = System.nanoTime();
+            Set<Bug> bugs = Bug.createSetOfBugs(issues);
+            long elapsed = System.nanoTime() - start;
+            issues = null;
+            report("Bug", bugs.size(), elapsed, usedMemory() - baseline);
+            bugs = null;
+
+            baseline = usedMemory();
+            issues = new JSONArray(json);
+            start = System.nanoTime();
+            Set<JsonBug> jsonBugs = JsonBug.createSetOfBugs(issues);
+            elapsed = System.nanoTime() - start;
+            issues = null;
+            report("JSONObject backed bug", jsonBugs.size(), elapsed, usedMemory() - baseline);
+            jsonBugs = null;
+        }
+    }
+
+    private static JSONArray createIssues(int numberOfIssues)
+    {
+        JSONArray issues = new JSONArray();
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfIssues; i++) {
+            int line = 1 + random.nextInt(500);
+            JSONObject issue = new JSONObject();
+            issue.put("key", "AWT" + Integer.toHexString(i) + "xyzXYZ0123456789");
+            issue.put("rule", "squid:S2259");
+            issue.put("severity", "MAJOR");
+            issue.put("component", "se.kth:bench:src/main/java/se/kth/bench/File" + random.nextInt(2000) + ".java");
+            issue.put("project", "se.kth:bench");
+            issue.put("line", line);
+            JSONObject textRange = new JSONObject();
+            textRange.put("startLine", line);
+            textRange.put("endLine", line);
+            textRange.put("startOffset", 8);
+            textRange.put("endOffset", 14);
+            issue.put("textRange", textRange);
+            JSONObject location = new JSONObject();
+            location.put("component", issue.get("component"));
+            location.put("textRange", textRange);
+            location.put("msg", "\"value\" is assigned null here");
+            JSONArray locations = new JSONArray();
+            locations.put(location);
+            JSONObject flow = new JSONObject();
+            flow.put("locations", locations);
+            issue.put("flows", new JSONArray().put(flow));
+            issue.put("status", "OPEN");
+            issue.put("message", "A \"NullPointerException\" could be thrown; \"value" + i + "\" is nullable here.");
+            issue.put("effort", "10min");
+            issue.put("author", "someone@example.com");
+            issue.put("tags", new JSONArray().put("cert").put("cwe"));
+            issue.put("creationDate", "2018-06-01T10:00:00+0200");
+            issue.put("type", "BUG");
+            issues.put(issue);
+        }
+        return issues;
+    }
+
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String name, int size, long nanos, long bytes)
+    {
+        System.out.println(String.format("%-25s set of %d built in %6d ms, retains %8d KB (%d bytes per bug)",
+                name, size, nanos / 1000000, bytes / 1024, bytes / Math.max(1, size)));
+    }
+
+    //how Bug was implemented before : it keeps the JSONObject and compares its serialization
+    static class JsonBug
+    {
+        final JSONObject jsonObject;
+        final JSONArray locations;
+        final long lineNumber;
+        final String name;
+        final String fileName;
+
+        JsonBug(JSONObject jsonObject)
+        {
+            this.jsonObject = jsonObject;
+            JSONArray flow = jsonObject.getJSONArray("flows");
+            locations = flow.length() > 0 ? flow.getJSONObject(0).getJSONArray("locations") : null;
+            lineNumber = jsonObject.getInt("line");
+            name = jsonObject.getString("message");
+            String[] split = jsonObject.get("component").toString().split("/");
+            fileName = split[split.length - 1];
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return jsonObject.toString().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof JsonBug && ((JsonBug) obj).jsonObject.toString().equals(jsonObject.toString());
+        }
+
+        static Set<JsonBug> createSetOfBugs(JSONArray jsonArray)
+        {
+            Set<JsonBug> setOfBugs = new HashSet<>();
+            for (int i = 0; i < jsonArray.length(); ++i) {
+                setOfBugs.add(new JsonBug(jsonArray.getJSONObject(i)));
+            }
+            return setOfBugs;
+        }
+    }
+}
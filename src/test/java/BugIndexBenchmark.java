@@ -0,0 +1,107 @@
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/*
+Measures how many AST node visits per second the processors can pre-filter against a large synthetic
+issue set, comparing the old linear scan over the set of bugs with the lookup in BugIndex.
+It is not run by surefire. Run it with :
+java -cp target/classes:target/test-classes:<json jar> BugIndexBenchmark [numberOfIssues] [numberOfVisits]
+ */
+public class BugIndexBenchmark
+{
+    private static final int FILES = 2000;
+    private static final int LINES_PER_FILE = 500;
+
+    public static void main(String[] args) throws Exception
+    {
+        int numberOfIssues = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int numberOfVisits = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+        Set<Bug> setOfBugs = Bug.createSetOfBugs(createIssues(numberOfIssues));
+        String[] visitedFiles = new String[numberOfVisits];
+        long[] visitedLines = new long[numberOfVisits];
+        Random random = new Random(7);
+        for (int i = 0; i < numberOfVisits; i++) {
+            visitedFiles[i] = "File" + random.nextInt(FILES) + ".java";
+            visitedLines[i] = 1 + random.nextInt(LINES_PER_FILE);
+        }
+        System.out.println(setOfBugs.size() + " issues, " + numberOfVisits + " visits");
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            BugIndex bugIndex = new BugIndex(setOfBugs);
+            long indexTime = System.nanoTime() - start;
+            report("index (build " + indexTime / 1000000 + " ms)", numberOfVisits, visitIndexed(bugIndex, visitedFiles, visitedLines));
+            report("linear scan", numberOfVisits, visitLinear(setOfBugs, visitedFiles, visitedLines));
+        }
+    }
+
+    private static JSONArray createIssues(int numberOfIssues)
+    {
+        JSONArray issues = new JSONArray();
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfIssues; i++) {
+            JSONObject issue = new JSONObject();
+            issue.put("key", "issue-" + i);
+            issue.put("component", "se.kth:bench:src/main/java/File" + random.nextInt(FILES) + ".java");
+            issue.put("line", 1 + random.nextInt(LINES_PER_FILE));
+            issue.put("message", "Remove this useless assignment to local variable \"var" + i + "\".");
+            issue.put("flows", new JSONArray());
+            issues.put(issue);
+        }
+        return issues;
+    }
+
+    private static long visitIndexed(BugIndex bugIndex, String[] files, long[] lines)
+    {
+        long start = System.nanoTime();
+        int matches = 0;
+        for (int i = 0; i < files.length; i++) {
+            List<Bug> bugsOnLine = bugIndex.get(files[i], lines[i]);
+            for (Bug bug : bugsOnLine) {
+                matches += bug.getNameTokens().length;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.print(matches + " tokens, ");
+        return elapsed;
+    }
+
+    //the pre-filter and scan the processors did before BugIndex existed
+    private static long visitLinear(Set<Bug> setOfBugs, String[] files, long[] lines)
+    {
+        long start = System.nanoTime();
+        Set<Long> setOfLineNumbers = new HashSet<>();
+        Set<String> setOfFileNames = new HashSet<>();
+        for (Bug bug : setOfBugs) {
+            setOfLineNumbers.add(bug.getLineNumber());
+            setOfFileNames.add(bug.getFileName());
+        }
+        int matches = 0;
+        for (int i = 0; i < files.length; i++) {
+            if (!setOfLineNumbers.contains(lines[i]) || !setOfFileNames.contains(files[i])) {
+                continue;
+            }
+            for (Bug bug : setOfBugs) {
+                if (bug.getLineNumber() != lines[i] || !bug.getFileName().equals(files[i])) {
+                    continue;
+                }
+                matches += bug.getName().split("\"").length;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.print(matches + " tokens, ");
+        return elapsed;
+    }
+
+    private static void report(String name, int visits, long nanos)
+    {
+        double perSecond = visits / (nanos / 1e9);
+        System.out.println(String.format("%-30s %12.0f visits/s", name, perSecond));
+    }
+}
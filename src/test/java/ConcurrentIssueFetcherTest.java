@@ -0,0 +1,167 @@
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+Runs ConcurrentIssueFetcher against a local stub of api/issues/search which answers each request after a delay.
+ */
+class ConcurrentIssueFetcherTest {
+
+    private static final long LATENCY = 100;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private AtomicInteger inFlight = new AtomicInteger();
+    private AtomicInteger maxInFlight = new AtomicInteger();
+    private AtomicInteger requests = new AtomicInteger();
+    private Set<String> failOnce = ConcurrentHashMap.newKeySet();
+    private AtomicInteger analysesRequests = new AtomicInteger();
+    private volatile boolean withTotal = true;
+
+    @BeforeEach
+    void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverThreads);
+        server.createContext("/api/issues/search", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(LATENCY);
+                String query = exchange.getRequestURI().getRawQuery();
+                if (failOnce.remove(query)) {
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                Map<String, String> parameters = SonarIssueClientTest.query(exchange.getRequestURI());
+                String rule = parameters.get("rules").replace("squid:S", "");
+                String component = parameters.get("componentKeys");
+                int page = Integer.parseInt(parameters.get("p"));
+                int pageSize = Integer.parseInt(parameters.get("ps"));
+                SonarIssueClientTest.respond(exchange, page(rule, component, page, pageSize, withTotal).getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.createContext("/api/project_analyses/search", exchange -> {
+            analysesRequests.incrementAndGet();
+            String body = "{\"paging\":{\"pageIndex\":1,\"pageSize\":1,\"total\":1},\"analyses\":[{\"key\":\"a1\",\"date\":\"2018-06-01T10:00:00+0200\"}]}";
+            SonarIssueClientTest.respond(exchange, body.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void fetchesRulesComponentsAndPagesInParallel() throws Exception {
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setPageSize(10);
+        ConcurrentIssueFetcher fetcher = new ConcurrentIssueFetcher(client, 8);
+
+        JSONArray issues = fetcher.fetch(Arrays.asList(1854, 2259), Arrays.asList("se.kth:app", "se.kth:app:module"));
+
+        //4 searches of 45 issues, in 5 pages each. The issues of the module are also issues of the project.
+        assertEquals(20, requests.get());
+        assertEquals(90, issues.length());
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < issues.length(); i++) {
+            keys.add(issues.getJSONObject(i).getString("key"));
+        }
+        assertEquals(90, keys.size());
+        assertTrue(maxInFlight.get() <= 8, "at most 8 requests at a time, got " + maxInFlight.get());
+        //the stub holds each request for LATENCY, so the requests sent in parallel are seen in flight together
+        assertTrue(maxInFlight.get() > 1, "requests were not sent in parallel");
+    }
+
+    @Test
+    void retriesFailedRequests() throws Exception {
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setPageSize(10);
+        failOnce.add(client.getIssueSearchUrl(1854, "", "se.kth:app", 1).split("\\?")[1]);
+        failOnce.add(client.getIssueSearchUrl(1854, "", "se.kth:app", 3).split("\\?")[1]);
+        ConcurrentIssueFetcher fetcher = new ConcurrentIssueFetcher(client, 2);
+        fetcher.setRetries(2, 10);
+
+        JSONArray issues = fetcher.fetch(Arrays.asList(1854), Arrays.asList("se.kth:app"));
+
+        assertEquals(45, issues.length());
+        assertEquals(7, requests.get());
+        assertTrue(failOnce.isEmpty());
+    }
+
+    @Test
+    void requestsAnalysisDateOncePerProject() throws Exception {
+        File cacheDir = Files.createTempDirectory("issue-cache").toFile();
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setPageSize(10);
+        client.setCacheDir(cacheDir);
+        ConcurrentIssueFetcher fetcher = new ConcurrentIssueFetcher(client, 4);
+
+        assertEquals(90, fetcher.fetch(Arrays.asList(1854, 2259), Arrays.asList("se.kth:app", "se.kth:app:module")).length());
+        assertEquals(1, analysesRequests.get());
+        assertEquals(20, requests.get());
+
+        //the 4 searches are read from the cache
+        assertEquals(90, fetcher.fetch(Arrays.asList(1854, 2259), Arrays.asList("se.kth:app", "se.kth:app:module")).length());
+        assertEquals(2, analysesRequests.get());
+        assertEquals(20, requests.get());
+    }
+
+    @Test
+    void fetchesPagesUntilOneIsNotFullWithoutTotal() throws Exception {
+        withTotal = false;
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setPageSize(10);
+        ConcurrentIssueFetcher fetcher = new ConcurrentIssueFetcher(client, 4);
+
+        assertEquals(45, fetcher.fetch(Arrays.asList(1854), Arrays.asList("se.kth:app")).length());
+        assertEquals(5, requests.get());
+    }
+
+    //45 issues per rule and component. The issues of a module have the same keys in the search of its project.
+    private static String page(String rule, String component, int page, int pageSize, boolean withTotal) {
+        JSONArray issues = new JSONArray();
+        for (int i = (page - 1) * pageSize; i < Math.min(page * pageSize, 45); i++) {
+            JSONObject issue = new JSONObject();
+            issue.put("key", "S" + rule + "-" + i);
+            issue.put("rule", "squid:S" + rule);
+            issue.put("component", component + ":src/main/java/File" + i + ".java");
+            issue.put("line", i + 1);
+            issue.put("message", "issue " + i);
+            issue.put("flows", new JSONArray());
+            issues.put(issue);
+        }
+        if (!withTotal) {
+            return "{\"issues\":" + issues + "}";
+        }
+        return "{\"paging\":{\"pageIndex\":" + page + ",\"pageSize\":" + pageSize + ",\"total\":45},\"issues\":" + issues + "}";
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+Runs small shell commands with ProcessRunner.
+ */
+class ProcessRunnerTest {
+
+    private static List<String> sh(String script) {
+        return Arrays.asList("sh", "-c", script);
+    }
+
+    @Test
+    void readsBothOutputsOfAChattyProcess() throws Exception {
+        ProcessRunner runner = new ProcessRunner();
+        runner.setBufferedLines(10);
+        List<String> stdoutLines = Collections.synchronizedList(new ArrayList<>());
+        runner.setStdoutConsumer(stdoutLines::add);
+
+        //much more than a pipe buffer on the error output, which used to be never read
+        ProcessRunner.Result result = runner.start(sh("seq 1 200000 1>&2; seq 1 3; exit 3")).waitFor();
+
+        assertEquals(3, result.getExitCode());
+        assertFalse(result.isSuccess());
+        assertEquals(Arrays.asList("1", "2", "3"), stdoutLines);
+        assertEquals(Arrays.asList("1", "2", "3"), result.getStdout());
+        assertEquals(10, result.getStderr().size());
+        assertEquals("200000", result.getStderr().get(9));
+        assertEquals(199990, result.getDroppedStderrLines());
+    }
+
+    @Test
+    void destroysACommandAfterItsTimeout() throws Exception {
+        ProcessRunner runner = new ProcessRunner();
+        runner.setTimeout(200, TimeUnit.MILLISECONDS);
+
+        ProcessRunner.Result result = runner.run("sleep 10");
+
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertTrue(result.getElapsedMillis() < 5000, "took " + result.getElapsedMillis() + " ms");
+    }
+
+    @Test
+    void cancelsACommand() throws Exception {
+        ProcessRunner.Execution execution = new ProcessRunner().start("sleep 10");
+        assertNull(execution.waitFor(100, TimeUnit.MILLISECONDS));
+
+        assertTrue(execution.cancel());
+        ProcessRunner.Result result = execution.waitFor(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isCancelled());
+        assertFalse(execution.isAlive());
+        assertFalse(execution.cancel());
+    }
+
+    @Test
+    void runsCommandsInParallel() throws Exception {
+        long start = System.currentTimeMillis();
+        List<ProcessRunner.Result> results = new ProcessRunner().runAll(
+                Arrays.asList("sleep 1", "sleep 1", "sleep 1", "sleep 1"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(4, results.size());
+        for (ProcessRunner.Result result : results) {
+            assertEquals(0, result.getExitCode());
+        }
+        assertTrue(elapsed < 3000, "took " + elapsed + " ms");
+    }
+
+    @Test
+    void ringBufferKeepsTheLastLines() {
+        ProcessRunner.LineRingBuffer buffer = new ProcessRunner.LineRingBuffer(3);
+        assertTrue(buffer.getLines().isEmpty());
+        for (int i = 1; i <= 5; i++) {
+            buffer.add("line " + i);
+        }
+        assertEquals(Arrays.asList("line 3", "line 4", "line 5"), buffer.getLines());
+        assertEquals(2, buffer.getDroppedLines());
+    }
+}
@@ -1,30 +1,48 @@
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import spoon.Launcher;
+import spoon.reflect.code.CtAssignment;
+import spoon.reflect.code.CtCodeSnippetStatement;
+import spoon.reflect.code.CtIf;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.code.CtStatementList;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class ProcessorTest {
 
-    private static String projectKey = "se.kth:sonatest";
-
-    @BeforeAll
-    static void updateSonatestAnalysis()
-    {
-        String cdrep = "./src/test/sonarepaired/";
-        String cdtest = "./src/test/sonatest/";
-        TestHelp.copy(cdtest+"src",cdrep+"src");
-        TestHelp.doSonarAnalysis(cdrep);
-        TestHelp.doSonarAnalysis(cdtest);
-    }
+    //issues of se.kth:sonatest exported from SonarQube, so that the repairs do not depend on the server
+    private static String issueExport = "./src/test/resources/sonatest-issues.json";
 
     @Test
     void DeadStore()throws Exception
     {
         String cdtest = "./src/test/sonatest/";
         String pathToFile = "src/main/java/DeadStores.java";
-        TestHelp.repair(cdtest+pathToFile,projectKey,1854);
-        assertFalse(TestHelp.hasSonarBug(pathToFile,1854));
+        IssueSource issues = new ExportFileIssueSource(new File(issueExport));
+        Launcher launcher = TestHelp.repair(cdtest+pathToFile,issues,1854);
+        InProcessVerifier.Verdict verdict = TestHelp.verify(launcher,issues,1854);
+        assertTrue(verdict.isCompiled(), verdict.getCompilerOutput());
+        assertTrue(verdict.isFixed());
+        //the remaining issues are counted by the processor itself : check the repaired model without it
+        assertDeadStoresRemoved(launcher,issues);
     }
 
     @Test
@@ -32,8 +50,108 @@ class ProcessorTest {
     {
         String cdtest = "./src/test/sonatest/";
         String pathToFile = "src/main/java/NullDereferences.java";
-        TestHelp.repair(cdtest+pathToFile,projectKey,2259);
-        assertFalse(TestHelp.hasSonarBug(pathToFile,2259));
+        IssueSource issues = new ExportFileIssueSource(new File(issueExport));
+        Launcher launcher = TestHelp.repair(cdtest+pathToFile,issues,2259);
+        InProcessVerifier.Verdict verdict = TestHelp.verify(launcher,issues,2259);
+        assertTrue(verdict.isCompiled(), verdict.getCompilerOutput());
+        assertTrue(verdict.isFixed());
+        assertNullChecksInserted(launcher);
+    }
+
+    @Test
+    void TargetedRepair()throws Exception
+    {
+        String cdtest = "./src/test/sonatest/";
+        IssueSource issues = new ExportFileIssueSource(new File(issueExport));
+        List<Integer> rulekeys = Arrays.asList(1854,2259);
+        Launcher launcher = TestHelp.repairTargeted(cdtest+"src/main/java",issues,rulekeys,null);
+        //Main.java has no issue, it is not in the model
+        Set<String> types = new TreeSet<>();
+        launcher.getModel().getAllTypes().forEach(type -> types.add(type.getQualifiedName()));
+        assertEquals(new TreeSet<>(Arrays.asList("DeadStores","NullDereferences")),types);
+        assertTrue(TestHelp.verify(launcher,issues,rulekeys).isFixed());
+        assertDeadStoresRemoved(launcher,issues);
+        assertNullChecksInserted(launcher);
+    }
+
+    //no store of the original code is left on the lines of the issues of rule 1854 in DeadStores.java
+    private static void assertDeadStoresRemoved(Launcher launcher, IssueSource issues) throws Exception
+    {
+        Set<Long> lines = new HashSet<>();
+        for(Bug bug:Bug.createSetOfBugs(issues.getIssues(1854)))
+        {
+            if(bug.getFileName().equals("DeadStores.java"))
+            {
+                lines.add(bug.getLineNumber());
+            }
+        }
+        assertFalse(lines.isEmpty());
+        for(CtStatement statement:launcher.getModel().getElements(new TypeFilter<>(CtStatement.class)))
+        {
+            if((statement instanceof CtLocalVariable||statement instanceof CtAssignment)&&statement.getPosition().isValidPosition()
+                    &&statement.getPosition().getFile().getName().equals("DeadStores.java"))
+            {
+                assertFalse(lines.contains((long) statement.getPosition().getLine()), statement.toString());
+            }
+        }
+    }
+
+    //the if statement on each line of an issue of rule 2259 in NullDereferences.java is preceded by one null check
+    //of the variable of the issue
+    private static void assertNullChecksInserted(Launcher launcher)
+    {
+        Map<Integer, String> variablesByLine = new HashMap<>();
+        variablesByLine.put(9,"b");
+        variablesByLine.put(10,"str");
+        variablesByLine.put(11,"str");
+        CtType<?> type = launcher.getFactory().Type().get("NullDereferences");
+        List<CtIf> checkedStatements = new ArrayList<>();
+        for(CtIf statement:type.getElements(new TypeFilter<>(CtIf.class)))
+        {
+            if(!statement.getPosition().isValidPosition()||!variablesByLine.containsKey(statement.getPosition().getLine()))
+            {
+                continue;
+            }
+            String variable = variablesByLine.get(statement.getPosition().getLine());
+            List<CtStatement> statements = ((CtStatementList) statement.getParent()).getStatements();
+            int index = -1;
+            for(int i=0;i<statements.size();i++)
+            {
+                if(statements.get(i)==statement)//indexOf would compare the statements by equals
+                {
+                    index = i;
+                }
+            }
+            assertTrue(index>0, statement.toString());
+            assertTrue(statements.get(index-1) instanceof CtCodeSnippetStatement, statements.get(index-1).toString());
+            assertEquals(String.format("if (%s == null) throw new IllegalStateException(\"[Spoon inserted check], %s might be null\");",variable,variable),
+                    ((CtCodeSnippetStatement) statements.get(index-1)).getValue());
+            checkedStatements.add(statement);
+        }
+        assertEquals(variablesByLine.size(),checkedStatements.size());
+        assertEquals(variablesByLine.size(),type.getElements(new TypeFilter<>(CtCodeSnippetStatement.class)).size());
+    }
+
+    @Test
+    void PatchOfTheRepairedFilesOnly()throws Exception
+    {
+        String cdtest = "./src/test/sonatest/";
+        IssueSource issues = new ExportFileIssueSource(new File(issueExport));
+        File patch = File.createTempFile("sonatest", ".patch");
+        try {
+            TestHelp.setPatchFile(patch);
+            TestHelp.repair(cdtest+"src/main/java",issues,1854);
+            String diff = new String(Files.readAllBytes(patch.toPath()), StandardCharsets.UTF_8);
+            assertTrue(diff.contains("--- a/src/test/sonatest/src/main/java/DeadStores.java"));
+            assertTrue(diff.contains("-        int x=5;"));
+            assertFalse(diff.contains("NullDereferences.java"));
+            assertFalse(diff.contains("Main.java"));
+            ProcessRunner.Result check = new ProcessRunner().run("git apply --check "+patch.getPath());
+            assertTrue(check.isSuccess(), String.join("\n", check.getStderr()));
+        } finally {
+            TestHelp.setPatchFile(null);
+            patch.delete();
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+Runs SonarIssueClient against a local stub of the SonarQube web api, so it needs no network access.
+ */
+class SonarIssueClientTest {
+
+    private static final int ISSUES = 1234;
+
+    private HttpServer server;
+    private AtomicInteger searchRequests = new AtomicInteger();
+    private String analysisDate = "2018-06-01T10:00:00+0200";
+    private boolean analysesUnavailable;
+
+    @BeforeEach
+    void startStubServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/issues/search", exchange -> {
+            searchRequests.incrementAndGet();
+            Map<String, String> query = query(exchange.getRequestURI());
+            int page = Integer.parseInt(query.get("p"));
+            int pageSize = Integer.parseInt(query.get("ps"));
+            respond(exchange, issuePage(page, pageSize).getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/api/project_analyses/search", exchange -> {
+            if (analysesUnavailable) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            String body = "{\"paging\":{\"pageIndex\":1,\"pageSize\":1,\"total\":3},\"analyses\":[{\"key\":\"a1\",\"date\":\"" + analysisDate + "\"}]}";
+            respond(exchange, body.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesEveryPage() throws Exception {
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setPageSize(100);
+        JSONArray issues = client.fetch(1854, "", "se.kth:sonatest");
+        assertEquals(ISSUES, issues.length());
+        assertEquals(13, searchRequests.get());
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < issues.length(); i++) {
+            keys.add(issues.getJSONObject(i).getString("key"));
+        }
+        assertEquals(ISSUES, keys.size());
+    }
+
+    @Test
+    void readsIssuesFromCacheUntilNextAnalysis() throws Exception {
+        File cacheDir = Files.createTempDirectory("issue-cache").toFile();
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setCacheDir(cacheDir);
+
+        assertEquals(ISSUES, client.fetch(1854, "", "se.kth:sonatest").length());
+        int requests = searchRequests.get();
+        assertEquals(ISSUES, client.fetch(1854, "", "se.kth:sonatest").length());
+        assertEquals(requests, searchRequests.get());
+
+        analysisDate = "2018-06-02T10:00:00+0200";
+        assertEquals(ISSUES, client.fetch(1854, "", "se.kth:sonatest").length());
+        assertTrue(searchRequests.get() > requests);
+    }
+
+    @Test
+    void readsIssuesFromCacheWhenAnalysisDateIsUnavailable() throws Exception {
+        File cacheDir = Files.createTempDirectory("issue-cache").toFile();
+        SonarIssueClient client = new SonarIssueClient("http://localhost:" + server.getAddress().getPort());
+        client.setCacheDir(cacheDir);
+
+        assertEquals(ISSUES, client.fetch(1854, "", "se.kth:sonatest").length());
+        int requests = searchRequests.get();
+        analysesUnavailable = true;
+        assertEquals(ISSUES, client.fetch(1854, "", "se.kth:sonatest").length());
+        assertEquals(requests, searchRequests.get());
+
+        //no cached issues for another rule : they are fetched, and not cached without the analysis date
+        assertEquals(ISSUES, client.fetch(2259, "", "se.kth:sonatest").length());
+        assertTrue(searchRequests.get() > requests);
+        assertEquals(1, cacheDir.listFiles().length);
+    }
+
+    @Test
+    void cacheFileNamesOfDifferentSearchesDiffer() {
+        String date = "2018-06-01T10:00:00+0200";
+        assertNotEquals(SonarIssueClient.cacheFileName("se.kth:a.b", "", 1854, date), SonarIssueClient.cacheFileName("se.kth:a_b", "", 1854, date));
+        assertNotEquals(SonarIssueClient.cacheFileName("se.kth:a", "b", 1854, date), SonarIssueClient.cacheFileName("se.kth:a_b", "", 1854, date));
+        assertNotEquals(SonarIssueClient.cacheFileName("se.kth:a", "", 1854, date), SonarIssueClient.cacheFileName("se.kth:a", "", 1854, "2018-06-01T10_00_00+0200"));
+        assertEquals(SonarIssueClient.cacheFileName("se.kth:a", "", 1854, date), SonarIssueClient.cacheFileName("se.kth:a", "", 1854, date));
+    }
+
+    @Test
+    void streamsIssuesOfRecordedResponse() throws Exception {
+        File recorded = File.createTempFile("issues", ".json");
+        recorded.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(recorded)) {
+            out.write(issuePage(1, 50).getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> keys = new ArrayList<>();
+        int count = SonarIssueClient.readIssues(recorded, issue -> keys.add(issue.getString("key")));
+        assertEquals(50, count);
+        assertEquals("AW-0", keys.get(0));
+        assertEquals("AW-49", keys.get(49));
+    }
+
+    //a page of api/issues/search, with the paging information before and after the issues as real responses have
+    static String issuePage(int page, int pageSize) {
+        JSONArray issues = new JSONArray();
+        for (int i = (page - 1) * pageSize; i < Math.min(page * pageSize, ISSUES); i++) {
+            JSONObject issue = new JSONObject();
+            issue.put("key", "AW-" + i);
+            issue.put("rule", "squid:S1854");
+            issue.put("component", "se.kth:sonatest:src/main/java/File" + (i % 10) + ".java");
+            issue.put("line", i + 1);
+            issue.put("message", "Remove this useless assignment to local variable \"x" + i + "\".");
+            issue.put("flows", new JSONArray());
+            issues.put(issue);
+        }
+        return "{\"total\":" + ISSUES + ",\"p\":" + page + ",\"ps\":" + pageSize
+                + ",\"paging\":{\"pageIndex\":" + page + ",\"pageSize\":" + pageSize + ",\"total\":" + ISSUES + "}"
+                + ",\"issues\":" + issues + ",\"components\":[{\"key\":\"se.kth:sonatest\"}],\"facets\":[]}";
+    }
+
+    static Map<String, String> query(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        for (String parameter : uri.getQuery().split("&")) {
+            String[] pair = parameter.split("=", 2);
+            query.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        return query;
+    }
+
+    static void respond(com.sun.net.httpserver.HttpExchange exchange, byte[] body) throws java.io.IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnifiedDiffTest {
+
+    private static List<String> lines(int from, int to) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            lines.add("line " + i);
+        }
+        return lines;
+    }
+
+    @Test
+    void sameLinesHaveNoDiff() {
+        assertTrue(UnifiedDiff.diff("a", lines(1, 10), "b", lines(1, 10), 3).isEmpty());
+        assertTrue(UnifiedDiff.diff("a", Collections.emptyList(), "b", Collections.emptyList(), 3).isEmpty());
+    }
+
+    @Test
+    void changedLineWithContext() {
+        List<String> revised = lines(1, 10);
+        revised.set(4, "changed");
+        assertEquals(Arrays.asList(
+                "--- a",
+                "+++ b",
+                "@@ -2,7 +2,7 @@",
+                " line 2",
+                " line 3",
+                " line 4",
+                "-line 5",
+                "+changed",
+                " line 6",
+                " line 7",
+                " line 8"),
+                UnifiedDiff.diff("a", lines(1, 10), "b", revised, 3));
+    }
+
+    @Test
+    void distantChangesAreInSeparateHunks() {
+        List<String> revised = lines(1, 20);
+        revised.remove(1);//line 2
+        revised.add(17, "inserted");//before line 19
+        assertEquals(Arrays.asList(
+                "--- a",
+                "+++ b",
+                "@@ -1,5 +1,4 @@",
+                " line 1",
+                "-line 2",
+                " line 3",
+                " line 4",
+                " line 5",
+                "@@ -16,5 +15,6 @@",
+                " line 16",
+                " line 17",
+                " line 18",
+                "+inserted",
+                " line 19",
+                " line 20"),
+                UnifiedDiff.diff("a", lines(1, 20), "b", revised, 3));
+    }
+
+    @Test
+    void fileCreatedFromNothing() {
+        assertEquals(Arrays.asList("--- a", "+++ b", "@@ -0,0 +1,2 @@", "+line 1", "+line 2"),
+                UnifiedDiff.diff("a", Collections.emptyList(), "b", lines(1, 2), 3));
+    }
+
+    @Test
+    void interleavedChanges() {
+        List<String> original = Arrays.asList("a", "b", "c", "a", "b", "b", "a");
+        List<String> revised = Arrays.asList("c", "b", "a", "b", "a", "c");
+        List<String> diff = UnifiedDiff.diff("x", original, "y", revised, 3);
+        //applying the diff to the original gives the revised lines
+        List<String> applied = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        int changes = 0;
+        for (String line : diff.subList(3, diff.size())) {
+            if (line.startsWith("+")) {
+                applied.add(line.substring(1));
+                changes++;
+            } else if (line.startsWith("-")) {
+                removed.add(line.substring(1));
+                changes++;
+            } else {
+                applied.add(line.substring(1));
+                removed.add(line.substring(1));
+            }
+        }
+        assertEquals(revised, applied);
+        assertEquals(original, removed);
+        //the shortest edit script of this example of Myers has 5 edits
+        assertEquals(5, changes);
+    }
+}